@@ -3,9 +3,13 @@ package gg.modl.backend;
 import io.github.cdimascio.dotenv.Dotenv;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class BackendApplication {
+    private static final int STARTUP_TIMELINE_CAPACITY = 4096;
 
     public static void main(String[] args) {
         final Dotenv dotenv = Dotenv.load();
@@ -13,7 +17,10 @@ public class BackendApplication {
                 System.setProperty(entry.getKey(), entry.getValue())
         );
 
-        SpringApplication.run(BackendApplication.class, args);
+        // Keeps a timeline of bean initialization so the warm-up runner can log the slowest startup steps
+        SpringApplication application = new SpringApplication(BackendApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_TIMELINE_CAPACITY));
+        application.run(args);
     }
 
 }
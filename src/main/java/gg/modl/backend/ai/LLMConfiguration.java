@@ -1,5 +1,6 @@
 package gg.modl.backend.ai;
 
+import gg.modl.backend.ai.external.LocalLatencyDistribution;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -10,8 +11,26 @@ import org.springframework.stereotype.Component;
 @Getter
 @Setter
 public class LLMConfiguration {
+    private LLMProviderType provider = LLMProviderType.GEMINI;
+
     private String geminiApiKey;
     private float geminiTemperature;
     private int geminiMaxOutputTokens;
     private float geminiTopP;
+
+    private int maxConcurrentRequests = 16;
+    private int maxConcurrentRequestsPerServer = 4;
+    private long acquireTimeoutMillis = 10_000;
+    private long cacheTtlSeconds = 60 * 60;
+    private int cacheMaxEntries = 10_000;
+
+    // Local provider, only used when provider is LOCAL
+    private long localSeed = 42;
+    private LocalLatencyDistribution localLatencyDistribution = LocalLatencyDistribution.LOG_NORMAL;
+    private long localLatencyMillis = 400;
+    private long localLatencyJitterMillis = 200;
+    private double localLatencySigma = 0.5;
+    private int localTokensPerSecond = 200;
+    private int localResponseTokens = 64;
+    private double localFailureRate = 0;
 }
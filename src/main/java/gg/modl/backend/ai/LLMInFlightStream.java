@@ -0,0 +1,93 @@
+package gg.modl.backend.ai;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+// One streaming provider call shared by every caller that asked for the same prompt while it ran. The caller that
+// started it publishes chunks as they arrive, the others replay what they missed and then follow along. A lock rather
+// than synchronized, callers run on virtual threads and waiting on a monitor would pin their carrier
+public class LLMInFlightStream {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final List<String> chunks = new ArrayList<>();
+    private boolean done;
+    private String response;
+    private RuntimeException failure;
+
+    public void publish(@NotNull String chunk) {
+        lock.lock();
+        try {
+            chunks.add(chunk);
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void complete(@NotNull String response) {
+        finish(response, null);
+    }
+
+    public void fail(@NotNull RuntimeException failure) {
+        finish(null, failure);
+    }
+
+    // Hands every chunk to onChunk in order, on the calling thread and never under the lock, and returns the full
+    // response once the call that started the stream has finished
+    @NotNull
+    public String follow(@NotNull Consumer<String> onChunk, long timeoutMillis) throws TimeoutException {
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        int emitted = 0;
+        while (true) {
+            List<String> next;
+            boolean finished;
+            lock.lock();
+            try {
+                while (emitted == chunks.size() && !done) {
+                    long remainingNanos = deadlineNanos - System.nanoTime();
+                    if (remainingNanos <= 0) {
+                        throw new TimeoutException();
+                    }
+                    changed.awaitNanos(remainingNanos);
+                }
+                next = List.copyOf(chunks.subList(emitted, chunks.size()));
+                finished = done;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TimeoutException();
+            } finally {
+                lock.unlock();
+            }
+
+            next.forEach(onChunk);
+            emitted += next.size();
+            // Nothing is published after done, so once a finished snapshot has been emitted there is nothing left
+            if (finished) {
+                if (failure != null) {
+                    throw failure;
+                }
+                return response;
+            }
+        }
+    }
+
+    private void finish(@Nullable String response, @Nullable RuntimeException failure) {
+        lock.lock();
+        try {
+            this.response = response;
+            this.failure = failure;
+            this.done = true;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
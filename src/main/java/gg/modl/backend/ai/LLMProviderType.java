@@ -0,0 +1,6 @@
+package gg.modl.backend.ai;
+
+public enum LLMProviderType {
+    GEMINI,
+    LOCAL
+}
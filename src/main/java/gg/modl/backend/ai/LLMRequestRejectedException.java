@@ -0,0 +1,7 @@
+package gg.modl.backend.ai;
+
+public class LLMRequestRejectedException extends RuntimeException {
+    public LLMRequestRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,45 @@
+package gg.modl.backend.ai;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class LLMResponseCache {
+    private final long ttlMillis;
+    private final Map<String, CachedResponse> entries;
+
+    public LLMResponseCache(long ttlMillis, int maxEntries) {
+        this.ttlMillis = ttlMillis;
+        // Access ordered so the least recently used response is evicted first once full
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    @Nullable
+    public String get(@NotNull String key) {
+        CachedResponse cached = entries.get(key);
+        if (cached == null) {
+            return null;
+        }
+
+        if (cached.expiresAt() < System.currentTimeMillis()) {
+            entries.remove(key, cached);
+            return null;
+        }
+
+        return cached.response();
+    }
+
+    public void put(@NotNull String key, @NotNull String response) {
+        entries.put(key, new CachedResponse(response, System.currentTimeMillis() + ttlMillis));
+    }
+
+    private record CachedResponse(String response, long expiresAt) {}
+}
@@ -2,14 +2,218 @@ package gg.modl.backend.ai;
 
 import gg.modl.backend.ai.external.GeminiLLMProvider;
 import gg.modl.backend.ai.external.LLMProvider;
-import lombok.RequiredArgsConstructor;
+import gg.modl.backend.ai.external.LocalLLMProvider;
+import gg.modl.backend.ai.external.StreamingLLMProvider;
+import gg.modl.backend.resilience.DependencyName;
+import gg.modl.backend.resilience.DependencyUnavailableException;
+import gg.modl.backend.resilience.RequestDeadline;
+import gg.modl.backend.resilience.ResilienceConfiguration;
+import gg.modl.backend.resilience.ResilienceService;
+import gg.modl.backend.server.data.Server;
+import gg.modl.backend.usage.UsageMeteringService;
+import org.jetbrains.annotations.NotNull;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
 @Service
-@RequiredArgsConstructor
 public class LLMService {
     private final LLMConfiguration config;
-    private final LLMProvider llmProvider = new GeminiLLMProvider(config);
+    private final UsageMeteringService usageMeteringService;
+    private final ResilienceService resilienceService;
+    private final ResilienceConfiguration resilienceConfiguration;
+    private final LLMProvider llmProvider;
+    private final LLMResponseCache responseCache;
+    private final Semaphore providerLimiter;
+    private final ConcurrentMap<String, Semaphore> serverLimiters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<String>> inFlightRequests = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LLMInFlightStream> inFlightStreams = new ConcurrentHashMap<>();
+
+    public LLMService(LLMConfiguration config, UsageMeteringService usageMeteringService, ResilienceService resilienceService,
+                      ResilienceConfiguration resilienceConfiguration) {
+        this.config = config;
+        this.usageMeteringService = usageMeteringService;
+        this.resilienceService = resilienceService;
+        this.resilienceConfiguration = resilienceConfiguration;
+        this.llmProvider = switch (config.getProvider()) {
+            case GEMINI -> new GeminiLLMProvider(config);
+            case LOCAL -> new LocalLLMProvider(config);
+        };
+        this.responseCache = new LLMResponseCache(TimeUnit.SECONDS.toMillis(config.getCacheTtlSeconds()), config.getCacheMaxEntries());
+        this.providerLimiter = new Semaphore(config.getMaxConcurrentRequests(), true);
+    }
+
+    public @NotNull String generate(@NotNull Server server, @NotNull String prompt) {
+        String key = cacheKey(server, prompt);
+
+        String cached = responseCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Identical prompts that arrive while one is already running wait for that result instead of calling again
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlightRequests.putIfAbsent(key, pending);
+        if (existing != null) {
+            return awaitResponse(existing);
+        }
+
+        try {
+            String response = responseCache.get(key);
+            if (response == null) {
+                response = executeLimited(server, () -> llmProvider.generate(prompt));
+                responseCache.put(key, response);
+            }
+
+            pending.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightRequests.remove(key, pending);
+        }
+    }
+
+    public @NotNull String generateStream(@NotNull Server server, @NotNull String prompt, @NotNull Consumer<String> onChunk) {
+        String key = cacheKey(server, prompt);
+
+        String cached = responseCache.get(key);
+        if (cached != null) {
+            onChunk.accept(cached);
+            return cached;
+        }
+
+        // Same coalescing as generate, a caller joining a running stream still gets every chunk as it arrives
+        LLMInFlightStream stream = new LLMInFlightStream();
+        LLMInFlightStream existing = inFlightStreams.putIfAbsent(key, stream);
+        if (existing != null) {
+            try {
+                return existing.follow(onChunk, coalescedWaitMillis());
+            } catch (TimeoutException e) {
+                throw new DependencyUnavailableException(DependencyName.LLM, DependencyUnavailableException.Reason.TIMEOUT);
+            }
+        }
+
+        Consumer<String> publishing = chunk -> {
+            stream.publish(chunk);
+            onChunk.accept(chunk);
+        };
+        try {
+            String response = executeLimited(server, () -> {
+                if (llmProvider instanceof StreamingLLMProvider streamingProvider) {
+                    return streamingProvider.generateStream(prompt, publishing);
+                }
+
+                String text = llmProvider.generate(prompt);
+                publishing.accept(text);
+                return text;
+            });
+
+            responseCache.put(key, response);
+            stream.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            stream.fail(e);
+            throw e;
+        } finally {
+            inFlightStreams.remove(key, stream);
+        }
+    }
+
+    public boolean isConnected() {
+        return llmProvider.isConnected();
+    }
+
+    public @NotNull LLMProvider getProvider() {
+        return llmProvider;
+    }
+
+    private <T> T executeLimited(Server server, Supplier<T> call) {
+        Semaphore serverLimiter = serverLimiters.computeIfAbsent(server.getId(),
+                __ -> new Semaphore(config.getMaxConcurrentRequestsPerServer(), true));
+
+        acquire(serverLimiter, "Too many concurrent AI requests for this server.");
+        try {
+            acquire(providerLimiter, "AI provider is at capacity.");
+            try {
+                T result = resilienceService.execute(DependencyName.LLM, call);
+                recordUsage(server);
+                return result;
+            } finally {
+                providerLimiter.release();
+            }
+        } finally {
+            serverLimiter.release();
+        }
+    }
+
+    private void acquire(Semaphore limiter, String rejectionMessage) {
+        try {
+            if (!limiter.tryAcquire(config.getAcquireTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                throw new LLMRequestRejectedException(rejectionMessage);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LLMRequestRejectedException(rejectionMessage);
+        }
+    }
+
+    // Only calls that actually reach the provider count towards billing, cache hits and coalesced waits are free
+    private void recordUsage(Server server) {
+        usageMeteringService.recordAiRequest(server);
+    }
+
+    // Waits no longer than the call being joined could take, so a hung provider call cannot hold its followers forever
+    private String awaitResponse(CompletableFuture<String> future) {
+        try {
+            return future.get(coalescedWaitMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new DependencyUnavailableException(DependencyName.LLM, DependencyUnavailableException.Reason.TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DependencyUnavailableException(DependencyName.LLM, DependencyUnavailableException.Reason.TIMEOUT);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
 
+    // The running call may wait on both limiters before the provider timeout starts, capped by this request's deadline
+    private long coalescedWaitMillis() {
+        long waitMillis = 2 * config.getAcquireTimeoutMillis() + resilienceConfiguration.getPolicy(DependencyName.LLM).getTimeoutMillis();
+        var remainingMillis = RequestDeadline.remainingMillis();
+        if (remainingMillis.isPresent()) {
+            waitMillis = Math.min(waitMillis, Math.max(0, remainingMillis.getAsLong()));
+        }
+        return waitMillis;
+    }
 
+    // Scoped to the tenant, prompts carry tenant data and one server must never be answered from another's response.
+    // Keyed on the server id, which every server has, unlike the database name
+    private String cacheKey(Server server, String prompt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(server.getId().getBytes(StandardCharsets.UTF_8));
+            // Separator, so the server id and prompt boundary cannot shift between keys
+            digest.update((byte) 0);
+            return HexFormat.of().formatHex(digest.digest(prompt.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e);
+        }
+    }
 }
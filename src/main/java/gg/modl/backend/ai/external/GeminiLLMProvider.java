@@ -1,14 +1,18 @@
 package gg.modl.backend.ai.external;
 
 import com.google.genai.Client;
+import com.google.genai.ResponseStream;
+import com.google.genai.errors.ServerException;
 import com.google.genai.types.GenerateContentConfig;
 import com.google.genai.types.GenerateContentResponse;
 import gg.modl.backend.ai.LLMConfiguration;
+import gg.modl.backend.resilience.DependencyFaultException;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Objects;
+import java.util.function.Consumer;
 
-public class GeminiLLMProvider implements LLMProvider {
+public class GeminiLLMProvider implements StreamingLLMProvider {
     private static final String GEMINI_MODEL_ID = "gemini-2.5-flash-lite";
 
     private final Client client;
@@ -21,19 +25,48 @@ public class GeminiLLMProvider implements LLMProvider {
                 .build();
     }
 
+    // 5xx responses are Gemini's own failures and count against its circuit breaker, 4xx ones are left as they are
     @Override
     public @NotNull String generate(@NotNull String prompt) {
-        GenerateContentResponse result = client.models.generateContent(GEMINI_MODEL_ID, prompt, GenerateContentConfig.builder()
-                .temperature(configuration.getGeminiTemperature())
-                .topP(configuration.getGeminiTopP())
-                .maxOutputTokens(configuration.getGeminiMaxOutputTokens())
-                .build());
+        GenerateContentResponse result;
+        try {
+            result = client.models.generateContent(GEMINI_MODEL_ID, prompt, buildContentConfig());
+        } catch (ServerException e) {
+            throw new DependencyFaultException("Gemini API returned " + e.code() + ".", e);
+        }
 
         return Objects.requireNonNull(result.text(), "Failed to get response from Gemini API.");
     }
 
+    @Override
+    public @NotNull String generateStream(@NotNull String prompt, @NotNull Consumer<String> onChunk) {
+        StringBuilder text = new StringBuilder();
+
+        try (ResponseStream<GenerateContentResponse> stream = client.models.generateContentStream(GEMINI_MODEL_ID, prompt, buildContentConfig())) {
+            for (GenerateContentResponse response : stream) {
+                String chunk = response.text();
+                if (chunk != null && !chunk.isEmpty()) {
+                    text.append(chunk);
+                    onChunk.accept(chunk);
+                }
+            }
+        } catch (ServerException e) {
+            throw new DependencyFaultException("Gemini API returned " + e.code() + ".", e);
+        }
+
+        return text.toString();
+    }
+
     @Override
     public boolean isConnected() {
         return true; // TODO: test connection
     }
+
+    private GenerateContentConfig buildContentConfig() {
+        return GenerateContentConfig.builder()
+                .temperature(configuration.getGeminiTemperature())
+                .topP(configuration.getGeminiTopP())
+                .maxOutputTokens(configuration.getGeminiMaxOutputTokens())
+                .build();
+    }
 }
@@ -0,0 +1,101 @@
+package gg.modl.backend.ai.external;
+
+import gg.modl.backend.ai.LLMConfiguration;
+import gg.modl.backend.resilience.DependencyFaultException;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// Offline stand-in for load testing. The same prompt always yields the same text and latency for a given seed.
+public class LocalLLMProvider implements StreamingLLMProvider {
+    private static final String[] VOCABULARY = {
+            "player", "chat", "message", "appears", "to", "violate", "rules", "no",
+            "spam", "toxicity", "detected", "mild", "severe", "recommend", "mute", "warning",
+            "ban", "context", "review", "staff", "evidence", "insufficient", "clear", "harassment"
+    };
+
+    private final LLMConfiguration configuration;
+    private final Random failureRandom;
+    private final AtomicLong generatedResponses = new AtomicLong();
+
+    public LocalLLMProvider(LLMConfiguration config) {
+        this.configuration = config;
+        this.failureRandom = new Random(config.getLocalSeed());
+    }
+
+    @Override
+    public @NotNull String generate(@NotNull String prompt) {
+        return generateStream(prompt, __ -> {});
+    }
+
+    @Override
+    public @NotNull String generateStream(@NotNull String prompt, @NotNull Consumer<String> onChunk) {
+        generatedResponses.incrementAndGet();
+        SplittableRandom random = new SplittableRandom(configuration.getLocalSeed() ^ prompt.hashCode());
+
+        sleep(sampleLatencyMillis(random));
+        if (shouldFail()) {
+            throw new DependencyFaultException("Injected local LLM failure.");
+        }
+
+        long tokenDelayMillis = 1000L / Math.max(1, configuration.getLocalTokensPerSecond());
+        StringBuilder text = new StringBuilder();
+
+        for (int i = 0; i < configuration.getLocalResponseTokens(); i++) {
+            String token = (i == 0 ? "" : " ") + VOCABULARY[random.nextInt(VOCABULARY.length)];
+            sleep(tokenDelayMillis);
+            text.append(token);
+            onChunk.accept(token);
+        }
+
+        return text.toString();
+    }
+
+    @Override
+    public boolean isConnected() {
+        return true;
+    }
+
+    public long getGeneratedResponses() {
+        return generatedResponses.get();
+    }
+
+    private long sampleLatencyMillis(SplittableRandom random) {
+        double mean = configuration.getLocalLatencyMillis();
+
+        double latency = switch (configuration.getLocalLatencyDistribution()) {
+            case FIXED -> mean;
+            case UNIFORM -> mean + (random.nextDouble() * 2 - 1) * configuration.getLocalLatencyJitterMillis();
+            case EXPONENTIAL -> -mean * Math.log(1 - random.nextDouble());
+            case LOG_NORMAL -> {
+                double sigma = configuration.getLocalLatencySigma();
+                // Shifted by -sigma^2/2 so the distribution mean stays at the configured latency
+                yield mean * Math.exp(sigma * random.nextGaussian() - sigma * sigma / 2);
+            }
+        };
+
+        return Math.max(0, Math.round(latency));
+    }
+
+    private boolean shouldFail() {
+        synchronized (failureRandom) {
+            return failureRandom.nextDouble() < configuration.getLocalFailureRate();
+        }
+    }
+
+    private void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while simulating LLM latency.", e);
+        }
+    }
+}
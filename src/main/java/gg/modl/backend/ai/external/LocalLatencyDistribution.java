@@ -0,0 +1,8 @@
+package gg.modl.backend.ai.external;
+
+public enum LocalLatencyDistribution {
+    FIXED,
+    UNIFORM,
+    EXPONENTIAL,
+    LOG_NORMAL
+}
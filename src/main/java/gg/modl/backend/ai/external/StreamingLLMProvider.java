@@ -0,0 +1,11 @@
+package gg.modl.backend.ai.external;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Consumer;
+
+public interface StreamingLLMProvider extends LLMProvider {
+    // Emits chunks to onChunk as they arrive and returns the full text once the response is complete
+    @NotNull
+    String generateStream(@NotNull String prompt, @NotNull Consumer<String> onChunk);
+}
@@ -0,0 +1,18 @@
+package gg.modl.backend.ai.loadtest;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "modl.llm.load-test")
+@Getter
+@Setter
+public class LLMLoadTestConfiguration {
+    private boolean enabled = false;
+    private int servers = 8;
+    private int threads = 64;
+    private int requests = 5_000;
+    private int distinctPrompts = 500;
+}
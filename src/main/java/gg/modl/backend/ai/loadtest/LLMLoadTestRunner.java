@@ -0,0 +1,105 @@
+package gg.modl.backend.ai.loadtest;
+
+import gg.modl.backend.ai.LLMConfiguration;
+import gg.modl.backend.ai.LLMProviderType;
+import gg.modl.backend.ai.LLMRequestRejectedException;
+import gg.modl.backend.ai.LLMService;
+import gg.modl.backend.ai.external.LocalLLMProvider;
+import gg.modl.backend.server.data.Server;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Drives LLMService end to end against the local provider and logs throughput, latency percentiles,
+// limiter rejections and how many prompts were answered without reaching the provider.
+@Component
+@ConditionalOnProperty(prefix = "modl.llm.load-test", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class LLMLoadTestRunner implements ApplicationRunner {
+    private final LLMService llmService;
+    private final LLMConfiguration llmConfiguration;
+    private final LLMLoadTestConfiguration configuration;
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        if (llmConfiguration.getProvider() != LLMProviderType.LOCAL) {
+            log.warn("Skipping LLM load test, modl.llm.provider must be LOCAL to avoid paid provider calls.");
+            return;
+        }
+
+        List<Server> servers = new ArrayList<>();
+        for (int i = 0; i < configuration.getServers(); i++) {
+            Server server = new Server("load-test-" + i, "load-test-" + i, "server_load-test-" + i);
+            server.setId(new ObjectId().toHexString());
+            servers.add(server);
+        }
+
+        int requests = configuration.getRequests();
+        long[] latenciesNanos = new long[requests];
+        AtomicLong completed = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+
+        ExecutorService executor = Executors.newFixedThreadPool(configuration.getThreads());
+        long startNanos = System.nanoTime();
+
+        for (int i = 0; i < requests; i++) {
+            int index = i;
+            executor.execute(() -> {
+                Server server = servers.get(index % servers.size());
+                String prompt = "load-test prompt #" + (index % configuration.getDistinctPrompts());
+                long requestStart = System.nanoTime();
+
+                try {
+                    llmService.generate(server, prompt);
+                    completed.incrementAndGet();
+                } catch (LLMRequestRejectedException e) {
+                    rejected.incrementAndGet();
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                } finally {
+                    latenciesNanos[index] = System.nanoTime() - requestStart;
+                }
+            });
+        }
+
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.HOURS);
+
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+        Arrays.sort(latenciesNanos);
+
+        long providerCalls = llmService.getProvider() instanceof LocalLLMProvider localProvider
+                ? localProvider.getGeneratedResponses()
+                : -1;
+
+        log.info("LLM load test: {} requests in {}s ({} req/s), completed={}, rejected={}, failed={}, providerCalls={}",
+                requests, "%.2f".formatted(elapsedSeconds), "%.1f".formatted(requests / elapsedSeconds),
+                completed.get(), rejected.get(), failed.get(), providerCalls);
+        log.info("LLM load test latency: p50={}ms p95={}ms p99={}ms max={}ms",
+                percentileMillis(latenciesNanos, 0.50), percentileMillis(latenciesNanos, 0.95),
+                percentileMillis(latenciesNanos, 0.99), percentileMillis(latenciesNanos, 1));
+    }
+
+    private long percentileMillis(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+
+        int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(percentile * sortedNanos.length) - 1);
+        return TimeUnit.NANOSECONDS.toMillis(sortedNanos[Math.max(0, index)]);
+    }
+}
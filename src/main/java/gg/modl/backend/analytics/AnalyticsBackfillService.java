@@ -0,0 +1,144 @@
+package gg.modl.backend.analytics;
+
+import gg.modl.backend.analytics.data.AnalyticsBucket;
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.database.DynamicMongoTemplateProvider;
+import gg.modl.backend.player.PlayerField;
+import gg.modl.backend.player.PunishmentField;
+import gg.modl.backend.server.data.Server;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Service
+@Slf4j
+public class AnalyticsBackfillService {
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    private final DynamicMongoTemplateProvider mongoProvider;
+    private final AnalyticsRollupService rollupService;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<String> runningDatabases = ConcurrentHashMap.newKeySet();
+
+    public AnalyticsBackfillService(DynamicMongoTemplateProvider mongoProvider, AnalyticsRollupService rollupService) {
+        this.mongoProvider = mongoProvider;
+        this.rollupService = rollupService;
+    }
+
+    public boolean startBackfill(@NotNull Server server) {
+        if (!runningDatabases.add(server.getDatabaseName())) {
+            return false;
+        }
+
+        executor.execute(() -> {
+            try {
+                backfill(server);
+            } catch (RuntimeException e) {
+                log.error("Analytics backfill failed for {}", server.getDatabaseName(), e);
+            } finally {
+                runningDatabases.remove(server.getDatabaseName());
+            }
+        });
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Rebuilds every BACKFILL bucket from player documents, so running it again replaces rather than adds.
+    // Only joins and punishments can be recovered, logins were never stored per event before rollups existed
+    private void backfill(Server server) {
+        Instant cutoff = rollupService.getLiveSince(server).toInstant();
+        MongoTemplate mongo = mongoProvider.getFromDatabaseName(server.getDatabaseName());
+        Map<String, AnalyticsBucket> buckets = new HashMap<>();
+
+        Query query = new Query();
+        query.fields().include(PlayerField.USERNAME_DATE, PlayerField.PUNISHMENT_TYPE_ORDINAL,
+                PlayerField.PUNISHMENT_ISSUER_NAME, PlayerField.PUNISHMENT_ISSUED);
+
+        long players = 0;
+        try (Stream<Document> stream = mongo.stream(query, Document.class, CollectionName.PLAYERS)) {
+            for (Document player : (Iterable<Document>) stream::iterator) {
+                players++;
+                Date joined = earliestUsernameDate(player);
+                if (joined != null && joined.toInstant().isBefore(cutoff)) {
+                    forEachBucket(buckets, joined.toInstant(), bucket -> bucket.setJoins(bucket.getJoins() + 1));
+                }
+
+                for (Document punishment : player.getList(PlayerField.PUNISHMENTS, Document.class, List.of())) {
+                    Date issued = punishment.getDate(PunishmentField.ISSUED);
+                    if (issued == null || !issued.toInstant().isBefore(cutoff)) {
+                        continue;
+                    }
+
+                    String type = String.valueOf(punishment.getInteger(PunishmentField.TYPE_ORDINAL, -1));
+                    String issuer = AnalyticsRollupService.toKey(punishment.get(PunishmentField.ISSUER_NAME, "unknown"));
+                    forEachBucket(buckets, issued.toInstant(), bucket -> {
+                        bucket.getPunishments().merge(type, 1L, Long::sum);
+                        bucket.getStaffActions().merge(issuer, 1L, Long::sum);
+                    });
+                }
+            }
+        }
+
+        mongo.remove(new Query(Criteria.where(AnalyticsField.SOURCE).is(AnalyticsSource.BACKFILL.name())), CollectionName.ANALYTICS_ROLLUPS);
+        List<AnalyticsBucket> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (AnalyticsBucket bucket : buckets.values()) {
+            batch.add(bucket);
+            if (batch.size() >= INSERT_BATCH_SIZE) {
+                mongo.insert(batch, CollectionName.ANALYTICS_ROLLUPS);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            mongo.insert(batch, CollectionName.ANALYTICS_ROLLUPS);
+        }
+
+        log.info("Backfilled {} analytics buckets from {} players for {}", buckets.size(), players, server.getDatabaseName());
+    }
+
+    private void forEachBucket(Map<String, AnalyticsBucket> buckets, Instant instant, Consumer<AnalyticsBucket> action) {
+        for (AnalyticsGranularity granularity : AnalyticsGranularity.values()) {
+            Instant bucketStart = granularity.truncate(instant);
+            action.accept(buckets.computeIfAbsent(granularity.bucketId(AnalyticsSource.BACKFILL, bucketStart), id -> {
+                AnalyticsBucket bucket = new AnalyticsBucket();
+                bucket.setId(id);
+                bucket.setGranularity(granularity);
+                bucket.setBucketStart(Date.from(bucketStart));
+                bucket.setSource(AnalyticsSource.BACKFILL);
+                return bucket;
+            }));
+        }
+    }
+
+    private Date earliestUsernameDate(Document player) {
+        Date earliest = null;
+        for (Document username : player.getList(PlayerField.USERNAMES, Document.class, List.of())) {
+            Date date = username.getDate("date");
+            if (date != null && (earliest == null || date.before(earliest))) {
+                earliest = date;
+            }
+        }
+        return earliest;
+    }
+}
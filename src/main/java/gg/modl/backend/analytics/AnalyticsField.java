@@ -0,0 +1,14 @@
+package gg.modl.backend.analytics;
+
+public final class AnalyticsField {
+    public static final String GRANULARITY = "granularity";
+    public static final String BUCKET_START = "bucketStart";
+    public static final String SOURCE = "source";
+    public static final String JOINS = "joins";
+    public static final String LOGINS = "logins";
+    public static final String UNIQUE_PLAYERS = "uniquePlayers";
+    public static final String PUNISHMENTS = "punishments";
+    public static final String STAFF_ACTIONS = "staffActions";
+    public static final String EXPIRES_AT = "expiresAt";
+    public static final String LIVE_SINCE = "liveSince";
+}
@@ -0,0 +1,28 @@
+package gg.modl.backend.analytics;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+// Buckets are aligned to UTC
+@Getter
+@RequiredArgsConstructor
+public enum AnalyticsGranularity {
+    HOUR(ChronoUnit.HOURS, Duration.ofDays(31)),
+    DAY(ChronoUnit.DAYS, Duration.ofDays(731));
+
+    private final ChronoUnit unit;
+    // Widest range a single dashboard query may ask for
+    private final Duration maxRange;
+
+    public Instant truncate(Instant instant) {
+        return instant.truncatedTo(unit);
+    }
+
+    public String bucketId(AnalyticsSource source, Instant bucketStart) {
+        return source.name().toLowerCase() + ":" + name().toLowerCase() + ":" + bucketStart.toEpochMilli();
+    }
+}
@@ -0,0 +1,22 @@
+package gg.modl.backend.analytics;
+
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.database.TenantIndexInitializer;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+public class AnalyticsIndexInitializer implements TenantIndexInitializer {
+    @Override
+    public void ensureIndexes(@NotNull MongoTemplate mongo) {
+        mongo.indexOps(CollectionName.ANALYTICS_ROLLUPS).createIndex(new Index()
+                .on(AnalyticsField.GRANULARITY, Sort.Direction.ASC)
+                .on(AnalyticsField.BUCKET_START, Sort.Direction.ASC));
+        mongo.indexOps(CollectionName.ANALYTICS_SEEN).createIndex(new Index().on(AnalyticsField.EXPIRES_AT, Sort.Direction.ASC).expire(Duration.ZERO));
+    }
+}
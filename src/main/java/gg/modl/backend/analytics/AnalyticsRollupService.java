@@ -0,0 +1,262 @@
+package gg.modl.backend.analytics;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.bulk.BulkWriteError;
+import gg.modl.backend.analytics.data.AnalyticsBucket;
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.database.DynamicMongoTemplateProvider;
+import gg.modl.backend.database.ReadRoute;
+import gg.modl.backend.database.TenantIndexService;
+import gg.modl.backend.server.data.Server;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsRollupService {
+    public static final String STATE_ID = "state";
+    // Seen markers only have to outlive the bucket they deduplicate
+    private static final Duration SEEN_RETENTION = Duration.ofDays(2);
+
+    private final DynamicMongoTemplateProvider mongoProvider;
+    private final TenantIndexService indexService;
+    private final ConcurrentMap<String, Date> liveSince = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Queue<LoginEvent>> pendingLogins = new ConcurrentHashMap<>();
+
+    // Only queues the login, flushLogins writes it. Logins never wait on analytics or fail because of it, at the cost
+    // of losing up to one flush interval of counts when a node dies
+    public void recordLogin(@NotNull Server server, @NotNull UUID minecraftUuid, boolean newPlayer) {
+        pendingLogins.computeIfAbsent(server.getDatabaseName(), databaseName -> new ConcurrentLinkedQueue<>())
+                .add(new LoginEvent(minecraftUuid, newPlayer, Instant.now()));
+    }
+
+    // One seen-marker bulk and one rollup bulk per tenant and flush, however many logins arrived in between
+    @Scheduled(fixedDelayString = "${modl.analytics.flush-interval-millis:1000}")
+    public void flushLogins() {
+        for (Map.Entry<String, Queue<LoginEvent>> entry : pendingLogins.entrySet()) {
+            List<LoginEvent> events = new ArrayList<>();
+            LoginEvent event;
+            while ((event = entry.getValue().poll()) != null) {
+                events.add(event);
+            }
+            if (events.isEmpty()) {
+                continue;
+            }
+
+            try {
+                writeLogins(entry.getKey(), events);
+            } catch (RuntimeException e) {
+                log.warn("Dropped {} analytics logins for {}", events.size(), entry.getKey(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushLogins();
+    }
+
+    public void recordPunishment(@NotNull Server server, int typeOrdinal, @NotNull String issuerName) {
+        MongoTemplate mongo = getTenant(server);
+        Instant now = Instant.now();
+
+        BulkOperations bulk = mongo.bulkOps(BulkOperations.BulkMode.UNORDERED, CollectionName.ANALYTICS_ROLLUPS);
+        for (AnalyticsGranularity granularity : AnalyticsGranularity.values()) {
+            Instant bucketStart = granularity.truncate(now);
+            Update update = liveBucket(granularity, bucketStart)
+                    .inc(AnalyticsField.PUNISHMENTS + "." + typeOrdinal, 1)
+                    .inc(AnalyticsField.STAFF_ACTIONS + "." + toKey(issuerName), 1);
+            bulk.upsert(byId(granularity.bucketId(AnalyticsSource.LIVE, bucketStart)), update);
+        }
+        bulk.execute();
+    }
+
+    // Live and backfilled buckets covering the same period are summed, so a range costs at most two documents per bucket
+    public List<AnalyticsPoint> query(@NotNull Server server, @NotNull AnalyticsGranularity granularity, @NotNull Instant from, @NotNull Instant to) {
+        if (!from.isBefore(to) || Duration.between(from, to).compareTo(granularity.getMaxRange()) > 0) {
+            throw new IllegalArgumentException("Invalid analytics range");
+        }
+
+        indexService.ensureIndexes(server.getDatabaseName());
+        MongoTemplate mongo = mongoProvider.getFromDatabaseName(server.getDatabaseName(), ReadRoute.NEAREST);
+        Query query = new Query(new Criteria().andOperator(
+                Criteria.where(AnalyticsField.GRANULARITY).is(granularity.name()),
+                Criteria.where(AnalyticsField.BUCKET_START).gte(Date.from(granularity.truncate(from))).lt(Date.from(to))
+        )).with(Sort.by(Sort.Direction.ASC, AnalyticsField.BUCKET_START));
+
+        Map<Date, AnalyticsPoint> points = new TreeMap<>();
+        for (AnalyticsBucket bucket : mongo.find(query, AnalyticsBucket.class)) {
+            points.merge(bucket.getBucketStart(), AnalyticsPoint.of(bucket), AnalyticsPoint::plus);
+        }
+        return new ArrayList<>(points.values());
+    }
+
+    // Events before this instant are only counted by the backfill, events after it only by the live write paths
+    @NotNull
+    public Date getLiveSince(@NotNull Server server) {
+        return getLiveSince(server.getDatabaseName());
+    }
+
+    private Date getLiveSince(String databaseName) {
+        MongoTemplate mongo = mongoProvider.getFromDatabaseName(databaseName);
+        Document state = mongo.findAndModify(byId(STATE_ID), new Update().setOnInsert(AnalyticsField.LIVE_SINCE, new Date()),
+                FindAndModifyOptions.options().upsert(true).returnNew(true), Document.class, CollectionName.ANALYTICS_ROLLUPS);
+        Date since = state.getDate(AnalyticsField.LIVE_SINCE);
+        liveSince.put(databaseName, since);
+        return since;
+    }
+
+    public static String toKey(String name) {
+        return name.replace('.', '_').replace('$', '_');
+    }
+
+    private MongoTemplate getTenant(Server server) {
+        return getTenant(server.getDatabaseName());
+    }
+
+    private MongoTemplate getTenant(String databaseName) {
+        indexService.ensureIndexes(databaseName);
+        if (!liveSince.containsKey(databaseName)) {
+            getLiveSince(databaseName);
+        }
+        return mongoProvider.getFromDatabaseName(databaseName);
+    }
+
+    private void writeLogins(String databaseName, List<LoginEvent> events) {
+        MongoTemplate mongo = getTenant(databaseName);
+        Instant cutoff = liveSince.get(databaseName).toInstant();
+        AnalyticsGranularity[] granularities = AnalyticsGranularity.values();
+        boolean[] firstSeen = markSeen(mongo, events);
+
+        Map<String, PendingBucket> buckets = new LinkedHashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            LoginEvent event = events.get(i);
+            for (int g = 0; g < granularities.length; g++) {
+                AnalyticsGranularity granularity = granularities[g];
+                Instant bucketStart = granularity.truncate(event.at());
+                PendingBucket bucket = buckets.computeIfAbsent(granularity.bucketId(AnalyticsSource.LIVE, bucketStart),
+                        id -> new PendingBucket(liveBucket(granularity, bucketStart)));
+
+                bucket.logins++;
+                // A tenant goes live on its first flush, joins queued before that are already counted by the backfill
+                if (event.newPlayer() && !event.at().isBefore(cutoff)) {
+                    bucket.joins++;
+                }
+                if (firstSeen[i * granularities.length + g]) {
+                    bucket.uniquePlayers++;
+                }
+            }
+        }
+
+        BulkOperations bulk = mongo.bulkOps(BulkOperations.BulkMode.UNORDERED, CollectionName.ANALYTICS_ROLLUPS);
+        buckets.forEach((id, bucket) -> bulk.upsert(byId(id), bucket.update
+                .inc(AnalyticsField.LOGINS, bucket.logins)
+                .inc(AnalyticsField.JOINS, bucket.joins)
+                .inc(AnalyticsField.UNIQUE_PLAYERS, bucket.uniquePlayers)));
+        bulk.execute();
+    }
+
+    // Inserts one marker per login and bucket in a single round trip, duplicate key errors mark buckets the player was
+    // already counted in, including by an earlier login in the same flush. Indexed like events x granularities
+    private boolean[] markSeen(MongoTemplate mongo, List<LoginEvent> events) {
+        AnalyticsGranularity[] granularities = AnalyticsGranularity.values();
+        List<Document> markers = new ArrayList<>(events.size() * granularities.length);
+        for (LoginEvent event : events) {
+            for (AnalyticsGranularity granularity : granularities) {
+                Instant bucketStart = granularity.truncate(event.at());
+                Instant expiresAt = bucketStart.plus(1, granularity.getUnit()).plus(SEEN_RETENTION);
+                markers.add(new Document("_id", granularity.bucketId(AnalyticsSource.LIVE, bucketStart) + ":" + event.minecraftUuid())
+                        .append(AnalyticsField.EXPIRES_AT, Date.from(expiresAt)));
+            }
+        }
+
+        boolean[] firstSeen = new boolean[markers.size()];
+        Arrays.fill(firstSeen, true);
+        try {
+            mongo.bulkOps(BulkOperations.BulkMode.UNORDERED, CollectionName.ANALYTICS_SEEN).insert(markers).execute();
+        } catch (BulkOperationException e) {
+            // Anything but a duplicate, or a failure without write errors, would otherwise be miscounted as a repeat visit
+            if (e.getErrors().isEmpty()) {
+                throw e;
+            }
+            for (BulkWriteError error : e.getErrors()) {
+                if (ErrorCategory.fromErrorCode(error.getCode()) != ErrorCategory.DUPLICATE_KEY) {
+                    throw e;
+                }
+                firstSeen[error.getIndex()] = false;
+            }
+        }
+        return firstSeen;
+    }
+
+    private Update liveBucket(AnalyticsGranularity granularity, Instant bucketStart) {
+        return new Update()
+                .setOnInsert(AnalyticsField.GRANULARITY, granularity.name())
+                .setOnInsert(AnalyticsField.BUCKET_START, Date.from(bucketStart))
+                .setOnInsert(AnalyticsField.SOURCE, AnalyticsSource.LIVE.name());
+    }
+
+    private Query byId(String id) {
+        return new Query(Criteria.where("_id").is(id));
+    }
+
+    private record LoginEvent(UUID minecraftUuid, boolean newPlayer, Instant at) {}
+
+    private static final class PendingBucket {
+        private final Update update;
+        private long logins;
+        private long joins;
+        private long uniquePlayers;
+
+        private PendingBucket(Update update) {
+            this.update = update;
+        }
+    }
+
+    public record AnalyticsPoint(Date bucketStart, long joins, long logins, long uniquePlayers,
+                                 Map<String, Long> punishments, Map<String, Long> staffActions) {
+        static AnalyticsPoint of(AnalyticsBucket bucket) {
+            return new AnalyticsPoint(bucket.getBucketStart(), bucket.getJoins(), bucket.getLogins(), bucket.getUniquePlayers(),
+                    bucket.getPunishments(), bucket.getStaffActions());
+        }
+
+        AnalyticsPoint plus(AnalyticsPoint other) {
+            Map<String, Long> mergedPunishments = new HashMap<>(punishments);
+            other.punishments.forEach((key, count) -> mergedPunishments.merge(key, count, Long::sum));
+            Map<String, Long> mergedStaffActions = new HashMap<>(staffActions);
+            other.staffActions.forEach((key, count) -> mergedStaffActions.merge(key, count, Long::sum));
+            return new AnalyticsPoint(bucketStart, joins + other.joins, logins + other.logins, uniquePlayers + other.uniquePlayers,
+                    mergedPunishments, mergedStaffActions);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package gg.modl.backend.analytics;
+
+// LIVE buckets are incremented by the write paths, BACKFILL buckets are rebuilt wholesale from history
+public enum AnalyticsSource {
+    LIVE,
+    BACKFILL
+}
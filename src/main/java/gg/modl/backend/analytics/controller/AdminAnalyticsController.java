@@ -0,0 +1,31 @@
+package gg.modl.backend.analytics.controller;
+
+import gg.modl.backend.analytics.AnalyticsBackfillService;
+import gg.modl.backend.rest.RESTMappingV1;
+import gg.modl.backend.server.ServerService;
+import gg.modl.backend.server.data.Server;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(RESTMappingV1.ADMIN_ANALYTICS)
+@RequiredArgsConstructor
+public class AdminAnalyticsController {
+    private final AnalyticsBackfillService backfillService;
+    private final ServerService serverService;
+
+    @PostMapping("/backfill")
+    public ResponseEntity<Void> backfill(@RequestParam("domain") String domain) {
+        Server server = serverService.getServerFromDomain(domain);
+        if (server == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.status(backfillService.startBackfill(server) ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT).build();
+    }
+}
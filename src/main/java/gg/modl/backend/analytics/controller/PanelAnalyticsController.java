@@ -0,0 +1,44 @@
+package gg.modl.backend.analytics.controller;
+
+import gg.modl.backend.analytics.AnalyticsGranularity;
+import gg.modl.backend.analytics.AnalyticsRollupService;
+import gg.modl.backend.rest.RESTMappingV1;
+import gg.modl.backend.rest.RequestUtil;
+import gg.modl.backend.server.data.Server;
+import gg.modl.backend.staff.RequiresPermission;
+import gg.modl.backend.staff.StaffPermission;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequiresPermission(StaffPermission.VIEW_ANALYTICS)
+@RequestMapping(RESTMappingV1.PANEL_ANALYTICS)
+@RequiredArgsConstructor
+public class PanelAnalyticsController {
+    private final AnalyticsRollupService rollupService;
+
+    @GetMapping
+    public ResponseEntity<List<AnalyticsRollupService.AnalyticsPoint>> query(
+            HttpServletRequest request,
+            @RequestParam(value = "granularity", defaultValue = "DAY") AnalyticsGranularity granularity,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+
+        Server server = RequestUtil.getRequestServer(request);
+
+        try {
+            return ResponseEntity.ok(rollupService.query(server, granularity, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package gg.modl.backend.analytics.data;
+
+import gg.modl.backend.analytics.AnalyticsField;
+import gg.modl.backend.analytics.AnalyticsGranularity;
+import gg.modl.backend.analytics.AnalyticsSource;
+import gg.modl.backend.database.CollectionName;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+@Document(collection = CollectionName.ANALYTICS_ROLLUPS)
+@Data
+public class AnalyticsBucket {
+    @Id
+    private String id;
+
+    @Field(AnalyticsField.GRANULARITY)
+    private AnalyticsGranularity granularity;
+
+    @Field(AnalyticsField.BUCKET_START)
+    private Date bucketStart;
+
+    @Field(AnalyticsField.SOURCE)
+    private AnalyticsSource source;
+
+    @Field(AnalyticsField.JOINS)
+    private long joins;
+
+    @Field(AnalyticsField.LOGINS)
+    private long logins;
+
+    @Field(AnalyticsField.UNIQUE_PLAYERS)
+    private long uniquePlayers;
+
+    // Keyed by punishment type ordinal
+    @Field(AnalyticsField.PUNISHMENTS)
+    private Map<String, Long> punishments = new HashMap<>();
+
+    // Keyed by staff name
+    @Field(AnalyticsField.STAFF_ACTIONS)
+    private Map<String, Long> staffActions = new HashMap<>();
+}
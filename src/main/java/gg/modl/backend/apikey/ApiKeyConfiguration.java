@@ -0,0 +1,24 @@
+package gg.modl.backend.apikey;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "modl.api-keys")
+@Getter
+@Setter
+public class ApiKeyConfiguration {
+    private int cacheMaxEntries = 20_000;
+    private int cacheTtlSeconds = 300;
+    private int cacheStripes = 32;
+    // How stale a cached server's plan and status may get before a request reads it again
+    private int serverCacheTtlSeconds = 5;
+    // Unknown keys are remembered briefly so a misconfigured plugin does not hit the database on every request
+    private int negativeCacheTtlSeconds = 10;
+    private int negativeCacheMaxEntries = 5_000;
+    // Upper bound on how long a revoked key keeps working on another node
+    private long revocationPollIntervalMillis = 2000;
+    private int maxKeysPerServer = 25;
+}
@@ -0,0 +1,7 @@
+package gg.modl.backend.apikey;
+
+public final class ApiKeyField {
+    public static final String SERVER_ID = "serverId";
+    public static final String REVOKED_AT = "revokedAt";
+    public static final String CREATED_AT = "createdAt";
+}
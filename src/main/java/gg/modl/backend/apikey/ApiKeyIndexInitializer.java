@@ -0,0 +1,24 @@
+package gg.modl.backend.apikey;
+
+import gg.modl.backend.apikey.data.ApiKey;
+import gg.modl.backend.database.GlobalIndexInitializer;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ApiKeyIndexInitializer implements GlobalIndexInitializer {
+    @Override
+    public void ensureIndexes(@NotNull MongoTemplate mongo) {
+        // Listing a server's keys and counting them against the per-server limit
+        mongo.indexOps(ApiKey.class).createIndex(new Index()
+                .on(ApiKeyField.SERVER_ID, Sort.Direction.ASC)
+                .on(ApiKeyField.CREATED_AT, Sort.Direction.DESC));
+        // The revocation poll, only revoked keys carry the field
+        mongo.indexOps(ApiKey.class).createIndex(new Index()
+                .on(ApiKeyField.REVOKED_AT, Sort.Direction.ASC)
+                .sparse());
+    }
+}
@@ -0,0 +1,249 @@
+package gg.modl.backend.apikey;
+
+import gg.modl.backend.apikey.data.ApiKey;
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.database.DynamicMongoTemplateProvider;
+import gg.modl.backend.ratelimit.RateLimitPolicyName;
+import gg.modl.backend.ratelimit.RateLimiter;
+import gg.modl.backend.server.data.Server;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Plugin requests resolve their key to a server from memory. The key expires after the cache TTL and the server copy
+// after a much shorter one, so plan and status changes apply within seconds without a read per request. Revocations
+// made on any node are picked up by a poll well inside the key TTL, so a revoked key stops working within seconds
+@Service
+public class ApiKeyService {
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    private static final int KEY_BYTE_LENGTH = 32;
+    private static final String KEY_PREFIX = "modl_";
+    private static final int DISPLAY_PREFIX_LENGTH = 8;
+    // Anything not shaped like a generated key is rejected before it costs a lookup or a cache slot
+    private static final Pattern KEY_PATTERN = Pattern.compile(Pattern.quote(KEY_PREFIX) + "[A-Za-z0-9_-]{43}");
+    // Each poll looks this far behind the previous one, which covers clock drift between nodes and evicts again any
+    // entry a lookup racing with the revocation put back into the cache
+    private static final long REVOCATION_OVERLAP_MILLIS = 30_000;
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e);
+        }
+    });
+
+    private final DynamicMongoTemplateProvider mongoProvider;
+    private final ApiKeyConfiguration configuration;
+    private final RateLimiter rateLimiter;
+    // Every plugin request reads this, so both maps are split into independently locked LRU stripes
+    private final StripedLru<CachedKey> cache;
+    // Kept apart so unknown keys can never push real ones out of the cache
+    private final StripedLru<Long> unknownKeys;
+    private volatile long revocationWatermark = System.currentTimeMillis();
+
+    public ApiKeyService(DynamicMongoTemplateProvider mongoProvider, ApiKeyConfiguration configuration, RateLimiter rateLimiter) {
+        this.mongoProvider = mongoProvider;
+        this.configuration = configuration;
+        this.rateLimiter = rateLimiter;
+        this.cache = new StripedLru<>(configuration.getCacheMaxEntries(), configuration.getCacheStripes());
+        this.unknownKeys = new StripedLru<>(configuration.getNegativeCacheMaxEntries(), configuration.getCacheStripes());
+    }
+
+    // Returns the server the key belongs to, or null if the key is malformed, unknown or revoked
+    @Nullable
+    public Server authenticate(@NotNull String key, @NotNull String clientIp) {
+        if (!KEY_PATTERN.matcher(key).matches()) {
+            return null;
+        }
+
+        String fingerprint = fingerprint(key);
+        long now = System.currentTimeMillis();
+
+        CachedKey cached = cache.get(fingerprint);
+        if (cached != null && cached.cachedUntil() >= now) {
+            if (cached.server() != null && cached.serverCachedUntil() >= now) {
+                return cached.server();
+            }
+            return cacheServer(fingerprint, cached.serverId(), cached.cachedUntil(), now);
+        }
+        Long unknownUntil = unknownKeys.get(fingerprint);
+        if (unknownUntil != null && unknownUntil >= now) {
+            return null;
+        }
+
+        // Valid keys miss once per TTL, so this only bites clients cycling through keys that do not exist
+        if (!rateLimiter.tryAcquire(RateLimitPolicyName.API_KEY_LOOKUP_IP, clientIp)) {
+            return null;
+        }
+
+        ApiKey apiKey = mongoProvider.getGlobalDatabase().findOne(
+                new Query(Criteria.where("_id").is(fingerprint).and(ApiKeyField.REVOKED_AT).is(null)), ApiKey.class);
+        if (apiKey == null) {
+            unknownKeys.put(fingerprint, now + TimeUnit.SECONDS.toMillis(configuration.getNegativeCacheTtlSeconds()));
+            return null;
+        }
+
+        return cacheServer(fingerprint, apiKey.getServerId(), now + TimeUnit.SECONDS.toMillis(configuration.getCacheTtlSeconds()), now);
+    }
+
+    // Reads the server fresh and keeps it next to the key, the key entry itself keeps its expiry
+    @Nullable
+    private Server cacheServer(String fingerprint, String serverId, long cachedUntil, long now) {
+        Server server = mongoProvider.getGlobalDatabase().findById(serverId, Server.class, CollectionName.MODL_SERVERS);
+        cache.put(fingerprint, new CachedKey(serverId, server, cachedUntil, now + TimeUnit.SECONDS.toMillis(configuration.getServerCacheTtlSeconds())));
+        return server;
+    }
+
+    // Fills the cache with the active keys of the given servers in one query, returns how many were cached
+    public int preload(@NotNull List<Server> servers) {
+        Map<String, Server> serversById = servers.stream().collect(Collectors.toMap(Server::getId, Function.identity()));
+        List<String> serverIds = List.copyOf(serversById.keySet());
+
+        Query query = new Query(Criteria.where(ApiKeyField.SERVER_ID).in(serverIds).and(ApiKeyField.REVOKED_AT).is(null))
+                .limit(configuration.getCacheMaxEntries());
+        query.fields().include("_id", ApiKeyField.SERVER_ID);
+
+        long now = System.currentTimeMillis();
+        long cachedUntil = now + TimeUnit.SECONDS.toMillis(configuration.getCacheTtlSeconds());
+        long serverCachedUntil = now + TimeUnit.SECONDS.toMillis(configuration.getServerCacheTtlSeconds());
+        List<ApiKey> apiKeys = mongoProvider.getGlobalDatabase().find(query, ApiKey.class);
+        for (ApiKey apiKey : apiKeys) {
+            cache.put(apiKey.getId(), new CachedKey(apiKey.getServerId(), serversById.get(apiKey.getServerId()), cachedUntil, serverCachedUntil));
+        }
+        return apiKeys.size();
+    }
+
+    // The returned key is not stored anywhere, callers must hand it to the user now
+    public CreatedApiKey create(@NotNull Server server, @NotNull String name, @NotNull String createdBy) {
+        MongoTemplate mongo = mongoProvider.getGlobalDatabase();
+
+        if (mongo.count(activeKeys(server), ApiKey.class) >= configuration.getMaxKeysPerServer()) {
+            throw new IllegalStateException("Server has reached its API key limit.");
+        }
+
+        byte[] bytes = new byte[KEY_BYTE_LENGTH];
+        SECURE_RANDOM.nextBytes(bytes);
+        String key = KEY_PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        ApiKey apiKey = new ApiKey();
+        apiKey.setId(fingerprint(key));
+        apiKey.setServerId(server.getId());
+        apiKey.setName(name);
+        apiKey.setPrefix(key.substring(0, KEY_PREFIX.length() + DISPLAY_PREFIX_LENGTH));
+        apiKey.setCreatedBy(createdBy);
+        apiKey.setCreatedAt(new Date());
+
+        return new CreatedApiKey(mongo.insert(apiKey), key);
+    }
+
+    public List<ApiKey> list(@NotNull Server server) {
+        return mongoProvider.getGlobalDatabase().find(activeKeys(server).with(Sort.by(Sort.Direction.DESC, ApiKeyField.CREATED_AT)), ApiKey.class);
+    }
+
+    public boolean revoke(@NotNull Server server, @NotNull String keyId) {
+        Query query = new Query(Criteria.where("_id").is(keyId)
+                .and(ApiKeyField.SERVER_ID).is(server.getId())
+                .and(ApiKeyField.REVOKED_AT).is(null));
+
+        boolean revoked = mongoProvider.getGlobalDatabase().updateFirst(query, Update.update(ApiKeyField.REVOKED_AT, new Date()), ApiKey.class)
+                .getModifiedCount() > 0;
+        if (revoked) {
+            cache.remove(keyId);
+        }
+        return revoked;
+    }
+
+    @Scheduled(fixedDelayString = "${modl.api-keys.revocation-poll-interval-millis:2000}")
+    public void pollRevocations() {
+        long pollStartedAt = System.currentTimeMillis();
+        // Anything cached after this point is loaded fresh, so there is nothing a skipped revocation could leave behind
+        if (cache.isEmpty()) {
+            revocationWatermark = pollStartedAt;
+            return;
+        }
+
+        Query query = new Query(Criteria.where(ApiKeyField.REVOKED_AT).gte(new Date(revocationWatermark - REVOCATION_OVERLAP_MILLIS)));
+        query.fields().include("_id");
+
+        for (ApiKey revoked : mongoProvider.getGlobalDatabase().find(query, ApiKey.class)) {
+            cache.remove(revoked.getId());
+        }
+        revocationWatermark = pollStartedAt;
+    }
+
+    private Query activeKeys(Server server) {
+        return new Query(Criteria.where(ApiKeyField.SERVER_ID).is(server.getId()).and(ApiKeyField.REVOKED_AT).is(null));
+    }
+
+    public static String fingerprint(@NotNull String key) {
+        MessageDigest digest = SHA_256.get();
+        digest.reset();
+        return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public record CreatedApiKey(ApiKey apiKey, String key) {}
+
+    private record CachedKey(@NotNull String serverId, @Nullable Server server, long cachedUntil, long serverCachedUntil) {}
+
+    private static final class StripedLru<V> {
+        private final List<Map<String, V>> stripes;
+
+        private StripedLru(int maxEntries, int stripeCount) {
+            int maxEntriesPerStripe = Math.max(1, maxEntries / stripeCount);
+            List<Map<String, V>> stripeMaps = new ArrayList<>(stripeCount);
+            for (int i = 0; i < stripeCount; i++) {
+                stripeMaps.add(Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75F, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                        return size() > maxEntriesPerStripe;
+                    }
+                }));
+            }
+            this.stripes = List.copyOf(stripeMaps);
+        }
+
+        @Nullable
+        private V get(String key) {
+            return stripeFor(key).get(key);
+        }
+
+        private void put(String key, V value) {
+            stripeFor(key).put(key, value);
+        }
+
+        private void remove(String key) {
+            stripeFor(key).remove(key);
+        }
+
+        private boolean isEmpty() {
+            return stripes.stream().allMatch(Map::isEmpty);
+        }
+
+        private Map<String, V> stripeFor(String key) {
+            return stripes.get(Math.floorMod(key.hashCode(), stripes.size()));
+        }
+    }
+}
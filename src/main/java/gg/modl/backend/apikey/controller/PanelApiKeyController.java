@@ -0,0 +1,64 @@
+package gg.modl.backend.apikey.controller;
+
+import gg.modl.backend.apikey.ApiKeyService;
+import gg.modl.backend.apikey.data.ApiKey;
+import gg.modl.backend.rest.RESTMappingV1;
+import gg.modl.backend.rest.RequestUtil;
+import gg.modl.backend.server.data.Server;
+import gg.modl.backend.staff.RequiresPermission;
+import gg.modl.backend.staff.StaffPermission;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiresPermission(StaffPermission.MANAGE_SETTINGS)
+@RequestMapping(RESTMappingV1.PANEL_API_KEYS)
+@RequiredArgsConstructor
+public class PanelApiKeyController {
+    private final ApiKeyService apiKeyService;
+
+    @GetMapping
+    public ResponseEntity<List<ApiKey>> list(HttpServletRequest request) {
+        return ResponseEntity.ok(apiKeyService.list(RequestUtil.getRequestServer(request)));
+    }
+
+    @PostMapping
+    public ResponseEntity<ApiKeyService.CreatedApiKey> create(HttpServletRequest request,
+                                                              @RequestBody @Valid CreateRequest body, BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Server server = RequestUtil.getRequestServer(request);
+        String createdBy = RequestUtil.getRequestSession(request).getEmail();
+        try {
+            return ResponseEntity.ok(apiKeyService.create(server, body.name, createdBy));
+        } catch (IllegalStateException e) {
+            // Key limit reached
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @DeleteMapping("/{keyId}")
+    public ResponseEntity<Void> revoke(HttpServletRequest request, @PathVariable String keyId) {
+        boolean revoked = apiKeyService.revoke(RequestUtil.getRequestServer(request), keyId);
+        return revoked ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    public record CreateRequest(@NotBlank @Size(max = 64) String name) {}
+}
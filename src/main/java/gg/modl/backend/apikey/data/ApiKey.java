@@ -0,0 +1,37 @@
+package gg.modl.backend.apikey.data;
+
+import gg.modl.backend.apikey.ApiKeyField;
+import gg.modl.backend.database.CollectionName;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.util.Date;
+
+// Keyed by the SHA-256 fingerprint of the key, the key itself is only ever shown once when it is created
+@Document(collection = CollectionName.API_KEYS)
+@Data
+public class ApiKey {
+    @Id
+    private String id;
+
+    @Field(name = ApiKeyField.SERVER_ID)
+    private String serverId;
+
+    @Field
+    private String name;
+
+    // The first few characters, enough for staff to tell keys apart
+    @Field
+    private String prefix;
+
+    @Field
+    private String createdBy;
+
+    @Field(name = ApiKeyField.CREATED_AT)
+    private Date createdAt;
+
+    @Field(name = ApiKeyField.REVOKED_AT)
+    private Date revokedAt;
+}
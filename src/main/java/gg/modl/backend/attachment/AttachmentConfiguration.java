@@ -0,0 +1,28 @@
+package gg.modl.backend.attachment;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "modl.attachments")
+@Getter
+@Setter
+public class AttachmentConfiguration {
+    // local, gridfs or s3
+    private String storage = "local";
+    private String localDirectory = "data/attachments";
+    // Uploads are hashed into here before being handed to storage, keep it on the same disk as localDirectory
+    private String spoolDirectory = "data/attachments/.spool";
+    private long maxUploadBytes = 100L * 1024 * 1024;
+    private int bufferBytes = 64 * 1024;
+
+    private String gridFsBucket = "attachments";
+
+    private String s3Endpoint;
+    private String s3Region = "us-east-1";
+    private String s3Bucket;
+    private String s3AccessKey;
+    private String s3SecretKey;
+}
@@ -0,0 +1,8 @@
+package gg.modl.backend.attachment;
+
+public final class AttachmentField {
+    public static final String SIZE = "size";
+    public static final String CONTENT_TYPE = "contentType";
+    public static final String UPLOADED_BY = "uploadedBy";
+    public static final String CREATED_AT = "createdAt";
+}
@@ -0,0 +1,121 @@
+package gg.modl.backend.attachment;
+
+import gg.modl.backend.attachment.data.Attachment;
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.database.DynamicMongoTemplateProvider;
+import gg.modl.backend.server.data.Server;
+import gg.modl.backend.usage.UsageMeteringService;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+@Service
+@RequiredArgsConstructor
+public class AttachmentService {
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private final AttachmentConfiguration configuration;
+    private final AttachmentStorage storage;
+    private final DynamicMongoTemplateProvider mongoProvider;
+    private final UsageMeteringService usageMeteringService;
+
+    // The body is hashed while it is spooled to disk, so deduplication needs neither a second read nor the file in memory
+    public AttachmentUpload upload(@NotNull Server server, @NotNull InputStream body, @NotNull String contentType, @NotNull String uploadedBy) throws IOException {
+        Path spoolDirectory = Path.of(configuration.getSpoolDirectory());
+        Files.createDirectories(spoolDirectory);
+        Path spooledFile = Files.createTempFile(spoolDirectory, "upload-", ".part");
+
+        String hash;
+        long size;
+        try {
+            MessageDigest digest = sha256();
+            size = spool(body, spooledFile, digest);
+            if (size == 0) {
+                throw new IllegalArgumentException("Attachment is empty.");
+            }
+            hash = HexFormat.of().formatHex(digest.digest());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spooledFile);
+            throw e;
+        }
+
+        storage.store(server.getDatabaseName(), hash, spooledFile, size, contentType);
+
+        // Stored before the metadata, so a document never points at content that is not there yet
+        boolean created = mongoProvider.getFromDatabaseName(server.getDatabaseName()).upsert(
+                new Query(Criteria.where("_id").is(hash)),
+                new Update()
+                        .setOnInsert(AttachmentField.SIZE, size)
+                        .setOnInsert(AttachmentField.CONTENT_TYPE, contentType)
+                        .setOnInsert(AttachmentField.UPLOADED_BY, uploadedBy)
+                        .setOnInsert(AttachmentField.CREATED_AT, new Date()),
+                CollectionName.ATTACHMENTS).getUpsertedId() != null;
+
+        return new AttachmentUpload(hash, size, contentType, !created);
+    }
+
+    @Nullable
+    public Attachment find(@NotNull Server server, @NotNull String hash) {
+        if (!HASH_PATTERN.matcher(hash).matches()) {
+            return null;
+        }
+        return mongoProvider.getFromDatabaseName(server.getDatabaseName()).findById(hash, Attachment.class, CollectionName.ATTACHMENTS);
+    }
+
+    @Nullable
+    public Path localFile(@NotNull Server server, @NotNull Attachment attachment) {
+        return storage.localFile(server.getDatabaseName(), attachment.getId());
+    }
+
+    public InputStream openRange(@NotNull Server server, @NotNull Attachment attachment, long start, long length) throws IOException {
+        return storage.openRange(server.getDatabaseName(), attachment.getId(), start, length);
+    }
+
+    // Billed from the range being served, which is already known from the metadata, rather than by counting the bytes
+    public void recordServed(@NotNull Server server, long bytes) {
+        usageMeteringService.recordCdnBytes(server, bytes);
+    }
+
+    private long spool(InputStream body, Path spooledFile, MessageDigest digest) throws IOException {
+        byte[] buffer = new byte[configuration.getBufferBytes()];
+        long size = 0;
+
+        try (OutputStream output = Files.newOutputStream(spooledFile)) {
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                size += read;
+                if (size > configuration.getMaxUploadBytes()) {
+                    throw new AttachmentTooLargeException("Attachment exceeds %d bytes.".formatted(configuration.getMaxUploadBytes()));
+                }
+                digest.update(buffer, 0, read);
+                output.write(buffer, 0, read);
+            }
+        }
+        return size;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record AttachmentUpload(String hash, long size, String contentType, boolean deduplicated) {}
+}
@@ -0,0 +1,23 @@
+package gg.modl.backend.attachment;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+// Objects are addressed by tenant database and content hash, so storing the same content twice is a no-op
+public interface AttachmentStorage {
+    // spooledFile is owned by the storage from here on, it is either moved into place or deleted
+    void store(@NotNull String databaseName, @NotNull String hash, @NotNull Path spooledFile, long size, @NotNull String contentType) throws IOException;
+
+    @NotNull
+    InputStream openRange(@NotNull String databaseName, @NotNull String hash, long start, long length) throws IOException;
+
+    // A file on this node's disk the attachment can be sent from without passing through the JVM, if the backend has one
+    @Nullable
+    default Path localFile(@NotNull String databaseName, @NotNull String hash) {
+        return null;
+    }
+}
@@ -0,0 +1,7 @@
+package gg.modl.backend.attachment;
+
+public class AttachmentTooLargeException extends RuntimeException {
+    public AttachmentTooLargeException(String message) {
+        super(message);
+    }
+}
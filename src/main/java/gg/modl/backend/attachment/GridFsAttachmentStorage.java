@@ -0,0 +1,60 @@
+package gg.modl.backend.attachment;
+
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.GridFSBuckets;
+import com.mongodb.client.gridfs.GridFSDownloadStream;
+import com.mongodb.client.gridfs.model.GridFSUploadOptions;
+import com.mongodb.client.model.Filters;
+import gg.modl.backend.database.DynamicMongoTemplateProvider;
+import org.bson.Document;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Keeps attachments next to the rest of the tenant's data, so they follow it through cluster moves and backups
+@Component
+@ConditionalOnProperty(prefix = "modl.attachments", name = "storage", havingValue = "gridfs")
+public class GridFsAttachmentStorage implements AttachmentStorage {
+    private final DynamicMongoTemplateProvider mongoProvider;
+    private final AttachmentConfiguration configuration;
+
+    public GridFsAttachmentStorage(DynamicMongoTemplateProvider mongoProvider, AttachmentConfiguration configuration) {
+        this.mongoProvider = mongoProvider;
+        this.configuration = configuration;
+    }
+
+    @Override
+    public void store(@NotNull String databaseName, @NotNull String hash, @NotNull Path spooledFile, long size, @NotNull String contentType) throws IOException {
+        try {
+            GridFSBucket bucket = bucket(databaseName);
+            if (bucket.find(Filters.eq("filename", hash)).first() != null) {
+                return;
+            }
+
+            GridFSUploadOptions options = new GridFSUploadOptions().metadata(new Document("contentType", contentType));
+            try (InputStream input = Files.newInputStream(spooledFile)) {
+                bucket.uploadFromStream(hash, input, options);
+            }
+        } finally {
+            Files.deleteIfExists(spooledFile);
+        }
+    }
+
+    @NotNull
+    @Override
+    public InputStream openRange(@NotNull String databaseName, @NotNull String hash, long start, long length) throws IOException {
+        GridFSDownloadStream stream = bucket(databaseName).openDownloadStream(hash);
+        // Skipping seeks straight to the chunk holding start instead of reading the ones before it
+        stream.skip(start);
+        return new BoundedInputStream(stream, length);
+    }
+
+    private GridFSBucket bucket(String databaseName) {
+        return GridFSBuckets.create(mongoProvider.getFromDatabaseName(databaseName).getDb(), configuration.getGridFsBucket());
+    }
+}
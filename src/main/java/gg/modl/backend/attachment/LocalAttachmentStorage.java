@@ -0,0 +1,60 @@
+package gg.modl.backend.attachment;
+
+import org.jetbrains.annotations.NotNull;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+@Component
+@ConditionalOnProperty(prefix = "modl.attachments", name = "storage", havingValue = "local", matchIfMissing = true)
+public class LocalAttachmentStorage implements AttachmentStorage {
+    private final Path root;
+
+    public LocalAttachmentStorage(AttachmentConfiguration configuration) {
+        this.root = Path.of(configuration.getLocalDirectory()).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void store(@NotNull String databaseName, @NotNull String hash, @NotNull Path spooledFile, long size, @NotNull String contentType) throws IOException {
+        Path target = resolve(databaseName, hash);
+        if (Files.exists(target)) {
+            Files.deleteIfExists(spooledFile);
+            return;
+        }
+
+        Files.createDirectories(target.getParent());
+        try {
+            // A rename when the spool directory shares the disk, which it does by default
+            Files.move(spooledFile, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            Files.deleteIfExists(spooledFile);
+        }
+    }
+
+    @NotNull
+    @Override
+    public InputStream openRange(@NotNull String databaseName, @NotNull String hash, long start, long length) throws IOException {
+        FileChannel channel = FileChannel.open(resolve(databaseName, hash), StandardOpenOption.READ);
+        channel.position(start);
+        return new BoundedInputStream(Channels.newInputStream(channel), length);
+    }
+
+    @Override
+    public Path localFile(@NotNull String databaseName, @NotNull String hash) {
+        return resolve(databaseName, hash);
+    }
+
+    // Hashes are fanned out by their first two characters to keep directories small
+    private Path resolve(String databaseName, String hash) {
+        return root.resolve(databaseName).resolve(hash.substring(0, 2)).resolve(hash);
+    }
+}
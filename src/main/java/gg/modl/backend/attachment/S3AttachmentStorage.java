@@ -0,0 +1,92 @@
+package gg.modl.backend.attachment;
+
+import jakarta.annotation.PreDestroy;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@Component
+@ConditionalOnProperty(prefix = "modl.attachments", name = "storage", havingValue = "s3")
+public class S3AttachmentStorage implements AttachmentStorage {
+    private final AttachmentConfiguration configuration;
+    private final S3Client client;
+
+    public S3AttachmentStorage(AttachmentConfiguration configuration) {
+        this.configuration = configuration;
+
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(configuration.getS3Region()))
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create(configuration.getS3AccessKey(), configuration.getS3SecretKey())));
+        if (configuration.getS3Endpoint() != null && !configuration.getS3Endpoint().isBlank()) {
+            // S3-compatible stores such as MinIO or R2 generally expect path-style addressing
+            builder.endpointOverride(URI.create(configuration.getS3Endpoint())).forcePathStyle(true);
+        }
+        this.client = builder.build();
+    }
+
+    @Override
+    public void store(@NotNull String databaseName, @NotNull String hash, @NotNull Path spooledFile, long size, @NotNull String contentType) throws IOException {
+        try {
+            if (exists(key(databaseName, hash))) {
+                return;
+            }
+
+            client.putObject(PutObjectRequest.builder()
+                    .bucket(configuration.getS3Bucket())
+                    .key(key(databaseName, hash))
+                    .contentType(contentType)
+                    .contentLength(size)
+                    .build(), RequestBody.fromFile(spooledFile));
+        } finally {
+            Files.deleteIfExists(spooledFile);
+        }
+    }
+
+    @NotNull
+    @Override
+    public InputStream openRange(@NotNull String databaseName, @NotNull String hash, long start, long length) {
+        return client.getObject(GetObjectRequest.builder()
+                .bucket(configuration.getS3Bucket())
+                .key(key(databaseName, hash))
+                .range("bytes=%d-%d".formatted(start, start + length - 1))
+                .build());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        client.close();
+    }
+
+    private boolean exists(String key) {
+        try {
+            client.headObject(HeadObjectRequest.builder().bucket(configuration.getS3Bucket()).key(key).build());
+            return true;
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    private String key(String databaseName, String hash) {
+        return databaseName + "/" + hash;
+    }
+}
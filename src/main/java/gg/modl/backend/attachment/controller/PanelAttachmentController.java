@@ -0,0 +1,156 @@
+package gg.modl.backend.attachment.controller;
+
+import gg.modl.backend.attachment.AttachmentConfiguration;
+import gg.modl.backend.attachment.AttachmentService;
+import gg.modl.backend.attachment.AttachmentTooLargeException;
+import gg.modl.backend.attachment.data.Attachment;
+import gg.modl.backend.rest.RESTMappingV1;
+import gg.modl.backend.rest.RequestUtil;
+import gg.modl.backend.server.data.Server;
+import gg.modl.backend.staff.RequiresPermission;
+import gg.modl.backend.staff.StaffPermission;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+
+@RestController
+@RequestMapping(RESTMappingV1.PANEL_ATTACHMENTS)
+@RequiredArgsConstructor
+public class PanelAttachmentController {
+    // Tomcat sends the file with sendfile once the servlet returns when these are set, see its DefaultServlet
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final AttachmentService attachmentService;
+    private final AttachmentConfiguration configuration;
+
+    // The file is the raw request body, not multipart, so it can be hashed and spooled as it arrives
+    @RequiresPermission(StaffPermission.UPLOAD_EVIDENCE)
+    @PostMapping
+    public ResponseEntity<AttachmentService.AttachmentUpload> upload(HttpServletRequest request) throws IOException {
+        if (request.getContentLengthLong() > configuration.getMaxUploadBytes()) {
+            return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE).build();
+        }
+
+        String contentType = request.getContentType() == null ? MediaType.APPLICATION_OCTET_STREAM_VALUE : request.getContentType();
+        try {
+            if (MediaType.parseMediaType(contentType).getType().equals(MediaType.MULTIPART_FORM_DATA.getType())) {
+                return ResponseEntity.badRequest().build();
+            }
+        } catch (InvalidMediaTypeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Server server = RequestUtil.getRequestServer(request);
+        String uploadedBy = RequestUtil.getRequestSession(request).getEmail();
+        try {
+            return ResponseEntity.ok(attachmentService.upload(server, request.getInputStream(), contentType, uploadedBy));
+        } catch (AttachmentTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @RequiresPermission(StaffPermission.VIEW_EVIDENCE)
+    @GetMapping("/{hash}")
+    public void download(HttpServletRequest request, HttpServletResponse response, @PathVariable String hash) throws IOException {
+        Server server = RequestUtil.getRequestServer(request);
+        Attachment attachment = attachmentService.find(server, hash);
+        if (attachment == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        // Content addressed, so the hash is a strong validator and the body never changes
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(hash)) {
+            return;
+        }
+
+        long size = attachment.getSize();
+        long start = 0;
+        long length = size;
+        List<HttpRange> ranges = parseRanges(request.getHeader(HttpHeaders.RANGE));
+        // Several ranges at once are rare for media, answering with the whole file is allowed
+        if (ranges.size() == 1) {
+            try {
+                start = ranges.getFirst().getRangeStart(size);
+                length = ranges.getFirst().getRangeEnd(size) - start + 1;
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes %d-%d/%d".formatted(start, start + length - 1, size));
+        }
+
+        writeHeaders(response, attachment, length);
+        attachmentService.recordServed(server, length);
+
+        Path localFile = attachmentService.localFile(server, attachment);
+        if (localFile != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, localFile.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+
+        try (InputStream input = attachmentService.openRange(server, attachment, start, length)) {
+            input.transferTo(response.getOutputStream());
+        }
+    }
+
+    private List<HttpRange> parseRanges(String header) {
+        if (header == null) {
+            return List.of();
+        }
+        try {
+            return HttpRange.parseRanges(header);
+        } catch (IllegalArgumentException e) {
+            // A malformed Range header is ignored rather than rejected
+            return List.of();
+        }
+    }
+
+    // Only media is rendered inline, anything else an uploader picked a content type for is downloaded instead
+    private void writeHeaders(HttpServletResponse response, Attachment attachment, long length) {
+        MediaType mediaType = MediaType.parseMediaType(attachment.getContentType());
+        boolean inline = switch (mediaType.getType()) {
+            case "image", "video", "audio" -> true;
+            default -> false;
+        };
+
+        response.setContentType(attachment.getContentType());
+        response.setContentLengthLong(length);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, (inline ? ContentDisposition.inline() : ContentDisposition.attachment())
+                .filename(attachment.getId())
+                .build()
+                .toString());
+        response.setHeader("Content-Security-Policy", "sandbox");
+    }
+}
@@ -0,0 +1,30 @@
+package gg.modl.backend.attachment.data;
+
+import gg.modl.backend.attachment.AttachmentField;
+import gg.modl.backend.database.CollectionName;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.util.Date;
+
+// Keyed by the SHA-256 of the content, one document per distinct file within a tenant
+@Document(collection = CollectionName.ATTACHMENTS)
+@Data
+public class Attachment {
+    @Id
+    private String id;
+
+    @Field(name = AttachmentField.SIZE)
+    private long size;
+
+    @Field(name = AttachmentField.CONTENT_TYPE)
+    private String contentType;
+
+    @Field(name = AttachmentField.UPLOADED_BY)
+    private String uploadedBy;
+
+    @Field(name = AttachmentField.CREATED_AT)
+    private Date createdAt;
+}
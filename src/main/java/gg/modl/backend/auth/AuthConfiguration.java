@@ -5,6 +5,9 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Component
 @ConfigurationProperties(prefix = "modl.auth")
 @Getter
@@ -12,6 +15,21 @@ import org.springframework.stereotype.Component;
 public class AuthConfiguration {
     private int emailCodeExpiry = 600;
     private int emailCodeLength = 6;
+    private int emailCodeMaxAttempts = 5;
     private long sessionDurationSeconds = 14 * 24 * 60 * 60;
     private String sessionCookieName = "MODL_SESSION";
+    private String adminSessionCookieName = "MODL_ADMIN_SESSION";
+    private List<String> adminEmails = new ArrayList<>();
+    // How long a session read from the database is trusted without checking again, which bounds how late
+    // another node notices a logout
+    private long sessionCacheTtlSeconds = 30;
+    private int sessionCacheTenantMaxEntries = 50_000;
+    private int sessionCacheAdminMaxEntries = 1_000;
+    private int sessionCacheStripes = 32;
+    // Sliding expiry is pushed forward at most this often instead of on every request
+    private long sessionRefreshIntervalSeconds = 300;
+
+    public boolean isAdminEmail(String email) {
+        return adminEmails.stream().anyMatch(adminEmail -> adminEmail.equalsIgnoreCase(email));
+    }
 }
@@ -0,0 +1,21 @@
+package gg.modl.backend.auth;
+
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.database.TenantIndexInitializer;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+public class AuthIndexInitializer implements TenantIndexInitializer {
+    @Override
+    public void ensureIndexes(@NotNull MongoTemplate mongo) {
+        mongo.indexOps(CollectionName.SESSIONS).createIndex(new Index().on("email", Sort.Direction.ASC));
+        mongo.indexOps(CollectionName.SESSIONS).createIndex(new Index().on("expiresAt", Sort.Direction.ASC).expire(Duration.ZERO));
+        mongo.indexOps(CollectionName.AUTH_CODES).createIndex(new Index().on("expiresAt", Sort.Direction.ASC).expire(Duration.ZERO));
+    }
+}
@@ -7,5 +7,7 @@ public final class AuthResponseMessage {
     public static final String INVALID_CODE = "Invalid or expired verification code.";
     public static final String LOGIN_SUCCESS = "Login successful.";
     public static final String LOGOUT_SUCCESS = "Logged out successfully.";
+    public static final String CODE_LOCKED = "Too many incorrect attempts. Please request a new code.";
+    public static final String RATE_LIMITED = "Too many requests. Please try again later.";
     public static final String EMAIL_SEND_ERROR = "Failed to send verification email. Please try again.";
 }
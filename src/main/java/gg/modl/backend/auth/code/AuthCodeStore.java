@@ -0,0 +1,103 @@
+package gg.modl.backend.auth.code;
+
+import gg.modl.backend.auth.AuthConfiguration;
+import gg.modl.backend.auth.data.AuthCode;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Locale;
+
+@Service
+@RequiredArgsConstructor
+public class AuthCodeStore {
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e);
+        }
+    });
+
+    private final AuthConfiguration authConfiguration;
+
+    // Replaces any previous code for the email in a single upsert, which also resets the attempt counter
+    @NotNull
+    public String issue(@NotNull MongoTemplate mongo, @NotNull String email) {
+        String emailKey = emailKey(email);
+        String code = generateNumericCode(authConfiguration.getEmailCodeLength());
+
+        Update update = new Update()
+                .set(AuthCode.CODE_HASH, hashCode(emailKey, code))
+                .set(AuthCode.ATTEMPTS, 0)
+                .set(AuthCode.EXPIRES_AT, Instant.now().plusSeconds(authConfiguration.getEmailCodeExpiry()));
+        mongo.upsert(byKey(emailKey), update, AuthCode.class);
+
+        return code;
+    }
+
+    // Every guess first takes one attempt in a single atomic increment guarded by the cap, so parallel guesses cannot
+    // all slip in before the counter moves. Only then is the hash compared, and the code is consumed only on a match
+    @NotNull
+    public AuthCodeVerification verify(@NotNull MongoTemplate mongo, @NotNull String email, @NotNull String code) {
+        String emailKey = emailKey(email);
+        int maxAttempts = authConfiguration.getEmailCodeMaxAttempts();
+
+        Query live = new Query(Criteria.where("_id").is(emailKey)
+                .and(AuthCode.EXPIRES_AT).gt(Instant.now())
+                .and(AuthCode.ATTEMPTS).lt(maxAttempts));
+        AuthCode attempt = mongo.findAndModify(live, new Update().inc(AuthCode.ATTEMPTS, 1),
+                FindAndModifyOptions.options().returnNew(true), AuthCode.class);
+        if (attempt == null) {
+            return AuthCodeVerification.MISSING;
+        }
+
+        String submittedHash = hashCode(emailKey, code);
+        if (MessageDigest.isEqual(submittedHash.getBytes(StandardCharsets.UTF_8), attempt.getCodeHash().getBytes(StandardCharsets.UTF_8))) {
+            // Matching the hash as well keeps a code issued in the meantime, and only one of two parallel correct guesses wins
+            Query consume = new Query(Criteria.where("_id").is(emailKey).and(AuthCode.CODE_HASH).is(attempt.getCodeHash()));
+            return mongo.remove(consume, AuthCode.class).getDeletedCount() > 0 ? AuthCodeVerification.VALID : AuthCodeVerification.MISSING;
+        }
+
+        return attempt.getAttempts() >= maxAttempts ? AuthCodeVerification.LOCKED : AuthCodeVerification.INVALID;
+    }
+
+    private Query byKey(String emailKey) {
+        return new Query(Criteria.where("_id").is(emailKey));
+    }
+
+    private String emailKey(String email) {
+        return digest(email.trim().toLowerCase(Locale.ROOT));
+    }
+
+    // Salted with the email key so equal codes for different people do not share a hash
+    private String hashCode(String emailKey, String code) {
+        return digest(emailKey + ":" + code);
+    }
+
+    private String digest(String value) {
+        MessageDigest digest = SHA_256.get();
+        digest.reset();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private String generateNumericCode(int length) {
+        StringBuilder code = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            code.append(SECURE_RANDOM.nextInt(10));
+        }
+        return code.toString();
+    }
+}
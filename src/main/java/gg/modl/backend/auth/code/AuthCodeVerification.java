@@ -0,0 +1,9 @@
+package gg.modl.backend.auth.code;
+
+public enum AuthCodeVerification {
+    VALID,
+    INVALID,
+    // No live code, either never sent, expired, already used or locked after too many attempts
+    MISSING,
+    LOCKED
+}
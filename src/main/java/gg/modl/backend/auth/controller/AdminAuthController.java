@@ -0,0 +1,152 @@
+package gg.modl.backend.auth.controller;
+
+import gg.modl.backend.auth.AuthConfiguration;
+import gg.modl.backend.auth.AuthResponseMessage;
+import gg.modl.backend.auth.AuthService;
+import gg.modl.backend.auth.code.AuthCodeVerification;
+import gg.modl.backend.auth.controller.PanelAuthController.AuthResponse;
+import gg.modl.backend.auth.controller.PanelAuthController.SendEmailCodeRequest;
+import gg.modl.backend.auth.controller.PanelAuthController.VerifyCodeRequest;
+import gg.modl.backend.auth.session.AuthSessionData;
+import gg.modl.backend.auth.session.SessionService;
+import gg.modl.backend.ratelimit.RateLimitPolicyName;
+import gg.modl.backend.ratelimit.RateLimiter;
+import gg.modl.backend.resilience.DependencyUnavailableException;
+import gg.modl.backend.rest.RESTMappingV1;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@RestController
+@RequestMapping(RESTMappingV1.ADMIN_AUTH)
+@RequiredArgsConstructor
+@Slf4j
+public class AdminAuthController {
+    private static final String RATE_LIMIT_KEY_PREFIX = "admin:";
+
+    private final AuthService authService;
+    private final SessionService sessionService;
+    private final AuthConfiguration authConfiguration;
+    private final RateLimiter rateLimiter;
+    private final ExecutorService emailExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Answers the same way for unknown addresses so the endpoint does not reveal who is an admin
+    @PostMapping("/send-email-code")
+    public ResponseEntity<AuthResponse> sendEmailCode(@RequestBody @Valid SendEmailCodeRequest requestData, BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            return ResponseEntity.badRequest().body(new AuthResponse(false, AuthResponseMessage.MISSING_EMAIL));
+        }
+
+        if (!rateLimiter.tryAcquire(RateLimitPolicyName.EMAIL_CODE_EMAIL, RATE_LIMIT_KEY_PREFIX + requestData.email().toLowerCase())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(new AuthResponse(false, AuthResponseMessage.RATE_LIMITED));
+        }
+
+        // Sending takes long enough to time, so it happens off the request thread for every address alike
+        String email = requestData.email();
+        emailExecutor.execute(() -> sendAdminLoginCode(email));
+
+        return ResponseEntity.ok(new AuthResponse(true, AuthResponseMessage.VERIFICATION_CODE_SENT));
+    }
+
+    private void sendAdminLoginCode(String email) {
+        if (!authConfiguration.isAdminEmail(email)) {
+            return;
+        }
+
+        try {
+            authService.sendAdminLoginCode(email);
+        } catch (MessagingException | UnsupportedEncodingException | DependencyUnavailableException e) {
+            log.error("Failed to send admin login code email to {}", email, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        emailExecutor.shutdown();
+    }
+
+    @PostMapping("/verify-email-code")
+    public ResponseEntity<AuthResponse> verifyEmailCode(
+            HttpServletResponse response,
+            @RequestBody @Valid VerifyCodeRequest requestData,
+            BindingResult bindingResult) {
+
+        if (bindingResult.hasErrors()) {
+            return ResponseEntity.badRequest().body(new AuthResponse(false, AuthResponseMessage.MISSING_CODE));
+        }
+
+        if (!authConfiguration.isAdminEmail(requestData.email())) {
+            return ResponseEntity.badRequest().body(new AuthResponse(false, AuthResponseMessage.INVALID_CODE));
+        }
+
+        AuthCodeVerification verification = authService.verifyAdminCode(requestData.email(), requestData.code());
+        if (verification == AuthCodeVerification.LOCKED) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(new AuthResponse(false, AuthResponseMessage.CODE_LOCKED));
+        }
+        if (verification != AuthCodeVerification.VALID) {
+            return ResponseEntity.badRequest().body(new AuthResponse(false, AuthResponseMessage.INVALID_CODE));
+        }
+
+        AuthSessionData session = sessionService.createAdminSession(requestData.email());
+        response.addCookie(createSessionCookie(session.getId(), (int) authConfiguration.getSessionDurationSeconds()));
+
+        return ResponseEntity.ok(new AuthResponse(true, AuthResponseMessage.LOGIN_SUCCESS));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<AuthResponse> logout(HttpServletRequest request, HttpServletResponse response) {
+        String sessionId = extractSessionId(request);
+
+        if (sessionId != null) {
+            sessionService.invalidateAdminSession(sessionId);
+        }
+
+        response.addCookie(createSessionCookie("", 0));
+
+        return ResponseEntity.ok(new AuthResponse(true, AuthResponseMessage.LOGOUT_SUCCESS));
+    }
+
+    private Cookie createSessionCookie(String sessionId, int maxAge) {
+        Cookie cookie = new Cookie(authConfiguration.getAdminSessionCookieName(), sessionId);
+
+        cookie.setHttpOnly(true);
+        cookie.setSecure(true);
+        cookie.setPath(RESTMappingV1.PREFIX_ADMIN);
+        cookie.setMaxAge(maxAge);
+        cookie.setAttribute("SameSite", "Strict");
+
+        return cookie;
+    }
+
+    private String extractSessionId(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+
+        return Arrays.stream(cookies)
+                .filter(cookie -> authConfiguration.getAdminSessionCookieName().equals(cookie.getName()))
+                .map(Cookie::getValue)
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -3,9 +3,14 @@ package gg.modl.backend.auth.controller;
 import gg.modl.backend.auth.AuthConfiguration;
 import gg.modl.backend.auth.AuthResponseMessage;
 import gg.modl.backend.auth.AuthService;
+import gg.modl.backend.auth.code.AuthCodeVerification;
 import gg.modl.backend.auth.session.AuthSessionData;
 import gg.modl.backend.auth.session.SessionService;
+import gg.modl.backend.ratelimit.RateLimitPolicyName;
+import gg.modl.backend.ratelimit.RateLimiter;
+import gg.modl.backend.resilience.DependencyUnavailableException;
 import gg.modl.backend.rest.RESTMappingV1;
+import gg.modl.backend.staff.PermissionNotRequired;
 import gg.modl.backend.rest.RequestUtil;
 import gg.modl.backend.server.data.Server;
 import jakarta.mail.MessagingException;
@@ -17,6 +22,7 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -27,7 +33,9 @@ import org.springframework.web.bind.annotation.RestController;
 import java.io.UnsupportedEncodingException;
 import java.util.Arrays;
 
+// Reached before there is a session, so there are no staff permissions to check
 @RestController
+@PermissionNotRequired
 @RequestMapping(RESTMappingV1.PANEL_AUTH)
 @RequiredArgsConstructor
 @Slf4j
@@ -35,6 +43,7 @@ public class PanelAuthController {
     private final AuthService authService;
     private final SessionService sessionService;
     private final AuthConfiguration authConfiguration;
+    private final RateLimiter rateLimiter;
 
     @PostMapping("/send-email-code")
     public ResponseEntity<AuthResponse> sendEmailCode(
@@ -48,9 +57,14 @@ public class PanelAuthController {
 
         Server server = RequestUtil.getRequestServer(request);
 
+        if (!rateLimiter.tryAcquire(RateLimitPolicyName.EMAIL_CODE_EMAIL, server.getDatabaseName() + ":" + requestData.email().toLowerCase())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(new AuthResponse(false, AuthResponseMessage.RATE_LIMITED));
+        }
+
         try {
             authService.sendUserLoginCode(server, requestData.email());
-        } catch (MessagingException | UnsupportedEncodingException e) {
+        } catch (MessagingException | UnsupportedEncodingException | DependencyUnavailableException e) {
             log.error("Failed to send login code email to {}", requestData.email(), e);
             return ResponseEntity.internalServerError()
                     .body(new AuthResponse(false, AuthResponseMessage.EMAIL_SEND_ERROR));
@@ -71,9 +85,13 @@ public class PanelAuthController {
         }
 
         Server server = RequestUtil.getRequestServer(request);
-        boolean valid = authService.verifyCode(server, requestData.email(), requestData.code());
+        AuthCodeVerification verification = authService.verifyCode(server, requestData.email(), requestData.code());
 
-        if (!valid) {
+        if (verification == AuthCodeVerification.LOCKED) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(new AuthResponse(false, AuthResponseMessage.CODE_LOCKED));
+        }
+        if (verification != AuthCodeVerification.VALID) {
             return ResponseEntity.badRequest().body(new AuthResponse(false, AuthResponseMessage.INVALID_CODE));
         }
 
@@ -12,15 +12,21 @@ import java.time.Instant;
 @Document(collection = CollectionName.AUTH_CODES)
 @Data
 public class AuthCode {
+    public static final String CODE_HASH = "codeHash";
+    public static final String ATTEMPTS = "attempts";
+    public static final String EXPIRES_AT = "expiresAt";
+
+    // Hash of the normalized email, so the address itself is never stored next to the code
     @Id
-    @Field
-    @Indexed(unique = true)
-    private String email;
+    private String emailKey;
 
-    @Field
+    @Field(CODE_HASH)
     private String codeHash;
 
-    @Field
+    @Field(ATTEMPTS)
+    private int attempts;
+
+    @Field(EXPIRES_AT)
     @Indexed(expireAfter = "0s")
     private Instant expiresAt;
 }
@@ -0,0 +1,72 @@
+package gg.modl.backend.auth.filter;
+
+import gg.modl.backend.apikey.ApiKeyService;
+import gg.modl.backend.ratelimit.RateLimitPolicyName;
+import gg.modl.backend.ratelimit.RateLimiter;
+import gg.modl.backend.rest.RESTMappingV1;
+import gg.modl.backend.rest.RESTSecurityRole;
+import gg.modl.backend.rest.RequestAttribute;
+import gg.modl.backend.rest.RequestHeader;
+import gg.modl.backend.server.data.Server;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+// The key alone identifies the tenant, so plugin requests skip the domain lookup the panel and public routes do.
+// Plugin traffic is rate limited here rather than in RateLimitFilter, once the key has resolved to a server, so the
+// limit is per server and costs no more than the cached key lookup that already happened
+@Component
+@RequiredArgsConstructor
+public class ApiKeyAuthenticationFilter extends OncePerRequestFilter {
+    private final ApiKeyService apiKeyService;
+    private final RateLimiter rateLimiter;
+
+    @Override
+    protected boolean shouldNotFilter(@NotNull HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(RESTMappingV1.PREFIX_MINECRAFT + "/");
+    }
+
+    @Override
+    protected void doFilterInternal(@NotNull HttpServletRequest request,
+                                    @NotNull HttpServletResponse response,
+                                    @NotNull FilterChain filterChain) throws ServletException, IOException {
+        String apiKey = request.getHeader(RequestHeader.API_KEY);
+        if (apiKey != null && !apiKey.isBlank()) {
+            Server server = apiKeyService.authenticate(apiKey.trim(), request.getRemoteAddr());
+            if (server != null) {
+                if (!rateLimiter.tryAcquire(RateLimitPolicyName.MINECRAFT, server.getId())) {
+                    response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(rateLimiter.getRetryAfterSeconds(RateLimitPolicyName.MINECRAFT)));
+                    response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "");
+                    return;
+                }
+                authenticate(request, server);
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private void authenticate(HttpServletRequest request, Server server) {
+        request.setAttribute(RequestAttribute.SERVER, server);
+
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                server.getId(),
+                null,
+                List.of(new SimpleGrantedAuthority("ROLE_" + RESTSecurityRole.MINECRAFT))
+        );
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+}
@@ -3,10 +3,13 @@ package gg.modl.backend.auth.filter;
 import gg.modl.backend.auth.AuthConfiguration;
 import gg.modl.backend.auth.AuthService;
 import gg.modl.backend.auth.session.AuthSessionData;
+import gg.modl.backend.auth.session.SessionCache;
 import gg.modl.backend.auth.session.SessionService;
+import gg.modl.backend.rest.RESTMappingV1;
 import gg.modl.backend.rest.RESTSecurityRole;
 import gg.modl.backend.rest.RequestAttribute;
 import gg.modl.backend.server.data.Server;
+import gg.modl.backend.staff.StaffPermissionService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -23,7 +26,6 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
@@ -31,37 +33,51 @@ public class SessionAuthenticationFilter extends OncePerRequestFilter {
     private final SessionService sessionService;
     private final AuthService authService;
     private final AuthConfiguration authConfiguration;
+    private final StaffPermissionService permissionService;
 
     @Override
     protected void doFilterInternal(@NotNull HttpServletRequest request,
                                     @NotNull HttpServletResponse response,
                                     @NotNull FilterChain filterChain) throws ServletException, IOException {
-        String sessionToken = extractSessionToken(request);
-
-        if (sessionToken != null) {
+        // Admin routes are not tenant scoped, they only ever look at the admin cookie and the global database
+        if (request.getRequestURI().startsWith(RESTMappingV1.PREFIX_ADMIN + "/")) {
+            String adminToken = extractSessionToken(request, authConfiguration.getAdminSessionCookieName());
+            if (adminToken != null) {
+                authenticateAdmin(request, adminToken);
+            }
+        } else {
+            String sessionToken = extractSessionToken(request, authConfiguration.getSessionCookieName());
             Server server = (Server) request.getAttribute(RequestAttribute.SERVER);
 
-            if (server != null) {
+            if (sessionToken != null && server != null) {
                 authenticatePanelUser(request, server, sessionToken);
             }
-            // TODO: Handle admin authentication for /v1/admin routes
         }
 
         filterChain.doFilter(request, response);
     }
 
     private void authenticatePanelUser(HttpServletRequest request, Server server, String sessionToken) {
-        Optional<AuthSessionData> sessionOpt = sessionService.findAndRefreshSession(server, sessionToken);
+        sessionService.findAndRefreshSession(server, sessionToken).ifPresent(session -> {
+            SessionCache.SessionKey sessionKey = new SessionCache.SessionKey(server.getDatabaseName(), sessionToken, false);
+            request.setAttribute(RequestAttribute.PERMISSIONS, permissionService.resolve(server, sessionKey, session.getEmail()));
+            authenticate(request, session, RESTSecurityRole.USER);
+        });
+    }
 
-        if (sessionOpt.isEmpty()) {
-            return;
-        }
+    // Removing an address from modl.auth.admin-emails revokes its sessions without touching the database
+    private void authenticateAdmin(HttpServletRequest request, String sessionToken) {
+        sessionService.findAndRefreshAdminSession(sessionToken)
+                .filter(session -> authConfiguration.isAdminEmail(session.getEmail()))
+                .ifPresent(session -> authenticate(request, session, RESTSecurityRole.ADMIN));
+    }
 
-        AuthSessionData session = sessionOpt.get();
+    private void authenticate(HttpServletRequest request, AuthSessionData session, String role) {
         request.setAttribute(RequestAttribute.SESSION, session);
 
+        // hasRole() in the security config matches authorities carrying the ROLE_ prefix
         List<SimpleGrantedAuthority> authorities = List.of(
-                new SimpleGrantedAuthority(RESTSecurityRole.USER)
+                new SimpleGrantedAuthority("ROLE_" + role)
         );
 
         UsernamePasswordAuthenticationToken authentication =
@@ -75,14 +91,14 @@ public class SessionAuthenticationFilter extends OncePerRequestFilter {
         SecurityContextHolder.getContext().setAuthentication(authentication);
     }
 
-    private String extractSessionToken(HttpServletRequest request) {
+    private String extractSessionToken(HttpServletRequest request, String cookieName) {
         Cookie[] cookies = request.getCookies();
         if (cookies == null) {
             return null;
         }
 
         return Arrays.stream(cookies)
-                .filter(cookie -> authConfiguration.getSessionCookieName().equals(cookie.getName()))
+                .filter(cookie -> cookieName.equals(cookie.getName()))
                 .map(Cookie::getValue)
                 .findFirst()
                 .orElse(null);
@@ -0,0 +1,88 @@
+package gg.modl.backend.auth.session;
+
+import gg.modl.backend.auth.AuthConfiguration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Tenant and admin sessions share one lookup keyed by (database, token), but are bounded separately
+// so a burst of tenant traffic can never evict the handful of admin sessions. Every panel request reads this, so
+// each kind is split into independently locked LRU stripes and requests only contend when their sessions share one
+@Component
+public class SessionCache {
+    private final long ttlMillis;
+    private final List<Map<SessionKey, CachedSession>> tenantSessions;
+    private final List<Map<SessionKey, CachedSession>> adminSessions;
+
+    public SessionCache(AuthConfiguration authConfiguration) {
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(authConfiguration.getSessionCacheTtlSeconds());
+        this.tenantSessions = createStripes(authConfiguration.getSessionCacheTenantMaxEntries(), authConfiguration.getSessionCacheStripes());
+        this.adminSessions = createStripes(authConfiguration.getSessionCacheAdminMaxEntries(), authConfiguration.getSessionCacheStripes());
+    }
+
+    @Nullable
+    public CachedSession get(@NotNull SessionKey key) {
+        Map<SessionKey, CachedSession> entries = entriesFor(key);
+        CachedSession cached = entries.get(key);
+        if (cached == null) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        if (cached.cachedUntil() < now || cached.session().getExpiresAt().isBefore(Instant.ofEpochMilli(now))) {
+            entries.remove(key, cached);
+            return null;
+        }
+
+        return cached;
+    }
+
+    public void put(@NotNull SessionKey key, @NotNull AuthSessionData session, long refreshedAt) {
+        entriesFor(key).put(key, new CachedSession(session, refreshedAt, System.currentTimeMillis() + ttlMillis));
+    }
+
+    public void invalidate(@NotNull SessionKey key) {
+        entriesFor(key).remove(key);
+    }
+
+    // Locks one stripe at a time, so requests on the other stripes carry on while this scans
+    public void invalidateEmail(@NotNull String databaseName, @NotNull String email) {
+        for (Map<SessionKey, CachedSession> stripe : tenantSessions) {
+            synchronized (stripe) {
+                stripe.entrySet().removeIf(entry -> entry.getKey().databaseName().equals(databaseName)
+                        && email.equals(entry.getValue().session().getEmail()));
+            }
+        }
+    }
+
+    private Map<SessionKey, CachedSession> entriesFor(SessionKey key) {
+        List<Map<SessionKey, CachedSession>> stripes = key.admin() ? adminSessions : tenantSessions;
+        return stripes.get(Math.floorMod(key.hashCode(), stripes.size()));
+    }
+
+    private static List<Map<SessionKey, CachedSession>> createStripes(int maxEntries, int stripes) {
+        int maxEntriesPerStripe = Math.max(1, maxEntries / stripes);
+        List<Map<SessionKey, CachedSession>> stripeMaps = new ArrayList<>(stripes);
+        for (int i = 0; i < stripes; i++) {
+            stripeMaps.add(Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75F, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<SessionKey, CachedSession> eldest) {
+                    return size() > maxEntriesPerStripe;
+                }
+            }));
+        }
+        return List.copyOf(stripeMaps);
+    }
+
+    public record SessionKey(String databaseName, String token, boolean admin) {}
+
+    public record CachedSession(AuthSessionData session, long refreshedAt, long cachedUntil) {}
+}
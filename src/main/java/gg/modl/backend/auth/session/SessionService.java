@@ -14,6 +14,7 @@ import java.security.SecureRandom;
 import java.time.Instant;
 import java.util.Base64;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
@@ -23,6 +24,7 @@ public class SessionService {
 
     private final DynamicMongoTemplateProvider mongoProvider;
     private final AuthConfiguration authConfiguration;
+    private final SessionCache sessionCache;
 
     public AuthSessionData createSession(Server server, String email) {
         MongoTemplate mongo = getMongoTemplateForServer(server);
@@ -74,15 +76,52 @@ public class SessionService {
     }
 
     public Optional<AuthSessionData> findAndRefreshSession(Server server, String sessionId) {
-        Optional<AuthSessionData> sessionOpt = findValidSession(server, sessionId);
-        sessionOpt.ifPresent(session -> refreshSession(server, sessionId));
-        return sessionOpt;
+        MongoTemplate mongo = getMongoTemplateForServer(server);
+        return findAndRefreshInternal(mongo, new SessionCache.SessionKey(server.getDatabaseName(), sessionId, false));
     }
 
     public Optional<AuthSessionData> findAndRefreshAdminSession(String sessionId) {
-        Optional<AuthSessionData> sessionOpt = findValidAdminSession(sessionId);
-        sessionOpt.ifPresent(session -> refreshAdminSession(sessionId));
-        return sessionOpt;
+        MongoTemplate mongo = mongoProvider.getGlobalDatabase();
+        return findAndRefreshInternal(mongo, new SessionCache.SessionKey(DynamicMongoTemplateProvider.GLOBAL_DATABASE_NAME, sessionId, true));
+    }
+
+    // Cached sessions skip the database entirely until their sliding expiry is due for another push
+    private Optional<AuthSessionData> findAndRefreshInternal(MongoTemplate mongo, SessionCache.SessionKey key) {
+        if (key.token() == null || key.token().isBlank()) {
+            return Optional.empty();
+        }
+
+        long now = System.currentTimeMillis();
+        long refreshIntervalMillis = TimeUnit.SECONDS.toMillis(authConfiguration.getSessionRefreshIntervalSeconds());
+
+        SessionCache.CachedSession cached = sessionCache.get(key);
+        if (cached != null) {
+            if (now - cached.refreshedAt() < refreshIntervalMillis) {
+                return Optional.of(cached.session());
+            }
+            return refreshAndCache(mongo, key, cached.session(), now);
+        }
+
+        Optional<AuthSessionData> session = findValidSessionInternal(mongo, key.token());
+        if (session.isEmpty()) {
+            return session;
+        }
+        return refreshAndCache(mongo, key, session.get(), now);
+    }
+
+    private Optional<AuthSessionData> refreshAndCache(MongoTemplate mongo, SessionCache.SessionKey key, AuthSessionData session, long now) {
+        Instant expiresAt = Instant.ofEpochMilli(now).plusSeconds(authConfiguration.getSessionDurationSeconds());
+        Query query = new Query(Criteria.where("_id").is(key.token()));
+
+        // No match means the session was removed, for example by a logout handled on another node
+        if (mongo.updateFirst(query, new Update().set("expiresAt", expiresAt), AuthSessionData.class).getMatchedCount() == 0) {
+            sessionCache.invalidate(key);
+            return Optional.empty();
+        }
+
+        session.setExpiresAt(expiresAt);
+        sessionCache.put(key, session, now);
+        return Optional.of(session);
     }
 
     public void refreshSession(Server server, String sessionId) {
@@ -107,11 +146,13 @@ public class SessionService {
     public void invalidateSession(Server server, String sessionId) {
         MongoTemplate mongo = getMongoTemplateForServer(server);
         invalidateSessionInternal(mongo, sessionId);
+        sessionCache.invalidate(new SessionCache.SessionKey(server.getDatabaseName(), sessionId, false));
     }
 
     public void invalidateAdminSession(String sessionId) {
         MongoTemplate mongo = mongoProvider.getGlobalDatabase();
         invalidateSessionInternal(mongo, sessionId);
+        sessionCache.invalidate(new SessionCache.SessionKey(DynamicMongoTemplateProvider.GLOBAL_DATABASE_NAME, sessionId, true));
     }
 
     private void invalidateSessionInternal(MongoTemplate mongo, String sessionId) {
@@ -123,6 +164,7 @@ public class SessionService {
         MongoTemplate mongo = getMongoTemplateForServer(server);
         Query query = new Query(Criteria.where("email").is(email.toLowerCase()));
         mongo.remove(query, AuthSessionData.class);
+        sessionCache.invalidateEmail(server.getDatabaseName(), email.toLowerCase());
     }
 
     private MongoTemplate getMongoTemplateForServer(Server server) {
@@ -0,0 +1,20 @@
+package gg.modl.backend.billing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "modl.stripe")
+@Getter
+@Setter
+public class StripeConfiguration {
+    private String webhookSecret;
+    private int workerLanes = 8;
+    private int batchSize = 200;
+    private int maxAttempts = 8;
+    private long claimTimeoutSeconds = 300;
+    // Must stay longer than Stripe's three day redelivery window, the record is what turns a redelivery into a no-op
+    private long processedRetentionDays = 30;
+}
@@ -0,0 +1,117 @@
+package gg.modl.backend.billing;
+
+import com.stripe.exception.EventDataObjectDeserializationException;
+import com.stripe.model.Event;
+import com.stripe.model.EventDataObjectDeserializer;
+import com.stripe.model.StripeObject;
+import com.stripe.model.Subscription;
+import com.stripe.model.SubscriptionItem;
+import com.stripe.model.checkout.Session;
+import com.stripe.net.ApiResource;
+import gg.modl.backend.database.DynamicMongoTemplateProvider;
+import gg.modl.backend.server.ServerField;
+import gg.modl.backend.server.data.Server;
+import gg.modl.backend.server.data.ServerPlan;
+import gg.modl.backend.server.data.SubscriptionStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StripeEventProcessor {
+    private final DynamicMongoTemplateProvider mongoProvider;
+
+    public void process(String payload) throws EventDataObjectDeserializationException {
+        Event event = ApiResource.GSON.fromJson(payload, Event.class);
+        EventDataObjectDeserializer deserializer = event.getDataObjectDeserializer();
+        StripeObject object = deserializer.getObject().isPresent()
+                ? deserializer.getObject().get()
+                : deserializer.deserializeUnsafe();
+
+        switch (event.getType()) {
+            case "checkout.session.completed" -> linkCheckoutSession((Session) object);
+            case "customer.subscription.created", "customer.subscription.updated" -> applySubscription(event, (Subscription) object, false);
+            case "customer.subscription.deleted" -> applySubscription(event, (Subscription) object, true);
+            default -> log.debug("Ignoring Stripe event {} of type {}", event.getId(), event.getType());
+        }
+    }
+
+    private void linkCheckoutSession(Session session) {
+        if (session.getClientReferenceId() == null) {
+            return;
+        }
+
+        Update update = new Update()
+                .set(ServerField.STRIPE_CUSTOMER_ID, session.getCustomer())
+                .set(ServerField.UPDATED_AT, new Date());
+        if (session.getSubscription() != null) {
+            update.set(ServerField.STRIPE_SUBSCRIPTION_ID, session.getSubscription());
+        }
+
+        // Linking is not ordered against subscription events, a subscription event created before the checkout
+        // completed must still apply once the customer id is known
+        mongoProvider.getGlobalDatabase().updateFirst(new Query(Criteria.where("_id").is(session.getClientReferenceId())), update, Server.class);
+    }
+
+    private void applySubscription(Event event, Subscription subscription, boolean deleted) {
+        SubscriptionStatus status = deleted ? SubscriptionStatus.canceled : parseStatus(subscription.getStatus());
+        boolean paid = status == SubscriptionStatus.active || status == SubscriptionStatus.trialing;
+
+        Update update = new Update()
+                .set(ServerField.STRIPE_SUBSCRIPTION_ID, subscription.getId())
+                .set(ServerField.SUBSCRIPTION_STATUS, status.name())
+                .set(ServerField.PLAN, (paid ? ServerPlan.premium : ServerPlan.free).name())
+                .set(ServerField.UPDATED_AT, new Date());
+
+        // Billing periods live on subscription items since the 2025-03-31 API version
+        List<SubscriptionItem> items = subscription.getItems() == null ? List.of() : subscription.getItems().getData();
+        if (!items.isEmpty()) {
+            SubscriptionItem item = items.getFirst();
+            setEpochSeconds(update, ServerField.CURRENT_PERIOD_START, item.getCurrentPeriodStart());
+            setEpochSeconds(update, ServerField.CURRENT_PERIOD_END, item.getCurrentPeriodEnd());
+        }
+
+        Criteria serverCriteria = Criteria.where(ServerField.STRIPE_CUSTOMER_ID).is(subscription.getCustomer());
+        if (applyIfNewer(serverCriteria, event, update) == 0
+                && !mongoProvider.getGlobalDatabase().exists(new Query(serverCriteria), Server.class)) {
+            // The checkout that links this customer to a server has not been processed yet, the inbox retries with backoff
+            throw new IllegalStateException("No server is linked to Stripe customer " + subscription.getCustomer() + " yet.");
+        }
+    }
+
+    // Only applies when no later event has already been applied to the server, which makes redelivered
+    // and out of order events harmless
+    // Returns how many servers matched, zero when no server has the criteria or a later event already applied
+    private long applyIfNewer(Criteria serverCriteria, Event event, Update update) {
+        Query query = new Query(new Criteria().andOperator(
+                serverCriteria,
+                Criteria.where(ServerField.STRIPE_LAST_EVENT_CREATED).not().gt(event.getCreated())
+        ));
+
+        update.set(ServerField.STRIPE_LAST_EVENT_CREATED, event.getCreated());
+        return mongoProvider.getGlobalDatabase().updateFirst(query, update, Server.class).getMatchedCount();
+    }
+
+    private SubscriptionStatus parseStatus(String status) {
+        try {
+            return SubscriptionStatus.valueOf(status);
+        } catch (IllegalArgumentException e) {
+            return SubscriptionStatus.inactive;
+        }
+    }
+
+    private void setEpochSeconds(Update update, String field, @Nullable Long epochSeconds) {
+        if (epochSeconds != null) {
+            update.set(field, new Date(epochSeconds * 1000));
+        }
+    }
+}
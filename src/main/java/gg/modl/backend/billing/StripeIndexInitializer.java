@@ -0,0 +1,29 @@
+package gg.modl.backend.billing;
+
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.database.GlobalIndexInitializer;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+public class StripeIndexInitializer implements GlobalIndexInitializer {
+    @Override
+    public void ensureIndexes(@NotNull MongoTemplate mongo) {
+        // One index per branch of the poll query, due retries and expired claims
+        mongo.indexOps(CollectionName.STRIPE_EVENTS).createIndex(new Index()
+                .on("status", Sort.Direction.ASC)
+                .on("nextAttemptAt", Sort.Direction.ASC)
+                .on("created", Sort.Direction.ASC)
+                .named("status_next_attempt"));
+        mongo.indexOps(CollectionName.STRIPE_EVENTS).createIndex(new Index()
+                .on("status", Sort.Direction.ASC)
+                .on("claimedAt", Sort.Direction.ASC));
+        // Only processed events get an expiresAt, failed ones stay until they are replayed
+        mongo.indexOps(CollectionName.STRIPE_EVENTS).createIndex(new Index().on("expiresAt", Sort.Direction.ASC).expire(Duration.ZERO));
+    }
+}
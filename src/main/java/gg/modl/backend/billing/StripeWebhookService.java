@@ -0,0 +1,188 @@
+package gg.modl.backend.billing;
+
+import com.stripe.exception.SignatureVerificationException;
+import com.stripe.model.Event;
+import com.stripe.net.Webhook;
+import gg.modl.backend.billing.data.StripeEventRecord;
+import gg.modl.backend.billing.data.StripeEventStatus;
+import gg.modl.backend.database.DynamicMongoTemplateProvider;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Service
+@Slf4j
+public class StripeWebhookService {
+    private static final long MAX_RETRY_DELAY_SECONDS = 60 * 60;
+
+    private final StripeConfiguration configuration;
+    private final DynamicMongoTemplateProvider mongoProvider;
+    private final StripeEventProcessor eventProcessor;
+    // Single threaded lanes, every event of a subscription hashes to the same lane and runs in arrival order
+    private final ExecutorService[] lanes;
+
+    public StripeWebhookService(StripeConfiguration configuration, DynamicMongoTemplateProvider mongoProvider, StripeEventProcessor eventProcessor) {
+        this.configuration = configuration;
+        this.mongoProvider = mongoProvider;
+        this.eventProcessor = eventProcessor;
+        this.lanes = new ExecutorService[configuration.getWorkerLanes()];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = Executors.newSingleThreadExecutor();
+        }
+    }
+
+    // Only verifies and stores the event so Stripe gets its 2xx immediately, processing happens on the workers
+    public void ingest(String payload, String signatureHeader) throws SignatureVerificationException {
+        Event event = Webhook.constructEvent(payload, signatureHeader, configuration.getWebhookSecret());
+
+        Instant now = Instant.now();
+        StripeEventRecord record = new StripeEventRecord();
+        record.setId(event.getId());
+        record.setType(event.getType());
+        record.setOrderingKey(resolveOrderingKey(event.getId(), payload));
+        record.setCreated(event.getCreated());
+        record.setPayload(payload);
+        record.setStatus(StripeEventStatus.PENDING);
+        record.setReceivedAt(now);
+        record.setNextAttemptAt(now);
+
+        try {
+            mongoProvider.getGlobalDatabase().insert(record);
+        } catch (DuplicateKeyException e) {
+            log.debug("Ignoring redelivered Stripe event {}", event.getId());
+        }
+    }
+
+    public boolean replay(String eventId) {
+        Update update = new Update()
+                .set("status", StripeEventStatus.PENDING)
+                .set("attempts", 0)
+                .set("nextAttemptAt", Instant.now())
+                .unset("claimToken")
+                .unset("expiresAt")
+                .unset("error");
+
+        return mongoProvider.getGlobalDatabase()
+                .updateFirst(new Query(Criteria.where("_id").is(eventId)), update, StripeEventRecord.class)
+                .getMatchedCount() > 0;
+    }
+
+    public long replayFailed() {
+        Update update = new Update()
+                .set("status", StripeEventStatus.PENDING)
+                .set("attempts", 0)
+                .set("nextAttemptAt", Instant.now())
+                .unset("claimToken");
+
+        return mongoProvider.getGlobalDatabase()
+                .updateMulti(new Query(Criteria.where("status").is(StripeEventStatus.FAILED)), update, StripeEventRecord.class)
+                .getModifiedCount();
+    }
+
+    @Scheduled(fixedDelayString = "${modl.stripe.poll-interval-millis:500}")
+    public void poll() {
+        MongoTemplate mongo = mongoProvider.getGlobalDatabase();
+        Instant now = Instant.now();
+        Instant claimExpiredBefore = now.minusSeconds(configuration.getClaimTimeoutSeconds());
+
+        Criteria ready = new Criteria().orOperator(
+                new Criteria().andOperator(
+                        Criteria.where("status").is(StripeEventStatus.PENDING),
+                        Criteria.where("nextAttemptAt").lte(now)),
+                new Criteria().andOperator(
+                        Criteria.where("status").is(StripeEventStatus.PROCESSING),
+                        Criteria.where("claimedAt").lt(claimExpiredBefore))
+        );
+
+        Query candidates = new Query(ready)
+                .with(Sort.by(Sort.Direction.ASC, "created", "_id"))
+                .limit(configuration.getBatchSize());
+        candidates.fields().include("_id");
+
+        List<String> ids = mongo.find(candidates, StripeEventRecord.class).stream()
+                .map(StripeEventRecord::getId)
+                .toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        // Claiming with a token in one update keeps other nodes from picking up the same events
+        String claimToken = UUID.randomUUID().toString();
+        mongo.updateMulti(new Query(new Criteria().andOperator(Criteria.where("_id").in(ids), ready)), new Update()
+                .set("status", StripeEventStatus.PROCESSING)
+                .set("claimToken", claimToken)
+                .set("claimedAt", now), StripeEventRecord.class);
+
+        Query claimed = new Query(Criteria.where("claimToken").is(claimToken))
+                .with(Sort.by(Sort.Direction.ASC, "created", "_id"));
+
+        for (StripeEventRecord record : mongo.find(claimed, StripeEventRecord.class)) {
+            lanes[Math.floorMod(record.getOrderingKey().hashCode(), lanes.length)].execute(() -> process(record));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+    }
+
+    private void process(StripeEventRecord record) {
+        MongoTemplate mongo = mongoProvider.getGlobalDatabase();
+        Query owned = new Query(new Criteria().andOperator(
+                Criteria.where("_id").is(record.getId()),
+                Criteria.where("claimToken").is(record.getClaimToken())));
+
+        try {
+            eventProcessor.process(record.getPayload());
+            Instant processedAt = Instant.now();
+            mongo.updateFirst(owned, new Update()
+                    .set("status", StripeEventStatus.PROCESSED)
+                    .set("processedAt", processedAt)
+                    .set("expiresAt", processedAt.plus(configuration.getProcessedRetentionDays(), ChronoUnit.DAYS))
+                    .unset("error"), StripeEventRecord.class);
+        } catch (Exception e) {
+            int attempts = record.getAttempts() + 1;
+            boolean exhausted = attempts >= configuration.getMaxAttempts();
+            long delaySeconds = Math.min(MAX_RETRY_DELAY_SECONDS, 1L << Math.min(attempts, 20));
+
+            log.warn("Failed to process Stripe event {} (attempt {})", record.getId(), attempts, e);
+            mongo.updateFirst(owned, new Update()
+                    .set("status", exhausted ? StripeEventStatus.FAILED : StripeEventStatus.PENDING)
+                    .set("attempts", attempts)
+                    .set("nextAttemptAt", Instant.now().plusSeconds(delaySeconds))
+                    .set("error", String.valueOf(e.getMessage())), StripeEventRecord.class);
+        }
+    }
+
+    private String resolveOrderingKey(String eventId, String payload) {
+        Document object = Document.parse(payload).get("data", Document.class).get("object", Document.class);
+
+        if (object.get("subscription") instanceof String subscription) {
+            return subscription;
+        }
+        if ("subscription".equals(object.getString("object"))) {
+            return object.getString("id");
+        }
+        if (object.get("customer") instanceof String customer) {
+            return customer;
+        }
+        return eventId;
+    }
+}
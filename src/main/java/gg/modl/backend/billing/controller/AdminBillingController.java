@@ -0,0 +1,32 @@
+package gg.modl.backend.billing.controller;
+
+import gg.modl.backend.billing.StripeWebhookService;
+import gg.modl.backend.rest.RESTMappingV1;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(RESTMappingV1.ADMIN_BILLING)
+@RequiredArgsConstructor
+public class AdminBillingController {
+    private final StripeWebhookService stripeWebhookService;
+
+    @PostMapping("/stripe/events/{eventId}/replay")
+    public ResponseEntity<ReplayResponse> replayEvent(@PathVariable String eventId) {
+        if (!stripeWebhookService.replay(eventId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(new ReplayResponse(1));
+    }
+
+    @PostMapping("/stripe/events/replay-failed")
+    public ResponseEntity<ReplayResponse> replayFailed() {
+        return ResponseEntity.ok(new ReplayResponse(stripeWebhookService.replayFailed()));
+    }
+
+    public record ReplayResponse(long replayed) {}
+}
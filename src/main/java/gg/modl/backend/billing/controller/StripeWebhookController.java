@@ -0,0 +1,32 @@
+package gg.modl.backend.billing.controller;
+
+import com.stripe.exception.SignatureVerificationException;
+import gg.modl.backend.billing.StripeWebhookService;
+import gg.modl.backend.rest.RESTMappingV1;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(RESTMappingV1.WEBHOOK_STRIPE)
+@RequiredArgsConstructor
+public class StripeWebhookController {
+    private static final String STRIPE_SIGNATURE_HEADER = "Stripe-Signature";
+
+    private final StripeWebhookService stripeWebhookService;
+
+    @PostMapping
+    public ResponseEntity<Void> receive(@RequestBody String payload, @RequestHeader(STRIPE_SIGNATURE_HEADER) String signature) {
+        try {
+            stripeWebhookService.ingest(payload, signature);
+        } catch (SignatureVerificationException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok().build();
+    }
+}
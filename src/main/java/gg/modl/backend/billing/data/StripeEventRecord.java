@@ -0,0 +1,58 @@
+package gg.modl.backend.billing.data;
+
+import gg.modl.backend.database.CollectionName;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+
+@Document(collection = CollectionName.STRIPE_EVENTS)
+@Data
+public class StripeEventRecord {
+    // Stripe event id, which makes inserting the same delivery twice a no-op
+    @Id
+    private String id;
+
+    @Field
+    private String type;
+
+    // Subscription (or customer) the event belongs to, events sharing it are processed in order
+    @Field
+    private String orderingKey;
+
+    @Field
+    private long created;
+
+    @Field
+    private String payload;
+
+    @Field
+    private StripeEventStatus status;
+
+    @Field
+    private int attempts;
+
+    @Field
+    private String claimToken;
+
+    @Field
+    private Instant claimedAt;
+
+    @Field
+    private Instant nextAttemptAt;
+
+    @Field
+    private Instant receivedAt;
+
+    @Field
+    private Instant processedAt;
+
+    // Set once the event is processed, the TTL index removes the record after the retention period
+    @Field
+    private Instant expiresAt;
+
+    @Field
+    private String error;
+}
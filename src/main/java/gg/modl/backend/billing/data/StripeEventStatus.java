@@ -0,0 +1,8 @@
+package gg.modl.backend.billing.data;
+
+public enum StripeEventStatus {
+    PENDING,
+    PROCESSING,
+    PROCESSED,
+    FAILED
+}
@@ -3,6 +3,22 @@ package gg.modl.backend.database;
 public final class CollectionName {
     public static final String MODL_SERVERS = "servers";
     public static final String PLAYERS = "players";
+    public static final String PLAYER_NAMES = "player_names";
     public static final String SESSIONS = "sessions";
     public static final String AUTH_CODES = "auth_codes";
+    public static final String SETTINGS = "settings";
+    public static final String RATE_LIMITS = "rate_limits";
+    public static final String SERVER_RESERVATIONS = "server_reservations";
+    public static final String STRIPE_EVENTS = "stripe_events";
+    public static final String TENANT_PLACEMENTS = "tenant_placements";
+    public static final String ANALYTICS_ROLLUPS = "analytics_rollups";
+    public static final String ANALYTICS_SEEN = "analytics_seen";
+    public static final String ATTACHMENTS = "attachments";
+    public static final String TICKETS = "tickets";
+    public static final String TICKET_REPLY_BUCKETS = "ticket_reply_buckets";
+    public static final String TICKET_NOTIFICATIONS = "ticket_notifications";
+    public static final String STAFF_ROLES = "staff_roles";
+    public static final String STAFF_MEMBERS = "staff_members";
+    public static final String API_KEYS = "api_keys";
+    public static final String MIGRATIONS = "migrations";
 }
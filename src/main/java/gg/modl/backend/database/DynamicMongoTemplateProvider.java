@@ -1,28 +1,105 @@
 package gg.modl.backend.database;
 
-import com.mongodb.client.MongoClient;
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.ClientSession;
+import gg.modl.backend.database.placement.MongoClusterRegistry;
+import gg.modl.backend.database.placement.TenantPlacementService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
 import org.springframework.stereotype.Service;
 
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 @Service
 public class DynamicMongoTemplateProvider {
-    private static final String GLOBAL_DATABASE_NAME = "modl";
+    public static final String GLOBAL_DATABASE_NAME = "modl";
 
-    private final MongoClient mongoClient;
-    private final ConcurrentMap<String, MongoTemplate> mongoTemplateCache = new ConcurrentHashMap<>();
+    private final MongoClusterRegistry clusterRegistry;
+    private final TenantPlacementService placementService;
+    private final ReadRoutingConfiguration routingConfiguration;
+    private final MongoMappingContext mappingContext;
+    private final MongoCustomConversions customConversions;
+    private final ConcurrentMap<TemplateKey, MongoTemplate> mongoTemplateCache = new ConcurrentHashMap<>();
+    private final Map<ReadRoute, Counter> routeCounters = new EnumMap<>(ReadRoute.class);
+    private final Counter causalSessionCounter;
 
-    public DynamicMongoTemplateProvider(MongoClient mongoClient) {
-        this.mongoClient = mongoClient;
+    public DynamicMongoTemplateProvider(MongoClusterRegistry clusterRegistry, TenantPlacementService placementService,
+                                        ReadRoutingConfiguration routingConfiguration, MongoMappingContext mappingContext,
+                                        MongoCustomConversions customConversions, MeterRegistry meterRegistry) {
+        this.clusterRegistry = clusterRegistry;
+        this.placementService = placementService;
+        this.routingConfiguration = routingConfiguration;
+        this.mappingContext = mappingContext;
+        this.customConversions = customConversions;
+        for (ReadRoute route : ReadRoute.values()) {
+            routeCounters.put(route, Counter.builder("modl.mongo.read_route").tag("route", route.name().toLowerCase()).register(meterRegistry));
+        }
+        this.causalSessionCounter = Counter.builder("modl.mongo.causal_sessions").register(meterRegistry);
     }
 
     public MongoTemplate getFromDatabaseName(String databaseName) {
-        return mongoTemplateCache.computeIfAbsent(databaseName, dbName -> new MongoTemplate(mongoClient, databaseName));
+        return getFromDatabaseName(databaseName, ReadRoute.PRIMARY);
+    }
+
+    public MongoTemplate getFromDatabaseName(String databaseName, ReadRoute route) {
+        ReadRoute effectiveRoute = routingConfiguration.isEnabled() ? route : ReadRoute.PRIMARY;
+        routeCounters.get(effectiveRoute).increment();
+        String clusterId = placementService.resolveCluster(databaseName);
+        return mongoTemplateCache.computeIfAbsent(new TemplateKey(clusterId, databaseName, effectiveRoute), this::createTemplate);
     }
 
     public MongoTemplate getGlobalDatabase() {
         return getFromDatabaseName(GLOBAL_DATABASE_NAME);
     }
-}
\ No newline at end of file
+
+    public MongoTemplate getGlobalDatabase(ReadRoute route) {
+        return getFromDatabaseName(GLOBAL_DATABASE_NAME, route);
+    }
+
+    // Reads inside the callback observe every write made earlier in it, even when they are routed to a secondary
+    public <T> T withCausalSession(String databaseName, ReadRoute route, Function<MongoTemplate, T> callback) {
+        causalSessionCounter.increment();
+        String clusterId = placementService.resolveCluster(databaseName);
+        try (ClientSession session = clusterRegistry.getClient(clusterId).startSession(ClientSessionOptions.builder().causallyConsistent(true).build())) {
+            return callback.apply(getFromDatabaseName(databaseName, route).withSession(session));
+        }
+    }
+
+    // Every template shares the application's mapping context, which is populated with the @Document classes at
+    // startup, so a new tenant or route never rebuilds entity metadata on its first request
+    private MongoTemplate createTemplate(TemplateKey key) {
+        MongoDatabaseFactory databaseFactory = new SimpleMongoClientDatabaseFactory(clusterRegistry.getClient(key.clusterId()), key.databaseName());
+        MappingMongoConverter converter = new MappingMongoConverter(new DefaultDbRefResolver(databaseFactory), mappingContext);
+        converter.setCustomConversions(customConversions);
+        converter.afterPropertiesSet();
+
+        MongoTemplate template = new MongoTemplate(databaseFactory, converter);
+        template.setReadPreference(toReadPreference(key.route()));
+        return template;
+    }
+
+    private ReadPreference toReadPreference(ReadRoute route) {
+        long maxStaleness = routingConfiguration.getMaxStalenessSeconds();
+        return switch (route) {
+            case PRIMARY -> ReadPreference.primary();
+            case SECONDARY_PREFERRED -> ReadPreference.secondaryPreferred(maxStaleness, TimeUnit.SECONDS);
+            case NEAREST -> ReadPreference.nearest(maxStaleness, TimeUnit.SECONDS);
+        };
+    }
+
+    private record TemplateKey(String clusterId, String databaseName, ReadRoute route) {
+    }
+}
@@ -0,0 +1,26 @@
+package gg.modl.backend.database;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+// Auto index creation is off, so indexes on the global database are created here once per start. This runs before
+// the context finishes refreshing, which means before any scheduled poll can query the collections without them,
+// and a failure stops startup instead of leaving the pollers scanning whole collections
+@Service
+@RequiredArgsConstructor
+public class GlobalIndexService implements SmartInitializingSingleton {
+    private final DynamicMongoTemplateProvider mongoProvider;
+    private final List<GlobalIndexInitializer> initializers;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        MongoTemplate mongo = mongoProvider.getGlobalDatabase();
+        for (GlobalIndexInitializer initializer : initializers) {
+            initializer.ensureIndexes(mongo);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package gg.modl.backend.database;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import gg.modl.backend.database.placement.MongoClusterConfiguration;
+import gg.modl.backend.database.placement.MongoClusterRegistry;
+import gg.modl.backend.database.placement.TenantPlacementService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Reactive counterpart of DynamicMongoTemplateProvider, following the same tenant placement
+@Service
+public class ReactiveMongoTemplateProvider {
+    private final MongoClient primaryClient;
+    private final MongoClusterConfiguration clusterConfiguration;
+    private final TenantPlacementService placementService;
+    private final ConcurrentMap<String, MongoClient> clusterClients = new ConcurrentHashMap<>();
+    private final ConcurrentMap<TemplateKey, ReactiveMongoTemplate> templateCache = new ConcurrentHashMap<>();
+
+    public ReactiveMongoTemplateProvider(MongoClient primaryClient, MongoClusterConfiguration clusterConfiguration,
+                                         TenantPlacementService placementService) {
+        this.primaryClient = primaryClient;
+        this.clusterConfiguration = clusterConfiguration;
+        this.placementService = placementService;
+    }
+
+    public ReactiveMongoTemplate getFromDatabaseName(String databaseName) {
+        String clusterId = placementService.resolveCluster(databaseName);
+        return templateCache.computeIfAbsent(new TemplateKey(clusterId, databaseName),
+                key -> new ReactiveMongoTemplate(getClient(key.clusterId()), key.databaseName()));
+    }
+
+    private MongoClient getClient(String clusterId) {
+        if (MongoClusterRegistry.PRIMARY_CLUSTER_ID.equals(clusterId)) {
+            return primaryClient;
+        }
+
+        return clusterClients.computeIfAbsent(clusterId, id -> {
+            MongoClusterConfiguration.ClusterDefinition definition = clusterConfiguration.getClusters().get(id);
+            if (definition == null) {
+                throw new IllegalArgumentException("Unknown Mongo cluster: " + id);
+            }
+            return MongoClients.create(definition.getUri());
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        clusterClients.values().forEach(MongoClient::close);
+    }
+
+    private record TemplateKey(String clusterId, String databaseName) {
+    }
+}
@@ -0,0 +1,8 @@
+package gg.modl.backend.database;
+
+// Where a call site is willing to read from. Anything other than PRIMARY may return data up to the configured staleness bound
+public enum ReadRoute {
+    PRIMARY,
+    SECONDARY_PREFERRED,
+    NEAREST
+}
@@ -0,0 +1,16 @@
+package gg.modl.backend.database;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "modl.mongo.read-routing")
+@Getter
+@Setter
+public class ReadRoutingConfiguration {
+    private boolean enabled = true;
+    // MongoDB rejects values below 90 seconds
+    private long maxStalenessSeconds = 90;
+}
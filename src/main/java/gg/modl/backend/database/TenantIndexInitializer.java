@@ -0,0 +1,8 @@
+package gg.modl.backend.database;
+
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+public interface TenantIndexInitializer {
+    void ensureIndexes(@NotNull MongoTemplate mongo);
+}
@@ -0,0 +1,32 @@
+package gg.modl.backend.database;
+
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+public class TenantIndexService {
+    private final DynamicMongoTemplateProvider mongoProvider;
+    private final List<TenantIndexInitializer> initializers;
+    private final Set<String> initializedDatabases = ConcurrentHashMap.newKeySet();
+
+    // Index creation is idempotent on the Mongo side, this only avoids repeating it on every request
+    public void ensureIndexes(@NotNull String databaseName) {
+        if (initializedDatabases.contains(databaseName)) {
+            return;
+        }
+
+        MongoTemplate mongo = mongoProvider.getFromDatabaseName(databaseName);
+        for (TenantIndexInitializer initializer : initializers) {
+            initializer.ensureIndexes(mongo);
+        }
+
+        initializedDatabases.add(databaseName);
+    }
+}
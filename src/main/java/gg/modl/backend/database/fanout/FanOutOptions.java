@@ -0,0 +1,16 @@
+package gg.modl.backend.database.fanout;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+
+// A null timeout falls back to modl.fanout.default-timeout-millis for the whole fan-out
+public record FanOutOptions(@Nullable Duration timeout, boolean cancelOnError) {
+    public static FanOutOptions defaults() {
+        return new FanOutOptions(null, false);
+    }
+
+    public static FanOutOptions failFast() {
+        return new FanOutOptions(null, true);
+    }
+}
@@ -0,0 +1,4 @@
+package gg.modl.backend.database.fanout;
+
+public record FanOutSummary(int tenants, int succeeded, int failed, int timedOut, int cancelled, long elapsedMillis) {
+}
@@ -0,0 +1,18 @@
+package gg.modl.backend.database.fanout;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "modl.fanout")
+@Getter
+@Setter
+public class TenantFanOutConfiguration {
+    private int globalConcurrency = 128;
+    // Keeps one fan-out from saturating a single cluster's connection pool
+    private int perClusterConcurrency = 32;
+    // Stays under the servlet async timeout so streamed fan-outs can still write their summary line
+    private long defaultTimeoutMillis = 20_000;
+}
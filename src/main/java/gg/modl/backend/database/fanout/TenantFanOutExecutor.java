@@ -0,0 +1,198 @@
+package gg.modl.backend.database.fanout;
+
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.database.DynamicMongoTemplateProvider;
+import gg.modl.backend.database.ReadRoute;
+import gg.modl.backend.database.placement.TenantPlacementService;
+import gg.modl.backend.server.ServerField;
+import gg.modl.backend.server.data.ProvisioningStatus;
+import gg.modl.backend.server.data.Server;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+// Runs one operation against many tenant databases on virtual threads. The global and per-cluster permits are shared
+// by every fan-out in flight, so concurrent admin jobs split the capacity instead of multiplying the load
+@Service
+@Slf4j
+public class TenantFanOutExecutor {
+    private final DynamicMongoTemplateProvider mongoProvider;
+    private final TenantPlacementService placementService;
+    private final TenantFanOutConfiguration configuration;
+    private final Semaphore globalPermits;
+    private final ConcurrentMap<String, Semaphore> clusterPermits = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public TenantFanOutExecutor(DynamicMongoTemplateProvider mongoProvider, TenantPlacementService placementService,
+                                TenantFanOutConfiguration configuration) {
+        this.mongoProvider = mongoProvider;
+        this.placementService = placementService;
+        this.configuration = configuration;
+        this.globalPermits = new Semaphore(configuration.getGlobalConcurrency());
+    }
+
+    // Every provisioned tenant, or only the given server ids
+    public List<Server> listTenants(@Nullable Collection<String> serverIds) {
+        Criteria criteria = Criteria.where(ServerField.PROVISIONING_STATUS).is(ProvisioningStatus.completed.name());
+        if (serverIds != null) {
+            criteria = criteria.and("_id").in(serverIds);
+        }
+        return mongoProvider.getGlobalDatabase(ReadRoute.SECONDARY_PREFERRED).find(new Query(criteria), Server.class, CollectionName.MODL_SERVERS);
+    }
+
+    // Results are handed to onResult one at a time as tenants finish, in completion order, and never after this returns.
+    // Tasks only queue their results, onResult runs on the calling thread so a slow consumer never holds a permit.
+    // onResult returns false once nobody wants further results, e.g. the client went away, which cancels the rest
+    public <T> FanOutSummary execute(@NotNull List<Server> tenants, @NotNull TenantOperation<T> operation,
+                                     @NotNull FanOutOptions options, @NotNull Predicate<TenantResult<T>> onResult) {
+        long startNanos = System.nanoTime();
+        long timeoutNanos = options.timeout() != null
+                ? options.timeout().toNanos()
+                : TimeUnit.MILLISECONDS.toNanos(configuration.getDefaultTimeoutMillis());
+        FanOut<T> fanOut = new FanOut<>(operation, options, startNanos + timeoutNanos);
+
+        List<Future<?>> futures = new ArrayList<>(tenants.size());
+        for (Server tenant : tenants) {
+            futures.add(executor.submit(() -> run(fanOut, tenant)));
+        }
+
+        int[] counts = new int[TenantResult.Outcome.values().length];
+        Set<Server> pending = Collections.newSetFromMap(new IdentityHashMap<>());
+        pending.addAll(tenants);
+        try {
+            while (!pending.isEmpty()) {
+                TenantResult<T> result = fanOut.results.poll(Math.max(0, fanOut.deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (result == null) {
+                    break;
+                }
+                if (pending.remove(result.server())) {
+                    counts[result.outcome().ordinal()]++;
+                    if (!onResult.test(result)) {
+                        fanOut.cancelled.set(true);
+                        break;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fanOut.cancelled.set(true);
+        }
+        futures.forEach(future -> future.cancel(true));
+
+        // Stragglers and tasks that never started still get a result, late results from interrupted tasks are dropped
+        TenantResult.Outcome unfinished = fanOut.cancelled.get() ? TenantResult.Outcome.CANCELLED : TenantResult.Outcome.TIMED_OUT;
+        for (Server tenant : pending) {
+            counts[unfinished.ordinal()]++;
+            onResult.test(result(tenant, unfinished, null, null, startNanos));
+        }
+
+        return new FanOutSummary(tenants.size(),
+                counts[TenantResult.Outcome.SUCCEEDED.ordinal()],
+                counts[TenantResult.Outcome.FAILED.ordinal()],
+                counts[TenantResult.Outcome.TIMED_OUT.ordinal()],
+                counts[TenantResult.Outcome.CANCELLED.ordinal()],
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> void run(FanOut<T> fanOut, Server tenant) {
+        long startNanos = System.nanoTime();
+        Semaphore clusterPermit = null;
+        boolean globalAcquired = false;
+        boolean clusterAcquired = false;
+        try {
+            // Inside the try, a tenant fenced for a move reports as failed instead of killing the task
+            clusterPermit = clusterPermits.computeIfAbsent(placementService.resolveCluster(tenant.getDatabaseName()),
+                    clusterId -> new Semaphore(configuration.getPerClusterConcurrency()));
+            // Cluster first: a task queued behind a busy cluster must not sit on a global permit that tenants on
+            // idle clusters could be using. Every task takes the two in the same order, so they cannot deadlock
+            clusterAcquired = clusterPermit.tryAcquire(fanOut.deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+            globalAcquired = clusterAcquired && globalPermits.tryAcquire(fanOut.deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (fanOut.cancelled.get()) {
+                fanOut.deliver(result(tenant, TenantResult.Outcome.CANCELLED, null, null, startNanos));
+                return;
+            }
+            if (!globalAcquired) {
+                fanOut.deliver(result(tenant, TenantResult.Outcome.TIMED_OUT, null, null, startNanos));
+                return;
+            }
+
+            fanOut.running.add(Thread.currentThread());
+            T value = fanOut.operation.apply(tenant, mongoProvider.getFromDatabaseName(tenant.getDatabaseName()));
+            fanOut.deliver(result(tenant, TenantResult.Outcome.SUCCEEDED, value, null, startNanos));
+        } catch (InterruptedException | RuntimeException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (fanOut.cancelled.get()) {
+                fanOut.deliver(result(tenant, TenantResult.Outcome.CANCELLED, null, null, startNanos));
+            } else if (System.nanoTime() - fanOut.deadlineNanos >= 0) {
+                fanOut.deliver(result(tenant, TenantResult.Outcome.TIMED_OUT, null, null, startNanos));
+            } else {
+                log.warn("Fan-out operation failed for {}", tenant.getDatabaseName(), e);
+                fanOut.deliver(result(tenant, TenantResult.Outcome.FAILED, null, e, startNanos));
+                if (fanOut.options.cancelOnError() && fanOut.cancelled.compareAndSet(false, true)) {
+                    fanOut.running.forEach(Thread::interrupt);
+                }
+            }
+        } finally {
+            fanOut.running.remove(Thread.currentThread());
+            if (clusterAcquired) {
+                clusterPermit.release();
+            }
+            if (globalAcquired) {
+                globalPermits.release();
+            }
+        }
+    }
+
+    private <T> TenantResult<T> result(Server tenant, TenantResult.Outcome outcome, @Nullable T value, @Nullable Throwable error, long startNanos) {
+        return new TenantResult<>(tenant, outcome, value, error, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    private static final class FanOut<T> {
+        private final TenantOperation<T> operation;
+        private final FanOutOptions options;
+        private final long deadlineNanos;
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final Set<Thread> running = ConcurrentHashMap.newKeySet();
+        private final BlockingQueue<TenantResult<T>> results = new LinkedBlockingQueue<>();
+
+        private FanOut(TenantOperation<T> operation, FanOutOptions options, long deadlineNanos) {
+            this.operation = operation;
+            this.options = options;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        private void deliver(TenantResult<T> result) {
+            results.add(result);
+        }
+    }
+}
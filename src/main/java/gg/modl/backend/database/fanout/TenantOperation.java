@@ -0,0 +1,10 @@
+package gg.modl.backend.database.fanout;
+
+import gg.modl.backend.server.data.Server;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+@FunctionalInterface
+public interface TenantOperation<T> {
+    T apply(@NotNull Server server, @NotNull MongoTemplate mongo);
+}
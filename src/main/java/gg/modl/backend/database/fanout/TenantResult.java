@@ -0,0 +1,15 @@
+package gg.modl.backend.database.fanout;
+
+import gg.modl.backend.server.data.Server;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+public record TenantResult<T>(@NotNull Server server, @NotNull Outcome outcome, @Nullable T value,
+                              @Nullable Throwable error, long durationMillis) {
+    public enum Outcome {
+        SUCCEEDED,
+        FAILED,
+        TIMED_OUT,
+        CANCELLED
+    }
+}
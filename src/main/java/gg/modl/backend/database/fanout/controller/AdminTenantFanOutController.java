@@ -0,0 +1,136 @@
+package gg.modl.backend.database.fanout.controller;
+
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.database.fanout.FanOutOptions;
+import gg.modl.backend.database.fanout.FanOutSummary;
+import gg.modl.backend.database.fanout.TenantFanOutExecutor;
+import gg.modl.backend.database.fanout.TenantOperation;
+import gg.modl.backend.database.fanout.TenantResult;
+import gg.modl.backend.rest.RESTMappingV1;
+import gg.modl.backend.server.data.Server;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongPredicate;
+
+// Results are written as one JSON line per tenant as soon as it finishes, followed by a summary line
+@RestController
+@RequestMapping(RESTMappingV1.ADMIN_TENANTS)
+@RequiredArgsConstructor
+public class AdminTenantFanOutController {
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final TenantFanOutExecutor fanOutExecutor;
+
+    @GetMapping("/search-email")
+    public ResponseEntity<StreamingResponseBody> searchEmail(
+            @RequestParam("email") String email,
+            @RequestParam(value = "servers", required = false) List<String> serverIds,
+            @RequestParam(value = "timeoutSeconds", required = false) Integer timeoutSeconds,
+            @RequestParam(value = "failFast", defaultValue = "false") boolean failFast) {
+
+        if (email.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String normalizedEmail = email.trim().toLowerCase(Locale.ROOT);
+        TenantOperation<Long> operation = (server, mongo) ->
+                mongo.count(new Query(Criteria.where("email").is(normalizedEmail)), CollectionName.SESSIONS);
+
+        return stream(serverIds, operation, options(timeoutSeconds, failFast), count -> count > 0);
+    }
+
+    @GetMapping("/player-counts")
+    public ResponseEntity<StreamingResponseBody> playerCounts(
+            @RequestParam(value = "servers", required = false) List<String> serverIds,
+            @RequestParam(value = "timeoutSeconds", required = false) Integer timeoutSeconds,
+            @RequestParam(value = "failFast", defaultValue = "false") boolean failFast) {
+
+        TenantOperation<Long> operation = (server, mongo) -> mongo.getCollection(CollectionName.PLAYERS).estimatedDocumentCount();
+        return stream(serverIds, operation, options(timeoutSeconds, failFast), count -> true);
+    }
+
+    private FanOutOptions options(Integer timeoutSeconds, boolean failFast) {
+        Duration timeout = timeoutSeconds == null ? null : Duration.ofSeconds(Math.max(1, timeoutSeconds));
+        return new FanOutOptions(timeout, failFast);
+    }
+
+    // Successful results the filter rejects are left out of the stream but still counted in the summary. A client that
+    // disconnects cancels the tenants still outstanding, so an abandoned request stops using fan-out permits
+    private ResponseEntity<StreamingResponseBody> stream(List<String> serverIds, TenantOperation<Long> operation,
+                                                         FanOutOptions options, LongPredicate include) {
+        List<Server> tenants = fanOutExecutor.listTenants(serverIds);
+
+        StreamingResponseBody body = output -> {
+            LineWriter writer = new LineWriter(output);
+            FanOutSummary summary = fanOutExecutor.execute(tenants, operation, options, result -> {
+                if (result.outcome() == TenantResult.Outcome.SUCCEEDED && !include.test(result.value())) {
+                    return true;
+                }
+                return writer.write(toDocument(result));
+            });
+
+            writer.write(new Document("summary", new Document()
+                    .append("tenants", summary.tenants())
+                    .append("succeeded", summary.succeeded())
+                    .append("failed", summary.failed())
+                    .append("timedOut", summary.timedOut())
+                    .append("cancelled", summary.cancelled())
+                    .append("elapsedMillis", summary.elapsedMillis())));
+        };
+
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    private Document toDocument(TenantResult<Long> result) {
+        Document document = new Document("serverId", result.server().getId())
+                .append("databaseName", result.server().getDatabaseName())
+                .append("outcome", result.outcome().name())
+                .append("durationMillis", result.durationMillis());
+        if (result.value() != null) {
+            document.append("value", result.value());
+        }
+        if (result.error() != null) {
+            document.append("error", String.valueOf(result.error().getMessage()));
+        }
+        return document;
+    }
+
+    private static final class LineWriter {
+        private final OutputStream output;
+        private boolean closed;
+
+        private LineWriter(OutputStream output) {
+            this.output = output;
+        }
+
+        // Returns false once the client has gone away, the remaining lines are then dropped
+        private boolean write(Document line) {
+            if (closed) {
+                return false;
+            }
+            try {
+                output.write((line.toJson() + "\n").getBytes(StandardCharsets.UTF_8));
+                output.flush();
+            } catch (IOException e) {
+                closed = true;
+            }
+            return !closed;
+        }
+    }
+}
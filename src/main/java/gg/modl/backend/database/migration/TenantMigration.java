@@ -0,0 +1,13 @@
+package gg.modl.backend.database.migration;
+
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+public interface TenantMigration {
+    // Recorded on the tenant once the migration completed there, so it must never change or be reused
+    @NotNull
+    String id();
+
+    // Must be safe to run again, a node can die between migrating and recording completion
+    void migrate(@NotNull MongoTemplate mongo);
+}
@@ -0,0 +1,88 @@
+package gg.modl.backend.database.migration;
+
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.database.DynamicMongoTemplateProvider;
+import gg.modl.backend.database.fanout.TenantFanOutExecutor;
+import gg.modl.backend.server.data.Server;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Runs data migrations in the background, one tenant at a time, so they never sit on a request path. A tenant's
+// migration is claimed with a lease in its migrations collection, only one node works on it and a node that dies
+// mid-way hands it over once the lease runs out
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TenantMigrationService {
+    private static final String LEASE_UNTIL = "leaseUntil";
+    private static final String COMPLETED_AT = "completedAt";
+    private static final long LEASE_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final DynamicMongoTemplateProvider mongoProvider;
+    private final TenantFanOutExecutor fanOutExecutor;
+    private final List<TenantMigration> migrations;
+    private final Set<String> completed = ConcurrentHashMap.newKeySet();
+
+    @Scheduled(initialDelayString = "${modl.migrations.initial-delay-millis:60000}", fixedDelayString = "${modl.migrations.interval-millis:300000}")
+    public void migrateTenants() {
+        if (migrations.isEmpty()) {
+            return;
+        }
+
+        for (Server tenant : fanOutExecutor.listTenants(null)) {
+            for (TenantMigration migration : migrations) {
+                String key = tenant.getDatabaseName() + ":" + migration.id();
+                if (completed.contains(key)) {
+                    continue;
+                }
+
+                try {
+                    if (migrate(tenant.getDatabaseName(), migration)) {
+                        completed.add(key);
+                    }
+                } catch (RuntimeException e) {
+                    // Left unclaimed once the lease expires, the next run tries again
+                    log.error("Migration {} failed on {}", migration.id(), tenant.getDatabaseName(), e);
+                }
+            }
+        }
+    }
+
+    // Returns whether the migration is completed on the tenant, by this call or an earlier one
+    private boolean migrate(String databaseName, TenantMigration migration) {
+        MongoTemplate mongo = mongoProvider.getFromDatabaseName(databaseName);
+        Query byId = new Query(Criteria.where("_id").is(migration.id()));
+        Date now = new Date();
+
+        // Matches an unfinished migration whose lease is free. A completed or leased one does not match, so the
+        // upsert tries to insert the existing id and fails, which is how losing the claim shows up
+        Query claimable = new Query(new Criteria().andOperator(
+                Criteria.where("_id").is(migration.id()),
+                Criteria.where(COMPLETED_AT).is(null),
+                new Criteria().orOperator(Criteria.where(LEASE_UNTIL).is(null), Criteria.where(LEASE_UNTIL).lt(now))));
+        try {
+            mongo.upsert(claimable, new Update().set(LEASE_UNTIL, new Date(now.getTime() + LEASE_MILLIS)), CollectionName.MIGRATIONS);
+        } catch (DuplicateKeyException e) {
+            return mongo.exists(new Query(Criteria.where("_id").is(migration.id()).and(COMPLETED_AT).ne(null)), CollectionName.MIGRATIONS);
+        }
+
+        long startNanos = System.nanoTime();
+        migration.migrate(mongo);
+        mongo.updateFirst(byId, new Update().set(COMPLETED_AT, new Date()).unset(LEASE_UNTIL), CollectionName.MIGRATIONS);
+        log.info("Migration {} completed on {} in {} ms", migration.id(), databaseName, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        return true;
+    }
+}
@@ -0,0 +1,40 @@
+package gg.modl.backend.database.pagination;
+
+import org.bson.Document;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public record KeysetCursor(@NotNull String sortField, @Nullable Object sortValue, @NotNull Object id) {
+    private static final String SORT_FIELD_KEY = "s";
+    private static final String SORT_VALUE_KEY = "v";
+    private static final String ID_KEY = "i";
+
+    // Extended JSON keeps ObjectId and Date types intact across the round trip
+    public String encode() {
+        Document document = new Document(SORT_FIELD_KEY, sortField)
+                .append(SORT_VALUE_KEY, sortValue)
+                .append(ID_KEY, id);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(document.toJson().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(@NotNull String cursor) {
+        Document document;
+        try {
+            document = Document.parse(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed pagination cursor.", e);
+        }
+
+        String sortField = document.getString(SORT_FIELD_KEY);
+        Object id = document.get(ID_KEY);
+        if (sortField == null || id == null) {
+            throw new IllegalArgumentException("Malformed pagination cursor.");
+        }
+
+        return new KeysetCursor(sortField, document.get(SORT_VALUE_KEY), id);
+    }
+}
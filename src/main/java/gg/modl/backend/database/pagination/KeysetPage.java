@@ -0,0 +1,8 @@
+package gg.modl.backend.database.pagination;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+public record KeysetPage<T>(List<T> items, @Nullable String nextCursor) {
+}
@@ -0,0 +1,88 @@
+package gg.modl.backend.database.pagination;
+
+import org.bson.Document;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public final class KeysetPagination {
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Resumes strictly after the cursor instead of skipping, so a deep page costs the same as the first one
+    // as long as the collection has the index from KeysetSort#toIndex()
+    public static <T> KeysetPage<T> find(@NotNull MongoTemplate mongo, @NotNull Query filter, @NotNull KeysetSort sort,
+                                         @Nullable String cursor, int size, @NotNull Class<T> type, @NotNull String collectionName) {
+        int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+
+        Query query = Query.of(filter)
+                .with(sort.toSort())
+                .limit(pageSize + 1);
+
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor decoded = KeysetCursor.decode(cursor);
+            if (!sort.accepts(decoded)) {
+                throw new IllegalArgumentException("Pagination cursor does not match the requested sort.");
+            }
+            query.addCriteria(afterCursor(sort, decoded));
+        }
+
+        List<Document> documents = mongo.find(query, Document.class, collectionName);
+        boolean hasMore = documents.size() > pageSize;
+        if (hasMore) {
+            documents = documents.subList(0, pageSize);
+        }
+
+        List<T> items = new ArrayList<>(documents.size());
+        for (Document document : documents) {
+            items.add(mongo.getConverter().read(type, document));
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            Document last = documents.getLast();
+            nextCursor = new KeysetCursor(sort.field(), extractSortValue(last, sort), last.get(KeysetSort.ID_FIELD)).encode();
+        }
+
+        return new KeysetPage<>(items, nextCursor);
+    }
+
+    private static Criteria afterCursor(KeysetSort sort, KeysetCursor cursor) {
+        boolean ascending = sort.direction() == Sort.Direction.ASC;
+        Criteria idCriteria = ascending
+                ? Criteria.where(KeysetSort.ID_FIELD).gt(cursor.id())
+                : Criteria.where(KeysetSort.ID_FIELD).lt(cursor.id());
+
+        if (sort.isIdOnly()) {
+            return idCriteria;
+        }
+
+        Object value = cursor.sortValue();
+        Criteria tieCriteria = new Criteria().andOperator(Criteria.where(sort.field()).is(value), idCriteria);
+
+        // Nulls sort before every other value and cannot be compared with $gt/$lt
+        if (value == null) {
+            return ascending
+                    ? new Criteria().orOperator(Criteria.where(sort.field()).ne(null), tieCriteria)
+                    : tieCriteria;
+        }
+
+        if (ascending) {
+            return new Criteria().orOperator(Criteria.where(sort.field()).gt(value), tieCriteria);
+        }
+
+        // Descending pages end with the documents missing the value, $lt never matches those
+        return new Criteria().orOperator(Criteria.where(sort.field()).lt(value), Criteria.where(sort.field()).is(null), tieCriteria);
+    }
+
+    @Nullable
+    private static Object extractSortValue(Document document, KeysetSort sort) {
+        return document.getEmbedded(Arrays.asList(sort.field().split("\\.")), Object.class);
+    }
+}
@@ -0,0 +1,35 @@
+package gg.modl.backend.database.pagination;
+
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.Index;
+
+// The value and id types are what a cursor for this sort may carry, anything else is rejected before it reaches a query
+public record KeysetSort(@NotNull String field, @NotNull Sort.Direction direction, @NotNull Class<?> valueType, @NotNull Class<?> idType) {
+    public static final String ID_FIELD = "_id";
+
+    public boolean isIdOnly() {
+        return ID_FIELD.equals(field);
+    }
+
+    // Documents missing the sort field page with a null value
+    public boolean accepts(@NotNull KeysetCursor cursor) {
+        if (!field.equals(cursor.sortField()) || !idType.isInstance(cursor.id())) {
+            return false;
+        }
+        return isIdOnly() || cursor.sortValue() == null || valueType.isInstance(cursor.sortValue());
+    }
+
+    public Sort toSort() {
+        return isIdOnly() ? Sort.by(direction, ID_FIELD) : Sort.by(direction, field, ID_FIELD);
+    }
+
+    // Index matching toSort() so that resuming from a cursor is a single index seek
+    public Index toIndex() {
+        Index index = new Index().on(field, direction);
+        if (!isIdOnly()) {
+            index.on(ID_FIELD, direction);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,31 @@
+package gg.modl.backend.database.placement;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "modl.mongo")
+@Getter
+@Setter
+public class MongoClusterConfiguration {
+    // Extra clusters next to the primary one from spring.mongodb.uri, keyed by cluster id
+    private Map<String, ClusterDefinition> clusters = new HashMap<>();
+    private double primaryWeight = 1;
+    private boolean primaryAcceptingTenants = true;
+    private long placementCacheSeconds = 30;
+    private int moveBatchSize = 1000;
+    private long moveLeaseSeconds = 60;
+
+    @Getter
+    @Setter
+    public static class ClusterDefinition {
+        private String uri;
+        private double weight = 1;
+        private boolean acceptingTenants = true;
+    }
+}
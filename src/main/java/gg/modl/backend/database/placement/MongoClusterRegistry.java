@@ -0,0 +1,71 @@
+package gg.modl.backend.database.placement;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import jakarta.annotation.PreDestroy;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+@Component
+public class MongoClusterRegistry {
+    public static final String PRIMARY_CLUSTER_ID = "primary";
+
+    private final MongoClient primaryClient;
+    private final MongoClusterConfiguration configuration;
+    private final Map<String, MongoClient> clients = new LinkedHashMap<>();
+
+    public MongoClusterRegistry(MongoClient primaryClient, MongoClusterConfiguration configuration) {
+        this.primaryClient = primaryClient;
+        this.configuration = configuration;
+        clients.put(PRIMARY_CLUSTER_ID, primaryClient);
+        configuration.getClusters().forEach((id, definition) -> {
+            if (PRIMARY_CLUSTER_ID.equals(id)) {
+                throw new IllegalStateException("Cluster id '" + PRIMARY_CLUSTER_ID + "' is reserved for spring.mongodb.uri");
+            }
+            clients.put(id, MongoClients.create(definition.getUri()));
+        });
+    }
+
+    @NotNull
+    public MongoClient getClient(@NotNull String clusterId) {
+        MongoClient client = clients.get(clusterId);
+        if (client == null) {
+            throw new IllegalArgumentException("Unknown Mongo cluster: " + clusterId);
+        }
+        return client;
+    }
+
+    @NotNull
+    public MongoClient getPrimaryClient() {
+        return primaryClient;
+    }
+
+    public boolean hasCluster(@NotNull String clusterId) {
+        return clients.containsKey(clusterId);
+    }
+
+    public Set<String> getClusterIds() {
+        return clients.keySet();
+    }
+
+    public double getWeight(@NotNull String clusterId) {
+        return PRIMARY_CLUSTER_ID.equals(clusterId) ? configuration.getPrimaryWeight() : configuration.getClusters().get(clusterId).getWeight();
+    }
+
+    public boolean isAcceptingTenants(@NotNull String clusterId) {
+        return PRIMARY_CLUSTER_ID.equals(clusterId) ? configuration.isPrimaryAcceptingTenants() : configuration.getClusters().get(clusterId).isAcceptingTenants();
+    }
+
+    @PreDestroy
+    public void close() {
+        clients.forEach((id, client) -> {
+            if (client != primaryClient) {
+                client.close();
+            }
+        });
+    }
+}
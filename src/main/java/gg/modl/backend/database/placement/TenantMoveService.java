@@ -0,0 +1,267 @@
+package gg.modl.backend.database.placement;
+
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import gg.modl.backend.database.placement.data.TenantPlacement;
+import gg.modl.backend.server.ServerService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@Slf4j
+public class TenantMoveService {
+    private static final String ID_INDEX_NAME = "_id_";
+    // Covers requests that resolved the old placement just before their cache entry expired
+    private static final long FENCE_SLACK_MILLIS = 5000;
+    private static final int FINAL_EMPTY_POLLS = 2;
+    private static final int LEASE_RENEWALS_PER_PERIOD = 4;
+
+    private final MongoClusterRegistry clusterRegistry;
+    private final TenantPlacementService placementService;
+    private final MongoClusterConfiguration configuration;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public TenantMoveService(MongoClusterRegistry clusterRegistry, TenantPlacementService placementService, MongoClusterConfiguration configuration) {
+        this.clusterRegistry = clusterRegistry;
+        this.placementService = placementService;
+        this.configuration = configuration;
+    }
+
+    public MoveResult startMove(@NotNull String databaseName, @NotNull String targetClusterId) {
+        // The target copy of the database is dropped before copying, only tenant databases may ever be moved
+        if (!databaseName.startsWith(ServerService.SERVER_DATABASE_PREFIX)) {
+            return MoveResult.NOT_A_TENANT;
+        }
+        if (!clusterRegistry.hasCluster(targetClusterId)) {
+            return MoveResult.UNKNOWN_CLUSTER;
+        }
+
+        String sourceClusterId;
+        try {
+            sourceClusterId = placementService.resolveCluster(databaseName);
+        } catch (TenantUnavailableException e) {
+            return MoveResult.ALREADY_MOVING;
+        }
+        if (sourceClusterId.equals(targetClusterId)) {
+            return MoveResult.ALREADY_PLACED;
+        }
+
+        String moveToken = UUID.randomUUID().toString();
+        if (!placementService.beginMove(databaseName, sourceClusterId, targetClusterId, moveToken)) {
+            return MoveResult.ALREADY_MOVING;
+        }
+
+        executor.execute(() -> move(databaseName, moveToken, sourceClusterId, targetClusterId));
+        return MoveResult.STARTED;
+    }
+
+    // Moves whose node died stop renewing their lease, putting them back on the source lets them be started again
+    @Scheduled(fixedDelayString = "${modl.mongo.move-recovery-interval-millis:30000}")
+    public void recoverAbandonedMoves() {
+        for (TenantPlacement placement : placementService.findExpiredMoves()) {
+            if (placementService.abortExpiredMove(placement.getId(), "Move abandoned, lease expired.")) {
+                log.warn("Recovered abandoned move of tenant {} to {}", placement.getId(), placement.getMoveTarget());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // The change stream is opened before the copy starts so nothing written during the copy is missed.
+    // Replaying an event is idempotent, so events for documents the copy already saw do no harm.
+    // Changes are only mirrored while the source is the sole writer: the tenant is fenced before the final drain
+    // and nothing is replayed once the placement points at the target
+    private void move(String databaseName, String moveToken, String sourceClusterId, String targetClusterId) {
+        MongoDatabase source = clusterRegistry.getClient(sourceClusterId).getDatabase(databaseName);
+        MongoDatabase target = clusterRegistry.getClient(targetClusterId).getDatabase(databaseName);
+
+        MoveLease lease = new MoveLease(databaseName, moveToken);
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> changes = source.watch().fullDocument(FullDocument.UPDATE_LOOKUP).cursor()) {
+            // The placement points at the source, so anything on the target is left over from an earlier move away
+            // or an aborted one. Copying over it with upserts would bring back documents deleted since then
+            target.drop();
+            lease.renew("Dropped the stale copy on %s.".formatted(targetClusterId));
+
+            long copied = 0;
+            for (String collectionName : source.listCollectionNames()) {
+                copyIndexes(source.getCollection(collectionName), target, collectionName);
+                copied += copyDocuments(source.getCollection(collectionName), target.getCollection(collectionName), lease);
+                lease.renew("Copied %d documents, last collection %s.".formatted(copied, collectionName));
+            }
+
+            long applied = catchUp(changes, target, lease);
+            if (!placementService.fence(databaseName, moveToken)) {
+                throw new LeaseLostException();
+            }
+
+            // Nodes still holding the old placement keep writing to the source until their cache expires
+            long drainUntil = System.currentTimeMillis() + placementService.getPlacementCacheMillis() + FENCE_SLACK_MILLIS;
+            while (System.currentTimeMillis() < drainUntil) {
+                applied += catchUp(changes, target, lease);
+                Thread.sleep(100);
+            }
+
+            // No writes reach the source anymore, a quiet stream means the target has everything
+            int emptyPolls = 0;
+            while (emptyPolls < FINAL_EMPTY_POLLS) {
+                long drained = catchUp(changes, target, lease);
+                applied += drained;
+                emptyPolls = drained == 0 ? emptyPolls + 1 : 0;
+                Thread.sleep(100);
+            }
+
+            if (!placementService.completeMove(databaseName, moveToken, sourceClusterId, targetClusterId)) {
+                throw new LeaseLostException();
+            }
+
+            placementService.updateMoveNotes(databaseName, "Moved from %s to %s: %d documents copied, %d changes applied. Source data was left in place."
+                    .formatted(sourceClusterId, targetClusterId, copied, applied));
+            log.info("Moved tenant {} from {} to {}", databaseName, sourceClusterId, targetClusterId);
+        } catch (LeaseLostException e) {
+            // Another node or the recovery sweep owns the placement now, it must not be touched from here
+            log.warn("Lost the lease while moving tenant {} from {} to {}", databaseName, sourceClusterId, targetClusterId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            placementService.abortMove(databaseName, moveToken, "Move interrupted.");
+        } catch (RuntimeException e) {
+            log.error("Failed to move tenant {} from {} to {}", databaseName, sourceClusterId, targetClusterId, e);
+            placementService.abortMove(databaseName, moveToken, "Move failed: " + e.getMessage());
+        }
+    }
+
+    private void copyIndexes(MongoCollection<Document> source, MongoDatabase target, String collectionName) {
+        for (Document index : source.listIndexes()) {
+            if (ID_INDEX_NAME.equals(index.getString("name"))) {
+                continue;
+            }
+
+            // listIndexes returns specs in the shape createIndexes accepts, apart from the version field
+            Document spec = new Document(index);
+            spec.remove("v");
+            spec.remove("ns");
+            target.runCommand(new Document("createIndexes", collectionName).append("indexes", List.of(spec)));
+        }
+    }
+
+    private long copyDocuments(MongoCollection<Document> source, MongoCollection<Document> target, MoveLease lease) {
+        long copied = 0;
+        List<WriteModel<Document>> batch = new ArrayList<>(configuration.getMoveBatchSize());
+        try (MongoCursor<Document> cursor = source.find().batchSize(configuration.getMoveBatchSize()).iterator()) {
+            while (cursor.hasNext()) {
+                Document document = cursor.next();
+                batch.add(new ReplaceOneModel<>(Filters.eq("_id", document.get("_id")), document, new ReplaceOptions().upsert(true)));
+                if (batch.size() >= configuration.getMoveBatchSize()) {
+                    copied += flush(target, batch);
+                    lease.renew(null);
+                }
+            }
+        }
+        return copied + flush(target, batch);
+    }
+
+    private long catchUp(MongoChangeStreamCursor<ChangeStreamDocument<Document>> changes, MongoDatabase target, MoveLease lease) {
+        long applied = 0;
+        ChangeStreamDocument<Document> change;
+        while ((change = changes.tryNext()) != null) {
+            apply(change, target);
+            applied++;
+        }
+        lease.renew(null);
+        return applied;
+    }
+
+    private void apply(ChangeStreamDocument<Document> change, MongoDatabase target) {
+        if (change.getNamespace() == null) {
+            return;
+        }
+
+        MongoCollection<Document> collection = target.getCollection(change.getNamespace().getCollectionName());
+        BsonDocument key = change.getDocumentKey();
+        switch (change.getOperationType()) {
+            case INSERT, REPLACE, UPDATE -> {
+                // A missing full document means it was deleted before the lookup, a later delete event follows
+                if (change.getFullDocument() != null && key != null) {
+                    collection.replaceOne(Filters.eq("_id", key.get("_id")), change.getFullDocument(), new ReplaceOptions().upsert(true));
+                }
+            }
+            case DELETE -> {
+                if (key != null) {
+                    collection.deleteOne(Filters.eq("_id", key.get("_id")));
+                }
+            }
+            case DROP -> collection.drop();
+            default -> {
+            }
+        }
+    }
+
+    private long flush(MongoCollection<Document> target, List<WriteModel<Document>> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        target.bulkWrite(batch, new BulkWriteOptions().ordered(false));
+        long written = batch.size();
+        batch.clear();
+        return written;
+    }
+
+    // Renews at most a few times per lease period, so the tight drain loops do not hammer the global database
+    private final class MoveLease {
+        private final String databaseName;
+        private final String moveToken;
+        private long renewedAt = System.currentTimeMillis();
+
+        private MoveLease(String databaseName, String moveToken) {
+            this.databaseName = databaseName;
+            this.moveToken = moveToken;
+        }
+
+        private void renew(@Nullable String notes) {
+            long now = System.currentTimeMillis();
+            if (notes == null && now - renewedAt < TimeUnit.SECONDS.toMillis(configuration.getMoveLeaseSeconds()) / LEASE_RENEWALS_PER_PERIOD) {
+                return;
+            }
+            if (!placementService.renewLease(databaseName, moveToken, notes)) {
+                throw new LeaseLostException();
+            }
+            renewedAt = now;
+        }
+    }
+
+    private static final class LeaseLostException extends RuntimeException {
+    }
+
+    public enum MoveResult {
+        STARTED,
+        NOT_A_TENANT,
+        UNKNOWN_CLUSTER,
+        ALREADY_PLACED,
+        ALREADY_MOVING
+    }
+}
@@ -0,0 +1,236 @@
+package gg.modl.backend.database.placement;
+
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.database.DynamicMongoTemplateProvider;
+import gg.modl.backend.database.placement.data.TenantPlacement;
+import gg.modl.backend.database.placement.data.TenantPlacementStatus;
+import org.bson.Document;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+// Talks to the global database directly instead of through DynamicMongoTemplateProvider, which depends on this service
+@Service
+public class TenantPlacementService {
+    private final MongoClusterRegistry clusterRegistry;
+    private final MongoClusterConfiguration configuration;
+    private final MongoTemplate globalDatabase;
+    private final ConcurrentMap<String, CachedPlacement> placementCache = new ConcurrentHashMap<>();
+
+    public TenantPlacementService(MongoClusterRegistry clusterRegistry, MongoClusterConfiguration configuration) {
+        this.clusterRegistry = clusterRegistry;
+        this.configuration = configuration;
+        this.globalDatabase = new MongoTemplate(clusterRegistry.getPrimaryClient(), DynamicMongoTemplateProvider.GLOBAL_DATABASE_NAME);
+    }
+
+    // Tenants created before placement existed have no mapping and live on the primary cluster
+    @NotNull
+    public String resolveCluster(@NotNull String databaseName) {
+        if (DynamicMongoTemplateProvider.GLOBAL_DATABASE_NAME.equals(databaseName)) {
+            return MongoClusterRegistry.PRIMARY_CLUSTER_ID;
+        }
+
+        long now = System.currentTimeMillis();
+        CachedPlacement cached = placementCache.get(databaseName);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.clusterId();
+        }
+
+        TenantPlacement placement = findPlacement(databaseName);
+        // Not cached, so the tenant comes back as soon as the placement flips
+        if (placement != null && placement.getStatus() == TenantPlacementStatus.FENCED) {
+            placementCache.remove(databaseName);
+            throw new TenantUnavailableException(databaseName);
+        }
+
+        String clusterId = placement == null ? MongoClusterRegistry.PRIMARY_CLUSTER_ID : placement.getClusterId();
+        placementCache.put(databaseName, new CachedPlacement(clusterId, now + TimeUnit.SECONDS.toMillis(configuration.getPlacementCacheSeconds())));
+        return clusterId;
+    }
+
+    // Safe to call repeatedly, an existing placement is never changed here
+    @NotNull
+    public String placeNewTenant(@NotNull String databaseName) {
+        TenantPlacement existing = findPlacement(databaseName);
+        if (existing != null) {
+            return existing.getClusterId();
+        }
+
+        String clusterId = chooseLeastLoadedCluster();
+        globalDatabase.upsert(byId(databaseName), new Update()
+                .setOnInsert(TenantPlacement.CLUSTER_ID, clusterId)
+                .setOnInsert(TenantPlacement.STATUS, TenantPlacementStatus.ACTIVE.name())
+                .setOnInsert(TenantPlacement.UPDATED_AT, new Date()), TenantPlacement.class);
+
+        invalidate(databaseName);
+        return resolveCluster(databaseName);
+    }
+
+    @Nullable
+    public TenantPlacement findPlacement(@NotNull String databaseName) {
+        return globalDatabase.findById(databaseName, TenantPlacement.class);
+    }
+
+    // A placement that is already moving can only be taken over once the lease of the node running it has expired
+    public boolean beginMove(@NotNull String databaseName, @NotNull String sourceClusterId, @NotNull String targetClusterId, @NotNull String moveToken) {
+        Date now = new Date();
+        Query query = new Query(new Criteria().andOperator(
+                Criteria.where("_id").is(databaseName),
+                new Criteria().orOperator(
+                        Criteria.where(TenantPlacement.STATUS).is(TenantPlacementStatus.ACTIVE.name()),
+                        Criteria.where(TenantPlacement.LEASE_EXPIRES_AT).not().gt(now))
+        ));
+        Update update = new Update()
+                .setOnInsert(TenantPlacement.CLUSTER_ID, sourceClusterId)
+                .set(TenantPlacement.STATUS, TenantPlacementStatus.MOVING.name())
+                .set(TenantPlacement.MOVE_TARGET, targetClusterId)
+                .set(TenantPlacement.MOVE_TOKEN, moveToken)
+                .set(TenantPlacement.LEASE_EXPIRES_AT, leaseFrom(now))
+                .set(TenantPlacement.NOTES, "Copying data.")
+                .set(TenantPlacement.UPDATED_AT, now);
+
+        try {
+            globalDatabase.upsert(query, update, TenantPlacement.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // The placement exists and another node holds a live lease on it
+            return false;
+        }
+    }
+
+    // Returns false once the move no longer belongs to this token, the caller has to stop touching the tenant
+    public boolean renewLease(@NotNull String databaseName, @NotNull String moveToken, @Nullable String notes) {
+        Date now = new Date();
+        Update update = new Update()
+                .set(TenantPlacement.LEASE_EXPIRES_AT, leaseFrom(now))
+                .set(TenantPlacement.UPDATED_AT, now);
+        if (notes != null) {
+            update.set(TenantPlacement.NOTES, notes);
+        }
+        return globalDatabase.updateFirst(ownedMove(databaseName, moveToken), update, TenantPlacement.class).getMatchedCount() > 0;
+    }
+
+    public void updateMoveNotes(@NotNull String databaseName, @NotNull String notes) {
+        globalDatabase.updateFirst(byId(databaseName), new Update()
+                .set(TenantPlacement.NOTES, notes)
+                .set(TenantPlacement.UPDATED_AT, new Date()), TenantPlacement.class);
+    }
+
+    public boolean fence(@NotNull String databaseName, @NotNull String moveToken) {
+        Date now = new Date();
+        boolean fenced = globalDatabase.updateFirst(ownedMove(databaseName, moveToken), new Update()
+                .set(TenantPlacement.STATUS, TenantPlacementStatus.FENCED.name())
+                .set(TenantPlacement.LEASE_EXPIRES_AT, leaseFrom(now))
+                .set(TenantPlacement.NOTES, "Fenced for switchover.")
+                .set(TenantPlacement.UPDATED_AT, now), TenantPlacement.class).getMatchedCount() > 0;
+        invalidate(databaseName);
+        return fenced;
+    }
+
+    public boolean completeMove(@NotNull String databaseName, @NotNull String moveToken, @NotNull String sourceClusterId, @NotNull String targetClusterId) {
+        boolean completed = globalDatabase.updateFirst(ownedMove(databaseName, moveToken), new Update()
+                .set(TenantPlacement.CLUSTER_ID, targetClusterId)
+                .set(TenantPlacement.PREVIOUS_CLUSTER_ID, sourceClusterId)
+                .set(TenantPlacement.STATUS, TenantPlacementStatus.ACTIVE.name())
+                .unset(TenantPlacement.MOVE_TARGET)
+                .unset(TenantPlacement.MOVE_TOKEN)
+                .unset(TenantPlacement.LEASE_EXPIRES_AT)
+                .set(TenantPlacement.UPDATED_AT, new Date()), TenantPlacement.class).getMatchedCount() > 0;
+        invalidate(databaseName);
+        return completed;
+    }
+
+    // The placement never flips before the move completes, so aborting always leaves the tenant on its source
+    public boolean abortMove(@NotNull String databaseName, @NotNull String moveToken, @NotNull String notes) {
+        return abort(ownedMove(databaseName, moveToken), databaseName, notes);
+    }
+
+    // Recovery for moves whose node died, only matches while the lease is still expired
+    public boolean abortExpiredMove(@NotNull String databaseName, @NotNull String notes) {
+        Query query = new Query(new Criteria().andOperator(
+                Criteria.where("_id").is(databaseName),
+                Criteria.where(TenantPlacement.STATUS).ne(TenantPlacementStatus.ACTIVE.name()),
+                Criteria.where(TenantPlacement.LEASE_EXPIRES_AT).not().gt(new Date())
+        ));
+        return abort(query, databaseName, notes);
+    }
+
+    public List<TenantPlacement> findExpiredMoves() {
+        return globalDatabase.find(new Query(new Criteria().andOperator(
+                Criteria.where(TenantPlacement.STATUS).ne(TenantPlacementStatus.ACTIVE.name()),
+                Criteria.where(TenantPlacement.LEASE_EXPIRES_AT).not().gt(new Date())
+        )), TenantPlacement.class);
+    }
+
+    private boolean abort(Query query, String databaseName, String notes) {
+        boolean aborted = globalDatabase.updateFirst(query, new Update()
+                .set(TenantPlacement.STATUS, TenantPlacementStatus.ACTIVE.name())
+                .unset(TenantPlacement.MOVE_TARGET)
+                .unset(TenantPlacement.MOVE_TOKEN)
+                .unset(TenantPlacement.LEASE_EXPIRES_AT)
+                .set(TenantPlacement.NOTES, notes)
+                .set(TenantPlacement.UPDATED_AT, new Date()), TenantPlacement.class).getMatchedCount() > 0;
+        invalidate(databaseName);
+        return aborted;
+    }
+
+    private Query ownedMove(String databaseName, String moveToken) {
+        return new Query(Criteria.where("_id").is(databaseName).and(TenantPlacement.MOVE_TOKEN).is(moveToken));
+    }
+
+    private Date leaseFrom(Date now) {
+        return new Date(now.getTime() + TimeUnit.SECONDS.toMillis(configuration.getMoveLeaseSeconds()));
+    }
+
+    public void invalidate(@NotNull String databaseName) {
+        placementCache.remove(databaseName);
+    }
+
+    public long getPlacementCacheMillis() {
+        return TimeUnit.SECONDS.toMillis(configuration.getPlacementCacheSeconds());
+    }
+
+    // Load is the tenant count divided by the cluster weight, unplaced tenants count towards the primary cluster
+    private String chooseLeastLoadedCluster() {
+        Map<String, Long> tenantCounts = new HashMap<>();
+        Aggregation aggregation = Aggregation.newAggregation(Aggregation.group(TenantPlacement.CLUSTER_ID).count().as("count"));
+        long placedElsewhere = 0;
+        for (Document result : globalDatabase.aggregate(aggregation, CollectionName.TENANT_PLACEMENTS, Document.class)) {
+            String clusterId = result.getString("_id");
+            long count = ((Number) result.get("count")).longValue();
+            tenantCounts.put(clusterId, count);
+            if (!MongoClusterRegistry.PRIMARY_CLUSTER_ID.equals(clusterId)) {
+                placedElsewhere += count;
+            }
+        }
+        long totalTenants = globalDatabase.count(new Query(), CollectionName.MODL_SERVERS);
+        tenantCounts.put(MongoClusterRegistry.PRIMARY_CLUSTER_ID, Math.max(0, totalTenants - placedElsewhere));
+
+        return clusterRegistry.getClusterIds().stream()
+                .filter(clusterRegistry::isAcceptingTenants)
+                .min(Comparator.comparingDouble(clusterId -> tenantCounts.getOrDefault(clusterId, 0L) / Math.max(clusterRegistry.getWeight(clusterId), 0.0001)))
+                .orElse(MongoClusterRegistry.PRIMARY_CLUSTER_ID);
+    }
+
+    private Query byId(String databaseName) {
+        return new Query(Criteria.where("_id").is(databaseName));
+    }
+
+    private record CachedPlacement(String clusterId, long expiresAt) {
+    }
+}
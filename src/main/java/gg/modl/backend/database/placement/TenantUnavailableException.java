@@ -0,0 +1,12 @@
+package gg.modl.backend.database.placement;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Thrown while a tenant is fenced for the last step of a move, clients are expected to retry shortly
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class TenantUnavailableException extends RuntimeException {
+    public TenantUnavailableException(String databaseName) {
+        super("Tenant " + databaseName + " is switching clusters.");
+    }
+}
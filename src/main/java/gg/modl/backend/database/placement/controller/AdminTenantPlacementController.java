@@ -0,0 +1,51 @@
+package gg.modl.backend.database.placement.controller;
+
+import gg.modl.backend.database.placement.TenantMoveService;
+import gg.modl.backend.database.placement.TenantPlacementService;
+import gg.modl.backend.database.placement.data.TenantPlacement;
+import gg.modl.backend.rest.RESTMappingV1;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(RESTMappingV1.ADMIN_TENANTS)
+@RequiredArgsConstructor
+public class AdminTenantPlacementController {
+    private final TenantPlacementService placementService;
+    private final TenantMoveService moveService;
+
+    @GetMapping("/{databaseName}/placement")
+    public ResponseEntity<PlacementResponse> getPlacement(@PathVariable String databaseName) {
+        TenantPlacement placement = placementService.findPlacement(databaseName);
+        if (placement == null) {
+            return ResponseEntity.ok(new PlacementResponse(placementService.resolveCluster(databaseName), "ACTIVE", null, null));
+        }
+        return ResponseEntity.ok(new PlacementResponse(placement.getClusterId(), placement.getStatus().name(), placement.getMoveTarget(), placement.getNotes()));
+    }
+
+    @PostMapping("/{databaseName}/move")
+    public ResponseEntity<MoveResponse> move(@PathVariable String databaseName, @RequestBody @Valid MoveRequest request) {
+        TenantMoveService.MoveResult result = moveService.startMove(databaseName, request.clusterId);
+        HttpStatus status = switch (result) {
+            case STARTED -> HttpStatus.ACCEPTED;
+            case NOT_A_TENANT, UNKNOWN_CLUSTER -> HttpStatus.BAD_REQUEST;
+            case ALREADY_PLACED, ALREADY_MOVING -> HttpStatus.CONFLICT;
+        };
+        return ResponseEntity.status(status).body(new MoveResponse(result.name()));
+    }
+
+    public record MoveRequest(@NotBlank String clusterId) {}
+
+    public record MoveResponse(String result) {}
+
+    public record PlacementResponse(String clusterId, String status, String moveTarget, String notes) {}
+}
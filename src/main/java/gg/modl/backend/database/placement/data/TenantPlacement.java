@@ -0,0 +1,58 @@
+package gg.modl.backend.database.placement.data;
+
+import gg.modl.backend.database.CollectionName;
+import lombok.Data;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.util.Date;
+
+@Data
+@Document(collection = CollectionName.TENANT_PLACEMENTS)
+public class TenantPlacement {
+    public static final String CLUSTER_ID = "clusterId";
+    public static final String STATUS = "status";
+    public static final String MOVE_TARGET = "moveTarget";
+    public static final String PREVIOUS_CLUSTER_ID = "previousClusterId";
+    public static final String NOTES = "notes";
+    public static final String MOVE_TOKEN = "moveToken";
+    public static final String LEASE_EXPIRES_AT = "leaseExpiresAt";
+    public static final String UPDATED_AT = "updatedAt";
+
+    // The tenant database name
+    @Id
+    private String id;
+
+    @Field(CLUSTER_ID)
+    private String clusterId;
+
+    @Field(STATUS)
+    private TenantPlacementStatus status;
+
+    @Nullable
+    @Field(MOVE_TARGET)
+    private String moveTarget;
+
+    @Nullable
+    @Field(PREVIOUS_CLUSTER_ID)
+    private String previousClusterId;
+
+    @Nullable
+    @Field(NOTES)
+    private String notes;
+
+    // Identifies the running move, only its owner may advance or finish it
+    @Nullable
+    @Field(MOVE_TOKEN)
+    private String moveToken;
+
+    // Renewed by the node running the move, an expired lease means that node is gone
+    @Nullable
+    @Field(LEASE_EXPIRES_AT)
+    private Date leaseExpiresAt;
+
+    @Field(UPDATED_AT)
+    private Date updatedAt;
+}
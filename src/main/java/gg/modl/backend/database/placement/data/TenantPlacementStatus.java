@@ -0,0 +1,8 @@
+package gg.modl.backend.database.placement.data;
+
+public enum TenantPlacementStatus {
+    ACTIVE,
+    MOVING,
+    // Final switchover of a move, nobody reads or writes the tenant until the placement flips
+    FENCED
+}
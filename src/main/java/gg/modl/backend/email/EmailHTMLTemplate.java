@@ -1,5 +1,8 @@
 package gg.modl.backend.email;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 public interface EmailHTMLTemplate {
     CodeTemplate USER_CODE = (serverName, code) -> new HTMLEmail(
             "%s | Login Code".formatted(serverName),
@@ -133,6 +136,45 @@ public interface EmailHTMLTemplate {
                     </div>
                     """.formatted(playerName, isStaffReply ? "A staff member" : "Someone", ticketType, ticketId, ticketSubject, replyAuthor, replyContent, ticketUrl));
 
+    TicketReplyDigestTemplate TICKET_REPLY_DIGEST_TEMPLATE = (serverName, playerName, ticketType, ticketId, ticketSubject, replyCount, replies, ticketUrl) -> new HTMLEmail(
+            "%s | %d new replies to Ticket #%s".formatted(serverName, replyCount, ticketId),
+            """
+                    <div style="font-family: Arial, sans-serif; max-width: 600px; margin: 0 auto; background-color: #f9f9f9; padding: 20px;">
+                      <div style="background-color: white; padding: 30px; border-radius: 8px; box-shadow: 0 2px 4px rgba(0,0,0,0.1);">
+                        <h2 style="color: #333; margin-bottom: 20px;">Ticket Reply Notification</h2>
+                    
+                        <p style="color: #555; font-size: 16px;">Hello <strong>%s</strong>,</p>
+                    
+                        <p style="color: #555; font-size: 16px;">
+                          There are <strong>%d</strong> new replies to your <strong>%s</strong> ticket%s:
+                        </p>
+                    
+                        <div style="background-color: #f8f9fa; padding: 15px; border-left: 4px solid #007bff; margin: 20px 0;">
+                          <h4 style="margin: 0 0 10px 0; color: #333;">Ticket #%s: %s</h4>
+                        </div>
+                    
+                        %s
+                    
+                        <div style="text-align: center; margin: 30px 0;">
+                          <a href="%s" style="background-color: #007bff; color: white; padding: 12px 24px; text-decoration: none; border-radius: 4px; display: inline-block; font-weight: bold;">View Ticket & Reply</a>
+                        </div>
+                    
+                        <div style="border-top: 1px solid #e9ecef; padding-top: 20px; margin-top: 30px;">
+                          <p style="color: #6c757d; font-size: 12px; margin: 15px 0 0 0;">
+                            This is an automated message. Please do not reply to this email.
+                          </p>
+                        </div>
+                      </div>
+                    </div>
+                    """.formatted(playerName, replyCount, ticketType, replies.size() < replyCount ? ", the latest %d are below".formatted(replies.size()) : "",
+                    ticketId, ticketSubject, replies.stream().map(reply -> """
+                            <div style="background-color: #fff; border: 1px solid #e9ecef; border-radius: 4px; padding: 15px; margin: 20px 0;">
+                              <h5 style="margin: 0 0 10px 0; color: #495057;">Reply from %s:</h5>
+                              <p style="margin: 0; color: #333; white-space: pre-wrap;">%s</p>
+                            </div>
+                            """.formatted(reply.staff() ? "a staff member (%s)".formatted(reply.author()) : reply.author(), reply.content()))
+                            .collect(Collectors.joining()), ticketUrl));
+
     interface CodeTemplate {
         HTMLEmail build(String serverName, String code);
     }
@@ -149,6 +191,13 @@ public interface EmailHTMLTemplate {
         HTMLEmail build(String serverName, String playerName, boolean isStaffReply, String ticketType, String ticketId, String ticketSubject, String replyAuthor, String replyContent, String ticketUrl);
     }
 
+    interface TicketReplyDigestTemplate {
+        HTMLEmail build(String serverName, String playerName, String ticketType, String ticketId, String ticketSubject, int replyCount, List<TicketReplyEntry> replies, String ticketUrl);
+    }
+
+    record TicketReplyEntry(String author, boolean staff, String content) {
+    }
+
     record HTMLEmail(String subject, String body) {
     }
 }
@@ -2,7 +2,10 @@ package gg.modl.backend.email;
 
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
+import gg.modl.backend.resilience.DependencyName;
+import gg.modl.backend.resilience.ResilienceService;
 import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.Nullable;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
@@ -12,10 +15,27 @@ import java.io.UnsupportedEncodingException;
 @Service
 @RequiredArgsConstructor
 public class EmailService {
+    private static final String MESSAGE_ID_HEADER = "Message-ID";
+
     private final JavaMailSender mailSender;
     private final EmailConfiguration config;
+    private final ResilienceService resilienceService;
 
     public void send(String toEmail, String subject, String htmlBody) throws MessagingException, UnsupportedEncodingException {
+        send(toEmail, subject, htmlBody, null);
+    }
+
+    public void send(String toEmail, EmailHTMLTemplate.HTMLEmail email) throws MessagingException, UnsupportedEncodingException {
+        send(toEmail, email.subject(), email.body(), null);
+    }
+
+    // Resending with the same sendId produces the same Message-ID, which mail servers and clients treat as one message.
+    // JavaMailSenderImpl keeps an explicitly set Message-ID instead of generating a new one
+    public void send(String toEmail, EmailHTMLTemplate.HTMLEmail email, String sendId) throws MessagingException, UnsupportedEncodingException {
+        send(toEmail, email.subject(), email.body(), sendId);
+    }
+
+    private void send(String toEmail, String subject, String htmlBody, @Nullable String sendId) throws MessagingException, UnsupportedEncodingException {
         MimeMessage mimeMessage = mailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "UTF-8");
 
@@ -23,11 +43,11 @@ public class EmailService {
         helper.setTo(toEmail);
         helper.setSubject(subject);
         helper.setText(htmlBody, true);
+        if (sendId != null) {
+            String fromAddress = config.getFromEmailAddress();
+            mimeMessage.setHeader(MESSAGE_ID_HEADER, "<%s@%s>".formatted(sendId, fromAddress.substring(fromAddress.indexOf('@') + 1)));
+        }
 
-        mailSender.send(mimeMessage);
-    }
-
-    public void send(String toEmail, EmailHTMLTemplate.HTMLEmail email) throws MessagingException, UnsupportedEncodingException {
-        send(toEmail, email.subject(), email.body());
+        resilienceService.execute(DependencyName.SMTP, () -> mailSender.send(mimeMessage));
     }
 }
@@ -0,0 +1,19 @@
+package gg.modl.backend.export;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "modl.export")
+@Getter
+@Setter
+public class ExportConfiguration {
+    private String backupDirectory = "data/backups";
+    // Each chunk is its own gzip member ending in a resume checkpoint
+    private int chunkDocuments = 5000;
+    private int cursorBatchSize = 500;
+    private int bufferBytes = 64 * 1024;
+    private int backupConcurrency = 2;
+}
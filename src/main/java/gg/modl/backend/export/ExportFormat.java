@@ -0,0 +1,13 @@
+package gg.modl.backend.export;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    NDJSON("ndjson"),
+    BSON("bson");
+
+    private final String extension;
+}
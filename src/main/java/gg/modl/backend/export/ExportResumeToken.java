@@ -0,0 +1,35 @@
+package gg.modl.backend.export;
+
+import org.bson.Document;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Points at the first document not yet exported, a null lastId means the start of the collection
+public record ExportResumeToken(@NotNull String collection, @Nullable Object lastId) {
+    private static final String COLLECTION_KEY = "c";
+    private static final String LAST_ID_KEY = "i";
+
+    public String encode() {
+        Document document = new Document(COLLECTION_KEY, collection).append(LAST_ID_KEY, lastId);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(document.toJson().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ExportResumeToken decode(@NotNull String token) {
+        Document document;
+        try {
+            document = Document.parse(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed export resume token.", e);
+        }
+
+        String collection = document.getString(COLLECTION_KEY);
+        if (collection == null) {
+            throw new IllegalArgumentException("Malformed export resume token.");
+        }
+
+        return new ExportResumeToken(collection, document.get(LAST_ID_KEY));
+    }
+}
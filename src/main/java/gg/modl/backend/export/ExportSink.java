@@ -0,0 +1,17 @@
+package gg.modl.backend.export;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Receives an export as a sequence of self-contained gzip chunks
+public interface ExportSink {
+    // The exporter never closes the returned stream, completeChunk is called once the chunk has been fully written
+    @NotNull
+    OutputStream beginChunk() throws IOException;
+
+    // next is null once the last chunk of the export has been written
+    void completeChunk(@Nullable ExportResumeToken next, long documents) throws IOException;
+}
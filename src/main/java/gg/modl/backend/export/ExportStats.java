@@ -0,0 +1,3 @@
+package gg.modl.backend.export;
+
+public record ExportStats(long documents, long compressedBytes, int chunks, long elapsedMillis) {}
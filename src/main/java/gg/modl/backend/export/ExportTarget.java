@@ -0,0 +1,6 @@
+package gg.modl.backend.export;
+
+public enum ExportTarget {
+    DOWNLOAD,
+    BACKUP
+}
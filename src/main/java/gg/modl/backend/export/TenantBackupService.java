@@ -0,0 +1,212 @@
+package gg.modl.backend.export;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+// A backup is a directory of gzip chunk files plus a manifest rewritten after every chunk, so an interrupted
+// backup picks up at its last completed chunk instead of starting over
+@Service
+@Slf4j
+public class TenantBackupService {
+    private static final String MANIFEST_FILE = "manifest.json";
+    private static final String PARTIAL_SUFFIX = ".part";
+
+    private final TenantExportService exportService;
+    private final ExportConfiguration configuration;
+    private final ExecutorService executor;
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    public TenantBackupService(TenantExportService exportService, ExportConfiguration configuration) {
+        this.exportService = exportService;
+        this.configuration = configuration;
+        this.executor = Executors.newFixedThreadPool(configuration.getBackupConcurrency());
+    }
+
+    public BackupResult startBackup(@NotNull String databaseName, @NotNull ExportFormat format) {
+        if (!running.add(databaseName)) {
+            return BackupResult.ALREADY_RUNNING;
+        }
+
+        try {
+            BackupManifest unfinished = findUnfinished(databaseName, format);
+            BackupManifest manifest = unfinished != null
+                    ? unfinished
+                    : new BackupManifest(Instant.now().toString().replace(':', '-'), format, new Date(), 0, 0, null, false);
+
+            executor.execute(() -> {
+                try {
+                    run(databaseName, manifest);
+                } finally {
+                    running.remove(databaseName);
+                }
+            });
+            return unfinished != null ? BackupResult.RESUMED : BackupResult.STARTED;
+        } catch (RuntimeException e) {
+            running.remove(databaseName);
+            throw e;
+        }
+    }
+
+    public List<BackupManifest> listBackups(@NotNull String databaseName) {
+        Path tenantDirectory = tenantDirectory(databaseName);
+        if (!Files.isDirectory(tenantDirectory)) {
+            return List.of();
+        }
+
+        List<BackupManifest> manifests = new ArrayList<>();
+        try (Stream<Path> backups = Files.list(tenantDirectory)) {
+            for (Path backup : backups.sorted(Comparator.reverseOrder()).toList()) {
+                BackupManifest manifest = readManifest(backup);
+                if (manifest != null) {
+                    manifests.add(manifest);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return manifests;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(String databaseName, BackupManifest initial) {
+        Path directory = tenantDirectory(databaseName).resolve(initial.backupId());
+        ExportResumeToken resumeFrom = initial.resumeToken() == null ? null : ExportResumeToken.decode(initial.resumeToken());
+
+        try {
+            Files.createDirectories(directory);
+            DirectorySink sink = new DirectorySink(directory, initial);
+            ExportStats stats = exportService.export(databaseName, initial.format(), resumeFrom, ExportTarget.BACKUP, sink);
+            log.info("Backed up {} to {}: {} documents in {} chunks, {} bytes, {} ms", databaseName, directory,
+                    stats.documents(), stats.chunks(), stats.compressedBytes(), stats.elapsedMillis());
+        } catch (IOException | RuntimeException e) {
+            // The manifest still points at the last completed chunk, the next startBackup resumes from there
+            log.error("Backup of {} failed", databaseName, e);
+        }
+    }
+
+    @Nullable
+    private BackupManifest findUnfinished(String databaseName, ExportFormat format) {
+        for (BackupManifest manifest : listBackups(databaseName)) {
+            if (!manifest.completed() && manifest.format() == format) {
+                return manifest;
+            }
+        }
+        return null;
+    }
+
+    private Path tenantDirectory(String databaseName) {
+        Path root = Path.of(configuration.getBackupDirectory()).toAbsolutePath().normalize();
+        Path tenantDirectory = root.resolve(databaseName).normalize();
+        if (!tenantDirectory.getParent().equals(root)) {
+            throw new IllegalArgumentException("Invalid database name.");
+        }
+        return tenantDirectory;
+    }
+
+    @Nullable
+    private BackupManifest readManifest(Path backup) {
+        Path file = backup.resolve(MANIFEST_FILE);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try {
+            Document document = Document.parse(Files.readString(file));
+            return new BackupManifest(
+                    backup.getFileName().toString(),
+                    ExportFormat.valueOf(document.getString("format")),
+                    document.getDate("startedAt"),
+                    document.getInteger("chunks"),
+                    // Relaxed JSON reads small counts back as Integer
+                    document.get("documents", Number.class).longValue(),
+                    document.getString("resumeToken"),
+                    document.getBoolean("completed")
+            );
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable backup manifest {}", file, e);
+            return null;
+        }
+    }
+
+    private void writeManifest(Path directory, BackupManifest manifest) throws IOException {
+        Document document = new Document("format", manifest.format().name())
+                .append("startedAt", manifest.startedAt())
+                .append("chunks", manifest.chunks())
+                .append("documents", manifest.documents())
+                .append("resumeToken", manifest.resumeToken())
+                .append("completed", manifest.completed());
+
+        Path partial = directory.resolve(MANIFEST_FILE + PARTIAL_SUFFIX);
+        Files.writeString(partial, document.toJson(), StandardCharsets.UTF_8);
+        Files.move(partial, directory.resolve(MANIFEST_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private final class DirectorySink implements ExportSink {
+        private final Path directory;
+        private BackupManifest manifest;
+        @Nullable
+        private OutputStream current;
+        @Nullable
+        private Path currentFile;
+
+        private DirectorySink(Path directory, BackupManifest manifest) {
+            this.directory = directory;
+            this.manifest = manifest;
+        }
+
+        @NotNull
+        @Override
+        public OutputStream beginChunk() throws IOException {
+            // Numbering continues from the manifest, so a partial file left by a crash is simply overwritten
+            currentFile = directory.resolve("chunk-%05d.%s.gz".formatted(manifest.chunks(), manifest.format().getExtension()));
+            current = Files.newOutputStream(directory.resolve(currentFile.getFileName() + PARTIAL_SUFFIX));
+            return current;
+        }
+
+        @Override
+        public void completeChunk(@Nullable ExportResumeToken next, long documents) throws IOException {
+            current.close();
+            Files.move(directory.resolve(currentFile.getFileName() + PARTIAL_SUFFIX), currentFile,
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            manifest = new BackupManifest(manifest.backupId(), manifest.format(), manifest.startedAt(), manifest.chunks() + 1,
+                    manifest.documents() + documents, next == null ? null : next.encode(), next == null);
+            writeManifest(directory, manifest);
+        }
+    }
+
+    public enum BackupResult {
+        STARTED,
+        RESUMED,
+        ALREADY_RUNNING
+    }
+
+    public record BackupManifest(String backupId, ExportFormat format, Date startedAt, int chunks, long documents,
+                                 @Nullable String resumeToken, boolean completed) {}
+}
@@ -0,0 +1,295 @@
+package gg.modl.backend.export;
+
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.database.DynamicMongoTemplateProvider;
+import gg.modl.backend.database.ReadRoute;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonDocument;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.conversions.Bson;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriter;
+import org.bson.json.JsonWriterSettings;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Streams a tenant's collections from a cursor straight into gzip chunks. Documents stay as the raw BSON bytes the
+// driver received, so a BSON export copies them through untouched and an NDJSON export renders them without mapping
+@Service
+public class TenantExportService {
+    private static final String ID_FIELD = "_id";
+    private static final String COLLECTION_MARKER = "$collection";
+    private static final String CHECKPOINT_MARKER = "$checkpoint";
+    private static final String END_MARKER = "$end";
+    private static final JsonWriterSettings JSON_SETTINGS = JsonWriterSettings.builder().outputMode(JsonMode.RELAXED).build();
+    private static final BsonDocumentCodec MARKER_CODEC = new BsonDocumentCodec();
+
+    private final DynamicMongoTemplateProvider mongoProvider;
+    private final ExportConfiguration configuration;
+    private final Map<ExportTarget, Map<ExportFormat, Counter>> documentCounters = new EnumMap<>(ExportTarget.class);
+    private final Map<ExportTarget, Counter> byteCounters = new EnumMap<>(ExportTarget.class);
+    private final Map<ExportTarget, Timer> completedTimers = new EnumMap<>(ExportTarget.class);
+    private final Map<ExportTarget, Timer> failedTimers = new EnumMap<>(ExportTarget.class);
+
+    public TenantExportService(DynamicMongoTemplateProvider mongoProvider, ExportConfiguration configuration, MeterRegistry meterRegistry) {
+        this.mongoProvider = mongoProvider;
+        this.configuration = configuration;
+
+        for (ExportTarget target : ExportTarget.values()) {
+            String targetTag = target.name().toLowerCase();
+            Map<ExportFormat, Counter> formatCounters = new EnumMap<>(ExportFormat.class);
+            for (ExportFormat format : ExportFormat.values()) {
+                formatCounters.put(format, Counter.builder("modl.export.documents")
+                        .tag("target", targetTag)
+                        .tag("format", format.name().toLowerCase())
+                        .register(meterRegistry));
+            }
+            documentCounters.put(target, formatCounters);
+            byteCounters.put(target, Counter.builder("modl.export.bytes").tag("target", targetTag).baseUnit("bytes").register(meterRegistry));
+            completedTimers.put(target, Timer.builder("modl.export.duration").tag("target", targetTag).tag("outcome", "completed").register(meterRegistry));
+            failedTimers.put(target, Timer.builder("modl.export.duration").tag("target", targetTag).tag("outcome", "failed").register(meterRegistry));
+        }
+    }
+
+    public ExportStats export(@NotNull String databaseName, @NotNull ExportFormat format, @Nullable ExportResumeToken resumeFrom,
+                              @NotNull ExportTarget target, @NotNull ExportSink sink) throws IOException {
+        long startNanos = System.nanoTime();
+        try {
+            ExportStats stats = exportInternal(databaseName, format, resumeFrom, target, sink, startNanos);
+            completedTimers.get(target).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            return stats;
+        } catch (IOException | RuntimeException e) {
+            failedTimers.get(target).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private ExportStats exportInternal(String databaseName, ExportFormat format, @Nullable ExportResumeToken resumeFrom,
+                                       ExportTarget target, ExportSink sink, long startNanos) throws IOException {
+        List<ExportedCollection> collections = exportedCollections();
+        int startIndex = 0;
+        Object resumeAfterId = null;
+        if (resumeFrom != null) {
+            startIndex = indexOf(collections, resumeFrom.collection());
+            resumeAfterId = resumeFrom.lastId();
+        }
+
+        // A secondary is enough for an export and keeps long scans off the primary
+        MongoDatabase database = mongoProvider.getFromDatabaseName(databaseName, ReadRoute.SECONDARY_PREFERRED).getDb();
+        ExportProgress progress = new ExportProgress(format, target, sink);
+
+        for (int i = startIndex; i < collections.size(); i++) {
+            ExportedCollection collection = collections.get(i);
+            Bson filter = collection.filter();
+            if (i == startIndex && resumeAfterId != null) {
+                filter = Filters.and(filter, Filters.gt(ID_FIELD, resumeAfterId));
+            }
+
+            Object lastId = null;
+            Chunk chunk = null;
+            try (MongoCursor<RawBsonDocument> cursor = database.getCollection(collection.name(), RawBsonDocument.class)
+                    .find(filter)
+                    .projection(collection.projection())
+                    .sort(Sorts.ascending(ID_FIELD))
+                    .batchSize(configuration.getCursorBatchSize())
+                    .iterator()) {
+
+                while (cursor.hasNext()) {
+                    if (chunk == null) {
+                        chunk = progress.open(collection.name());
+                    }
+
+                    RawBsonDocument document = cursor.next();
+                    chunk.write(document);
+                    lastId = document.get(ID_FIELD);
+
+                    // Collections without _id in their projection can only be resumed from their start
+                    if (collection.resumable() && chunk.documents >= configuration.getChunkDocuments()) {
+                        progress.close(chunk, new ExportResumeToken(collection.name(), lastId));
+                        chunk = null;
+                    }
+                }
+            }
+
+            if (chunk != null) {
+                ExportResumeToken next = i + 1 < collections.size()
+                        ? new ExportResumeToken(collections.get(i + 1).name(), null)
+                        : new ExportResumeToken(collection.name(), lastId);
+                progress.close(chunk, next);
+            }
+        }
+
+        Chunk end = progress.open(null);
+        end.writeMarker(new BsonDocument(END_MARKER, new BsonDocument("documents", new BsonInt64(progress.documents))));
+        progress.close(end, null);
+
+        return new ExportStats(progress.documents, progress.compressedBytes, progress.chunks,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    // Collection order is part of the resume token contract, players go last since they dominate the size
+    private List<ExportedCollection> exportedCollections() {
+        return List.of(
+                new ExportedCollection(CollectionName.SETTINGS, Filters.empty(), null, true),
+                // Session ids are bearer tokens, only the fact that a session exists leaves the database
+                new ExportedCollection(CollectionName.SESSIONS, Filters.gt("expiresAt", new Date()),
+                        Projections.fields(Projections.excludeId(), Projections.include("email", "createdAt", "expiresAt")), false),
+                new ExportedCollection(CollectionName.PLAYERS, Filters.empty(), null, true)
+        );
+    }
+
+    private int indexOf(List<ExportedCollection> collections, String name) {
+        for (int i = 0; i < collections.size(); i++) {
+            if (collections.get(i).name().equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Export resume token names an unknown collection.");
+    }
+
+    private record ExportedCollection(String name, Bson filter, @Nullable Bson projection, boolean resumable) {}
+
+    private final class ExportProgress {
+        private final ExportFormat format;
+        private final ExportTarget target;
+        private final ExportSink sink;
+        private long documents;
+        private long compressedBytes;
+        private int chunks;
+
+        private ExportProgress(ExportFormat format, ExportTarget target, ExportSink sink) {
+            this.format = format;
+            this.target = target;
+            this.sink = sink;
+        }
+
+        private Chunk open(@Nullable String collection) throws IOException {
+            Chunk chunk = new Chunk(format, sink.beginChunk());
+            if (collection != null) {
+                chunk.writeMarker(new BsonDocument(COLLECTION_MARKER, new BsonString(collection)));
+            }
+            return chunk;
+        }
+
+        private void close(Chunk chunk, @Nullable ExportResumeToken next) throws IOException {
+            if (next != null) {
+                chunk.writeMarker(new BsonDocument(CHECKPOINT_MARKER, new BsonString(next.encode())));
+            }
+            chunk.finish();
+
+            documents += chunk.documents;
+            compressedBytes += chunk.output.count;
+            chunks++;
+            documentCounters.get(target).get(format).increment(chunk.documents);
+            byteCounters.get(target).increment(chunk.output.count);
+
+            sink.completeChunk(next, chunk.documents);
+        }
+    }
+
+    private final class Chunk {
+        private final CountingOutputStream output;
+        private final OutputStream buffered;
+        @Nullable
+        private final Writer writer;
+        private long documents;
+
+        private Chunk(ExportFormat format, OutputStream sinkOutput) throws IOException {
+            this.output = new CountingOutputStream(sinkOutput);
+            this.buffered = new BufferedOutputStream(new GZIPOutputStream(output, configuration.getBufferBytes()), configuration.getBufferBytes());
+            this.writer = format == ExportFormat.NDJSON ? new OutputStreamWriter(buffered, StandardCharsets.UTF_8) : null;
+        }
+
+        private void write(RawBsonDocument document) throws IOException {
+            writeRaw(document);
+            documents++;
+        }
+
+        private void writeMarker(BsonDocument marker) throws IOException {
+            writeRaw(new RawBsonDocument(marker, MARKER_CODEC));
+        }
+
+        private void writeRaw(RawBsonDocument document) throws IOException {
+            if (writer != null) {
+                new JsonWriter(writer, JSON_SETTINGS).pipe(new BsonBinaryReader(document.getByteBuffer().asNIO()));
+                writer.write('\n');
+                return;
+            }
+
+            ByteBuffer bytes = document.getByteBuffer().asNIO();
+            if (bytes.hasArray()) {
+                buffered.write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+            } else {
+                byte[] copy = new byte[bytes.remaining()];
+                bytes.get(copy);
+                buffered.write(copy);
+            }
+        }
+
+        // Closing ends the gzip member and frees the deflater, the sink's own stream is left open
+        private void finish() throws IOException {
+            if (writer != null) {
+                writer.close();
+            } else {
+                buffered.close();
+            }
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private final OutputStream delegate;
+        private long count;
+
+        private CountingOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.flush();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package gg.modl.backend.export.controller;
+
+import gg.modl.backend.export.ExportFormat;
+import gg.modl.backend.export.TenantBackupService;
+import gg.modl.backend.rest.RESTMappingV1;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(RESTMappingV1.ADMIN_TENANTS)
+@RequiredArgsConstructor
+public class AdminTenantBackupController {
+    private final TenantBackupService backupService;
+
+    @PostMapping("/{databaseName}/backup")
+    public ResponseEntity<BackupResponse> backup(@PathVariable String databaseName,
+                                                 @RequestParam(value = "format", defaultValue = "BSON") ExportFormat format) {
+        TenantBackupService.BackupResult result;
+        try {
+            result = backupService.startBackup(databaseName, format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        HttpStatus status = result == TenantBackupService.BackupResult.ALREADY_RUNNING ? HttpStatus.CONFLICT : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(status).body(new BackupResponse(result.name()));
+    }
+
+    @GetMapping("/{databaseName}/backups")
+    public ResponseEntity<List<TenantBackupService.BackupManifest>> listBackups(@PathVariable String databaseName) {
+        try {
+            return ResponseEntity.ok(backupService.listBackups(databaseName));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    public record BackupResponse(String result) {}
+}
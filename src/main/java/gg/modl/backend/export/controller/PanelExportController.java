@@ -0,0 +1,86 @@
+package gg.modl.backend.export.controller;
+
+import gg.modl.backend.export.ExportFormat;
+import gg.modl.backend.export.ExportResumeToken;
+import gg.modl.backend.export.ExportSink;
+import gg.modl.backend.export.ExportTarget;
+import gg.modl.backend.export.TenantExportService;
+import gg.modl.backend.rest.RESTMappingV1;
+import gg.modl.backend.rest.RequestUtil;
+import gg.modl.backend.server.data.Server;
+import gg.modl.backend.staff.RequiresPermission;
+import gg.modl.backend.staff.StaffPermission;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Written on the request thread rather than as an async body, so a multi-GB download is not cut off by the async
+// timeout. The body is a series of gzip members, each ending in a $checkpoint line that can be passed back as resume
+@RestController
+@RequiresPermission(StaffPermission.EXPORT_DATA)
+@RequestMapping(RESTMappingV1.PANEL_EXPORT)
+@RequiredArgsConstructor
+public class PanelExportController {
+    private static final String GZIP_CONTENT_TYPE = "application/gzip";
+
+    private final TenantExportService exportService;
+
+    @GetMapping
+    public void export(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            @RequestParam(value = "format", defaultValue = "NDJSON") ExportFormat format,
+            @RequestParam(value = "resume", required = false) String resume) throws IOException {
+
+        Server server = RequestUtil.getRequestServer(request);
+        // A dump holds every player's addresses and every staff note, so only the owner of the server may take one
+        // regardless of what the staff roles grant
+        if (!RequestUtil.getRequestSession(request).getEmail().equalsIgnoreCase(server.getAdminEmail())) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+
+        ExportResumeToken resumeFrom;
+        try {
+            resumeFrom = resume == null ? null : ExportResumeToken.decode(resume);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+
+        // The panel ETag filter would otherwise hold the whole export in memory to hash it
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+
+        response.setContentType(GZIP_CONTENT_TYPE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("%s-export.%s.gz".formatted(server.getCustomDomain(), format.getExtension()))
+                .build()
+                .toString());
+
+        OutputStream output = response.getOutputStream();
+        exportService.export(server.getDatabaseName(), format, resumeFrom, ExportTarget.DOWNLOAD, new ExportSink() {
+            @NotNull
+            @Override
+            public OutputStream beginChunk() {
+                return output;
+            }
+
+            @Override
+            public void completeChunk(@Nullable ExportResumeToken next, long documents) throws IOException {
+                output.flush();
+            }
+        });
+    }
+}
@@ -0,0 +1,29 @@
+package gg.modl.backend.player;
+
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.database.migration.TenantMigration;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AccumulatorOperators;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+// Players from before firstJoin was recorded get the date of their first username. Until this has run on a tenant
+// they page as players without a first join, after everyone else when sorted by NEWEST
+@Component
+public class FirstJoinMigration implements TenantMigration {
+    @Override
+    @NotNull
+    public String id() {
+        return "player-first-join";
+    }
+
+    @Override
+    public void migrate(@NotNull MongoTemplate mongo) {
+        mongo.updateMulti(new Query(Criteria.where(PlayerField.FIRST_JOIN).exists(false)),
+                AggregationUpdate.update().set(PlayerField.FIRST_JOIN).toValue(AccumulatorOperators.Min.minOf(PlayerField.USERNAME_DATE)),
+                CollectionName.PLAYERS);
+    }
+}
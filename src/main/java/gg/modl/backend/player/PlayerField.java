@@ -0,0 +1,20 @@
+package gg.modl.backend.player;
+
+public final class PlayerField {
+    public static final String MINECRAFT_UUID = "minecraftUuid";
+    public static final String USERNAMES = "usernames";
+    public static final String USERNAME = USERNAMES + ".username";
+    public static final String USERNAME_DATE = USERNAMES + ".date";
+    public static final String FIRST_JOIN = "firstJoin";
+    public static final String IP_LIST = "ipList";
+    public static final String IP_ADDRESS = IP_LIST + ".ipAddress";
+    public static final String NOTES = "notes";
+    public static final String NOTE_TEXT = NOTES + ".text";
+    public static final String PUNISHMENTS = "punishments";
+    public static final String PUNISHMENT_TYPE_ORDINAL = PUNISHMENTS + "." + PunishmentField.TYPE_ORDINAL;
+    public static final String PUNISHMENT_ISSUER_NAME = PUNISHMENTS + "." + PunishmentField.ISSUER_NAME;
+    public static final String PUNISHMENT_ISSUED = PUNISHMENTS + "." + PunishmentField.ISSUED;
+    public static final String PUNISHMENT_NOTE_TEXT = PUNISHMENTS + ".notes.text";
+    public static final String PUNISHMENT_MODIFICATION_REASON = PUNISHMENTS + ".modifications.reason";
+    public static final String PUNISHMENT_EVIDENCE_URL = PUNISHMENTS + ".evidence.url";
+}
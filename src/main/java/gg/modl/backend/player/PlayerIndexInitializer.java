@@ -0,0 +1,48 @@
+package gg.modl.backend.player;
+
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.database.TenantIndexInitializer;
+import gg.modl.backend.database.pagination.KeysetSort;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Component
+@Slf4j
+public class PlayerIndexInitializer implements TenantIndexInitializer {
+    @Override
+    public void ensureIndexes(@NotNull MongoTemplate mongo) {
+        IndexOperations indexOps = mongo.indexOps(CollectionName.PLAYERS);
+
+        // Players duplicated before the index existed make it fail. That is logged once and the tenant carries on
+        // without it, UniqueMinecraftUuidMigration folds the duplicates and creates it in the background
+        try {
+            createMinecraftUuidIndex(mongo);
+        } catch (DuplicateKeyException e) {
+            log.error("Unique minecraftUuid index not created on {}, it holds duplicate players until {} has run",
+                    mongo.getDb().getName(), UniqueMinecraftUuidMigration.class.getSimpleName(), e);
+        }
+
+        // An index serves a sort in both directions, so NEWEST and OLDEST share one
+        Set<String> indexedFields = new HashSet<>();
+        for (PlayerListSort listSort : PlayerListSort.values()) {
+            KeysetSort keysetSort = listSort.getKeysetSort();
+            if (!keysetSort.isIdOnly() && indexedFields.add(keysetSort.field())) {
+                indexOps.createIndex(keysetSort.toIndex());
+            }
+        }
+    }
+
+    // Login upserts by this field, without the unique index two concurrent first logins would insert two players
+    static void createMinecraftUuidIndex(@NotNull MongoTemplate mongo) {
+        mongo.indexOps(CollectionName.PLAYERS).createIndex(new Index().on(PlayerField.MINECRAFT_UUID, Sort.Direction.ASC).unique().sparse());
+    }
+}
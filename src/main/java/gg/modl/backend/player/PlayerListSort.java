@@ -0,0 +1,19 @@
+package gg.modl.backend.player;
+
+import gg.modl.backend.database.pagination.KeysetSort;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+import java.util.Date;
+
+@Getter
+@RequiredArgsConstructor
+public enum PlayerListSort {
+    // Player ids are random UUIDs, so age has to come from the first join and not from the id
+    NEWEST(new KeysetSort(PlayerField.FIRST_JOIN, Sort.Direction.DESC, Date.class, String.class)),
+    OLDEST(new KeysetSort(PlayerField.FIRST_JOIN, Sort.Direction.ASC, Date.class, String.class)),
+    MINECRAFT_UUID(new KeysetSort(PlayerField.MINECRAFT_UUID, Sort.Direction.ASC, String.class, String.class));
+
+    private final KeysetSort keysetSort;
+}
@@ -0,0 +1,68 @@
+package gg.modl.backend.player;
+
+import org.bson.Document;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+// Login writes shared by the blocking and reactive Minecraft endpoints, so both paths store exactly the same thing
+public final class PlayerLogin {
+    @NotNull
+    public static Query byMinecraftUuid(@NotNull UUID minecraftUuid) {
+        return new Query(Criteria.where(PlayerField.MINECRAFT_UUID).is(minecraftUuid.toString()));
+    }
+
+    // Creates the player on first login, matches without changes otherwise
+    @NotNull
+    public static Update createIfMissing(@NotNull UUID minecraftUuid, @NotNull String username, @NotNull String ip, @NotNull Date now) {
+        return new Update()
+                .setOnInsert("_id", UUID.randomUUID().toString())
+                .setOnInsert(PlayerField.FIRST_JOIN, now)
+                .setOnInsert(PlayerField.USERNAMES, List.of(usernameEntry(username, now)))
+                .setOnInsert(PlayerField.IP_LIST, List.of(ipEntry(ip, now)))
+                .setOnInsert(PlayerField.NOTES, List.of())
+                .setOnInsert(PlayerField.PUNISHMENTS, List.of());
+    }
+
+    // Only matches existing players whose history does not contain the username yet
+    @NotNull
+    public static Query withoutUsername(@NotNull UUID minecraftUuid, @NotNull String username) {
+        return new Query(new Criteria().andOperator(
+                Criteria.where(PlayerField.MINECRAFT_UUID).is(minecraftUuid.toString()),
+                Criteria.where(PlayerField.USERNAME).ne(username)
+        ));
+    }
+
+    @NotNull
+    public static Update pushUsername(@NotNull String username, @NotNull Date now) {
+        return new Update().push(PlayerField.USERNAMES, usernameEntry(username, now));
+    }
+
+    // Only matches existing players that have not logged in from this address before
+    @NotNull
+    public static Query withoutIp(@NotNull UUID minecraftUuid, @NotNull String ip) {
+        return new Query(new Criteria().andOperator(
+                Criteria.where(PlayerField.MINECRAFT_UUID).is(minecraftUuid.toString()),
+                Criteria.where(PlayerField.IP_ADDRESS).ne(ip)
+        ));
+    }
+
+    @NotNull
+    public static Update pushIp(@NotNull String ip, @NotNull Date now) {
+        return new Update().push(PlayerField.IP_LIST, ipEntry(ip, now));
+    }
+
+    // Same shape as IPEntry, lookup details are filled in later
+    private static Document ipEntry(String ip, Date now) {
+        return new Document("ipAddress", ip).append("proxy", false).append("hosting", false).append("firstLogin", now);
+    }
+
+    private static Document usernameEntry(String username, Date now) {
+        return new Document("username", username).append("date", now);
+    }
+}
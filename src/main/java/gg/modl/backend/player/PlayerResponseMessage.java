@@ -3,4 +3,5 @@ package gg.modl.backend.player;
 public final class PlayerResponseMessage {
     public static final String LOGIN_INVALID_SCHEMA = "Invalid login schema.";
     public static final String LOGIN_SUCCESS = "Login saved.";
+    public static final String LOGIN_OVERLOADED = "Too many logins in progress, try again shortly.";
 }
@@ -1,17 +1,110 @@
 package gg.modl.backend.player;
 
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import gg.modl.backend.analytics.AnalyticsRollupService;
+import gg.modl.backend.database.CollectionName;
 import gg.modl.backend.database.DynamicMongoTemplateProvider;
+import gg.modl.backend.database.ReadRoute;
+import gg.modl.backend.database.TenantIndexService;
+import gg.modl.backend.database.pagination.KeysetPage;
+import gg.modl.backend.database.pagination.KeysetPagination;
+import gg.modl.backend.player.data.Player;
+import gg.modl.backend.player.search.PlayerNames;
+import gg.modl.backend.server.data.Server;
 import lombok.RequiredArgsConstructor;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
+import java.util.Date;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class PlayerService {
     private final DynamicMongoTemplateProvider mongoProvider;
+    private final TenantIndexService indexService;
+    private final AnalyticsRollupService analyticsRollupService;
 
-    public void loginPlayer(UUID minecraftUUID, String username, String ip) {
+    // Returns whether this was the player's first login on the server
+    public boolean loginPlayer(@NotNull Server server, @NotNull UUID minecraftUUID, @NotNull String username, @NotNull String ip) {
+        MongoTemplate mongo = mongoProvider.getFromDatabaseName(server.getDatabaseName());
+        Date now = new Date();
 
+        // Set when the username is new to the player, which is when it needs a search entry
+        String playerId = null;
+        try {
+            BsonValue upsertedId = mongo.upsert(PlayerLogin.byMinecraftUuid(minecraftUUID), PlayerLogin.createIfMissing(minecraftUUID, username, ip, now),
+                    CollectionName.PLAYERS).getUpsertedId();
+            if (upsertedId != null) {
+                playerId = upsertedId.asString().getValue();
+            }
+        } catch (DuplicateKeyException e) {
+            // A concurrent first login inserted the player, this one continues as a returning login
+        }
+        boolean newPlayer = playerId != null;
+        if (!newPlayer) {
+            Query withoutUsername = PlayerLogin.withoutUsername(minecraftUUID, username);
+            withoutUsername.fields().include("_id");
+            Document renamed = mongo.findAndModify(withoutUsername, PlayerLogin.pushUsername(username, now), Document.class, CollectionName.PLAYERS);
+            if (renamed != null) {
+                playerId = String.valueOf(renamed.get("_id"));
+            }
+            mongo.updateFirst(PlayerLogin.withoutIp(minecraftUUID, ip), PlayerLogin.pushIp(ip, now), CollectionName.PLAYERS);
+        }
+        if (playerId != null) {
+            addSearchName(mongo, playerId, minecraftUUID, username);
+        }
+
+        analyticsRollupService.recordLogin(server, minecraftUUID, newPlayer);
+        return newPlayer;
+    }
+
+    private void addSearchName(MongoTemplate mongo, String playerId, UUID minecraftUUID, String username) {
+        try {
+            mongo.upsert(PlayerNames.byId(playerId, username), PlayerNames.createIfMissing(playerId, minecraftUUID.toString(), username), CollectionName.PLAYER_NAMES);
+        } catch (DuplicateKeyException e) {
+            // A concurrent login added the same entry
+        }
+    }
+
+    public KeysetPage<Player> listPlayers(@NotNull Server server, @NotNull PlayerListSort sort, @Nullable String cursor, int size) {
+        indexService.ensureIndexes(server.getDatabaseName());
+        MongoTemplate mongo = mongoProvider.getFromDatabaseName(server.getDatabaseName(), ReadRoute.SECONDARY_PREFERRED);
+
+        Query query = new Query();
+        query.fields().exclude(PlayerField.IP_LIST, PlayerField.NOTES, PlayerField.PUNISHMENTS);
+
+        return KeysetPagination.find(mongo, query, sort.getKeysetSort(), cursor, size, Player.class, CollectionName.PLAYERS);
+    }
+
+    // Left undecoded so callers can compare an ETag before paying for mapping and serialization
+    @Nullable
+    public RawBsonDocument findPlayerDocument(@NotNull Server server, @NotNull UUID minecraftUuid, @NotNull String... includeFields) {
+        MongoCollection<RawBsonDocument> players = mongoProvider.getFromDatabaseName(server.getDatabaseName())
+                .getCollection(CollectionName.PLAYERS)
+                .withDocumentClass(RawBsonDocument.class);
+
+        FindIterable<RawBsonDocument> result = players.find(Filters.eq(PlayerField.MINECRAFT_UUID, minecraftUuid.toString()));
+        if (includeFields.length > 0) {
+            result = result.projection(Projections.include(includeFields));
+        }
+        return result.first();
+    }
+
+    @NotNull
+    public Player toPlayer(@NotNull Server server, @NotNull RawBsonDocument document) {
+        MongoTemplate mongo = mongoProvider.getFromDatabaseName(server.getDatabaseName());
+        Document decoded = document.decode(mongo.getCollection(CollectionName.PLAYERS).getCodecRegistry().get(Document.class));
+        return mongo.getConverter().read(Player.class, decoded);
     }
 }
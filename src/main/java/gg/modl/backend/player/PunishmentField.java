@@ -0,0 +1,8 @@
+package gg.modl.backend.player;
+
+// Fields of the punishment subdocuments in PlayerField.PUNISHMENTS
+public final class PunishmentField {
+    public static final String TYPE_ORDINAL = "type_ordinal";
+    public static final String ISSUER_NAME = "issuerName";
+    public static final String ISSUED = "issued";
+}
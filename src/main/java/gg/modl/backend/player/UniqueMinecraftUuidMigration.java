@@ -0,0 +1,109 @@
+package gg.modl.backend.player;
+
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.database.migration.TenantMigration;
+import gg.modl.backend.player.search.PlayerNameField;
+import gg.modl.backend.player.search.PlayerNames;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+
+// Tenants that logged in players before the unique minecraftUuid index existed can hold several players per UUID.
+// Each group is folded into its oldest player, whose history gains the usernames, IPs, notes and punishments of the
+// others, and then the index is created. A login that slips in a new duplicate before that makes the index creation
+// fail, the migration is then retried on the next run and folds it too
+@Component
+@Slf4j
+public class UniqueMinecraftUuidMigration implements TenantMigration {
+    private static final String IDS = "ids";
+    private static final String COUNT = "count";
+    private static final List<String> MERGED_ARRAYS = List.of(PlayerField.USERNAMES, PlayerField.IP_LIST, PlayerField.NOTES, PlayerField.PUNISHMENTS);
+
+    @Override
+    @NotNull
+    public String id() {
+        return "player-unique-minecraft-uuid";
+    }
+
+    @Override
+    public void migrate(@NotNull MongoTemplate mongo) {
+        Aggregation duplicates = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where(PlayerField.MINECRAFT_UUID).exists(true)),
+                Aggregation.sort(Sort.by(Sort.Direction.ASC, PlayerField.FIRST_JOIN, "_id")),
+                Aggregation.group(PlayerField.MINECRAFT_UUID).push("_id").as(IDS).count().as(COUNT),
+                Aggregation.match(Criteria.where(COUNT).gt(1))
+        ).withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+
+        int folded = 0;
+        for (Document group : mongo.aggregate(duplicates, CollectionName.PLAYERS, Document.class)) {
+            List<Object> ids = group.getList(IDS, Object.class);
+            fold(mongo, ids.getFirst(), ids.subList(1, ids.size()));
+            folded += ids.size() - 1;
+        }
+        if (folded > 0) {
+            log.warn("Folded {} duplicate players into their oldest player on {}", folded, mongo.getDb().getName());
+        }
+
+        PlayerIndexInitializer.createMinecraftUuidIndex(mongo);
+    }
+
+    private void fold(MongoTemplate mongo, Object keeperId, List<Object> duplicateIds) {
+        List<Document> duplicates = mongo.find(new Query(Criteria.where("_id").in(duplicateIds)), Document.class, CollectionName.PLAYERS);
+
+        Update merge = new Update();
+        Date firstJoin = null;
+        for (String array : MERGED_ARRAYS) {
+            Object[] entries = duplicates.stream()
+                    .flatMap(duplicate -> duplicate.getList(array, Object.class, List.of()).stream())
+                    .toArray();
+            if (entries.length > 0) {
+                merge.push(array).each(entries);
+            }
+        }
+        for (Document duplicate : duplicates) {
+            Date joined = duplicate.getDate(PlayerField.FIRST_JOIN);
+            if (joined != null && (firstJoin == null || joined.before(firstJoin))) {
+                firstJoin = joined;
+            }
+        }
+        if (firstJoin != null) {
+            merge.min(PlayerField.FIRST_JOIN, firstJoin);
+        }
+
+        Document keeper = mongo.findAndModify(new Query(Criteria.where("_id").is(keeperId)), merge, Document.class, CollectionName.PLAYERS);
+        if (keeper == null) {
+            return;
+        }
+        mongo.remove(new Query(Criteria.where("_id").in(duplicateIds)), CollectionName.PLAYERS);
+
+        // Name entries are keyed by player, the folded players' entries are moved over to the one that remains
+        String playerId = String.valueOf(keeperId);
+        mongo.remove(new Query(Criteria.where(PlayerNameField.PLAYER_ID).in(duplicateIds.stream().map(String::valueOf).toList())), CollectionName.PLAYER_NAMES);
+        for (Document duplicate : duplicates) {
+            for (Document entry : duplicate.getList(PlayerField.USERNAMES, Document.class, List.of())) {
+                String username = entry.getString("username");
+                if (username == null) {
+                    continue;
+                }
+
+                try {
+                    mongo.upsert(PlayerNames.byId(playerId, username), PlayerNames.createIfMissing(playerId, keeper.getString(PlayerField.MINECRAFT_UUID), username), CollectionName.PLAYER_NAMES);
+                } catch (DuplicateKeyException ignored) {
+                    // A concurrent login added the same entry
+                }
+            }
+        }
+    }
+}
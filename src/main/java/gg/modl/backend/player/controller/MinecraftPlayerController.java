@@ -3,7 +3,10 @@ package gg.modl.backend.player.controller;
 import gg.modl.backend.player.PlayerResponseMessage;
 import gg.modl.backend.player.PlayerService;
 import gg.modl.backend.rest.RESTMappingV1;
+import gg.modl.backend.rest.RequestUtil;
+import gg.modl.backend.server.data.Server;
 import gg.modl.backend.validation.RegExpConstants;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
 import lombok.RequiredArgsConstructor;
@@ -20,12 +23,13 @@ public class MinecraftPlayerController {
     private final PlayerService playerService;
 
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@RequestBody @Valid LoginRequest request, BindingResult bindingResult) {
+    public ResponseEntity<LoginResponse> login(HttpServletRequest httpRequest, @RequestBody @Valid LoginRequest request, BindingResult bindingResult) {
         if (bindingResult.hasErrors()) {
             return ResponseEntity.badRequest().body(new LoginResponse(false, PlayerResponseMessage.LOGIN_INVALID_SCHEMA));
         }
 
-        playerService.loginPlayer(UUID.fromString(request.minecraftUUID), request.username, request.ip);
+        Server server = RequestUtil.getRequestServer(httpRequest);
+        playerService.loginPlayer(server, UUID.fromString(request.minecraftUUID), request.username, request.ip);
 
         return ResponseEntity.ok(new LoginResponse(true, PlayerResponseMessage.LOGIN_SUCCESS));
     }
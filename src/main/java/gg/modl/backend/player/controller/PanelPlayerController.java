@@ -0,0 +1,110 @@
+package gg.modl.backend.player.controller;
+
+import gg.modl.backend.database.pagination.KeysetPage;
+import gg.modl.backend.player.PlayerField;
+import gg.modl.backend.player.PlayerListSort;
+import gg.modl.backend.player.PlayerService;
+import gg.modl.backend.player.data.Player;
+import gg.modl.backend.player.data.punishment.Punishment;
+import gg.modl.backend.player.search.PlayerSearchMode;
+import gg.modl.backend.player.search.PlayerSearchService;
+import gg.modl.backend.rest.DocumentETag;
+import gg.modl.backend.rest.RESTMappingV1;
+import gg.modl.backend.rest.RequestUtil;
+import gg.modl.backend.server.data.Server;
+import gg.modl.backend.staff.RequiresPermission;
+import gg.modl.backend.staff.StaffPermission;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.bson.RawBsonDocument;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequiresPermission(StaffPermission.VIEW_PLAYERS)
+@RequestMapping(RESTMappingV1.PANEL_PLAYER)
+@RequiredArgsConstructor
+public class PanelPlayerController {
+    private static final String PROFILE_REPRESENTATION = "profile";
+    private static final String PUNISHMENTS_REPRESENTATION = "punishments";
+
+    private final PlayerService playerService;
+    private final PlayerSearchService playerSearchService;
+
+    @GetMapping
+    public ResponseEntity<KeysetPage<Player>> list(
+            HttpServletRequest request,
+            @RequestParam(value = "sort", defaultValue = "NEWEST") PlayerListSort sort,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "50") int size) {
+
+        Server server = RequestUtil.getRequestServer(request);
+
+        try {
+            return ResponseEntity.ok(playerService.listPlayers(server, sort, cursor, size));
+        } catch (IllegalArgumentException e) {
+            // Malformed or mismatched cursor
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<KeysetPage<PlayerSearchService.PlayerSearchHit>> search(
+            HttpServletRequest request,
+            @RequestParam("q") String term,
+            @RequestParam(value = "mode", defaultValue = "USERNAME") PlayerSearchMode mode,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+
+        if (term.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Server server = RequestUtil.getRequestServer(request);
+
+        try {
+            return ResponseEntity.ok(playerSearchService.search(server, term, mode, cursor, size));
+        } catch (IllegalArgumentException e) {
+            // Malformed cursor or one from another search mode
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/{minecraftUuid}")
+    public ResponseEntity<Player> getPlayer(HttpServletRequest request, WebRequest webRequest, @PathVariable UUID minecraftUuid) {
+        Server server = RequestUtil.getRequestServer(request);
+        RawBsonDocument document = playerService.findPlayerDocument(server, minecraftUuid);
+        if (document == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String etag = DocumentETag.of(PROFILE_REPRESENTATION, document);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(playerService.toPlayer(server, document));
+    }
+
+    @GetMapping("/{minecraftUuid}/punishments")
+    public ResponseEntity<List<Punishment>> getPunishments(HttpServletRequest request, WebRequest webRequest, @PathVariable UUID minecraftUuid) {
+        Server server = RequestUtil.getRequestServer(request);
+        RawBsonDocument document = playerService.findPlayerDocument(server, minecraftUuid, PlayerField.PUNISHMENTS);
+        if (document == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String etag = DocumentETag.of(PUNISHMENTS_REPRESENTATION, document);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(playerService.toPlayer(server, document).getPunishments());
+    }
+}
@@ -1,6 +1,8 @@
 package gg.modl.backend.player.data;
 
 import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.player.PlayerField;
+import gg.modl.backend.player.data.punishment.Punishment;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.annotation.Id;
@@ -9,6 +11,7 @@ import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 import org.springframework.data.mongodb.core.mapping.FieldType;
 
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 
@@ -20,15 +23,24 @@ public class Player {
     @Field(targetType = FieldType.STRING)
     private final String id;
 
-    @Field(name = "minecraftUuid", targetType = FieldType.STRING)
+    @Field(name = PlayerField.MINECRAFT_UUID, targetType = FieldType.STRING)
     @Indexed(unique = true, sparse = true)
     private final UUID minecraftUuid;
 
-    @Field(name = "usernames", targetType = FieldType.ARRAY)
+    @Field(PlayerField.FIRST_JOIN)
+    private final Date firstJoin;
+
+    @Field(name = PlayerField.USERNAMES, targetType = FieldType.ARRAY)
     private final List<UsernameEntry> usernames;
 
-    @Field(name = "notes", targetType = FieldType.ARRAY)
+    @Field(name = PlayerField.IP_LIST, targetType = FieldType.ARRAY)
+    private final List<IPEntry> ipList;
+
+    @Field(name = PlayerField.NOTES, targetType = FieldType.ARRAY)
     private final List<NoteEntry> notes;
 
+    @Field(name = PlayerField.PUNISHMENTS, targetType = FieldType.ARRAY)
+    private final List<Punishment> punishments;
+
 
 }
@@ -0,0 +1,183 @@
+package gg.modl.backend.player.loadtest;
+
+import gg.modl.backend.rest.RESTMappingV1;
+import gg.modl.backend.rest.RequestHeader;
+
+import javax.management.MBeanServerConnection;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Fires the same login workload at the servlet and the reactive Minecraft endpoints, one after the other, and prints
+// throughput and latency percentiles for each. It runs in its own JVM so its client threads and buffers never show up
+// in the server's numbers, heap and thread growth per concurrent connection are read from the server over JMX when
+// --jmx-url is given (start the server with -Dcom.sun.management.jmxremote.port=<port>).
+//
+// Point it at the scratch tenant MinecraftLoadTestRunner sets up:
+//   java -cp modl-backend.jar -Dloader.main=gg.modl.backend.player.loadtest.MinecraftLoadTestClient \
+//       org.springframework.boot.loader.launch.PropertiesLauncher --server-domain=... --api-key=... \
+//       [--base-url=http://localhost:8080] [--jmx-url=service:jmx:rmi:///jndi/rmi://localhost:9010/jmxrmi]
+//       [--concurrency=500] [--requests=20000] [--distinct-players=5000]
+public final class MinecraftLoadTestClient {
+    private static final String LOGIN_PATH = "/login";
+    private static final long SAMPLE_INTERVAL_MILLIS = 50;
+
+    private final String baseUrl;
+    private final String serverDomain;
+    private final String apiKey;
+    private final int concurrency;
+    private final int requests;
+    private final int distinctPlayers;
+    private final HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+
+    private MinecraftLoadTestClient(Map<String, String> options) {
+        this.baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        this.serverDomain = required(options, "server-domain");
+        this.apiKey = required(options, "api-key");
+        this.concurrency = Integer.parseInt(options.getOrDefault("concurrency", "500"));
+        this.requests = Integer.parseInt(options.getOrDefault("requests", "20000"));
+        this.distinctPlayers = Integer.parseInt(options.getOrDefault("distinct-players", "5000"));
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = parse(args);
+        MinecraftLoadTestClient loadTest = new MinecraftLoadTestClient(options);
+
+        String jmxUrl = options.get("jmx-url");
+        if (jmxUrl == null) {
+            loadTest.runScenario("servlet", RESTMappingV1.MINECRAFT_PLAYER, null);
+            loadTest.runScenario("reactive", RESTMappingV1.MINECRAFT_REACTIVE_PLAYER, null);
+            return;
+        }
+
+        try (JMXConnector connector = JMXConnectorFactory.connect(new JMXServiceURL(jmxUrl))) {
+            MBeanServerConnection connection = connector.getMBeanServerConnection();
+            ServerMetrics metrics = new ServerMetrics(
+                    ManagementFactory.newPlatformMXBeanProxy(connection, ManagementFactory.MEMORY_MXBEAN_NAME, MemoryMXBean.class),
+                    ManagementFactory.newPlatformMXBeanProxy(connection, ManagementFactory.THREAD_MXBEAN_NAME, ThreadMXBean.class));
+            loadTest.runScenario("servlet", RESTMappingV1.MINECRAFT_PLAYER, metrics);
+            loadTest.runScenario("reactive", RESTMappingV1.MINECRAFT_REACTIVE_PLAYER, metrics);
+        }
+    }
+
+    private void runScenario(String name, String basePath, ServerMetrics metrics) throws InterruptedException {
+        long baselineHeap = 0;
+        int baselineThreads = 0;
+        AtomicLong peakHeap = new AtomicLong();
+        ScheduledExecutorService sampler = null;
+        if (metrics != null) {
+            metrics.memory().gc();
+            baselineHeap = metrics.memory().getHeapMemoryUsage().getUsed();
+            baselineThreads = metrics.threads().getThreadCount();
+            metrics.threads().resetPeakThreadCount();
+            peakHeap.set(baselineHeap);
+
+            // Sampled on a timer rather than per response, so a slow JMX round trip never holds back the load
+            sampler = Executors.newSingleThreadScheduledExecutor();
+            sampler.scheduleAtFixedRate(() -> peakHeap.accumulateAndGet(metrics.memory().getHeapMemoryUsage().getUsed(), Math::max),
+                    0, SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        long[] latenciesNanos = new long[requests];
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        Semaphore inFlight = new Semaphore(concurrency);
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[requests];
+        URI uri = URI.create(baseUrl + basePath + LOGIN_PATH);
+
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int index = i;
+            long requestStart = System.nanoTime();
+            futures[i] = client.sendAsync(buildRequest(uri, index), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        latenciesNanos[index] = System.nanoTime() - requestStart;
+                        if (error == null && response.statusCode() == 200) {
+                            succeeded.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                        inFlight.release();
+                    });
+        }
+        CompletableFuture.allOf(futures).exceptionally(error -> null).join();
+
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+        Arrays.sort(latenciesNanos);
+        System.out.printf("Minecraft load test [%s]: %d requests in %.2fs (%.1f req/s), succeeded=%d, failed=%d%n",
+                name, requests, elapsedSeconds, requests / elapsedSeconds, succeeded.get(), failed.get());
+        System.out.printf("Minecraft load test [%s]: p50=%dms p95=%dms p99=%dms%n",
+                name, percentileMillis(latenciesNanos, 0.50), percentileMillis(latenciesNanos, 0.95), percentileMillis(latenciesNanos, 0.99));
+
+        if (sampler != null) {
+            sampler.shutdownNow();
+            long heapPerConnection = (peakHeap.get() - baselineHeap) / concurrency;
+            double threadsPerConnection = (double) (metrics.threads().getPeakThreadCount() - baselineThreads) / concurrency;
+            System.out.printf("Minecraft load test [%s]: server grew ~%d KB heap and %.2f threads per concurrent connection%n",
+                    name, heapPerConnection / 1024, threadsPerConnection);
+        }
+    }
+
+    private HttpRequest buildRequest(URI uri, int index) {
+        int player = index % distinctPlayers;
+        UUID minecraftUuid = UUID.nameUUIDFromBytes(("load-test-" + player).getBytes());
+        String body = "{\"minecraftUUID\":\"%s\",\"username\":\"load_%d\",\"ip\":\"127.0.0.1\"}".formatted(minecraftUuid, player);
+
+        return HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .header(RequestHeader.SERVER_DOMAIN, serverDomain)
+                .header(RequestHeader.API_KEY, apiKey)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static long percentileMillis(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+
+        int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(percentile * sortedNanos.length) - 1);
+        return TimeUnit.NANOSECONDS.toMillis(sortedNanos[Math.max(0, index)]);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    private static String required(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("--" + name + " is required");
+        }
+        return value;
+    }
+
+    private record ServerMetrics(MemoryMXBean memory, ThreadMXBean threads) {}
+}
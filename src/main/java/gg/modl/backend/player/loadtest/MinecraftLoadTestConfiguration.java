@@ -0,0 +1,16 @@
+package gg.modl.backend.player.loadtest;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "modl.minecraft.load-test")
+@Getter
+@Setter
+public class MinecraftLoadTestConfiguration {
+    private boolean enabled = false;
+    private String databaseName = "loadtest_minecraft";
+    private String subdomain = "loadtest-minecraft";
+}
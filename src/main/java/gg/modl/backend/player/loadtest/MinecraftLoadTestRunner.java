@@ -0,0 +1,85 @@
+package gg.modl.backend.player.loadtest;
+
+import gg.modl.backend.apikey.ApiKeyService;
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.database.DynamicMongoTemplateProvider;
+import gg.modl.backend.database.TenantIndexService;
+import gg.modl.backend.server.ServerService;
+import gg.modl.backend.server.data.ProvisioningStatus;
+import gg.modl.backend.server.data.Server;
+import gg.modl.backend.server.data.ServerPlan;
+import gg.modl.backend.server.data.SubscriptionStatus;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+
+// Sets up a scratch tenant for MinecraftLoadTestClient, which generates the load and takes the measurements from its
+// own process. The tenant's database and server record only exist while this instance runs, so the load test never
+// writes players into a real tenant
+@Component
+@ConditionalOnProperty(prefix = "modl.minecraft.load-test", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class MinecraftLoadTestRunner implements ApplicationRunner {
+    private final MinecraftLoadTestConfiguration configuration;
+    private final DynamicMongoTemplateProvider mongoProvider;
+    private final ServerService serverService;
+    private final TenantIndexService indexService;
+    private final ApiKeyService apiKeyService;
+    private volatile Server scratchServer;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String databaseName = configuration.getDatabaseName();
+        if (databaseName.startsWith(ServerService.SERVER_DATABASE_PREFIX) || DynamicMongoTemplateProvider.GLOBAL_DATABASE_NAME.equals(databaseName)) {
+            log.warn("Skipping Minecraft load test setup, {} is not a scratch database.", databaseName);
+            return;
+        }
+
+        // A server left behind by an instance that did not shut down cleanly is replaced, any other is a real tenant
+        Server existing = serverService.getServerFromDomain(configuration.getSubdomain());
+        if (existing != null && !databaseName.equals(existing.getDatabaseName())) {
+            log.warn("Skipping Minecraft load test setup, {} belongs to another server.", configuration.getSubdomain());
+            return;
+        }
+        if (existing != null) {
+            mongoProvider.getGlobalDatabase().remove(existing, CollectionName.MODL_SERVERS);
+        }
+        mongoProvider.getFromDatabaseName(databaseName).getDb().drop();
+
+        Date now = new Date();
+        Server server = new Server(configuration.getSubdomain(), configuration.getSubdomain(), databaseName);
+        server.setAdminEmail(configuration.getSubdomain() + "@loadtest.invalid");
+        server.setEmailVerified(true);
+        server.setProvisioningStatus(ProvisioningStatus.completed);
+        server.setPlan(ServerPlan.free);
+        server.setSubscriptionStatus(SubscriptionStatus.inactive);
+        server.setCreatedAt(now);
+        server.setUpdatedAt(now);
+        serverService.createServer(server);
+        scratchServer = server;
+        indexService.ensureIndexes(databaseName);
+
+        ApiKeyService.CreatedApiKey apiKey = apiKeyService.create(server, "Minecraft load test", "load-test");
+        log.info("Minecraft load test tenant ready on {}, run MinecraftLoadTestClient with --server-domain={} --api-key={}",
+                databaseName, configuration.getSubdomain(), apiKey.key());
+    }
+
+    @PreDestroy
+    public void tearDown() {
+        Server server = scratchServer;
+        if (server == null) {
+            return;
+        }
+
+        apiKeyService.list(server).forEach(apiKey -> apiKeyService.revoke(server, apiKey.getId()));
+        mongoProvider.getGlobalDatabase().remove(server, CollectionName.MODL_SERVERS);
+        mongoProvider.getFromDatabaseName(configuration.getDatabaseName()).getDb().drop();
+    }
+}
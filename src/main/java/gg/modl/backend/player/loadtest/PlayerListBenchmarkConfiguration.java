@@ -0,0 +1,19 @@
+package gg.modl.backend.player.loadtest;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "modl.players.list-benchmark")
+@Getter
+@Setter
+public class PlayerListBenchmarkConfiguration {
+    private boolean enabled = false;
+    // Scratch database, it is filled with generated players and dropped afterwards
+    private String databaseName = "modl_list_benchmark";
+    private int pageSize = 50;
+    private int pages = 1_000;
+    private int samplesPerPage = 20;
+}
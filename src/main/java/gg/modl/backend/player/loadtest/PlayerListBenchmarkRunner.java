@@ -0,0 +1,129 @@
+package gg.modl.backend.player.loadtest;
+
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.database.DynamicMongoTemplateProvider;
+import gg.modl.backend.database.pagination.KeysetPage;
+import gg.modl.backend.database.pagination.KeysetPagination;
+import gg.modl.backend.database.pagination.KeysetSort;
+import gg.modl.backend.player.PlayerField;
+import gg.modl.backend.player.PlayerIndexInitializer;
+import gg.modl.backend.player.PlayerListSort;
+import gg.modl.backend.player.data.Player;
+import gg.modl.backend.server.ServerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Fills a scratch database with players, walks the NEWEST listing to the last configured page and logs how long
+// page 1 and page N take with keyset cursors next to the same pages read with skip. Keyset pages should cost the same
+// at any depth, skip pages grow with the offset.
+@Component
+@ConditionalOnProperty(prefix = "modl.players.list-benchmark", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class PlayerListBenchmarkRunner implements ApplicationRunner {
+    private static final int INSERT_BATCH_SIZE = 1_000;
+
+    private final PlayerListBenchmarkConfiguration configuration;
+    private final DynamicMongoTemplateProvider mongoProvider;
+    private final PlayerIndexInitializer indexInitializer;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String databaseName = configuration.getDatabaseName();
+        if (databaseName.startsWith(ServerService.SERVER_DATABASE_PREFIX) || DynamicMongoTemplateProvider.GLOBAL_DATABASE_NAME.equals(databaseName)) {
+            log.warn("Skipping player list benchmark, {} is not a scratch database.", databaseName);
+            return;
+        }
+
+        MongoTemplate mongo = mongoProvider.getFromDatabaseName(databaseName);
+        try {
+            seed(mongo);
+            indexInitializer.ensureIndexes(mongo);
+            benchmark(mongo, PlayerListSort.NEWEST.getKeysetSort());
+        } finally {
+            mongo.getDb().drop();
+        }
+    }
+
+    private void seed(MongoTemplate mongo) {
+        mongo.getDb().drop();
+
+        int players = configuration.getPageSize() * configuration.getPages() + 1;
+        long firstJoin = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(365);
+        List<Document> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 0; i < players; i++) {
+            Date joined = new Date(firstJoin + i * 1000L);
+            batch.add(new Document("_id", UUID.randomUUID().toString())
+                    .append(PlayerField.MINECRAFT_UUID, UUID.randomUUID().toString())
+                    .append(PlayerField.FIRST_JOIN, joined)
+                    .append(PlayerField.USERNAMES, List.of(new Document("username", "bench_" + i).append("date", joined))));
+            if (batch.size() == INSERT_BATCH_SIZE) {
+                mongo.getCollection(CollectionName.PLAYERS).insertMany(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            mongo.getCollection(CollectionName.PLAYERS).insertMany(batch);
+        }
+        log.info("Player list benchmark: seeded {} players", players);
+    }
+
+    private void benchmark(MongoTemplate mongo, KeysetSort sort) {
+        int lastPage = configuration.getPages();
+        String cursor = null;
+        for (int page = 1; page < lastPage; page++) {
+            cursor = KeysetPagination.find(mongo, new Query(), sort, cursor, configuration.getPageSize(), Player.class, CollectionName.PLAYERS).nextCursor();
+        }
+
+        String lastCursor = cursor;
+        long keysetFirst = medianMicros(() -> keysetPage(mongo, sort, null));
+        long keysetLast = medianMicros(() -> keysetPage(mongo, sort, lastCursor));
+        long skipFirst = medianMicros(() -> skipPage(mongo, sort, 0));
+        long skipLast = medianMicros(() -> skipPage(mongo, sort, (long) (lastPage - 1) * configuration.getPageSize()));
+
+        log.info("Player list benchmark: keyset page 1={}us page {}={}us, skip page 1={}us page {}={}us",
+                keysetFirst, lastPage, keysetLast, skipFirst, lastPage, skipLast);
+    }
+
+    private void keysetPage(MongoTemplate mongo, KeysetSort sort, String cursor) {
+        KeysetPage<Player> page = KeysetPagination.find(mongo, new Query(), sort, cursor, configuration.getPageSize(), Player.class, CollectionName.PLAYERS);
+        if (page.items().isEmpty()) {
+            throw new IllegalStateException("Benchmark page came back empty.");
+        }
+    }
+
+    private void skipPage(MongoTemplate mongo, KeysetSort sort, long offset) {
+        Query query = new Query().with(sort.toSort()).skip(offset).limit(configuration.getPageSize());
+        if (mongo.find(query, Player.class, CollectionName.PLAYERS).isEmpty()) {
+            throw new IllegalStateException("Benchmark page came back empty.");
+        }
+    }
+
+    private long medianMicros(Runnable pageRead) {
+        // First read warms the cache, it is not counted
+        pageRead.run();
+
+        long[] samples = new long[configuration.getSamplesPerPage()];
+        for (int i = 0; i < samples.length; i++) {
+            long startNanos = System.nanoTime();
+            pageRead.run();
+            samples[i] = System.nanoTime() - startNanos;
+        }
+        Arrays.sort(samples);
+        return TimeUnit.NANOSECONDS.toMicros(samples[samples.length / 2]);
+    }
+}
@@ -0,0 +1,50 @@
+package gg.modl.backend.player.reactive;
+
+import gg.modl.backend.player.PlayerResponseMessage;
+import gg.modl.backend.player.controller.MinecraftPlayerController.LoginRequest;
+import gg.modl.backend.player.controller.MinecraftPlayerController.LoginResponse;
+import gg.modl.backend.rest.RESTMappingV1;
+import gg.modl.backend.rest.RequestUtil;
+import gg.modl.backend.server.data.Server;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Same contract as MinecraftPlayerController, but the request thread is released while Mongo works
+@RestController
+@RequestMapping(RESTMappingV1.MINECRAFT_REACTIVE_PLAYER)
+@RequiredArgsConstructor
+public class ReactiveMinecraftPlayerController {
+    private final ReactivePlayerService playerService;
+    private final ReactivePlayerConfiguration configuration;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @PostMapping("/login")
+    public Mono<ResponseEntity<LoginResponse>> login(HttpServletRequest httpRequest, @RequestBody @Valid LoginRequest request, BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            return Mono.just(ResponseEntity.badRequest().body(new LoginResponse(false, PlayerResponseMessage.LOGIN_INVALID_SCHEMA)));
+        }
+
+        Server server = RequestUtil.getRequestServer(httpRequest);
+        if (inFlight.incrementAndGet() > configuration.getMaxInFlight()) {
+            inFlight.decrementAndGet();
+            return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1")
+                    .body(new LoginResponse(false, PlayerResponseMessage.LOGIN_OVERLOADED)));
+        }
+
+        return Mono.defer(() -> playerService.loginPlayer(server, UUID.fromString(request.minecraftUUID()), request.username(), request.ip()))
+                .map(newPlayer -> ResponseEntity.ok(new LoginResponse(true, PlayerResponseMessage.LOGIN_SUCCESS)))
+                .doFinally(signal -> inFlight.decrementAndGet());
+    }
+}
@@ -0,0 +1,15 @@
+package gg.modl.backend.player.reactive;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "modl.minecraft.reactive")
+@Getter
+@Setter
+public class ReactivePlayerConfiguration {
+    // Logins past this are shed with 503 instead of queueing up behind the driver's connection pool
+    private int maxInFlight = 2000;
+}
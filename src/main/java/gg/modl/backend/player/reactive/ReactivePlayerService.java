@@ -0,0 +1,54 @@
+package gg.modl.backend.player.reactive;
+
+import gg.modl.backend.analytics.AnalyticsRollupService;
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.database.ReactiveMongoTemplateProvider;
+import gg.modl.backend.player.PlayerLogin;
+import gg.modl.backend.player.search.PlayerNames;
+import gg.modl.backend.server.data.Server;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class ReactivePlayerService {
+    private final ReactiveMongoTemplateProvider mongoProvider;
+    private final AnalyticsRollupService analyticsRollupService;
+
+    // Same writes as PlayerService.loginPlayer, emits whether this was the player's first login on the server
+    public Mono<Boolean> loginPlayer(@NotNull Server server, @NotNull UUID minecraftUUID, @NotNull String username, @NotNull String ip) {
+        ReactiveMongoTemplate mongo = mongoProvider.getFromDatabaseName(server.getDatabaseName());
+        Date now = new Date();
+
+        Query withoutUsername = PlayerLogin.withoutUsername(minecraftUUID, username);
+        withoutUsername.fields().include("_id");
+
+        return mongo.upsert(PlayerLogin.byMinecraftUuid(minecraftUUID), PlayerLogin.createIfMissing(minecraftUUID, username, ip, now), CollectionName.PLAYERS)
+                .mapNotNull(result -> result.getUpsertedId() == null ? null : result.getUpsertedId().asString().getValue())
+                .flatMap(playerId -> addSearchName(mongo, playerId, minecraftUUID, username).thenReturn(true))
+                // A concurrent first login inserted the player, this one continues as a returning login
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.empty())
+                .switchIfEmpty(Mono.defer(() -> mongo.findAndModify(withoutUsername, PlayerLogin.pushUsername(username, now), Document.class, CollectionName.PLAYERS)
+                        .flatMap(renamed -> addSearchName(mongo, String.valueOf(renamed.get("_id")), minecraftUUID, username))
+                        .then(mongo.updateFirst(PlayerLogin.withoutIp(minecraftUUID, ip), PlayerLogin.pushIp(ip, now), CollectionName.PLAYERS))
+                        .thenReturn(false)))
+                // Only queues the rollup, the scheduled flush writes it, so nothing blocks on the driver's threads
+                .doOnNext(newPlayer -> analyticsRollupService.recordLogin(server, minecraftUUID, newPlayer));
+    }
+
+    private Mono<Void> addSearchName(ReactiveMongoTemplate mongo, String playerId, UUID minecraftUUID, String username) {
+        return mongo.upsert(PlayerNames.byId(playerId, username), PlayerNames.createIfMissing(playerId, minecraftUUID.toString(), username), CollectionName.PLAYER_NAMES)
+                // A concurrent login added the same entry
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.empty())
+                .then();
+    }
+}
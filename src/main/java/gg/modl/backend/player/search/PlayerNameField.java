@@ -0,0 +1,8 @@
+package gg.modl.backend.player.search;
+
+public final class PlayerNameField {
+    public static final String NAME = "name";
+    public static final String PLAYER_ID = "playerId";
+    public static final String MINECRAFT_UUID = "minecraftUuid";
+    public static final String GRAMS = "grams";
+}
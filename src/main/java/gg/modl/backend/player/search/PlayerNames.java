@@ -0,0 +1,51 @@
+package gg.modl.backend.player.search;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Name entry writes shared by the login paths and the backfill migration
+public final class PlayerNames {
+    public static final int GRAM_LENGTH = 3;
+    // Usernames never contain spaces, so padding with them marks where a name starts and ends
+    private static final String PADDING = "  ";
+
+    @NotNull
+    public static Query byId(@NotNull String playerId, @NotNull String username) {
+        return new Query(Criteria.where("_id").is(id(playerId, username)));
+    }
+
+    @NotNull
+    public static Update createIfMissing(@NotNull String playerId, @Nullable String minecraftUuid, @NotNull String username) {
+        return new Update()
+                .setOnInsert(PlayerNameField.NAME, username)
+                .setOnInsert(PlayerNameField.PLAYER_ID, playerId)
+                .setOnInsert(PlayerNameField.MINECRAFT_UUID, minecraftUuid)
+                .setOnInsert(PlayerNameField.GRAMS, grams(username));
+    }
+
+    @NotNull
+    public static String id(@NotNull String playerId, @NotNull String username) {
+        return username.toLowerCase(Locale.ROOT) + ":" + playerId;
+    }
+
+    // Distinct lowercase trigrams of the padded name. One edit changes at most GRAM_LENGTH of them, so a name within
+    // edit distance k of another still shares all but GRAM_LENGTH * k of its distinct grams
+    @NotNull
+    public static List<String> grams(@NotNull String username) {
+        String padded = PADDING + username.toLowerCase(Locale.ROOT) + PADDING;
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + GRAM_LENGTH));
+        }
+        return new ArrayList<>(grams);
+    }
+}
@@ -0,0 +1,59 @@
+package gg.modl.backend.player.search;
+
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.database.migration.TenantMigration;
+import gg.modl.backend.player.PlayerField;
+import org.bson.Document;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+// Fills player_names for players whose usernames were stored before logins started writing name entries
+@Component
+public class PlayerNamesMigration implements TenantMigration {
+    private static final int BATCH_SIZE = 1000;
+
+    @Override
+    @NotNull
+    public String id() {
+        return "player-names";
+    }
+
+    @Override
+    public void migrate(@NotNull MongoTemplate mongo) {
+        Query query = new Query();
+        query.fields().include(PlayerField.MINECRAFT_UUID, PlayerField.USERNAME);
+
+        BulkOperations bulk = mongo.bulkOps(BulkOperations.BulkMode.UNORDERED, CollectionName.PLAYER_NAMES);
+        int pending = 0;
+        try (Stream<Document> stream = mongo.stream(query, Document.class, CollectionName.PLAYERS)) {
+            for (Document player : (Iterable<Document>) stream::iterator) {
+                String playerId = String.valueOf(player.get("_id"));
+                for (Document entry : player.getList(PlayerField.USERNAMES, Document.class, List.of())) {
+                    String username = entry.getString("username");
+                    if (username == null) {
+                        continue;
+                    }
+
+                    bulk.upsert(PlayerNames.byId(playerId, username), PlayerNames.createIfMissing(playerId, player.getString(PlayerField.MINECRAFT_UUID), username));
+                    pending++;
+                }
+
+                if (pending >= BATCH_SIZE) {
+                    bulk.execute();
+                    bulk = mongo.bulkOps(BulkOperations.BulkMode.UNORDERED, CollectionName.PLAYER_NAMES);
+                    pending = 0;
+                }
+            }
+        }
+
+        if (pending > 0) {
+            bulk.execute();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package gg.modl.backend.player.search;
+
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.database.TenantIndexInitializer;
+import gg.modl.backend.player.PlayerField;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PlayerSearchIndexInitializer implements TenantIndexInitializer {
+    public static final String USERNAME_INDEX = "username_search";
+    public static final String TEXT_INDEX = "player_text_search";
+
+    @Override
+    public void ensureIndexes(@NotNull MongoTemplate mongo) {
+        // Case-insensitive collation lets prefix range scans stay on the index, and the id suffix lets a page resume
+        // from its cursor with a single seek
+        mongo.indexOps(CollectionName.PLAYER_NAMES).createIndex(PlayerSearchService.NAME_SORT.toIndex()
+                .collation(PlayerSearchService.USERNAME_COLLATION)
+                .named(USERNAME_INDEX));
+        mongo.indexOps(CollectionName.PLAYER_NAMES).createIndex(new Index().on(PlayerNameField.GRAMS, Sort.Direction.ASC));
+
+        // Only one text index is allowed per collection, so every searchable text field lives here
+        mongo.indexOps(CollectionName.PLAYERS).createIndex(new TextIndexDefinition.TextIndexDefinitionBuilder()
+                .named(TEXT_INDEX)
+                .onField(PlayerField.USERNAME, 10F)
+                .onField(PlayerField.PUNISHMENT_MODIFICATION_REASON, 4F)
+                .onField(PlayerField.NOTE_TEXT, 2F)
+                .onField(PlayerField.PUNISHMENT_NOTE_TEXT, 2F)
+                .onField(PlayerField.PUNISHMENT_EVIDENCE_URL, 1F)
+                .build());
+    }
+}
@@ -0,0 +1,7 @@
+package gg.modl.backend.player.search;
+
+public enum PlayerSearchMode {
+    USERNAME,
+    FUZZY,
+    TEXT
+}
@@ -0,0 +1,232 @@
+package gg.modl.backend.player.search;
+
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.database.DynamicMongoTemplateProvider;
+import gg.modl.backend.database.ReadRoute;
+import gg.modl.backend.database.TenantIndexService;
+import gg.modl.backend.database.pagination.KeysetCursor;
+import gg.modl.backend.database.pagination.KeysetPage;
+import gg.modl.backend.database.pagination.KeysetPagination;
+import gg.modl.backend.database.pagination.KeysetSort;
+import gg.modl.backend.player.PlayerField;
+import gg.modl.backend.player.search.data.PlayerName;
+import gg.modl.backend.server.data.Server;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.LiteralOperators;
+import org.springframework.data.mongodb.core.aggregation.SetOperators;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+@Service
+@RequiredArgsConstructor
+public class PlayerSearchService {
+    public static final Collation USERNAME_COLLATION = Collation.of("en").strength(Collation.ComparisonLevel.secondary());
+    public static final KeysetSort NAME_SORT = new KeysetSort(PlayerNameField.NAME, Sort.Direction.ASC, String.class, String.class);
+    public static final int MAX_PAGE_SIZE = 50;
+
+    // U+FFFF carries the highest primary weight in ICU collation, so prefix + U+FFFF bounds every extension of prefix
+    private static final String COLLATION_UPPER_BOUND = "\uFFFF";
+    private static final String SCORE_FIELD = "score";
+    private static final String SHARED_GRAMS_FIELD = "sharedGrams";
+    private static final String DISTANCE_CURSOR_FIELD = "distance";
+    private static final int FUZZY_CANDIDATE_LIMIT = 500;
+    private static final int FUZZY_MAX_DISTANCE = 2;
+
+    private final DynamicMongoTemplateProvider mongoProvider;
+    private final TenantIndexService indexService;
+
+    // Every mode pages with an opaque cursor, an IllegalArgumentException means it was malformed or from another mode
+    public KeysetPage<PlayerSearchHit> search(@NotNull Server server, @NotNull String term, @NotNull PlayerSearchMode mode, @Nullable String cursor, int size) {
+        indexService.ensureIndexes(server.getDatabaseName());
+        MongoTemplate mongo = mongoProvider.getFromDatabaseName(server.getDatabaseName(), ReadRoute.NEAREST);
+
+        String normalizedTerm = term.trim();
+        int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+        KeysetCursor decoded = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+
+        return switch (mode) {
+            case USERNAME -> searchUsernamePrefix(mongo, normalizedTerm, cursor, pageSize);
+            case FUZZY -> searchUsernameFuzzy(mongo, normalizedTerm, decoded, pageSize);
+            case TEXT -> searchText(mongo, normalizedTerm, decoded, pageSize);
+        };
+    }
+
+    // A player shows up once per matching username, each hit names the username that matched
+    private KeysetPage<PlayerSearchHit> searchUsernamePrefix(MongoTemplate mongo, String prefix, @Nullable String cursor, int size) {
+        Query filter = new Query(Criteria.where(PlayerNameField.NAME).gte(prefix).lt(prefix + COLLATION_UPPER_BOUND))
+                .collation(USERNAME_COLLATION);
+
+        KeysetPage<PlayerName> page = KeysetPagination.find(mongo, filter, NAME_SORT, cursor, size, PlayerName.class, CollectionName.PLAYER_NAMES);
+        List<PlayerSearchHit> hits = new ArrayList<>(page.items().size());
+        for (PlayerName name : page.items()) {
+            hits.add(new PlayerSearchHit(name.getPlayerId(), name.getMinecraftUuid(), name.getName(), 1));
+        }
+
+        return new KeysetPage<>(hits, page.nextCursor());
+    }
+
+    // Candidates come from the trigram index, so a typo anywhere in the name is found. Names that cannot be within
+    // FUZZY_MAX_DISTANCE edits are dropped in the database and the FUZZY_CANDIDATE_LIMIT closest by shared grams are
+    // ranked here, ordered by distance and then by id, which is the lowercased name
+    private KeysetPage<PlayerSearchHit> searchUsernameFuzzy(MongoTemplate mongo, String term, @Nullable KeysetCursor cursor, int size) {
+        if (cursor != null && (!DISTANCE_CURSOR_FIELD.equals(cursor.sortField())
+                || !(cursor.sortValue() instanceof Integer) || !(cursor.id() instanceof String))) {
+            throw new IllegalArgumentException("Pagination cursor does not match the requested search.");
+        }
+
+        String lowerTerm = term.toLowerCase(Locale.ROOT);
+        List<String> grams = PlayerNames.grams(term);
+        int minSharedGrams = Math.max(1, grams.size() - PlayerNames.GRAM_LENGTH * FUZZY_MAX_DISTANCE);
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where(PlayerNameField.GRAMS).in(grams)),
+                Aggregation.addFields().addField(SHARED_GRAMS_FIELD).withValue(ArrayOperators.Size.lengthOfArray(
+                        SetOperators.SetIntersection.arrayAsSet(PlayerNameField.GRAMS).intersects(LiteralOperators.Literal.asLiteral(grams)))).build(),
+                Aggregation.match(Criteria.where(SHARED_GRAMS_FIELD).gte(minSharedGrams)),
+                Aggregation.sort(Sort.by(Sort.Direction.DESC, SHARED_GRAMS_FIELD).and(Sort.by(Sort.Direction.ASC, "_id"))),
+                Aggregation.limit(FUZZY_CANDIDATE_LIMIT),
+                Aggregation.project(PlayerNameField.NAME, PlayerNameField.PLAYER_ID, PlayerNameField.MINECRAFT_UUID)
+        );
+
+        List<FuzzyCandidate> candidates = new ArrayList<>();
+        for (Document document : mongo.aggregate(aggregation, CollectionName.PLAYER_NAMES, Document.class)) {
+            String name = document.getString(PlayerNameField.NAME);
+            int distance = levenshtein(lowerTerm, name.toLowerCase(Locale.ROOT), FUZZY_MAX_DISTANCE);
+            if (distance <= FUZZY_MAX_DISTANCE) {
+                candidates.add(new FuzzyCandidate(document.getString("_id"), distance, new PlayerSearchHit(document.getString(PlayerNameField.PLAYER_ID),
+                        document.getString(PlayerNameField.MINECRAFT_UUID), name, 1D / (1 + distance))));
+            }
+        }
+
+        Comparator<FuzzyCandidate> order = Comparator.comparingInt(FuzzyCandidate::distance).thenComparing(FuzzyCandidate::id);
+        candidates.sort(order);
+
+        List<PlayerSearchHit> hits = new ArrayList<>(size);
+        FuzzyCandidate last = null;
+        boolean hasMore = false;
+        FuzzyCandidate after = cursor == null ? null : new FuzzyCandidate((String) cursor.id(), (Integer) cursor.sortValue(), null);
+        for (FuzzyCandidate candidate : candidates) {
+            if (after != null && order.compare(candidate, after) <= 0) {
+                continue;
+            }
+            if (hits.size() == size) {
+                hasMore = true;
+                break;
+            }
+            hits.add(candidate.hit());
+            last = candidate;
+        }
+
+        String nextCursor = hasMore ? new KeysetCursor(DISTANCE_CURSOR_FIELD, last.distance(), last.id()).encode() : null;
+        return new KeysetPage<>(hits, nextCursor);
+    }
+
+    // Text matches are scored as a whole by the server either way, resuming after the last (score, id) at least
+    // keeps deep pages from sorting and discarding every earlier page
+    private KeysetPage<PlayerSearchHit> searchText(MongoTemplate mongo, String term, @Nullable KeysetCursor cursor, int size) {
+        List<AggregationOperation> stages = new ArrayList<>();
+        stages.add(Aggregation.match(TextCriteria.forDefaultLanguage().matching(term)));
+        stages.add(Aggregation.project(PlayerField.MINECRAFT_UUID, PlayerField.USERNAMES)
+                .and(context -> new Document("$meta", "textScore")).as(SCORE_FIELD));
+
+        if (cursor != null) {
+            if (!SCORE_FIELD.equals(cursor.sortField()) || !(cursor.sortValue() instanceof Double score) || !(cursor.id() instanceof String)) {
+                throw new IllegalArgumentException("Pagination cursor does not match the requested search.");
+            }
+            stages.add(Aggregation.match(new Criteria().orOperator(
+                    Criteria.where(SCORE_FIELD).lt(score),
+                    new Criteria().andOperator(Criteria.where(SCORE_FIELD).is(score), Criteria.where("_id").gt(cursor.id())))));
+        }
+
+        stages.add(Aggregation.sort(Sort.by(Sort.Direction.DESC, SCORE_FIELD).and(Sort.by(Sort.Direction.ASC, "_id"))));
+        stages.add(Aggregation.limit(size + 1));
+
+        List<Document> documents = mongo.aggregate(Aggregation.newAggregation(stages), CollectionName.PLAYERS, Document.class).getMappedResults();
+        boolean hasMore = documents.size() > size;
+        if (hasMore) {
+            documents = documents.subList(0, size);
+        }
+
+        List<PlayerSearchHit> hits = new ArrayList<>(documents.size());
+        for (Document document : documents) {
+            List<String> usernames = getUsernames(document);
+            String username = usernames.isEmpty() ? null : usernames.getLast();
+            Number score = document.get(SCORE_FIELD, Number.class);
+            hits.add(new PlayerSearchHit(String.valueOf(document.get("_id")), document.getString(PlayerField.MINECRAFT_UUID),
+                    username, score == null ? 0 : score.doubleValue()));
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            Document last = documents.getLast();
+            nextCursor = new KeysetCursor(SCORE_FIELD, last.get(SCORE_FIELD, Number.class).doubleValue(), String.valueOf(last.get("_id"))).encode();
+        }
+        return new KeysetPage<>(hits, nextCursor);
+    }
+
+    private List<String> getUsernames(Document document) {
+        List<Document> entries = document.getList(PlayerField.USERNAMES, Document.class, List.of());
+        List<String> usernames = new ArrayList<>(entries.size());
+        for (Document entry : entries) {
+            String username = entry.getString("username");
+            if (username != null) {
+                usernames.add(username);
+            }
+        }
+        return usernames;
+    }
+
+    // Bounded edit distance, bails out as soon as every cell in a row exceeds maxDistance
+    private static int levenshtein(String a, String b, int maxDistance) {
+        if (Math.abs(a.length() - b.length()) > maxDistance) {
+            return maxDistance + 1;
+        }
+
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+
+            if (rowMin > maxDistance) {
+                return maxDistance + 1;
+            }
+
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        return previous[b.length()];
+    }
+
+    private record FuzzyCandidate(String id, int distance, @Nullable PlayerSearchHit hit) {}
+
+    public record PlayerSearchHit(String playerId, @Nullable String minecraftUuid, @Nullable String username, double score) {}
+}
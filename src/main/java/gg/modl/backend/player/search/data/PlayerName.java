@@ -0,0 +1,32 @@
+package gg.modl.backend.player.search.data;
+
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.player.search.PlayerNameField;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.util.List;
+
+// One entry per username a player has used. Kept apart from the player so that every name is a single valued
+// field, which is what lets prefix pages resume from a cursor on the index
+@Document(collection = CollectionName.PLAYER_NAMES)
+@Data
+public class PlayerName {
+    // Lowercased name followed by the player id, so ties on the name page in name order
+    @Id
+    private String id;
+
+    @Field(PlayerNameField.NAME)
+    private String name;
+
+    @Field(PlayerNameField.PLAYER_ID)
+    private String playerId;
+
+    @Field(PlayerNameField.MINECRAFT_UUID)
+    private String minecraftUuid;
+
+    @Field(PlayerNameField.GRAMS)
+    private List<String> grams;
+}
@@ -0,0 +1,93 @@
+package gg.modl.backend.ratelimit;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Generic cell rate algorithm over a fixed array of slots. Keys are hashed onto slots instead of being stored,
+// so checks are lock-free and allocate nothing. Colliding keys share a budget, which can only make limiting stricter,
+// and the hash is keyed with a secret so nobody can pick a key that lands in someone else's slot on purpose.
+public class GcraBucketTable {
+    private static final long CLOCK_ORIGIN = System.nanoTime();
+
+    @Getter
+    private final String policy;
+    @Getter
+    private final long periodNanos;
+    @Getter
+    private final int clusterAllowance;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final int slotMask;
+    private final long hashKey0;
+    private final long hashKey1;
+
+    private final AtomicLongArray theoreticalArrivalTimes;
+    private final AtomicLongArray blockedUntil;
+    private final AtomicLongArray pendingCounts;
+
+    public GcraBucketTable(String policy, int permits, long periodSeconds, int burst, int slots, long hashKey0, long hashKey1) {
+        int tableSize = Integer.highestOneBit(Math.max(2, slots - 1)) << 1;
+
+        this.policy = policy;
+        this.periodNanos = TimeUnit.SECONDS.toNanos(periodSeconds);
+        this.clusterAllowance = permits + burst;
+        this.emissionIntervalNanos = periodNanos / Math.max(1, permits);
+        this.burstToleranceNanos = emissionIntervalNanos * Math.max(1, burst);
+        this.slotMask = tableSize - 1;
+        // Tables of different policies still spread the same key differently
+        this.hashKey0 = hashKey0;
+        this.hashKey1 = hashKey1 ^ policy.hashCode();
+        this.theoreticalArrivalTimes = new AtomicLongArray(tableSize);
+        this.blockedUntil = new AtomicLongArray(tableSize);
+        this.pendingCounts = new AtomicLongArray(tableSize);
+    }
+
+    public int slotOf(String key) {
+        return (int) SipHash.hash(hashKey0, hashKey1, key) & slotMask;
+    }
+
+    public boolean tryAcquire(int slot, boolean trackPending) {
+        long now = now();
+        if (blockedUntil.get(slot) > now) {
+            return false;
+        }
+
+        while (true) {
+            long stored = theoreticalArrivalTimes.get(slot);
+            long newArrivalTime = Math.max(stored, now) + emissionIntervalNanos;
+
+            if (newArrivalTime - now > burstToleranceNanos) {
+                return false;
+            }
+
+            if (theoreticalArrivalTimes.compareAndSet(slot, stored, newArrivalTime)) {
+                if (trackPending) {
+                    pendingCounts.incrementAndGet(slot);
+                }
+                return true;
+            }
+        }
+    }
+
+    public long getRetryAfterSeconds() {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(emissionIntervalNanos));
+    }
+
+    public int size() {
+        return slotMask + 1;
+    }
+
+    public long drainPending(int slot) {
+        return pendingCounts.getAndSet(slot, 0);
+    }
+
+    public void block(int slot, long durationNanos) {
+        blockedUntil.accumulateAndGet(slot, now() + durationNanos, Math::max);
+    }
+
+    private static long now() {
+        return System.nanoTime() - CLOCK_ORIGIN;
+    }
+}
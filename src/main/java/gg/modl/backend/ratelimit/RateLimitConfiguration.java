@@ -0,0 +1,31 @@
+package gg.modl.backend.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "modl.ratelimit")
+@Getter
+@Setter
+public class RateLimitConfiguration {
+    private boolean enabled = true;
+    private int slotsPerPolicy = 1 << 16;
+    private boolean sharedStoreEnabled = false;
+    private long syncIntervalMillis = 1000;
+    // Keys the slot hash. Nodes sharing counters must agree on it, otherwise a random secret is generated per process
+    private String hashSecret;
+    private Map<String, Policy> policies = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Policy {
+        private int permits = 60;
+        private long periodSeconds = 60;
+        private int burst = 10;
+    }
+}
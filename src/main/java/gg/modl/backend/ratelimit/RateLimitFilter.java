@@ -0,0 +1,59 @@
+package gg.modl.backend.ratelimit;
+
+import gg.modl.backend.rest.RESTMappingV1;
+import gg.modl.backend.rest.RequestHeader;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final Map<String, List<RateLimitRule>> EXACT_ROUTE_RULES = Map.of(
+            RESTMappingV1.PUBLIC_SERVER + "/register", List.of(
+                    new RateLimitRule(RateLimitPolicyName.REGISTER_IP, RateLimitKey.IP)),
+            RESTMappingV1.PANEL_AUTH + "/send-email-code", List.of(
+                    new RateLimitRule(RateLimitPolicyName.EMAIL_CODE_IP, RateLimitKey.IP),
+                    new RateLimitRule(RateLimitPolicyName.EMAIL_CODE_SERVER, RateLimitKey.SERVER)),
+            RESTMappingV1.PANEL_AUTH + "/verify-email-code", List.of(
+                    new RateLimitRule(RateLimitPolicyName.VERIFY_CODE_IP, RateLimitKey.IP)),
+            RESTMappingV1.PUBLIC_TICKETS, List.of(
+                    new RateLimitRule(RateLimitPolicyName.TICKET_CREATE_IP, RateLimitKey.IP))
+    );
+
+    private final RateLimiter rateLimiter;
+
+    @Override
+    protected void doFilterInternal(@NotNull HttpServletRequest request, @NotNull HttpServletResponse response, @NotNull FilterChain chain) throws ServletException, IOException {
+        List<RateLimitRule> rules = EXACT_ROUTE_RULES.getOrDefault(request.getRequestURI(), List.of());
+
+        for (int i = 0; i < rules.size(); i++) {
+            RateLimitRule rule = rules.get(i);
+            if (!rateLimiter.tryAcquire(rule.policy(), resolveKey(request, rule.key()))) {
+                response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(rateLimiter.getRetryAfterSeconds(rule.policy())));
+                response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "");
+                return;
+            }
+        }
+
+        chain.doFilter(request, response);
+    }
+
+    // The remote address is the client's own, resolved from X-Forwarded-For only when the direct peer is one of
+    // our proxies (server.forward-headers-strategy=native)
+    private String resolveKey(HttpServletRequest request, RateLimitKey key) {
+        return switch (key) {
+            case IP -> request.getRemoteAddr();
+            case SERVER -> request.getHeader(RequestHeader.SERVER_DOMAIN);
+        };
+    }
+}
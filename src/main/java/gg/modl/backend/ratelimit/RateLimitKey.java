@@ -0,0 +1,6 @@
+package gg.modl.backend.ratelimit;
+
+public enum RateLimitKey {
+    IP,
+    SERVER
+}
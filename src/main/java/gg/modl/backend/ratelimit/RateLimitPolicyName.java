@@ -0,0 +1,13 @@
+package gg.modl.backend.ratelimit;
+
+public final class RateLimitPolicyName {
+    public static final String REGISTER_IP = "register-ip";
+    public static final String REGISTER_EMAIL = "register-email";
+    public static final String EMAIL_CODE_IP = "email-code-ip";
+    public static final String EMAIL_CODE_EMAIL = "email-code-email";
+    public static final String EMAIL_CODE_SERVER = "email-code-server";
+    public static final String VERIFY_CODE_IP = "verify-code-ip";
+    public static final String TICKET_CREATE_IP = "ticket-create-ip";
+    public static final String MINECRAFT = "minecraft";
+    public static final String API_KEY_LOOKUP_IP = "api-key-lookup-ip";
+}
@@ -0,0 +1,6 @@
+package gg.modl.backend.ratelimit;
+
+import org.jetbrains.annotations.NotNull;
+
+public record RateLimitRule(@NotNull String policy, @NotNull RateLimitKey key) {
+}
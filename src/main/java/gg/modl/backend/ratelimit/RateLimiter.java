@@ -0,0 +1,162 @@
+package gg.modl.backend.ratelimit;
+
+import gg.modl.backend.database.DynamicMongoTemplateProvider;
+import gg.modl.backend.ratelimit.data.RateLimitCounter;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+@Slf4j
+public class RateLimiter {
+    private final RateLimitConfiguration configuration;
+    private final DynamicMongoTemplateProvider mongoProvider;
+    private final ConcurrentMap<String, GcraBucketTable> tables = new ConcurrentHashMap<>();
+    private final AtomicBoolean indexesCreated = new AtomicBoolean();
+    private final long hashKey0;
+    private final long hashKey1;
+
+    public RateLimiter(RateLimitConfiguration configuration, DynamicMongoTemplateProvider mongoProvider) {
+        this.configuration = configuration;
+        this.mongoProvider = mongoProvider;
+
+        String secret = configuration.getHashSecret();
+        if (secret == null || secret.isBlank()) {
+            // Slot ids are part of the shared counter ids, a per process secret would scatter them across nodes
+            if (configuration.isSharedStoreEnabled()) {
+                throw new IllegalStateException("modl.ratelimit.hash-secret must be set when the shared store is enabled");
+            }
+            SecureRandom random = new SecureRandom();
+            this.hashKey0 = random.nextLong();
+            this.hashKey1 = random.nextLong();
+        } else {
+            ByteBuffer digest = ByteBuffer.wrap(sha256(secret));
+            this.hashKey0 = digest.getLong();
+            this.hashKey1 = digest.getLong();
+        }
+    }
+
+    // Null keys are not limited, callers pass whatever identifier the request actually has
+    public boolean tryAcquire(@NotNull String policy, @Nullable String key) {
+        if (!configuration.isEnabled() || key == null || key.isEmpty()) {
+            return true;
+        }
+
+        GcraBucketTable table = getTable(policy);
+        return table.tryAcquire(table.slotOf(key), configuration.isSharedStoreEnabled());
+    }
+
+    public long getRetryAfterSeconds(@NotNull String policy) {
+        return getTable(policy).getRetryAfterSeconds();
+    }
+
+    private GcraBucketTable getTable(String policy) {
+        GcraBucketTable table = tables.get(policy);
+        if (table != null) {
+            return table;
+        }
+
+        return tables.computeIfAbsent(policy, name -> {
+            RateLimitConfiguration.Policy settings = configuration.getPolicies().getOrDefault(name, new RateLimitConfiguration.Policy());
+            return new GcraBucketTable(name, settings.getPermits(), settings.getPeriodSeconds(), settings.getBurst(),
+                    configuration.getSlotsPerPolicy(), hashKey0, hashKey1);
+        });
+    }
+
+    // Pushes locally admitted counts to the shared store in one bulk write per policy, then blocks slots whose
+    // cluster-wide count for the current window is over the allowance. Local checks never wait on this.
+    @Scheduled(fixedDelayString = "${modl.ratelimit.sync-interval-millis:1000}")
+    public void synchronizeSharedCounters() {
+        if (!configuration.isSharedStoreEnabled()) {
+            return;
+        }
+
+        MongoTemplate mongo = mongoProvider.getGlobalDatabase();
+        ensureIndexes(mongo);
+        for (GcraBucketTable table : tables.values()) {
+            try {
+                synchronizeTable(mongo, table);
+            } catch (RuntimeException e) {
+                log.warn("Failed to synchronize rate limit counters for policy {}", table.getPolicy(), e);
+            }
+        }
+    }
+
+    private void synchronizeTable(MongoTemplate mongo, GcraBucketTable table) {
+        long periodMillis = TimeUnit.NANOSECONDS.toMillis(table.getPeriodNanos());
+        long nowMillis = System.currentTimeMillis();
+        long windowStart = nowMillis - nowMillis % periodMillis;
+        long windowEnd = windowStart + periodMillis;
+
+        Map<String, Integer> slotsById = new HashMap<>();
+        BulkOperations bulk = mongo.bulkOps(BulkOperations.BulkMode.UNORDERED, RateLimitCounter.class);
+
+        for (int slot = 0; slot < table.size(); slot++) {
+            long pending = table.drainPending(slot);
+            if (pending == 0) {
+                continue;
+            }
+
+            String id = table.getPolicy() + ":" + slot + ":" + windowStart;
+            slotsById.put(id, slot);
+            bulk.upsert(new Query(Criteria.where("_id").is(id)), new Update()
+                    .inc("count", pending)
+                    .setOnInsert("expiresAt", Instant.ofEpochMilli(windowEnd + periodMillis)));
+        }
+
+        if (slotsById.isEmpty()) {
+            return;
+        }
+
+        bulk.execute();
+
+        List<RateLimitCounter> counters = mongo.find(new Query(Criteria.where("_id").in(new ArrayList<>(slotsById.keySet()))), RateLimitCounter.class);
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(windowEnd - System.currentTimeMillis());
+
+        for (RateLimitCounter counter : counters) {
+            if (counter.getCount() > table.getClusterAllowance()) {
+                table.block(slotsById.get(counter.getId()), remainingNanos);
+            }
+        }
+    }
+
+    private void ensureIndexes(MongoTemplate mongo) {
+        if (indexesCreated.compareAndSet(false, true)) {
+            // Counters expire on their own once their window is over
+            mongo.indexOps(RateLimitCounter.class).createIndex(new Index().on("expiresAt", Sort.Direction.ASC).expire(Duration.ZERO));
+        }
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
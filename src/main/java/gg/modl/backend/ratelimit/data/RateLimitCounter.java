@@ -0,0 +1,24 @@
+package gg.modl.backend.ratelimit.data;
+
+import gg.modl.backend.database.CollectionName;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+
+@Document(collection = CollectionName.RATE_LIMITS)
+@Data
+public class RateLimitCounter {
+    @Id
+    private String id;
+
+    @Field
+    private long count;
+
+    @Field
+    @Indexed(expireAfter = "0s")
+    private Instant expiresAt;
+}
@@ -0,0 +1,13 @@
+package gg.modl.backend.resilience;
+
+// Thrown by a dependency client when the dependency itself failed, such as a 5xx response. Only these, I/O errors and
+// timeouts count against the circuit breaker, an error caused by the request proves the dependency is up
+public class DependencyFaultException extends RuntimeException {
+    public DependencyFaultException(String message) {
+        super(message);
+    }
+
+    public DependencyFaultException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package gg.modl.backend.resilience;
+
+public final class DependencyName {
+    public static final String LLM = "llm";
+    public static final String SMTP = "smtp";
+    public static final String STRIPE = "stripe";
+}
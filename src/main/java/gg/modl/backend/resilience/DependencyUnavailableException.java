@@ -0,0 +1,22 @@
+package gg.modl.backend.resilience;
+
+import lombok.Getter;
+
+@Getter
+public class DependencyUnavailableException extends RuntimeException {
+    public enum Reason {
+        LIMIT_EXCEEDED,
+        CIRCUIT_OPEN,
+        TIMEOUT,
+        DEADLINE_EXCEEDED
+    }
+
+    private final String dependency;
+    private final Reason reason;
+
+    public DependencyUnavailableException(String dependency, Reason reason) {
+        super("Dependency '%s' unavailable: %s".formatted(dependency, reason));
+        this.dependency = dependency;
+        this.reason = reason;
+    }
+}
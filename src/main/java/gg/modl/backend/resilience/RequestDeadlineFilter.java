@@ -0,0 +1,42 @@
+package gg.modl.backend.resilience;
+
+import gg.modl.backend.rest.RequestHeader;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+@RequiredArgsConstructor
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+    private final ResilienceConfiguration configuration;
+
+    @Override
+    protected void doFilterInternal(@NotNull HttpServletRequest request, @NotNull HttpServletResponse response, @NotNull FilterChain chain) throws ServletException, IOException {
+        RequestDeadline.set(resolveBudgetMillis(request));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+
+    // Callers may ask for a tighter budget than the default but never a looser one
+    private long resolveBudgetMillis(HttpServletRequest request) {
+        long defaultBudget = configuration.getDefaultRequestBudgetMillis();
+        String header = request.getHeader(RequestHeader.REQUEST_TIMEOUT);
+        if (header == null) {
+            return defaultBudget;
+        }
+
+        try {
+            return Math.clamp(Long.parseLong(header.trim()), 0, defaultBudget);
+        } catch (NumberFormatException e) {
+            return defaultBudget;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package gg.modl.backend.resilience;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "modl.resilience")
+@Getter
+@Setter
+public class ResilienceConfiguration {
+    private static final DependencyPolicy DEFAULT_POLICY = new DependencyPolicy();
+
+    private long defaultRequestBudgetMillis = 30_000;
+    private Map<String, DependencyPolicy> dependencies = new HashMap<>();
+
+    @NotNull
+    public DependencyPolicy getPolicy(@NotNull String dependency) {
+        return dependencies.getOrDefault(dependency, DEFAULT_POLICY);
+    }
+
+    @Getter
+    @Setter
+    public static class DependencyPolicy {
+        private int initialLimit = 10;
+        private int minLimit = 1;
+        private int maxLimit = 100;
+        private double backoffRatio = 0.5;
+        private long timeoutMillis = 10_000;
+        private int circuitWindowSize = 20;
+        private double circuitFailureRateThreshold = 0.5;
+        private long circuitOpenMillis = 30_000;
+    }
+}
@@ -0,0 +1,232 @@
+package gg.modl.backend.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+@Service
+@RequiredArgsConstructor
+public class ResilienceService {
+    private static final String DEPENDENCY_TAG = "dependency";
+
+    private final ResilienceConfiguration configuration;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, DependencyGuard> guards = new ConcurrentHashMap<>();
+    // Calls run on their own virtual thread so the caller can stop waiting once the timeout budget is spent
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public <T> T execute(@NotNull String dependency, @NotNull Supplier<T> call) {
+        DependencyGuard guard = guards.computeIfAbsent(dependency, this::createGuard);
+
+        long timeoutMillis = guard.policy.getTimeoutMillis();
+        var remainingMillis = RequestDeadline.remainingMillis();
+        if (remainingMillis.isPresent()) {
+            timeoutMillis = Math.min(timeoutMillis, remainingMillis.getAsLong());
+        }
+
+        if (timeoutMillis <= 0) {
+            throw guard.reject(DependencyUnavailableException.Reason.DEADLINE_EXCEEDED, Outcome.DEADLINE_EXCEEDED);
+        }
+        if (!guard.limiter.tryAcquire()) {
+            throw guard.reject(DependencyUnavailableException.Reason.LIMIT_EXCEEDED, Outcome.REJECTED);
+        }
+        if (!guard.circuitBreaker.tryAcquirePermission()) {
+            guard.limiter.onIgnored();
+            throw guard.reject(DependencyUnavailableException.Reason.CIRCUIT_OPEN, Outcome.CIRCUIT_OPEN);
+        }
+
+        long startNanos = System.nanoTime();
+        CallPermit permit = new CallPermit(guard.limiter);
+        Future<T> future = executor.submit(() -> permit.run(call));
+
+        try {
+            T result = future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            guard.circuitBreaker.onSuccess();
+            guard.record(Outcome.SUCCESS, startNanos);
+            return result;
+        } catch (TimeoutException e) {
+            permit.abandon(false);
+            future.cancel(true);
+            guard.circuitBreaker.onFailure();
+            guard.record(Outcome.TIMEOUT, startNanos);
+            throw new DependencyUnavailableException(dependency, DependencyUnavailableException.Reason.TIMEOUT);
+        } catch (ExecutionException e) {
+            if (isDependencyFault(e.getCause())) {
+                guard.circuitBreaker.onFailure();
+                guard.record(Outcome.FAILURE, startNanos);
+            } else {
+                // The dependency answered, it just refused this request, which says nothing about its health
+                guard.circuitBreaker.onSuccess();
+                guard.record(Outcome.REQUEST_ERROR, startNanos);
+            }
+
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            permit.abandon(true);
+            future.cancel(true);
+            guard.circuitBreaker.onIgnored();
+            Thread.currentThread().interrupt();
+            throw new DependencyUnavailableException(dependency, DependencyUnavailableException.Reason.TIMEOUT);
+        }
+    }
+
+    public void execute(@NotNull String dependency, @NotNull Runnable call) {
+        execute(dependency, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Connection errors and timeouts surface as I/O exceptions somewhere in the cause chain, whichever client wrapped
+    // them, 5xx style errors are marked by the client with DependencyFaultException
+    static boolean isDependencyFault(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DependencyFaultException || cause instanceof IOException || cause instanceof TimeoutException) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private DependencyGuard createGuard(String dependency) {
+        ResilienceConfiguration.DependencyPolicy policy = configuration.getPolicy(dependency);
+        DependencyGuard guard = new DependencyGuard(
+                dependency,
+                policy,
+                new AdaptiveConcurrencyLimiter(policy.getInitialLimit(), policy.getMinLimit(), policy.getMaxLimit(), policy.getBackoffRatio()),
+                new CircuitBreaker(policy.getCircuitWindowSize(), policy.getCircuitFailureRateThreshold(), policy.getCircuitOpenMillis()),
+                Timer.builder("modl.dependency.latency").tag(DEPENDENCY_TAG, dependency).register(meterRegistry),
+                new EnumMap<>(Outcome.class)
+        );
+
+        for (Outcome outcome : Outcome.values()) {
+            guard.counters.put(outcome, Counter.builder("modl.dependency.calls")
+                    .tag(DEPENDENCY_TAG, dependency)
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+
+        Gauge.builder("modl.dependency.concurrency.limit", guard.limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag(DEPENDENCY_TAG, dependency).register(meterRegistry);
+        Gauge.builder("modl.dependency.concurrency.in_flight", guard.limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag(DEPENDENCY_TAG, dependency).register(meterRegistry);
+        Gauge.builder("modl.dependency.circuit.state", guard.circuitBreaker, breaker -> breaker.getState().ordinal())
+                .tag(DEPENDENCY_TAG, dependency).register(meterRegistry);
+
+        return guard;
+    }
+
+    // Holds the limiter slot until the call itself returns. Interrupting a blocking call does not stop it, so releasing
+    // when the caller gives up would let the limiter admit more calls than are really running against the dependency
+    private static final class CallPermit {
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final AtomicBoolean started = new AtomicBoolean();
+        private volatile boolean abandoned;
+        private volatile boolean ignored;
+
+        private CallPermit(AdaptiveConcurrencyLimiter limiter) {
+            this.limiter = limiter;
+        }
+
+        private <T> T run(Supplier<T> call) {
+            // Abandoned before it started, abandon() has released the slot already
+            if (!started.compareAndSet(false, true)) {
+                return null;
+            }
+
+            boolean succeeded = false;
+            try {
+                T result = call.get();
+                succeeded = true;
+                return result;
+            } catch (RuntimeException | Error e) {
+                // Only the dependency's own failures are an overload signal, a refused request leaves the limit alone
+                if (!abandoned && !isDependencyFault(e)) {
+                    ignored = true;
+                }
+                throw e;
+            } finally {
+                release(succeeded && !abandoned);
+            }
+        }
+
+        private void abandon(boolean ignore) {
+            ignored = ignore;
+            abandoned = true;
+            if (started.compareAndSet(false, true)) {
+                release(false);
+            }
+        }
+
+        private void release(boolean succeeded) {
+            if (ignored) {
+                limiter.onIgnored();
+            } else if (succeeded) {
+                limiter.onSuccess();
+            } else {
+                limiter.onDropped();
+            }
+        }
+    }
+
+    private enum Outcome {
+        SUCCESS,
+        FAILURE,
+        REQUEST_ERROR,
+        TIMEOUT,
+        REJECTED,
+        CIRCUIT_OPEN,
+        DEADLINE_EXCEEDED
+    }
+
+    private record DependencyGuard(String dependency,
+                                   ResilienceConfiguration.DependencyPolicy policy,
+                                   AdaptiveConcurrencyLimiter limiter,
+                                   CircuitBreaker circuitBreaker,
+                                   Timer latency,
+                                   Map<Outcome, Counter> counters) {
+        void record(Outcome outcome, long startNanos) {
+            counters.get(outcome).increment();
+            latency.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        DependencyUnavailableException reject(DependencyUnavailableException.Reason reason, Outcome outcome) {
+            counters.get(outcome).increment();
+            return new DependencyUnavailableException(dependency, reason);
+        }
+    }
+}
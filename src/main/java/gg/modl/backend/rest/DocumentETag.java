@@ -0,0 +1,19 @@
+package gg.modl.backend.rest;
+
+import org.bson.RawBsonDocument;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.util.DigestUtils;
+
+import java.nio.ByteBuffer;
+
+public final class DocumentETag {
+    // Hashes the stored BSON bytes, so the tag changes with every write no matter who made it,
+    // and a match can be answered before the document is mapped or serialized
+    @NotNull
+    public static String of(@NotNull String representation, @NotNull RawBsonDocument document) {
+        ByteBuffer buffer = document.getByteBuffer().asNIO();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return "\"" + representation + "-" + DigestUtils.md5DigestAsHex(bytes) + "\"";
+    }
+}
@@ -6,6 +6,7 @@ public final class RESTMappingV1 {
     public static final String PREFIX_ADMIN = V1 + "/admin";
     public static final String PREFIX_PUBLIC = V1 + "/public";
     public static final String PREFIX_MINECRAFT = V1 + "/minecraft";
+    public static final String PREFIX_WEBHOOK = V1 + "/webhook";
 
     private static final String SERVER = "/server";
     public static final String PUBLIC_SERVER = PREFIX_PUBLIC + SERVER;
@@ -13,7 +14,40 @@ public final class RESTMappingV1 {
 
     private static final String PLAYER = "/player";
     public static final String MINECRAFT_PLAYER = PREFIX_MINECRAFT + PLAYER;
+    public static final String MINECRAFT_REACTIVE_PLAYER = PREFIX_MINECRAFT + "/reactive" + PLAYER;
+    public static final String PANEL_PLAYER = PREFIX_PANEL + PLAYER;
+
+    private static final String USAGE = "/usage";
+    public static final String ADMIN_USAGE = PREFIX_ADMIN + USAGE;
+
+    private static final String BILLING = "/billing";
+    public static final String ADMIN_BILLING = PREFIX_ADMIN + BILLING;
+    public static final String WEBHOOK_STRIPE = PREFIX_WEBHOOK + "/stripe";
+
+    private static final String ANALYTICS = "/analytics";
+    public static final String PANEL_ANALYTICS = PREFIX_PANEL + ANALYTICS;
+    public static final String ADMIN_ANALYTICS = PREFIX_ADMIN + ANALYTICS;
+
+    private static final String TENANTS = "/tenants";
+    public static final String ADMIN_TENANTS = PREFIX_ADMIN + TENANTS;
+
+    private static final String EXPORT = "/export";
+    public static final String PANEL_EXPORT = PREFIX_PANEL + EXPORT;
+
+    private static final String ATTACHMENTS = "/attachments";
+    public static final String PANEL_ATTACHMENTS = PREFIX_PANEL + ATTACHMENTS;
+
+    private static final String TICKETS = "/tickets";
+    public static final String PANEL_TICKETS = PREFIX_PANEL + TICKETS;
+    public static final String PUBLIC_TICKETS = PREFIX_PUBLIC + TICKETS;
+
+    private static final String STAFF = "/staff";
+    public static final String PANEL_STAFF = PREFIX_PANEL + STAFF;
+
+    private static final String API_KEYS = "/api-keys";
+    public static final String PANEL_API_KEYS = PREFIX_PANEL + API_KEYS;
 
     private static final String AUTH = "/auth";
     public static final String PANEL_AUTH = PREFIX_PANEL + AUTH;
+    public static final String ADMIN_AUTH = PREFIX_ADMIN + AUTH;
 }
@@ -3,4 +3,5 @@ package gg.modl.backend.rest;
 public final class RequestAttribute {
     public static final String SERVER = "gg.modl.attribute.server";
     public static final String SESSION = "gg.modl.attribute.session";
+    public static final String PERMISSIONS = "gg.modl.attribute.permissions";
 }
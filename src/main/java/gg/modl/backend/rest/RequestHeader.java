@@ -2,4 +2,6 @@ package gg.modl.backend.rest;
 
 public final class RequestHeader {
     public static final String SERVER_DOMAIN = "X-Server-Domain";
+    public static final String REQUEST_TIMEOUT = "X-Request-Timeout";
+    public static final String API_KEY = "X-API-Key";
 }
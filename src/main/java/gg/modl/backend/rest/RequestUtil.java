@@ -1,6 +1,8 @@
 package gg.modl.backend.rest;
 
+import gg.modl.backend.auth.session.AuthSessionData;
 import gg.modl.backend.server.data.Server;
+import gg.modl.backend.staff.PermissionSet;
 import jakarta.servlet.http.HttpServletRequest;
 import org.jetbrains.annotations.NotNull;
 
@@ -11,4 +13,16 @@ public final class RequestUtil {
     public static Server getRequestServer(HttpServletRequest request) {
         return Objects.requireNonNull((Server) request.getAttribute(RequestAttribute.SERVER), "Server should not be null if being called from panel route!");
     }
+
+    @NotNull
+    public static AuthSessionData getRequestSession(HttpServletRequest request) {
+        return Objects.requireNonNull((AuthSessionData) request.getAttribute(RequestAttribute.SESSION), "Session should not be null if being called from an authenticated route!");
+    }
+
+    // Staff without an assignment resolve to no permissions rather than null
+    @NotNull
+    public static PermissionSet getRequestPermissions(HttpServletRequest request) {
+        PermissionSet permissions = (PermissionSet) request.getAttribute(RequestAttribute.PERMISSIONS);
+        return permissions == null ? PermissionSet.NONE : permissions;
+    }
 }
@@ -1,23 +1,67 @@
 package gg.modl.backend.rest.middleware;
 
+import gg.modl.backend.ratelimit.RateLimitFilter;
+import gg.modl.backend.ratelimit.RateLimiter;
+import gg.modl.backend.resilience.RequestDeadlineFilter;
+import gg.modl.backend.resilience.ResilienceConfiguration;
 import gg.modl.backend.rest.RESTMappingV1;
-import gg.modl.backend.server.ServerService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
 
 @Configuration
 @RequiredArgsConstructor
 public class FilterConfig {
-    private final ServerService serverService;
+    // Spring Security's filter chain is registered at order -100
+    private static final int BEFORE_SECURITY_FILTER_ORDER = -101;
+
+    private final ServerHeaderFilter serverHeaderFilter;
+    private final ResilienceConfiguration resilienceConfiguration;
+    private final RateLimiter rateLimiter;
+
+    @Bean
+    public FilterRegistrationBean<RequestDeadlineFilter> requestDeadlineFilter() {
+        FilterRegistrationBean<RequestDeadlineFilter> registrationBean = new FilterRegistrationBean<>();
+        registrationBean.setFilter(new RequestDeadlineFilter(resilienceConfiguration));
+        registrationBean.addUrlPatterns("/*");
+        registrationBean.setOrder(Ordered.HIGHEST_PRECEDENCE);
+
+        return registrationBean;
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter() {
+        FilterRegistrationBean<RateLimitFilter> registrationBean = new FilterRegistrationBean<>();
+        registrationBean.setFilter(new RateLimitFilter(rateLimiter));
+        registrationBean.addUrlPatterns("/v1/*");
+        registrationBean.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+
+        return registrationBean;
+    }
+
+    // Endpoints that set their own ETag keep it, everything else gets one hashed from the serialized body
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> panelEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registrationBean = new FilterRegistrationBean<>();
+        registrationBean.setFilter(new ShallowEtagHeaderFilter());
+        registrationBean.addUrlPatterns(RESTMappingV1.PREFIX_PANEL + "/*");
+        registrationBean.setOrder(2);
+
+        return registrationBean;
+    }
 
     @Bean
     public FilterRegistrationBean<ServerHeaderFilter> panelFilter() {
         FilterRegistrationBean<ServerHeaderFilter> registrationBean = new FilterRegistrationBean<>();
-        registrationBean.setFilter(new ServerHeaderFilter(serverService));
+        // Registering the bean itself keeps Spring Boot from also mapping it to every path
+        registrationBean.setFilter(serverHeaderFilter);
+        // Minecraft routes are left out, their API key already names the tenant
         registrationBean.addUrlPatterns(RESTMappingV1.PREFIX_PANEL + "/*", RESTMappingV1.PREFIX_PUBLIC + "/*");
-        registrationBean.setOrder(1);
+        // The tenant has to be known before the security chain authenticates the session against it
+        registrationBean.setOrder(BEFORE_SECURITY_FILTER_ORDER);
 
         return registrationBean;
     }
@@ -1,5 +1,6 @@
 package gg.modl.backend.rest.middleware;
 
+import gg.modl.backend.rest.RESTMappingV1;
 import gg.modl.backend.rest.RequestAttribute;
 import gg.modl.backend.rest.RequestHeader;
 import gg.modl.backend.server.ServerService;
@@ -19,6 +20,12 @@ import java.io.IOException;
 public class ServerHeaderFilter extends OncePerRequestFilter {
     private final ServerService serverService;
 
+    // Admin routes act across tenants and must never pay for, or fail on, tenant resolution
+    @Override
+    protected boolean shouldNotFilter(@NotNull HttpServletRequest request) {
+        return request.getRequestURI().startsWith(RESTMappingV1.PREFIX_ADMIN + "/");
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, @NotNull HttpServletResponse response, @NotNull FilterChain chain) throws ServletException, IOException {
         String serverDomain = request.getHeader(RequestHeader.SERVER_DOMAIN);
@@ -1,5 +1,6 @@
 package gg.modl.backend.rest.middleware;
 
+import gg.modl.backend.auth.filter.ApiKeyAuthenticationFilter;
 import gg.modl.backend.auth.filter.SessionAuthenticationFilter;
 import gg.modl.backend.rest.RESTMappingV1;
 import gg.modl.backend.rest.RESTSecurityRole;
@@ -18,6 +19,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @RequiredArgsConstructor
 public class V1SecurityConfig {
     private final SessionAuthenticationFilter sessionAuthenticationFilter;
+    private final ApiKeyAuthenticationFilter apiKeyAuthenticationFilter;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -25,14 +27,19 @@ public class V1SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(c -> c
+                        // Liveness and readiness probes, details stay hidden
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
                         .requestMatchers(RESTMappingV1.PREFIX_PUBLIC + "/**").permitAll()
                         .requestMatchers(RESTMappingV1.PANEL_AUTH + "/**").permitAll()
+                        .requestMatchers(RESTMappingV1.PREFIX_WEBHOOK + "/**").permitAll()
+                        .requestMatchers(RESTMappingV1.ADMIN_AUTH + "/**").permitAll()
                         .requestMatchers(RESTMappingV1.PREFIX_ADMIN + "/**").hasRole(RESTSecurityRole.ADMIN)
                         .requestMatchers(RESTMappingV1.PREFIX_PANEL + "/**").hasRole(RESTSecurityRole.USER)
                         .requestMatchers(RESTMappingV1.PREFIX_MINECRAFT + "/**").hasRole(RESTSecurityRole.MINECRAFT)
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(sessionAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(apiKeyAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
                 .formLogin(AbstractHttpConfigurer::disable)
                 .httpBasic(AbstractHttpConfigurer::disable)
                 .build();
@@ -4,6 +4,30 @@ public final class ServerField {
     public static final String ADMIN_EMAIL = "adminEmail";
     public static final String SUBDOMAIN = "customDomain";
     public static final String SERVER_NAME = "serverName";
+    public static final String DATABASE_NAME = "databaseName";
+    public static final String STAFF_ROLES_VERSION = "staffRolesVersion";
     public static final String CUSTOM_DOMAIN = "customDomain_override";
     public static final String CUSTOM_DOMAIN_STATUS = "customDomain_status";
+    public static final String CUSTOM_DOMAIN_LAST_CHECKED = "customDomain_lastChecked";
+    public static final String CUSTOM_DOMAIN_NEXT_CHECK = "customDomain_nextCheck";
+    public static final String CUSTOM_DOMAIN_FAILURES = "customDomain_failures";
+    public static final String CUSTOM_DOMAIN_ERROR = "customDomain_error";
+    public static final String CUSTOM_DOMAIN_CLOUDFLARE_ID = "customDomain_cloudflareId";
+    public static final String CUSTOM_DOMAIN_CLAIM_TOKEN = "customDomain_claimToken";
+    public static final String PROVISIONING_STATUS = "provisioningStatus";
+    public static final String PROVISIONING_NOTES = "provisioningNotes";
+    public static final String CREATED_AT = "createdAt";
+    public static final String UPDATED_AT = "updatedAt";
+    public static final String STRIPE_CUSTOMER_ID = "stripe_customer_id";
+    public static final String STRIPE_SUBSCRIPTION_ID = "stripe_subscription_id";
+    public static final String PLAN = "plan";
+    public static final String SUBSCRIPTION_STATUS = "subscription_status";
+    public static final String STRIPE_LAST_EVENT_CREATED = "stripe_last_event_created";
+    public static final String CURRENT_PERIOD_START = "current_period_start";
+    public static final String CURRENT_PERIOD_END = "current_period_end";
+    public static final String CDN_USAGE_CURRENT_PERIOD = "cdn_usage_current_period";
+    public static final String AI_REQUESTS_CURRENT_PERIOD = "ai_requests_current_period";
+    public static final String USAGE_BILLING_ENABLED = "usage_billing_enabled";
+    public static final String USAGE_BILLING_UPDATED_AT = "usage_billing_updated_at";
+    public static final String USAGE_FLUSH_MARKS = "usage_flush_marks";
 }
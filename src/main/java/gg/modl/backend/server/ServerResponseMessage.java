@@ -6,5 +6,6 @@ public final class ServerResponseMessage {
     public static final String REGISTER_EMAIL_EXISTS = "The provided email is already in use!";
     public static final String REGISTER_DOMAIN_EXISTS = "The provided subdomain is already in use!";
     public static final String REGISTER_NAME_EXISTS = "The provided server name is already in use!";
+    public static final String REGISTER_RATE_LIMITED = "Too many registration attempts. Please try again later.";
     public static final String REGISTER_RESERVED_SUBDOMAIN = "The provided subdomain is reserved and cannot be used!";
 }
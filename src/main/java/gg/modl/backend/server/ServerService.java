@@ -1,26 +1,42 @@
 package gg.modl.backend.server;
 
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.InsertManyOptions;
 import gg.modl.backend.database.CollectionName;
 import gg.modl.backend.database.DynamicMongoTemplateProvider;
 import gg.modl.backend.server.data.*;
 import lombok.RequiredArgsConstructor;
+import org.bson.Document;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.index.Index;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 @RequiredArgsConstructor
 public class ServerService {
     public static final String SERVER_DATABASE_PREFIX = "server_";
+    private static final Duration RESERVATION_TTL = Duration.ofMinutes(10);
+
     private final DynamicMongoTemplateProvider mongoProvider;
+    private final AtomicBoolean reservationIndexesCreated = new AtomicBoolean();
 
-    @Async
     public void createServer(@NotNull Server server) {
         MongoTemplate db = mongoProvider.getGlobalDatabase();
 
@@ -45,6 +61,38 @@ public class ServerService {
         ));
     }
 
+    // Checks every unique field, then reserves them so concurrent signups for the same values cannot both pass.
+    // Returns the conflicts found, the server has been created when none are reported.
+    public ServerExistResult registerServer(@NotNull String serverName, @NotNull String subdomain, @NotNull String adminEmail) {
+        ServerExistResult existing = doesServerExist(adminEmail, serverName, subdomain);
+        if (existing.anyMatch()) {
+            return existing;
+        }
+
+        String reservationToken = UUID.randomUUID().toString();
+        ServerExistResult reservationConflicts = reserve(reservationToken, adminEmail, serverName, subdomain);
+        if (reservationConflicts.anyMatch()) {
+            return reservationConflicts;
+        }
+
+        try {
+            createServer(serverName, subdomain, adminEmail);
+        } catch (DuplicateKeyException e) {
+            ServerExistResult conflicts = doesServerExist(adminEmail, serverName, subdomain);
+            if (!conflicts.anyMatch()) {
+                releaseReservation(reservationToken);
+                throw e;
+            }
+            return conflicts;
+        } catch (RuntimeException e) {
+            // Nothing was created, so the names must not stay blocked until the reservation expires
+            releaseReservation(reservationToken);
+            throw e;
+        }
+
+        return new ServerExistResult(false, false, false);
+    }
+
     public String generateDatabaseName(@NotNull String subdomain) {
         return SERVER_DATABASE_PREFIX + subdomain;
     }
@@ -63,6 +111,8 @@ public class ServerService {
         return db.findOne(query, Server.class, CollectionName.MODL_SERVERS);
     }
 
+    // The $or match uses the unique indexes of each field, the group then folds every matching server into one
+    // document so conflicts spread across different servers are all reported in a single round trip
     public ServerExistResult doesServerExist(@NotNull String email, @NotNull String serverName, @NotNull String subdomain) {
         MongoTemplate db = mongoProvider.getGlobalDatabase();
 
@@ -70,27 +120,83 @@ public class ServerService {
         Criteria nameCriteria = Criteria.where(ServerField.SERVER_NAME).is(serverName);
         Criteria domainCriteria = Criteria.where(ServerField.SUBDOMAIN).is(subdomain);
 
-        Server found = db.findOne(new Query(new Criteria().orOperator(emailCriteria, nameCriteria, domainCriteria)), Server.class, CollectionName.MODL_SERVERS);
-        if (found == null) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(new Criteria().orOperator(emailCriteria, nameCriteria, domainCriteria)),
+                Aggregation.group()
+                        .max(ComparisonOperators.valueOf(ServerField.ADMIN_EMAIL).equalToValue(email)).as("emailMatch")
+                        .max(ComparisonOperators.valueOf(ServerField.SERVER_NAME).equalToValue(serverName)).as("nameMatch")
+                        .max(ComparisonOperators.valueOf(ServerField.SUBDOMAIN).equalToValue(subdomain)).as("domainMatch")
+        );
+
+        Document result = db.aggregate(aggregation, CollectionName.MODL_SERVERS, Document.class).getUniqueMappedResult();
+        if (result == null) {
             return new ServerExistResult(false, false, false);
         }
 
-        boolean emailMatch = false, nameMatch = false, domainMatch = false;
+        return new ServerExistResult(
+                Boolean.TRUE.equals(result.getBoolean("emailMatch")),
+                Boolean.TRUE.equals(result.getBoolean("nameMatch")),
+                Boolean.TRUE.equals(result.getBoolean("domainMatch"))
+        );
+    }
 
-        if (found.getAdminEmail().equals(email)) {
-            emailMatch = true;
+    // Reservations are keyed by _id, so the insert itself is the uniqueness check. After a successful signup they are
+    // left to expire instead of being removed so a signup that passed its check just before this one committed still
+    // collides. A signup that fails releases them.
+    private ServerExistResult reserve(String token, String email, String serverName, String subdomain) {
+        MongoTemplate db = mongoProvider.getGlobalDatabase();
+        ensureReservationIndexes(db);
+
+        Date expiresAt = Date.from(Instant.now().plus(RESERVATION_TTL));
+        List<Document> reservations = List.of(
+                reservation("email:" + email, token, expiresAt),
+                reservation("name:" + serverName, token, expiresAt),
+                reservation("subdomain:" + subdomain, token, expiresAt)
+        );
+
+        try {
+            db.getCollection(CollectionName.SERVER_RESERVATIONS).insertMany(reservations, new InsertManyOptions().ordered(false));
+        } catch (MongoBulkWriteException e) {
+            boolean[] conflicts = new boolean[reservations.size()];
+            for (BulkWriteError error : e.getWriteErrors()) {
+                if (ErrorCategory.fromErrorCode(error.getCode()) != ErrorCategory.DUPLICATE_KEY) {
+                    releaseReservation(token);
+                    throw e;
+                }
+                conflicts[error.getIndex()] = true;
+            }
+
+            releaseReservation(token);
+            return new ServerExistResult(conflicts[0], conflicts[1], conflicts[2]);
+        } catch (RuntimeException e) {
+            releaseReservation(token);
+            throw e;
         }
 
-        if (found.getServerName().equals(serverName)) {
-            nameMatch = true;
-        }
+        return new ServerExistResult(false, false, false);
+    }
 
-        if (found.getCustomDomain().equals(subdomain)) {
-            domainMatch = true;
-        }
+    private void releaseReservation(String token) {
+        mongoProvider.getGlobalDatabase().remove(new Query(Criteria.where("token").is(token)), CollectionName.SERVER_RESERVATIONS);
+    }
 
-        return new ServerExistResult(emailMatch, nameMatch, domainMatch);
+    private Document reservation(String key, String token, Date expiresAt) {
+        return new Document("_id", key)
+                .append("token", token)
+                .append("expiresAt", expiresAt);
     }
 
-    public record ServerExistResult(boolean emailMatch, boolean nameMatch, boolean domainMatch) {}
+    private void ensureReservationIndexes(MongoTemplate db) {
+        if (reservationIndexesCreated.compareAndSet(false, true)) {
+            db.indexOps(CollectionName.SERVER_RESERVATIONS).createIndex(new Index()
+                    .on("expiresAt", Sort.Direction.ASC)
+                    .expire(Duration.ZERO));
+        }
+    }
+
+    public record ServerExistResult(boolean emailMatch, boolean nameMatch, boolean domainMatch) {
+        public boolean anyMatch() {
+            return emailMatch || nameMatch || domainMatch;
+        }
+    }
 }
@@ -1,6 +1,8 @@
 package gg.modl.backend.server.controller;
 
 import gg.modl.backend.rest.RESTMappingV1;
+import gg.modl.backend.staff.RequiresPermission;
+import gg.modl.backend.staff.StaffPermission;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.env.Environment;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -8,6 +10,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
+@RequiresPermission(StaffPermission.MANAGE_SETTINGS)
 @RequestMapping(RESTMappingV1.PANEL_SERVER)
 @RequiredArgsConstructor
 public class PanelServerController {
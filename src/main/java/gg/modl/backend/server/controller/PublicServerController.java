@@ -1,8 +1,11 @@
 package gg.modl.backend.server.controller;
 
+import gg.modl.backend.ratelimit.RateLimitPolicyName;
+import gg.modl.backend.ratelimit.RateLimiter;
 import gg.modl.backend.rest.RESTMappingV1;
 import gg.modl.backend.server.ServerResponseMessage;
 import gg.modl.backend.server.ServerService;
+import gg.modl.backend.server.provisioning.ServerProvisioningService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -35,6 +38,8 @@ public class PublicServerController {
             "docs", "secure", "alpha", "cdn"
     );
     private final ServerService serverService;
+    private final RateLimiter rateLimiter;
+    private final ServerProvisioningService serverProvisioningService;
 
     @PostMapping("/register")
     public ResponseEntity<RegisterResponse> register(@RequestBody @Valid RegisterRequest request, BindingResult bindingResult) {
@@ -45,9 +50,11 @@ public class PublicServerController {
         if (RESERVED_SUBDOMAINS.contains(request.customDomain)) {
             return ResponseEntity.status(HttpStatus.CONFLICT).body(new RegisterResponse(false, ServerResponseMessage.REGISTER_RESERVED_SUBDOMAIN));
         }
-        // TODO: ratelimit
+        if (!rateLimiter.tryAcquire(RateLimitPolicyName.REGISTER_EMAIL, request.email.toLowerCase())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(new RegisterResponse(false, ServerResponseMessage.REGISTER_RATE_LIMITED));
+        }
         // TODO: cloudflare turnstile
-        ServerService.ServerExistResult existResult = serverService.doesServerExist(request.email, request.serverName, request.customDomain);
+        ServerService.ServerExistResult existResult = serverService.registerServer(request.serverName, request.customDomain, request.email);
         if (existResult.emailMatch()) {
             return ResponseEntity.status(HttpStatus.CONFLICT).body(new RegisterResponse(false, ServerResponseMessage.REGISTER_EMAIL_EXISTS));
         }
@@ -58,7 +65,7 @@ public class PublicServerController {
             return ResponseEntity.status(HttpStatus.CONFLICT).body(new RegisterResponse(false, ServerResponseMessage.REGISTER_DOMAIN_EXISTS));
         }
 
-        serverService.createServer(request.serverName, request.customDomain, request.email);
+        serverProvisioningService.requestProvisioning();
 
         return ResponseEntity.ok(new RegisterResponse(true, ServerResponseMessage.REGISTER_SUCCESS));
     }
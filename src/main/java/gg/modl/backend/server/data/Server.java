@@ -34,7 +34,7 @@ public class Server {
     private final String customDomain;
 
     @Nullable
-    @Field(name = "databaseName", targetType = FieldType.STRING)
+    @Field(name = ServerField.DATABASE_NAME, targetType = FieldType.STRING)
     private final String databaseName;
 
     // Admin & Verification
@@ -55,12 +55,12 @@ public class Server {
 
     // Provisioning & Status
     @NotNull
-    @Field(name = "provisioningStatus", targetType = FieldType.STRING)
+    @Field(name = ServerField.PROVISIONING_STATUS, targetType = FieldType.STRING)
     @Indexed
     private ProvisioningStatus provisioningStatus;
 
     @Nullable
-    @Field(name = "provisioningNotes", targetType = FieldType.STRING)
+    @Field(name = ServerField.PROVISIONING_NOTES, targetType = FieldType.STRING)
     private String provisioningNotes;
 
     @Nullable
@@ -74,46 +74,46 @@ public class Server {
 
     // Plan & Billing
     @NotNull
-    @Field(name = "plan", targetType = FieldType.STRING)
+    @Field(name = ServerField.PLAN, targetType = FieldType.STRING)
     private ServerPlan plan;
 
     @NotNull
-    @Field(name = "subscription_status", targetType = FieldType.STRING)
+    @Field(name = ServerField.SUBSCRIPTION_STATUS, targetType = FieldType.STRING)
     private SubscriptionStatus subscriptionStatus;
 
     @Nullable
-    @Field(name = "current_period_start", targetType = FieldType.DATE_TIME)
+    @Field(name = ServerField.CURRENT_PERIOD_START, targetType = FieldType.DATE_TIME)
     private Date currentPeriodStart;
 
     @Nullable
-    @Field(name = "current_period_end", targetType = FieldType.DATE_TIME)
+    @Field(name = ServerField.CURRENT_PERIOD_END, targetType = FieldType.DATE_TIME)
     private Date currentPeriodEnd;
 
     @Nullable
-    @Field(name = "stripe_customer_id", targetType = FieldType.STRING)
+    @Field(name = ServerField.STRIPE_CUSTOMER_ID, targetType = FieldType.STRING)
     @Indexed(unique = true, sparse = true)
     private String stripeCustomerId;
 
     @Nullable
-    @Field(name = "stripe_subscription_id", targetType = FieldType.STRING)
+    @Field(name = ServerField.STRIPE_SUBSCRIPTION_ID, targetType = FieldType.STRING)
     @Indexed(unique = true, sparse = true)
     private String stripeSubscriptionId;
 
     // Usage Tracking & Billing
     @Nullable
-    @Field(name = "cdn_usage_current_period", targetType = FieldType.DOUBLE)
+    @Field(name = ServerField.CDN_USAGE_CURRENT_PERIOD, targetType = FieldType.DOUBLE)
     private Double cdnUsageCurrentPeriod; // GB used in current billing period
 
     @Nullable
-    @Field(name = "ai_requests_current_period", targetType = FieldType.INT64)
+    @Field(name = ServerField.AI_REQUESTS_CURRENT_PERIOD, targetType = FieldType.INT64)
     private Long aiRequestsCurrentPeriod; // AI requests used in current billing period
 
     @Nullable
-    @Field(name = "usage_billing_enabled", targetType = FieldType.BOOLEAN)
+    @Field(name = ServerField.USAGE_BILLING_ENABLED, targetType = FieldType.BOOLEAN)
     private Boolean usageBillingEnabled; // Whether to charge for overages
 
     @Nullable
-    @Field(name = "usage_billing_updated_at", targetType = FieldType.DATE_TIME)
+    @Field(name = ServerField.USAGE_BILLING_UPDATED_AT, targetType = FieldType.DATE_TIME)
     private Date usageBillingUpdatedAt;
 
     // Migration Settings
@@ -132,18 +132,32 @@ public class Server {
     private CustomDomainStatus customDomainStatus;
 
     @Nullable
-    @Field(name = "customDomain_lastChecked", targetType = FieldType.DATE_TIME)
+    @Field(name = ServerField.CUSTOM_DOMAIN_LAST_CHECKED, targetType = FieldType.DATE_TIME)
     private Date customDomainLastChecked;
 
     @Nullable
-    @Field(name = "customDomain_error", targetType = FieldType.STRING)
+    @Field(name = ServerField.CUSTOM_DOMAIN_NEXT_CHECK, targetType = FieldType.DATE_TIME)
+    private Date customDomainNextCheck;
+
+    @Nullable
+    @Field(name = ServerField.CUSTOM_DOMAIN_FAILURES, targetType = FieldType.INT32)
+    private Integer customDomainFailures;
+
+    @Nullable
+    @Field(name = ServerField.CUSTOM_DOMAIN_ERROR, targetType = FieldType.STRING)
     private String customDomainError;
 
     @Nullable
-    @Field(name = "customDomain_cloudflareId", targetType = FieldType.STRING)
+    @Field(name = ServerField.CUSTOM_DOMAIN_CLOUDFLARE_ID, targetType = FieldType.STRING)
     @Indexed(unique = true, sparse = true)
     private String customDomainCloudflareId;
 
+    // Staff
+    // Bumped whenever a role or staff assignment changes, compiled permissions from an older version are discarded
+    @Nullable
+    @Field(name = ServerField.STAFF_ROLES_VERSION, targetType = FieldType.INT64)
+    private Long staffRolesVersion;
+
     // Analytics/Stats
     @Nullable
     @Field(name = "lastActivityAt", targetType = FieldType.DATE_TIME)
@@ -151,11 +165,11 @@ public class Server {
 
     // Timestamps
     @NotNull
-    @Field(name = "createdAt", targetType = FieldType.DATE_TIME)
+    @Field(name = ServerField.CREATED_AT, targetType = FieldType.DATE_TIME)
     @Indexed
     private Date createdAt;
 
     @NotNull
-    @Field(name = "updatedAt", targetType = FieldType.DATE_TIME)
+    @Field(name = ServerField.UPDATED_AT, targetType = FieldType.DATE_TIME)
     private Date updatedAt;
 }
@@ -0,0 +1,25 @@
+package gg.modl.backend.server.domain;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "modl.domains")
+@Getter
+@Setter
+public class CustomDomainConfiguration {
+    private String resolver = "dns";
+    private String cnameTarget = "proxy.modl.gg";
+    private int batchSize = 500;
+    private int concurrency = 64;
+    private long pendingIntervalSeconds = 60;
+    private long activeIntervalSeconds = 6 * 60 * 60;
+    private long maxBackoffSeconds = 24 * 60 * 60;
+    private int maxFailures = 3;
+    // With the backoff capped at a day this stops checking after about three weeks, resetting customDomain_failures
+    // (as setting the domain again does) brings the domain back
+    private int retryLimit = 25;
+    private int dnsTimeoutMillis = 2000;
+}
@@ -0,0 +1,21 @@
+package gg.modl.backend.server.domain;
+
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.database.GlobalIndexInitializer;
+import gg.modl.backend.server.ServerField;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CustomDomainIndexInitializer implements GlobalIndexInitializer {
+    @Override
+    public void ensureIndexes(@NotNull MongoTemplate mongo) {
+        // Only servers with a custom domain have a status, so the due poll never touches the rest
+        mongo.indexOps(CollectionName.MODL_SERVERS).createIndex(new Index()
+                .on(ServerField.CUSTOM_DOMAIN_STATUS, Sort.Direction.ASC)
+                .on(ServerField.CUSTOM_DOMAIN_NEXT_CHECK, Sort.Direction.ASC));
+    }
+}
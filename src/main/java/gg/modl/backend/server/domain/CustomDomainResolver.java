@@ -0,0 +1,20 @@
+package gg.modl.backend.server.domain;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+public interface CustomDomainResolver {
+    // Blocking check of whether domain currently points at us, called from a bounded worker pool
+    @NotNull
+    DomainCheckResult check(@NotNull String domain, @Nullable String cloudflareId);
+
+    record DomainCheckResult(boolean verified, @Nullable String error, @Nullable String cloudflareId) {
+        public static DomainCheckResult verified(@Nullable String cloudflareId) {
+            return new DomainCheckResult(true, null, cloudflareId);
+        }
+
+        public static DomainCheckResult failed(@NotNull String error, @Nullable String cloudflareId) {
+            return new DomainCheckResult(false, error, cloudflareId);
+        }
+    }
+}
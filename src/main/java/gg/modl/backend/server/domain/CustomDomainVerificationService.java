@@ -0,0 +1,200 @@
+package gg.modl.backend.server.domain;
+
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.database.DynamicMongoTemplateProvider;
+import gg.modl.backend.server.ServerField;
+import gg.modl.backend.server.data.CustomDomainStatus;
+import gg.modl.backend.server.data.Server;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+@Slf4j
+public class CustomDomainVerificationService {
+    private static final List<String> CHECKED_STATUSES = List.of(
+            CustomDomainStatus.pending.name(),
+            CustomDomainStatus.verifying.name(),
+            CustomDomainStatus.active.name(),
+            CustomDomainStatus.error.name()
+    );
+    private static final long LEASE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final double JITTER = 0.2;
+
+    private final CustomDomainConfiguration configuration;
+    private final CustomDomainResolver resolver;
+    private final DynamicMongoTemplateProvider mongoProvider;
+    private final ExecutorService executor;
+    private final AtomicBoolean polling = new AtomicBoolean();
+
+    public CustomDomainVerificationService(CustomDomainConfiguration configuration, CustomDomainResolver resolver,
+                                           DynamicMongoTemplateProvider mongoProvider) {
+        this.configuration = configuration;
+        this.resolver = resolver;
+        this.mongoProvider = mongoProvider;
+        // A fixed pool keeps the number of outstanding lookups bounded no matter how many domains are due
+        this.executor = Executors.newFixedThreadPool(configuration.getConcurrency());
+    }
+
+    @Scheduled(fixedDelayString = "${modl.domains.poll-interval-millis:30000}")
+    public void poll() {
+        if (!polling.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            List<Server> batch;
+            do {
+                String claimToken = UUID.randomUUID().toString();
+                batch = claimDueBatch(claimToken);
+                if (!batch.isEmpty()) {
+                    verify(batch, claimToken);
+                }
+            } while (batch.size() >= configuration.getBatchSize());
+        } catch (RuntimeException e) {
+            log.error("Custom domain verification pass failed", e);
+        } finally {
+            polling.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // Pushing nextCheck forward acts as a lease so other nodes skip the batch while it is being checked. The claim
+    // repeats the due condition, so of two nodes that found the same domains only the first one claims each of them
+    private List<Server> claimDueBatch(String claimToken) {
+        MongoTemplate global = mongoProvider.getGlobalDatabase();
+        Date now = new Date();
+
+        // Status leads every branch so both use the status and nextCheck index, servers without a custom domain
+        // have no status and are never scanned
+        Criteria due = new Criteria().andOperator(
+                Criteria.where(ServerField.CUSTOM_DOMAIN).ne(null),
+                new Criteria().orOperator(
+                        Criteria.where(ServerField.CUSTOM_DOMAIN_FAILURES).exists(false),
+                        Criteria.where(ServerField.CUSTOM_DOMAIN_FAILURES).lt(configuration.getRetryLimit())
+                ),
+                new Criteria().orOperator(
+                        Criteria.where(ServerField.CUSTOM_DOMAIN_STATUS).in(CHECKED_STATUSES).and(ServerField.CUSTOM_DOMAIN_NEXT_CHECK).is(null),
+                        Criteria.where(ServerField.CUSTOM_DOMAIN_STATUS).in(CHECKED_STATUSES).and(ServerField.CUSTOM_DOMAIN_NEXT_CHECK).lte(now)
+                )
+        );
+
+        Query query = new Query(due)
+                .with(Sort.by(Sort.Direction.ASC, ServerField.CUSTOM_DOMAIN_NEXT_CHECK))
+                .limit(configuration.getBatchSize());
+        query.fields().include("_id");
+        List<String> ids = global.find(query, Server.class, CollectionName.MODL_SERVERS).stream()
+                .map(Server::getId)
+                .toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        global.updateMulti(new Query(new Criteria().andOperator(Criteria.where("_id").in(ids), due)), new Update()
+                .set(ServerField.CUSTOM_DOMAIN_NEXT_CHECK, new Date(now.getTime() + LEASE_MILLIS))
+                .set(ServerField.CUSTOM_DOMAIN_CLAIM_TOKEN, claimToken), CollectionName.MODL_SERVERS);
+
+        return global.find(new Query(Criteria.where("_id").in(ids).and(ServerField.CUSTOM_DOMAIN_CLAIM_TOKEN).is(claimToken)), Server.class, CollectionName.MODL_SERVERS);
+    }
+
+    private void verify(List<Server> batch, String claimToken) {
+        List<CompletableFuture<Update>> checks = new ArrayList<>(batch.size());
+        for (Server server : batch) {
+            checks.add(CompletableFuture.supplyAsync(() -> check(server), executor));
+        }
+
+        // Only written while the claim is still ours, a node whose lease ran out leaves the result to the new owner
+        BulkOperations bulk = mongoProvider.getGlobalDatabase().bulkOps(BulkOperations.BulkMode.UNORDERED, CollectionName.MODL_SERVERS);
+        for (int i = 0; i < batch.size(); i++) {
+            Server server = batch.get(i);
+            Query owned = new Query(Criteria.where("_id").is(server.getId()).and(ServerField.CUSTOM_DOMAIN_CLAIM_TOKEN).is(claimToken));
+            bulk.updateOne(owned, checks.get(i).join().unset(ServerField.CUSTOM_DOMAIN_CLAIM_TOKEN));
+        }
+        bulk.execute();
+    }
+
+    private Update check(Server server) {
+        String domain = server.getCustomDomainOverride();
+        CustomDomainResolver.DomainCheckResult result;
+        try {
+            result = resolver.check(domain, server.getCustomDomainCloudflareId());
+        } catch (RuntimeException e) {
+            log.warn("Resolver failed for custom domain {}", domain, e);
+            result = CustomDomainResolver.DomainCheckResult.failed("Verification failed: " + e.getMessage(), server.getCustomDomainCloudflareId());
+        }
+
+        return result.verified() ? onVerified(result) : onFailed(server, result);
+    }
+
+    private Update onVerified(CustomDomainResolver.DomainCheckResult result) {
+        Date now = new Date();
+        Update update = new Update()
+                .set(ServerField.CUSTOM_DOMAIN_STATUS, CustomDomainStatus.active.name())
+                .set(ServerField.CUSTOM_DOMAIN_LAST_CHECKED, now)
+                .set(ServerField.CUSTOM_DOMAIN_NEXT_CHECK, new Date(now.getTime() + jitter(TimeUnit.SECONDS.toMillis(configuration.getActiveIntervalSeconds()))))
+                .set(ServerField.CUSTOM_DOMAIN_FAILURES, 0)
+                .unset(ServerField.CUSTOM_DOMAIN_ERROR);
+
+        if (result.cloudflareId() != null) {
+            update.set(ServerField.CUSTOM_DOMAIN_CLOUDFLARE_ID, result.cloudflareId());
+        }
+        return update;
+    }
+
+    // An active domain keeps serving through a few transient failures before it is taken out of rotation
+    private Update onFailed(Server server, CustomDomainResolver.DomainCheckResult result) {
+        int failures = (server.getCustomDomainFailures() == null ? 0 : server.getCustomDomainFailures()) + 1;
+
+        CustomDomainStatus status;
+        if (failures >= configuration.getMaxFailures()) {
+            status = CustomDomainStatus.error;
+        } else if (server.getCustomDomainStatus() == CustomDomainStatus.active) {
+            status = CustomDomainStatus.active;
+        } else {
+            status = CustomDomainStatus.verifying;
+        }
+
+        Date now = new Date();
+        return new Update()
+                .set(ServerField.CUSTOM_DOMAIN_STATUS, status.name())
+                .set(ServerField.CUSTOM_DOMAIN_LAST_CHECKED, now)
+                .set(ServerField.CUSTOM_DOMAIN_NEXT_CHECK, new Date(now.getTime() + jitter(backoffMillis(failures))))
+                .set(ServerField.CUSTOM_DOMAIN_FAILURES, failures)
+                .set(ServerField.CUSTOM_DOMAIN_ERROR, result.error());
+    }
+
+    private long backoffMillis(int failures) {
+        long baseMillis = TimeUnit.SECONDS.toMillis(configuration.getPendingIntervalSeconds());
+        long maxMillis = TimeUnit.SECONDS.toMillis(configuration.getMaxBackoffSeconds());
+        int exponent = Math.min(failures - 1, 30);
+        return Math.min(maxMillis, baseMillis << exponent);
+    }
+
+    // Spreads checks out so domains added together do not stay synchronized forever
+    private long jitter(long millis) {
+        double factor = 1 + ThreadLocalRandom.current().nextDouble(-JITTER, JITTER);
+        return Math.max(1000, (long) (millis * factor));
+    }
+}
@@ -0,0 +1,60 @@
+package gg.modl.backend.server.domain;
+
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.naming.Context;
+import javax.naming.NamingException;
+import javax.naming.directory.Attribute;
+import javax.naming.directory.DirContext;
+import javax.naming.directory.InitialDirContext;
+import java.util.Hashtable;
+import java.util.Locale;
+
+@Component
+@ConditionalOnProperty(prefix = "modl.domains", name = "resolver", havingValue = "dns", matchIfMissing = true)
+@RequiredArgsConstructor
+public class DnsCustomDomainResolver implements CustomDomainResolver {
+    private final CustomDomainConfiguration configuration;
+
+    @Override
+    public @NotNull DomainCheckResult check(@NotNull String domain, @Nullable String cloudflareId) {
+        Hashtable<String, String> environment = new Hashtable<>();
+        environment.put(Context.INITIAL_CONTEXT_FACTORY, "com.sun.jndi.dns.DnsContextFactory");
+        environment.put("com.sun.jndi.dns.timeout.initial", Integer.toString(configuration.getDnsTimeoutMillis()));
+        environment.put("com.sun.jndi.dns.timeout.retries", "1");
+
+        DirContext context = null;
+        try {
+            context = new InitialDirContext(environment);
+            Attribute cname = context.getAttributes(domain, new String[]{"CNAME"}).get("CNAME");
+            if (cname == null || cname.size() == 0) {
+                return DomainCheckResult.failed("No CNAME record found for " + domain + ".", cloudflareId);
+            }
+
+            String target = normalize(String.valueOf(cname.get(0)));
+            if (!target.equals(normalize(configuration.getCnameTarget()))) {
+                return DomainCheckResult.failed("CNAME points to " + target + " instead of " + configuration.getCnameTarget() + ".", cloudflareId);
+            }
+
+            return DomainCheckResult.verified(cloudflareId);
+        } catch (NamingException e) {
+            return DomainCheckResult.failed("DNS lookup failed: " + e.getExplanation(), cloudflareId);
+        } finally {
+            if (context != null) {
+                try {
+                    context.close();
+                } catch (NamingException ignored) {
+                }
+            }
+        }
+    }
+
+    private String normalize(String hostname) {
+        String lower = hostname.toLowerCase(Locale.ROOT);
+        return lower.endsWith(".") ? lower.substring(0, lower.length() - 1) : lower;
+    }
+}
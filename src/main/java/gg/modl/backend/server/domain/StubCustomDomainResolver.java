@@ -0,0 +1,21 @@
+package gg.modl.backend.server.domain;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Local stand-in that verifies every domain except ones under .invalid, which always fail
+@Component
+@ConditionalOnProperty(prefix = "modl.domains", name = "resolver", havingValue = "stub")
+public class StubCustomDomainResolver implements CustomDomainResolver {
+    private static final String FAILING_SUFFIX = ".invalid";
+
+    @Override
+    public @NotNull DomainCheckResult check(@NotNull String domain, @Nullable String cloudflareId) {
+        if (domain.endsWith(FAILING_SUFFIX)) {
+            return DomainCheckResult.failed("Stub resolver rejects " + FAILING_SUFFIX + " domains.", cloudflareId);
+        }
+        return DomainCheckResult.verified(cloudflareId);
+    }
+}
@@ -0,0 +1,17 @@
+package gg.modl.backend.server.provisioning;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "modl.provisioning")
+@Getter
+@Setter
+public class ProvisioningConfiguration {
+    private boolean enabled = true;
+    private long pollIntervalMillis = 2000;
+    private int concurrency = 8;
+    private long staleAfterSeconds = 300;
+}
@@ -0,0 +1,207 @@
+package gg.modl.backend.server.provisioning;
+
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.database.DynamicMongoTemplateProvider;
+import gg.modl.backend.database.TenantIndexService;
+import gg.modl.backend.database.placement.TenantPlacementService;
+import gg.modl.backend.server.ServerField;
+import gg.modl.backend.server.ServerService;
+import gg.modl.backend.server.data.ProvisioningStatus;
+import gg.modl.backend.server.data.Server;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+@Slf4j
+public class ServerProvisioningService {
+    private static final List<String> TENANT_COLLECTIONS = List.of(
+            CollectionName.PLAYERS,
+            CollectionName.SESSIONS,
+            CollectionName.AUTH_CODES,
+            CollectionName.SETTINGS
+    );
+    private static final String GENERAL_SETTINGS_ID = "general";
+
+    private final ProvisioningConfiguration configuration;
+    private final DynamicMongoTemplateProvider mongoProvider;
+    private final TenantIndexService indexService;
+    private final TenantPlacementService placementService;
+    private final ExecutorService executor;
+    // Claiming blocks on Mongo, so on-demand polls get their own virtual threads instead of the common ForkJoin pool
+    private final ExecutorService pollExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore capacity;
+    private final AtomicBoolean polling = new AtomicBoolean();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Timer completedTimer;
+    private final Timer failedTimer;
+
+    public ServerProvisioningService(ProvisioningConfiguration configuration, DynamicMongoTemplateProvider mongoProvider,
+                                     TenantIndexService indexService, TenantPlacementService placementService,
+                                     MeterRegistry meterRegistry) {
+        this.configuration = configuration;
+        this.mongoProvider = mongoProvider;
+        this.indexService = indexService;
+        this.placementService = placementService;
+        this.executor = Executors.newFixedThreadPool(configuration.getConcurrency());
+        this.capacity = new Semaphore(configuration.getConcurrency());
+        this.completedTimer = Timer.builder("modl.provisioning.duration").tag("outcome", "completed").register(meterRegistry);
+        this.failedTimer = Timer.builder("modl.provisioning.duration").tag("outcome", "failed").register(meterRegistry);
+        Gauge.builder("modl.provisioning.in_flight", inFlight, AtomicInteger::get).register(meterRegistry);
+    }
+
+    // Called after a signup so the new server does not wait for the next scheduled poll
+    public void requestProvisioning() {
+        pollExecutor.execute(this::poll);
+    }
+
+    @Scheduled(fixedDelayString = "${modl.provisioning.poll-interval-millis:2000}")
+    public void poll() {
+        if (!configuration.isEnabled() || !polling.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            // Only claim as many servers as there are free workers, the rest stay pending for other nodes
+            while (capacity.tryAcquire()) {
+                Server server = claimNext();
+                if (server == null) {
+                    capacity.release();
+                    return;
+                }
+
+                inFlight.incrementAndGet();
+                executor.execute(() -> {
+                    try {
+                        provision(server);
+                    } finally {
+                        inFlight.decrementAndGet();
+                        capacity.release();
+                    }
+                });
+            }
+        } finally {
+            polling.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pollExecutor.shutdown();
+        executor.shutdown();
+    }
+
+    // Also picks up servers left in_progress by a node that died mid-provisioning
+    @Nullable
+    private Server claimNext() {
+        Date staleBefore = new Date(System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(configuration.getStaleAfterSeconds()));
+
+        Criteria claimable = new Criteria().orOperator(
+                Criteria.where(ServerField.PROVISIONING_STATUS).is(ProvisioningStatus.pending.name()),
+                new Criteria().andOperator(
+                        Criteria.where(ServerField.PROVISIONING_STATUS).is(ProvisioningStatus.in_progress.name()),
+                        Criteria.where(ServerField.UPDATED_AT).lt(staleBefore)
+                )
+        );
+
+        Query query = new Query(claimable).with(Sort.by(Sort.Direction.ASC, ServerField.CREATED_AT));
+        Update update = new Update()
+                .set(ServerField.PROVISIONING_STATUS, ProvisioningStatus.in_progress.name())
+                .set(ServerField.PROVISIONING_NOTES, "Claimed for provisioning.")
+                .set(ServerField.UPDATED_AT, new Date());
+
+        return mongoProvider.getGlobalDatabase().findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Server.class, CollectionName.MODL_SERVERS);
+    }
+
+    // Every step is safe to repeat, so a reclaimed server simply runs through all of them again
+    private void provision(Server server) {
+        long startNanos = System.nanoTime();
+        String databaseName = server.getDatabaseName() != null
+                ? server.getDatabaseName()
+                : ServerService.SERVER_DATABASE_PREFIX + server.getCustomDomain();
+
+        try {
+            String clusterId = placementService.placeNewTenant(databaseName);
+            MongoTemplate tenant = mongoProvider.getFromDatabaseName(databaseName);
+
+            updateProgress(server, "Creating collections on cluster %s (1/3).".formatted(clusterId));
+            for (String collection : TENANT_COLLECTIONS) {
+                createCollectionIfMissing(tenant, collection);
+            }
+
+            updateProgress(server, "Creating indexes (2/3).");
+            indexService.ensureIndexes(databaseName);
+
+            updateProgress(server, "Writing default settings (3/3).");
+            tenant.upsert(new Query(Criteria.where("_id").is(GENERAL_SETTINGS_ID)), new Update()
+                    .setOnInsert("serverName", server.getServerName())
+                    .setOnInsert("createdAt", new Date()), CollectionName.SETTINGS);
+
+            long elapsedNanos = System.nanoTime() - startNanos;
+            finish(server, ProvisioningStatus.completed, "Provisioned in %d ms.".formatted(TimeUnit.NANOSECONDS.toMillis(elapsedNanos)));
+            completedTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        } catch (RuntimeException e) {
+            log.error("Failed to provision server {} ({})", server.getServerName(), databaseName, e);
+            finish(server, ProvisioningStatus.failed, "Provisioning failed: " + e.getMessage());
+            failedTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void createCollectionIfMissing(MongoTemplate tenant, String collection) {
+        if (tenant.collectionExists(collection)) {
+            return;
+        }
+
+        try {
+            tenant.createCollection(collection);
+        } catch (DataAccessException e) {
+            // Another worker may have created it in the meantime
+            if (!tenant.collectionExists(collection)) {
+                throw e;
+            }
+        }
+    }
+
+    // Also acts as a heartbeat, keeping the claim from being considered stale
+    private void updateProgress(Server server, String notes) {
+        Update update = new Update()
+                .set(ServerField.PROVISIONING_NOTES, notes)
+                .set(ServerField.UPDATED_AT, new Date());
+
+        mongoProvider.getGlobalDatabase().updateFirst(byId(server), update, Server.class);
+    }
+
+    private void finish(Server server, ProvisioningStatus status, String notes) {
+        Update update = new Update()
+                .set(ServerField.PROVISIONING_STATUS, status.name())
+                .set(ServerField.PROVISIONING_NOTES, notes)
+                .set(ServerField.UPDATED_AT, new Date());
+
+        mongoProvider.getGlobalDatabase().updateFirst(byId(server), update, Server.class);
+    }
+
+    private Query byId(Server server) {
+        return new Query(Criteria.where("_id").is(server.getId()));
+    }
+}
@@ -0,0 +1,13 @@
+package gg.modl.backend.staff;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks a panel controller or handler method as open to every caller. Panel handlers without this or
+// RequiresPermission are refused, so a new endpoint cannot be exposed by forgetting an annotation
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PermissionNotRequired {
+}
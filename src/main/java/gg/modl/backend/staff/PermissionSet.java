@@ -0,0 +1,57 @@
+package gg.modl.backend.staff;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public record PermissionSet(long bits) {
+    public static final PermissionSet NONE = new PermissionSet(0);
+    public static final PermissionSet ALL = new PermissionSet(-1L >>> (Long.SIZE - StaffPermission.values().length));
+
+    static {
+        if (StaffPermission.values().length > Long.SIZE) {
+            throw new IllegalStateException("StaffPermission no longer fits in a long.");
+        }
+    }
+
+    // Names no longer in StaffPermission are ignored, so removing a permission does not break stored roles
+    public static PermissionSet of(@Nullable Collection<String> names) {
+        if (names == null) {
+            return NONE;
+        }
+
+        long bits = 0;
+        for (String name : names) {
+            try {
+                bits |= StaffPermission.valueOf(name).mask();
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+        return new PermissionSet(bits);
+    }
+
+    public boolean has(long mask) {
+        return (bits & mask) == mask;
+    }
+
+    public boolean has(@NotNull StaffPermission permission) {
+        return has(permission.mask());
+    }
+
+    public boolean contains(@NotNull PermissionSet other) {
+        return has(other.bits);
+    }
+
+    public List<StaffPermission> toList() {
+        List<StaffPermission> permissions = new ArrayList<>();
+        for (StaffPermission permission : StaffPermission.values()) {
+            if (has(permission)) {
+                permissions.add(permission);
+            }
+        }
+        return permissions;
+    }
+}
@@ -0,0 +1,13 @@
+package gg.modl.backend.staff;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// On a panel controller or handler method, the method level annotation wins. See PermissionNotRequired for open routes
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequiresPermission {
+    StaffPermission value();
+}
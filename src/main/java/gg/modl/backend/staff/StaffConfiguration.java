@@ -0,0 +1,15 @@
+package gg.modl.backend.staff;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "modl.staff")
+@Getter
+@Setter
+public class StaffConfiguration {
+    private int sessionPermissionCacheMaxEntries = 50_000;
+    private int sessionPermissionCacheStripes = 32;
+}
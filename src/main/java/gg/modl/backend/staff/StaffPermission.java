@@ -0,0 +1,21 @@
+package gg.modl.backend.staff;
+
+// Stored by name, the bit a permission occupies is only decided when roles are compiled, so reordering is safe
+public enum StaffPermission {
+    VIEW_PLAYERS,
+    MANAGE_PUNISHMENTS,
+    VIEW_EVIDENCE,
+    UPLOAD_EVIDENCE,
+    VIEW_TICKETS,
+    REPLY_TICKETS,
+    MANAGE_TICKETS,
+    VIEW_ANALYTICS,
+    EXPORT_DATA,
+    MANAGE_STAFF,
+    MANAGE_ROLES,
+    MANAGE_SETTINGS;
+
+    public long mask() {
+        return 1L << ordinal();
+    }
+}
@@ -0,0 +1,65 @@
+package gg.modl.backend.staff;
+
+import gg.modl.backend.rest.RequestUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// The required mask is looked up once per handler method, after that a check is a single AND against the
+// session's compiled set. Handlers that declare neither RequiresPermission nor PermissionNotRequired are denied
+@Component
+@Slf4j
+public class StaffPermissionInterceptor implements HandlerInterceptor {
+    private static final long NO_REQUIREMENT = 0;
+    private static final long DENY = -1;
+
+    private final Map<Method, Long> requiredMasks = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(@NotNull HttpServletRequest request, @NotNull HttpServletResponse response, @NotNull Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+
+        long mask = requiredMasks.computeIfAbsent(handlerMethod.getMethod(), method -> requiredMask(handlerMethod));
+        if (mask == NO_REQUIREMENT || (mask != DENY && RequestUtil.getRequestPermissions(request).has(mask))) {
+            return true;
+        }
+
+        response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+        return false;
+    }
+
+    // The method level annotation wins over the class level one, whichever of the two kinds it is
+    private static long requiredMask(HandlerMethod handlerMethod) {
+        Long mask = declaredMask(handlerMethod.getMethod());
+        if (mask == null) {
+            mask = declaredMask(handlerMethod.getBeanType());
+        }
+        if (mask == null) {
+            log.warn("Panel handler {} declares no permission requirement, denying it", handlerMethod.getShortLogMessage());
+            return DENY;
+        }
+        return mask;
+    }
+
+    @Nullable
+    private static Long declaredMask(AnnotatedElement element) {
+        RequiresPermission permission = AnnotatedElementUtils.findMergedAnnotation(element, RequiresPermission.class);
+        if (permission != null) {
+            return permission.value().mask();
+        }
+        return AnnotatedElementUtils.hasAnnotation(element, PermissionNotRequired.class) ? NO_REQUIREMENT : null;
+    }
+}
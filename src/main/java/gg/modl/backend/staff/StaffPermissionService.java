@@ -0,0 +1,120 @@
+package gg.modl.backend.staff;
+
+import gg.modl.backend.auth.session.SessionCache;
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.database.DynamicMongoTemplateProvider;
+import gg.modl.backend.server.ServerField;
+import gg.modl.backend.server.data.Server;
+import gg.modl.backend.staff.data.StaffMember;
+import gg.modl.backend.staff.data.StaffRole;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Roles are compiled to bitsets once per tenant and roles version, and each session keeps the set it resolved to.
+// The version lives on the server document every panel request loads anyway, so noticing an edit made on another
+// node costs no extra read, and a request with a warm cache never touches the tenant database
+@Service
+public class StaffPermissionService {
+    private final DynamicMongoTemplateProvider mongoProvider;
+    private final ConcurrentMap<String, CompiledRoles> compiledRoles = new ConcurrentHashMap<>();
+    // Every panel request reads this, so it is split into independently locked LRU stripes and concurrent
+    // requests only contend when their sessions land on the same stripe
+    private final List<Map<SessionCache.SessionKey, CachedPermissions>> sessionPermissions;
+
+    public StaffPermissionService(DynamicMongoTemplateProvider mongoProvider, StaffConfiguration configuration) {
+        this.mongoProvider = mongoProvider;
+        int stripes = configuration.getSessionPermissionCacheStripes();
+        int maxEntriesPerStripe = Math.max(1, configuration.getSessionPermissionCacheMaxEntries() / stripes);
+        List<Map<SessionCache.SessionKey, CachedPermissions>> stripeMaps = new ArrayList<>(stripes);
+        for (int i = 0; i < stripes; i++) {
+            stripeMaps.add(Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75F, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<SessionCache.SessionKey, CachedPermissions> eldest) {
+                    return size() > maxEntriesPerStripe;
+                }
+            }));
+        }
+        this.sessionPermissions = List.copyOf(stripeMaps);
+    }
+
+    @NotNull
+    public PermissionSet resolve(@NotNull Server server, @NotNull SessionCache.SessionKey sessionKey, @NotNull String email) {
+        long version = versionOf(server);
+        Map<SessionCache.SessionKey, CachedPermissions> stripe = stripeFor(sessionKey);
+        CachedPermissions cached = stripe.get(sessionKey);
+        if (cached != null && cached.version() == version) {
+            return cached.permissions();
+        }
+
+        PermissionSet permissions = compute(server, email, version);
+        stripe.put(sessionKey, new CachedPermissions(version, permissions));
+        return permissions;
+    }
+
+    private Map<SessionCache.SessionKey, CachedPermissions> stripeFor(SessionCache.SessionKey sessionKey) {
+        return sessionPermissions.get(Math.floorMod(sessionKey.hashCode(), sessionPermissions.size()));
+    }
+
+    // The owner who registered the server can always do everything, so a tenant can never lock itself out
+    private PermissionSet compute(Server server, String email, long version) {
+        String normalizedEmail = email.toLowerCase(Locale.ROOT);
+        if (normalizedEmail.equalsIgnoreCase(server.getAdminEmail())) {
+            return PermissionSet.ALL;
+        }
+
+        MongoTemplate mongo = mongoProvider.getFromDatabaseName(server.getDatabaseName());
+        StaffMember member = mongo.findById(normalizedEmail, StaffMember.class);
+        if (member == null || member.getRoleId() == null) {
+            return PermissionSet.NONE;
+        }
+
+        return rolesFor(server, mongo, version).getOrDefault(member.getRoleId(), PermissionSet.NONE);
+    }
+
+    private Map<String, PermissionSet> rolesFor(Server server, MongoTemplate mongo, long version) {
+        CompiledRoles compiled = compiledRoles.get(server.getDatabaseName());
+        if (compiled != null && compiled.version() == version) {
+            return compiled.roles();
+        }
+
+        Map<String, PermissionSet> roles = new HashMap<>();
+        for (StaffRole role : mongo.findAll(StaffRole.class)) {
+            roles.put(role.getId(), PermissionSet.of(role.getPermissions()));
+        }
+
+        compiledRoles.put(server.getDatabaseName(), new CompiledRoles(version, Map.copyOf(roles)));
+        return roles;
+    }
+
+    // Called after every role or assignment edit. Other nodes pick the new version up from the next server lookup
+    public void invalidate(@NotNull Server server) {
+        compiledRoles.remove(server.getDatabaseName());
+        mongoProvider.getGlobalDatabase().updateFirst(new Query(Criteria.where("_id").is(server.getId())),
+                new Update().inc(ServerField.STAFF_ROLES_VERSION, 1), Server.class, CollectionName.MODL_SERVERS);
+
+        // This request's copy of the server is stale now, bumping it keeps the rest of the request consistent
+        server.setStaffRolesVersion(versionOf(server) + 1);
+    }
+
+    private static long versionOf(Server server) {
+        return server.getStaffRolesVersion() == null ? 0 : server.getStaffRolesVersion();
+    }
+
+    private record CompiledRoles(long version, Map<String, PermissionSet> roles) {}
+
+    private record CachedPermissions(long version, PermissionSet permissions) {}
+}
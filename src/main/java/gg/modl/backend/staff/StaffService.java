@@ -0,0 +1,92 @@
+package gg.modl.backend.staff;
+
+import gg.modl.backend.database.DynamicMongoTemplateProvider;
+import gg.modl.backend.server.data.Server;
+import gg.modl.backend.staff.data.StaffMember;
+import gg.modl.backend.staff.data.StaffRole;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+// Every write ends with an invalidation so no session keeps acting on a role or assignment that changed
+@Service
+@RequiredArgsConstructor
+public class StaffService {
+    private final DynamicMongoTemplateProvider mongoProvider;
+    private final StaffPermissionService permissionService;
+
+    public List<StaffRole> listRoles(@NotNull Server server) {
+        return mongo(server).findAll(StaffRole.class);
+    }
+
+    @Nullable
+    public StaffRole findRole(@NotNull Server server, @NotNull String roleId) {
+        return mongo(server).findById(roleId, StaffRole.class);
+    }
+
+    public StaffRole saveRole(@NotNull Server server, @NotNull String roleId, @NotNull String name, @NotNull PermissionSet permissions) {
+        StaffRole role = new StaffRole();
+        role.setId(roleId);
+        role.setName(name);
+        role.setPermissions(permissions.toList().stream().map(Enum::name).toList());
+
+        StaffRole saved = mongo(server).save(role);
+        permissionService.invalidate(server);
+        return saved;
+    }
+
+    public boolean deleteRole(@NotNull Server server, @NotNull String roleId) {
+        boolean deleted = mongo(server).remove(new Query(Criteria.where("_id").is(roleId)), StaffRole.class).getDeletedCount() > 0;
+        if (deleted) {
+            permissionService.invalidate(server);
+        }
+        return deleted;
+    }
+
+    public List<StaffMember> listMembers(@NotNull Server server) {
+        return mongo(server).findAll(StaffMember.class);
+    }
+
+    @Nullable
+    public StaffMember findMember(@NotNull Server server, @NotNull String email) {
+        return mongo(server).findById(email.toLowerCase(Locale.ROOT), StaffMember.class);
+    }
+
+    public StaffMember assignMember(@NotNull Server server, @NotNull String email, @NotNull String roleId, @NotNull String addedBy) {
+        StaffMember member = findMember(server, email);
+        if (member == null) {
+            member = new StaffMember();
+            member.setId(email.toLowerCase(Locale.ROOT));
+            member.setAddedBy(addedBy);
+            member.setAddedAt(new Date());
+        }
+        member.setRoleId(roleId);
+
+        StaffMember saved = mongo(server).save(member);
+        permissionService.invalidate(server);
+        return saved;
+    }
+
+    public boolean removeMember(@NotNull Server server, @NotNull String email) {
+        StaffMember member = findMember(server, email);
+        if (member == null) {
+            return false;
+        }
+
+        mongo(server).remove(member);
+        permissionService.invalidate(server);
+        return true;
+    }
+
+    private MongoTemplate mongo(Server server) {
+        return mongoProvider.getFromDatabaseName(server.getDatabaseName());
+    }
+}
@@ -0,0 +1,18 @@
+package gg.modl.backend.staff;
+
+import gg.modl.backend.rest.RESTMappingV1;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class StaffWebConfiguration implements WebMvcConfigurer {
+    private final StaffPermissionInterceptor permissionInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(permissionInterceptor).addPathPatterns(RESTMappingV1.PREFIX_PANEL + "/**");
+    }
+}
@@ -0,0 +1,146 @@
+package gg.modl.backend.staff.controller;
+
+import gg.modl.backend.rest.RESTMappingV1;
+import gg.modl.backend.rest.RequestUtil;
+import gg.modl.backend.server.data.Server;
+import gg.modl.backend.staff.PermissionSet;
+import gg.modl.backend.staff.PermissionNotRequired;
+import gg.modl.backend.staff.RequiresPermission;
+import gg.modl.backend.staff.StaffPermission;
+import gg.modl.backend.staff.StaffService;
+import gg.modl.backend.staff.data.StaffMember;
+import gg.modl.backend.staff.data.StaffRole;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// Nobody can hand out a permission they do not hold themselves, so MANAGE_ROLES or MANAGE_STAFF alone cannot escalate
+@RestController
+@RequestMapping(RESTMappingV1.PANEL_STAFF)
+@RequiredArgsConstructor
+public class PanelStaffController {
+    private final StaffService staffService;
+
+    @PermissionNotRequired
+    @GetMapping("/me/permissions")
+    public ResponseEntity<List<StaffPermission>> myPermissions(HttpServletRequest request) {
+        return ResponseEntity.ok(RequestUtil.getRequestPermissions(request).toList());
+    }
+
+    @RequiresPermission(StaffPermission.MANAGE_ROLES)
+    @GetMapping("/roles")
+    public ResponseEntity<List<StaffRole>> listRoles(HttpServletRequest request) {
+        return ResponseEntity.ok(staffService.listRoles(RequestUtil.getRequestServer(request)));
+    }
+
+    @RequiresPermission(StaffPermission.MANAGE_ROLES)
+    @PutMapping("/roles/{roleId}")
+    public ResponseEntity<StaffRole> saveRole(HttpServletRequest request, @PathVariable String roleId,
+                                              @RequestBody @Valid RoleRequest body, BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        PermissionSet permissions = PermissionSet.of(body.permissions.stream().map(Enum::name).toList());
+        PermissionSet callerPermissions = RequestUtil.getRequestPermissions(request);
+        if (!callerPermissions.contains(permissions)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        Server server = RequestUtil.getRequestServer(request);
+        StaffRole existing = staffService.findRole(server, roleId);
+        if (existing != null && !callerPermissions.contains(PermissionSet.of(existing.getPermissions()))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        return ResponseEntity.ok(staffService.saveRole(server, roleId, body.name, permissions));
+    }
+
+    @RequiresPermission(StaffPermission.MANAGE_ROLES)
+    @DeleteMapping("/roles/{roleId}")
+    public ResponseEntity<Void> deleteRole(HttpServletRequest request, @PathVariable String roleId) {
+        Server server = RequestUtil.getRequestServer(request);
+        StaffRole existing = staffService.findRole(server, roleId);
+        if (existing == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!RequestUtil.getRequestPermissions(request).contains(PermissionSet.of(existing.getPermissions()))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        staffService.deleteRole(server, roleId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @RequiresPermission(StaffPermission.MANAGE_STAFF)
+    @GetMapping("/members")
+    public ResponseEntity<List<StaffMember>> listMembers(HttpServletRequest request) {
+        return ResponseEntity.ok(staffService.listMembers(RequestUtil.getRequestServer(request)));
+    }
+
+    @RequiresPermission(StaffPermission.MANAGE_STAFF)
+    @PutMapping("/members/{email}")
+    public ResponseEntity<StaffMember> assignMember(HttpServletRequest request, @PathVariable String email,
+                                                    @RequestBody @Valid MemberRequest body, BindingResult bindingResult) {
+        if (bindingResult.hasErrors() || email.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Server server = RequestUtil.getRequestServer(request);
+        StaffRole role = staffService.findRole(server, body.roleId);
+        if (role == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!canManageMember(request, server, email) || !RequestUtil.getRequestPermissions(request).contains(PermissionSet.of(role.getPermissions()))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        String addedBy = RequestUtil.getRequestSession(request).getEmail();
+        return ResponseEntity.ok(staffService.assignMember(server, email, role.getId(), addedBy));
+    }
+
+    @RequiresPermission(StaffPermission.MANAGE_STAFF)
+    @DeleteMapping("/members/{email}")
+    public ResponseEntity<Void> removeMember(HttpServletRequest request, @PathVariable String email) {
+        Server server = RequestUtil.getRequestServer(request);
+        if (staffService.findMember(server, email) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!canManageMember(request, server, email)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        staffService.removeMember(server, email);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Changing someone who currently holds more than the caller would be a way around the escalation check
+    private boolean canManageMember(HttpServletRequest request, Server server, String email) {
+        StaffMember member = staffService.findMember(server, email);
+        if (member == null || member.getRoleId() == null) {
+            return true;
+        }
+
+        StaffRole currentRole = staffService.findRole(server, member.getRoleId());
+        return currentRole == null || RequestUtil.getRequestPermissions(request).contains(PermissionSet.of(currentRole.getPermissions()));
+    }
+
+    public record RoleRequest(@NotBlank @Size(max = 64) String name, @NotNull List<StaffPermission> permissions) {}
+
+    public record MemberRequest(@NotBlank String roleId) {}
+}
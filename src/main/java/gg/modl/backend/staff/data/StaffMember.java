@@ -0,0 +1,26 @@
+package gg.modl.backend.staff.data;
+
+import gg.modl.backend.database.CollectionName;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.util.Date;
+
+// Keyed by the lowercased email the staff member signs in with
+@Document(collection = CollectionName.STAFF_MEMBERS)
+@Data
+public class StaffMember {
+    @Id
+    private String id;
+
+    @Field
+    private String roleId;
+
+    @Field
+    private String addedBy;
+
+    @Field
+    private Date addedAt;
+}
@@ -0,0 +1,23 @@
+package gg.modl.backend.staff.data;
+
+import gg.modl.backend.database.CollectionName;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.util.List;
+
+@Document(collection = CollectionName.STAFF_ROLES)
+@Data
+public class StaffRole {
+    @Id
+    private String id;
+
+    @Field
+    private String name;
+
+    // StaffPermission names
+    @Field
+    private List<String> permissions;
+}
@@ -0,0 +1,21 @@
+package gg.modl.backend.startup;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "modl.warm-up")
+@Getter
+@Setter
+public class WarmUpConfiguration {
+    private boolean enabled = false;
+    // Most recently active tenants first, the rest warm up lazily as before
+    private int maxTenants = 1000;
+    // Connections opened concurrently per cluster so the first burst of requests does not wait on handshakes
+    private int connectionsPerCluster = 8;
+    private long timeoutMillis = 60_000;
+    // Slowest bean initializations to log from the recorded startup timeline
+    private int slowestStartupSteps = 10;
+}
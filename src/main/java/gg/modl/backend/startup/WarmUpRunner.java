@@ -0,0 +1,168 @@
+package gg.modl.backend.startup;
+
+import gg.modl.backend.apikey.ApiKeyService;
+import gg.modl.backend.database.DynamicMongoTemplateProvider;
+import gg.modl.backend.database.ReadRoute;
+import gg.modl.backend.database.TenantIndexService;
+import gg.modl.backend.database.fanout.FanOutOptions;
+import gg.modl.backend.database.fanout.FanOutSummary;
+import gg.modl.backend.database.fanout.TenantFanOutExecutor;
+import gg.modl.backend.database.placement.MongoClusterRegistry;
+import gg.modl.backend.server.data.Server;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+// Runners finish before Spring Boot publishes ReadinessState.ACCEPTING_TRAFFIC, so the readiness probe keeps this
+// node out of the load balancer until the warm-up below is done. A failing phase is logged and skipped, warm-up
+// only ever makes startup slower, never impossible
+@Component
+@ConditionalOnProperty(prefix = "modl.warm-up", name = "enabled", havingValue = "true")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@Slf4j
+public class WarmUpRunner implements ApplicationRunner {
+    private static final Document PING = new Document("ping", 1);
+    private static final String BEAN_INSTANTIATION_STEP = "spring.beans.instantiate";
+
+    private final WarmUpConfiguration configuration;
+    private final MongoClusterRegistry clusterRegistry;
+    private final DynamicMongoTemplateProvider mongoProvider;
+    private final TenantFanOutExecutor fanOutExecutor;
+    private final TenantIndexService indexService;
+    private final ApiKeyService apiKeyService;
+    private final ApplicationStartup applicationStartup;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long startNanos = System.nanoTime();
+        logSlowestStartupSteps();
+
+        phase("connection-pools", () -> {
+            warmConnectionPools();
+            return "%d clusters".formatted(clusterRegistry.getClusterIds().size());
+        });
+
+        List<Server> tenants = phase("tenants", this::loadActiveTenants);
+        if (tenants == null) {
+            tenants = List.of();
+        }
+
+        List<Server> activeTenants = tenants;
+        phase("tenant-templates", () -> {
+            FanOutSummary summary = fanOutExecutor.execute(activeTenants, this::warmTenant,
+                    new FanOutOptions(Duration.ofMillis(configuration.getTimeoutMillis()), false), result -> true);
+            return "%d tenants, %d failed, %d timed out".formatted(summary.tenants(), summary.failed(), summary.timedOut());
+        });
+
+        phase("api-keys", () -> "%d keys".formatted(apiKeyService.preload(activeTenants)));
+
+        log.info("Warm-up finished in {} ms, {} ms after JVM start.",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    // Each ping borrows its own pooled connection, so running them side by side opens that many connections
+    private void warmConnectionPools() throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Document>> pings = clusterRegistry.getClusterIds().stream()
+                    .flatMap(clusterId -> IntStream.range(0, configuration.getConnectionsPerCluster())
+                            .mapToObj(i -> executor.submit(() -> clusterRegistry.getClient(clusterId).getDatabase("admin").runCommand(PING))))
+                    .toList();
+            for (Future<Document> ping : pings) {
+                ping.get(configuration.getTimeoutMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private List<Server> loadActiveTenants() {
+        Date never = new Date(0);
+        return fanOutExecutor.listTenants(null).stream()
+                .sorted(Comparator.comparing((Server server) -> server.getLastActivityAt() == null ? never : server.getLastActivityAt()).reversed())
+                .limit(configuration.getMaxTenants())
+                .toList();
+    }
+
+    // The fan-out has already resolved the placement and built the primary template by the time this runs, index
+    // checks are the first round trip on the tenant's database
+    private Boolean warmTenant(Server server, MongoTemplate mongo) {
+        mongoProvider.getFromDatabaseName(server.getDatabaseName(), ReadRoute.SECONDARY_PREFERRED);
+        indexService.ensureIndexes(server.getDatabaseName());
+        return true;
+    }
+
+    private <T> T phase(String name, WarmUpPhase<T> phase) {
+        long startNanos = System.nanoTime();
+        try {
+            T result = phase.run();
+            log.info("Warm-up phase {} took {} ms ({}).", name, elapsedMillis(startNanos), describe(result));
+            return result;
+        } catch (Exception e) {
+            log.warn("Warm-up phase {} failed after {} ms, continuing without it.", name, elapsedMillis(startNanos), e);
+            return null;
+        } finally {
+            Timer.builder("modl.startup.warm_up").tag("phase", name).register(meterRegistry)
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Only available when the application was started with a BufferingApplicationStartup, see BackendApplication
+    private void logSlowestStartupSteps() {
+        if (!(applicationStartup instanceof BufferingApplicationStartup bufferingStartup)) {
+            return;
+        }
+
+        bufferingStartup.getBufferedTimeline().getEvents().stream()
+                .filter(event -> BEAN_INSTANTIATION_STEP.equals(event.getStartupStep().getName()))
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(configuration.getSlowestStartupSteps())
+                .forEach(event -> log.info("Startup step {} {} took {} ms.", event.getStartupStep().getName(),
+                        beanName(event.getStartupStep()), event.getDuration().toMillis()));
+    }
+
+    private static String beanName(StartupStep step) {
+        return StreamSupport.stream(step.getTags().spliterator(), false)
+                .filter(tag -> "beanName".equals(tag.getKey()))
+                .map(StartupStep.Tag::getValue)
+                .findFirst()
+                .orElse("");
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private static String describe(Object result) {
+        return result instanceof List<?> list ? list.size() + " items" : String.valueOf(result);
+    }
+
+    @FunctionalInterface
+    private interface WarmUpPhase<T> {
+        T run() throws Exception;
+    }
+}
@@ -0,0 +1,27 @@
+package gg.modl.backend.ticket;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "modl.tickets")
+@Getter
+@Setter
+public class TicketConfiguration {
+    private int replyBucketSize = 50;
+
+    // Replies to the same ticket for the same recipient within this window end up in one email
+    private long notificationWindowSeconds = 60;
+    private int notificationWorkers = 2;
+    private int notificationMaxReplies = 10;
+    private int maxNotificationContentLength = 2_000;
+    private int notificationMaxAttempts = 5;
+    private long notificationRetryDelaySeconds = 60;
+    private long notificationStaleAfterSeconds = 300;
+
+    // Formatted with the server's subdomain and the ticket id, the player link also gets the ticket's access key
+    private String staffTicketUrl = "https://%s.modl.gg/panel/tickets/%s";
+    private String playerTicketUrl = "https://%s.modl.gg/ticket/%s?key=%s";
+}
@@ -0,0 +1,20 @@
+package gg.modl.backend.ticket;
+
+public final class TicketField {
+    public static final String TYPE = "type";
+    public static final String SUBJECT = "subject";
+    public static final String STATUS = "status";
+    public static final String CREATOR_NAME = "creatorName";
+    public static final String CREATOR_EMAIL = "creatorEmail";
+    public static final String ACCESS_KEY = "accessKey";
+    public static final String SUBSCRIBERS = "subscribers";
+    public static final String REPLY_COUNT = "replyCount";
+    public static final String CREATED_AT = "createdAt";
+    public static final String LAST_ACTIVITY_AT = "lastActivityAt";
+
+    public static final String BUCKET_TICKET_ID = "ticketId";
+    public static final String BUCKET_COUNT = "count";
+    public static final String BUCKET_REPLIES = "replies";
+    public static final String BUCKET_FIRST_REPLY_AT = "firstReplyAt";
+    public static final String BUCKET_LAST_REPLY_AT = "lastReplyAt";
+}
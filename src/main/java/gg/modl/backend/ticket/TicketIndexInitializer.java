@@ -0,0 +1,29 @@
+package gg.modl.backend.ticket;
+
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.database.TenantIndexInitializer;
+import gg.modl.backend.database.pagination.KeysetSort;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TicketIndexInitializer implements TenantIndexInitializer {
+    @Override
+    public void ensureIndexes(@NotNull MongoTemplate mongo) {
+        mongo.indexOps(CollectionName.TICKETS).createIndex(new Index()
+                .on(TicketField.STATUS, Sort.Direction.ASC)
+                .on(TicketField.LAST_ACTIVITY_AT, Sort.Direction.DESC)
+                .on(KeysetSort.ID_FIELD, Sort.Direction.DESC));
+        // The unfiltered list has no status to lead with, it walks this one instead of scanning
+        mongo.indexOps(CollectionName.TICKETS).createIndex(TicketService.LIST_SORT.toIndex());
+        mongo.indexOps(CollectionName.TICKETS).createIndex(new Index().on(TicketField.CREATOR_EMAIL, Sort.Direction.ASC));
+
+        // Serves both the append, which looks for a bucket with room, and reading a thread in order
+        mongo.indexOps(CollectionName.TICKET_REPLY_BUCKETS).createIndex(new Index()
+                .on(TicketField.BUCKET_TICKET_ID, Sort.Direction.ASC)
+                .on(KeysetSort.ID_FIELD, Sort.Direction.ASC));
+    }
+}
@@ -0,0 +1,231 @@
+package gg.modl.backend.ticket;
+
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.database.DynamicMongoTemplateProvider;
+import gg.modl.backend.database.TenantIndexService;
+import gg.modl.backend.database.pagination.KeysetPage;
+import gg.modl.backend.database.pagination.KeysetPagination;
+import gg.modl.backend.database.pagination.KeysetSort;
+import gg.modl.backend.server.data.Server;
+import gg.modl.backend.ticket.data.Ticket;
+import gg.modl.backend.ticket.data.TicketReply;
+import gg.modl.backend.ticket.data.TicketReplyBucket;
+import gg.modl.backend.ticket.data.TicketStatus;
+import gg.modl.backend.ticket.notification.TicketNotification;
+import gg.modl.backend.ticket.notification.TicketNotificationService;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+@Service
+@RequiredArgsConstructor
+public class TicketService {
+    public static final KeysetSort LIST_SORT = new KeysetSort(TicketField.LAST_ACTIVITY_AT, Sort.Direction.DESC, Date.class, String.class);
+    public static final int MAX_REPLY_BUCKETS_PER_PAGE = 10;
+
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    // No 0/O or 1/I so ids survive being read out loud
+    private static final String ID_ALPHABET = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789";
+    private static final int ID_LENGTH = 8;
+    private static final int MAX_ID_ATTEMPTS = 5;
+    private static final int ACCESS_KEY_BYTE_LENGTH = 24;
+
+    private final DynamicMongoTemplateProvider mongoProvider;
+    private final TenantIndexService indexService;
+    private final TicketConfiguration configuration;
+    private final TicketNotificationService notificationService;
+
+    public Ticket createTicket(@NotNull Server server, @NotNull String type, @NotNull String subject, @NotNull String creatorName,
+                               @NotNull String creatorEmail, @NotNull String content) {
+        indexService.ensureIndexes(server.getDatabaseName());
+        MongoTemplate mongo = mongoProvider.getFromDatabaseName(server.getDatabaseName());
+        Date now = new Date();
+
+        Ticket ticket = new Ticket();
+        ticket.setType(type);
+        ticket.setSubject(subject);
+        ticket.setStatus(TicketStatus.OPEN);
+        ticket.setCreatorName(creatorName);
+        ticket.setCreatorEmail(creatorEmail.toLowerCase(Locale.ROOT));
+        ticket.setAccessKey(generateAccessKey());
+        ticket.setSubscribers(new ArrayList<>());
+        ticket.setReplyCount(1);
+        ticket.setCreatedAt(now);
+        ticket.setLastActivityAt(now);
+
+        for (int attempt = 1; ; attempt++) {
+            ticket.setId(generateId());
+            try {
+                mongo.insert(ticket);
+                break;
+            } catch (DuplicateKeyException e) {
+                if (attempt == MAX_ID_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+
+        appendReply(mongo, ticket.getId(), new TicketReply(new ObjectId().toHexString(), creatorName, false, content, now));
+        return ticket;
+    }
+
+    // Returns null when the ticket does not exist. authorEmail is only set for staff, who are subscribed by replying
+    @Nullable
+    public TicketReply addReply(@NotNull Server server, @NotNull String ticketId, @NotNull String authorName,
+                                @Nullable String authorEmail, boolean staff, @NotNull String content) {
+        MongoTemplate mongo = mongoProvider.getFromDatabaseName(server.getDatabaseName());
+        Date now = new Date();
+
+        Update update = new Update()
+                .inc(TicketField.REPLY_COUNT, 1)
+                .set(TicketField.LAST_ACTIVITY_AT, now);
+        if (staff && authorEmail != null) {
+            update.addToSet(TicketField.SUBSCRIBERS, authorEmail.toLowerCase(Locale.ROOT));
+        }
+
+        Ticket ticket = mongo.findAndModify(new Query(Criteria.where("_id").is(ticketId)), update,
+                FindAndModifyOptions.options().returnNew(true), Ticket.class);
+        if (ticket == null) {
+            return null;
+        }
+
+        TicketReply reply = new TicketReply(new ObjectId().toHexString(), authorName, staff, content, now);
+        appendReply(mongo, ticketId, reply);
+        notifyRecipients(server, ticket, reply, authorEmail);
+        return reply;
+    }
+
+    @Nullable
+    public Ticket findTicket(@NotNull Server server, @NotNull String ticketId) {
+        return mongoProvider.getFromDatabaseName(server.getDatabaseName()).findById(ticketId, Ticket.class);
+    }
+
+    // Compared in constant time so the key cannot be guessed one character at a time
+    @Nullable
+    public Ticket findTicketForPlayer(@NotNull Server server, @NotNull String ticketId, @NotNull String accessKey) {
+        Ticket ticket = findTicket(server, ticketId);
+        if (ticket == null || !MessageDigest.isEqual(ticket.getAccessKey().getBytes(StandardCharsets.UTF_8), accessKey.getBytes(StandardCharsets.UTF_8))) {
+            return null;
+        }
+        return ticket;
+    }
+
+    public KeysetPage<Ticket> listTickets(@NotNull Server server, @Nullable TicketStatus status, @Nullable String cursor, int size) {
+        indexService.ensureIndexes(server.getDatabaseName());
+        Query query = status == null ? new Query() : new Query(Criteria.where(TicketField.STATUS).is(status.name()));
+        return KeysetPagination.find(mongoProvider.getFromDatabaseName(server.getDatabaseName()), query, LIST_SORT, cursor, size,
+                Ticket.class, CollectionName.TICKETS);
+    }
+
+    public boolean setStatus(@NotNull Server server, @NotNull String ticketId, @NotNull TicketStatus status) {
+        Update update = new Update()
+                .set(TicketField.STATUS, status.name())
+                .set(TicketField.LAST_ACTIVITY_AT, new Date());
+        return mongoProvider.getFromDatabaseName(server.getDatabaseName())
+                .updateFirst(new Query(Criteria.where("_id").is(ticketId)), update, Ticket.class)
+                .getMatchedCount() > 0;
+    }
+
+    // A page is a run of whole buckets, cursor is the id of the last bucket already read
+    public ReplyPage getReplies(@NotNull Server server, @NotNull String ticketId, @Nullable String cursor, int buckets) {
+        int pageBuckets = Math.clamp(buckets, 1, MAX_REPLY_BUCKETS_PER_PAGE);
+        Query query = new Query(Criteria.where(TicketField.BUCKET_TICKET_ID).is(ticketId))
+                .with(Sort.by(Sort.Direction.ASC, KeysetSort.ID_FIELD))
+                .limit(pageBuckets + 1);
+        if (cursor != null && !cursor.isBlank()) {
+            if (!ObjectId.isValid(cursor)) {
+                throw new IllegalArgumentException("Malformed reply cursor.");
+            }
+            query.addCriteria(Criteria.where(KeysetSort.ID_FIELD).gt(new ObjectId(cursor)));
+        }
+
+        List<TicketReplyBucket> found = mongoProvider.getFromDatabaseName(server.getDatabaseName()).find(query, TicketReplyBucket.class);
+        boolean hasMore = found.size() > pageBuckets;
+        if (hasMore) {
+            found = found.subList(0, found.size() - 1);
+        }
+
+        // Concurrent appends can each open a bucket, so replies are ordered by time rather than by bucket
+        List<TicketReply> replies = new ArrayList<>();
+        for (TicketReplyBucket bucket : found) {
+            replies.addAll(bucket.getReplies());
+        }
+        replies.sort(Comparator.comparing(TicketReply::createdAt));
+
+        return new ReplyPage(replies, hasMore ? found.getLast().getId() : null);
+    }
+
+    // Appends to a bucket with room left, or starts a new one once they are all full
+    private void appendReply(MongoTemplate mongo, String ticketId, TicketReply reply) {
+        Query query = new Query(Criteria.where(TicketField.BUCKET_TICKET_ID).is(ticketId)
+                .and(TicketField.BUCKET_COUNT).lt(configuration.getReplyBucketSize()));
+        Update update = new Update()
+                .push(TicketField.BUCKET_REPLIES, reply)
+                .inc(TicketField.BUCKET_COUNT, 1)
+                .min(TicketField.BUCKET_FIRST_REPLY_AT, reply.createdAt())
+                .max(TicketField.BUCKET_LAST_REPLY_AT, reply.createdAt());
+
+        mongo.upsert(query, update, TicketReplyBucket.class);
+    }
+
+    // Staff replies go to the player and the other staff on the ticket, player replies go to the staff
+    private void notifyRecipients(Server server, Ticket ticket, TicketReply reply, @Nullable String authorEmail) {
+        String excluded = authorEmail == null ? null : authorEmail.toLowerCase(Locale.ROOT);
+        String content = reply.content().length() > configuration.getMaxNotificationContentLength()
+                ? reply.content().substring(0, configuration.getMaxNotificationContentLength()) + "…"
+                : reply.content();
+
+        if (reply.staff() && ticket.getCreatorEmail() != null) {
+            String url = configuration.getPlayerTicketUrl().formatted(server.getCustomDomain(), ticket.getId(), ticket.getAccessKey());
+            notificationService.enqueue(notification(server, ticket, ticket.getCreatorEmail(), ticket.getCreatorName(), url, reply, content));
+        }
+
+        String staffUrl = configuration.getStaffTicketUrl().formatted(server.getCustomDomain(), ticket.getId());
+        for (String subscriber : ticket.getSubscribers()) {
+            if (!subscriber.equals(excluded)) {
+                notificationService.enqueue(notification(server, ticket, subscriber, subscriber, staffUrl, reply, content));
+            }
+        }
+    }
+
+    private TicketNotification notification(Server server, Ticket ticket, String recipient, String recipientName, String url,
+                                            TicketReply reply, String content) {
+        return new TicketNotification(server.getDatabaseName(), server.getServerName(), recipient, recipientName, ticket.getId(),
+                ticket.getType(), ticket.getSubject(), url, reply.authorName(), reply.staff(), content);
+    }
+
+    private static String generateId() {
+        StringBuilder id = new StringBuilder(ID_LENGTH);
+        for (int i = 0; i < ID_LENGTH; i++) {
+            id.append(ID_ALPHABET.charAt(SECURE_RANDOM.nextInt(ID_ALPHABET.length())));
+        }
+        return id.toString();
+    }
+
+    private static String generateAccessKey() {
+        byte[] bytes = new byte[ACCESS_KEY_BYTE_LENGTH];
+        SECURE_RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    public record ReplyPage(List<TicketReply> replies, @Nullable String nextCursor) {}
+}
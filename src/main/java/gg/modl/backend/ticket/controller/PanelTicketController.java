@@ -0,0 +1,103 @@
+package gg.modl.backend.ticket.controller;
+
+import gg.modl.backend.database.pagination.KeysetPage;
+import gg.modl.backend.rest.RESTMappingV1;
+import gg.modl.backend.rest.RequestUtil;
+import gg.modl.backend.server.data.Server;
+import gg.modl.backend.staff.RequiresPermission;
+import gg.modl.backend.staff.StaffPermission;
+import gg.modl.backend.ticket.TicketService;
+import gg.modl.backend.ticket.data.Ticket;
+import gg.modl.backend.ticket.data.TicketReply;
+import gg.modl.backend.ticket.data.TicketStatus;
+import gg.modl.backend.ticket.data.TicketView;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiresPermission(StaffPermission.VIEW_TICKETS)
+@RequestMapping(RESTMappingV1.PANEL_TICKETS)
+@RequiredArgsConstructor
+public class PanelTicketController {
+    private final TicketService ticketService;
+
+    @GetMapping
+    public ResponseEntity<KeysetPage<TicketView>> list(
+            HttpServletRequest request,
+            @RequestParam(value = "status", required = false) TicketStatus status,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "50") int size) {
+
+        Server server = RequestUtil.getRequestServer(request);
+        try {
+            KeysetPage<Ticket> page = ticketService.listTickets(server, status, cursor, size);
+            return ResponseEntity.ok(new KeysetPage<>(page.items().stream().map(TicketView::of).toList(), page.nextCursor()));
+        } catch (IllegalArgumentException e) {
+            // Malformed or mismatched cursor
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/{ticketId}")
+    public ResponseEntity<TicketView> get(HttpServletRequest request, @PathVariable String ticketId) {
+        Ticket ticket = ticketService.findTicket(RequestUtil.getRequestServer(request), ticketId);
+        return ticket == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(TicketView.of(ticket));
+    }
+
+    @GetMapping("/{ticketId}/replies")
+    public ResponseEntity<TicketService.ReplyPage> replies(
+            HttpServletRequest request,
+            @PathVariable String ticketId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "buckets", defaultValue = "2") int buckets) {
+
+        try {
+            return ResponseEntity.ok(ticketService.getReplies(RequestUtil.getRequestServer(request), ticketId, cursor, buckets));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @RequiresPermission(StaffPermission.REPLY_TICKETS)
+    @PostMapping("/{ticketId}/replies")
+    public ResponseEntity<TicketReply> reply(HttpServletRequest request, @PathVariable String ticketId,
+                                             @RequestBody @Valid ReplyRequest body, BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Server server = RequestUtil.getRequestServer(request);
+        String email = RequestUtil.getRequestSession(request).getEmail();
+        TicketReply reply = ticketService.addReply(server, ticketId, email, email, true, body.content);
+        return reply == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(reply);
+    }
+
+    @RequiresPermission(StaffPermission.MANAGE_TICKETS)
+    @PostMapping("/{ticketId}/status")
+    public ResponseEntity<Void> setStatus(HttpServletRequest request, @PathVariable String ticketId,
+                                          @RequestBody @Valid StatusRequest body, BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        boolean updated = ticketService.setStatus(RequestUtil.getRequestServer(request), ticketId, body.status);
+        return updated ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    public record ReplyRequest(@NotBlank @Size(max = 10_000) String content) {}
+
+    public record StatusRequest(@NotNull TicketStatus status) {}
+}
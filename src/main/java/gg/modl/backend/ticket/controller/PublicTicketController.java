@@ -0,0 +1,101 @@
+package gg.modl.backend.ticket.controller;
+
+import gg.modl.backend.rest.RESTMappingV1;
+import gg.modl.backend.rest.RequestUtil;
+import gg.modl.backend.server.data.Server;
+import gg.modl.backend.ticket.TicketService;
+import gg.modl.backend.ticket.data.Ticket;
+import gg.modl.backend.ticket.data.TicketReply;
+import gg.modl.backend.ticket.data.TicketView;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+// Players have no account, the access key handed out on creation is what lets them back into their ticket
+@RestController
+@RequestMapping(RESTMappingV1.PUBLIC_TICKETS)
+@RequiredArgsConstructor
+public class PublicTicketController {
+    private final TicketService ticketService;
+
+    @PostMapping
+    public ResponseEntity<CreateTicketResponse> create(HttpServletRequest request, @RequestBody @Valid CreateTicketRequest body,
+                                                       BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Server server = RequestUtil.getRequestServer(request);
+        Ticket ticket = ticketService.createTicket(server, body.type, body.subject, body.name, body.email, body.content);
+        return ResponseEntity.status(HttpStatus.CREATED).body(new CreateTicketResponse(ticket.getId(), ticket.getAccessKey()));
+    }
+
+    @GetMapping("/{ticketId}")
+    public ResponseEntity<TicketView> get(HttpServletRequest request, @PathVariable String ticketId, @RequestParam("key") String key) {
+        Ticket ticket = ticketService.findTicketForPlayer(RequestUtil.getRequestServer(request), ticketId, key);
+        return ticket == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(TicketView.of(ticket));
+    }
+
+    @GetMapping("/{ticketId}/replies")
+    public ResponseEntity<TicketService.ReplyPage> replies(
+            HttpServletRequest request,
+            @PathVariable String ticketId,
+            @RequestParam("key") String key,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "buckets", defaultValue = "2") int buckets) {
+
+        // Same page cap as the panel, a request past it is refused before the ticket lookup
+        if (buckets < 1 || buckets > TicketService.MAX_REPLY_BUCKETS_PER_PAGE) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Server server = RequestUtil.getRequestServer(request);
+        if (ticketService.findTicketForPlayer(server, ticketId, key) == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        try {
+            return ResponseEntity.ok(ticketService.getReplies(server, ticketId, cursor, buckets));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/{ticketId}/replies")
+    public ResponseEntity<TicketReply> reply(HttpServletRequest request, @PathVariable String ticketId, @RequestParam("key") String key,
+                                             @RequestBody @Valid PanelTicketController.ReplyRequest body, BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Server server = RequestUtil.getRequestServer(request);
+        Ticket ticket = ticketService.findTicketForPlayer(server, ticketId, key);
+        if (ticket == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        TicketReply reply = ticketService.addReply(server, ticketId, ticket.getCreatorName(), null, false, body.content());
+        return reply == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(reply);
+    }
+
+    public record CreateTicketRequest(@NotBlank @Size(max = 32) String type,
+                                      @NotBlank @Size(max = 200) String subject,
+                                      @NotBlank @Size(max = 64) String name,
+                                      @NotBlank @Email String email,
+                                      @NotBlank @Size(max = 10_000) String content) {}
+
+    public record CreateTicketResponse(String ticketId, String accessKey) {}
+}
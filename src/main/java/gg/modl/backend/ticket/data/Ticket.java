@@ -0,0 +1,51 @@
+package gg.modl.backend.ticket.data;
+
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.ticket.TicketField;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.util.Date;
+import java.util.List;
+
+// Replies live in TicketReplyBucket documents, the ticket itself only carries what lists and notifications need
+@Document(collection = CollectionName.TICKETS)
+@Data
+public class Ticket {
+    @Id
+    private String id;
+
+    @Field(TicketField.TYPE)
+    private String type;
+
+    @Field(TicketField.SUBJECT)
+    private String subject;
+
+    @Field(TicketField.STATUS)
+    private TicketStatus status;
+
+    @Field(TicketField.CREATOR_NAME)
+    private String creatorName;
+
+    @Field(TicketField.CREATOR_EMAIL)
+    private String creatorEmail;
+
+    // Lets the player who opened the ticket follow it without an account
+    @Field(TicketField.ACCESS_KEY)
+    private String accessKey;
+
+    // Staff who replied, notified when the player answers
+    @Field(TicketField.SUBSCRIBERS)
+    private List<String> subscribers;
+
+    @Field(TicketField.REPLY_COUNT)
+    private int replyCount;
+
+    @Field(TicketField.CREATED_AT)
+    private Date createdAt;
+
+    @Field(TicketField.LAST_ACTIVITY_AT)
+    private Date lastActivityAt;
+}
@@ -0,0 +1,8 @@
+package gg.modl.backend.ticket.data;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Date;
+
+public record TicketReply(@NotNull String id, @NotNull String authorName, boolean staff, @NotNull String content, @NotNull Date createdAt) {
+}
@@ -0,0 +1,34 @@
+package gg.modl.backend.ticket.data;
+
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.ticket.TicketField;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.util.Date;
+import java.util.List;
+
+// A slice of a ticket's thread, appending a reply is one update and reading a thread is a handful of documents
+@Document(collection = CollectionName.TICKET_REPLY_BUCKETS)
+@Data
+public class TicketReplyBucket {
+    @Id
+    private String id;
+
+    @Field(TicketField.BUCKET_TICKET_ID)
+    private String ticketId;
+
+    @Field(TicketField.BUCKET_COUNT)
+    private int count;
+
+    @Field(TicketField.BUCKET_REPLIES)
+    private List<TicketReply> replies;
+
+    @Field(TicketField.BUCKET_FIRST_REPLY_AT)
+    private Date firstReplyAt;
+
+    @Field(TicketField.BUCKET_LAST_REPLY_AT)
+    private Date lastReplyAt;
+}
@@ -0,0 +1,6 @@
+package gg.modl.backend.ticket.data;
+
+public enum TicketStatus {
+    OPEN,
+    CLOSED
+}
@@ -0,0 +1,12 @@
+package gg.modl.backend.ticket.data;
+
+import java.util.Date;
+
+// What is sent to clients, leaves out the access key and the staff subscriber list
+public record TicketView(String id, String type, String subject, TicketStatus status, String creatorName, int replyCount,
+                         Date createdAt, Date lastActivityAt) {
+    public static TicketView of(Ticket ticket) {
+        return new TicketView(ticket.getId(), ticket.getType(), ticket.getSubject(), ticket.getStatus(), ticket.getCreatorName(),
+                ticket.getReplyCount(), ticket.getCreatedAt(), ticket.getLastActivityAt());
+    }
+}
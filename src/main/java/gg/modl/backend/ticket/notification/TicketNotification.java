@@ -0,0 +1,16 @@
+package gg.modl.backend.ticket.notification;
+
+import org.jetbrains.annotations.NotNull;
+
+public record TicketNotification(@NotNull String databaseName,
+                                 @NotNull String serverName,
+                                 @NotNull String recipient,
+                                 @NotNull String recipientName,
+                                 @NotNull String ticketId,
+                                 @NotNull String ticketType,
+                                 @NotNull String ticketSubject,
+                                 @NotNull String ticketUrl,
+                                 @NotNull String replyAuthor,
+                                 boolean staffReply,
+                                 @NotNull String replyContent) {
+}
@@ -0,0 +1,26 @@
+package gg.modl.backend.ticket.notification;
+
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.database.GlobalIndexInitializer;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TicketNotificationIndexInitializer implements GlobalIndexInitializer {
+    @Override
+    public void ensureIndexes(@NotNull MongoTemplate mongo) {
+        // At most one open window per key, documents already being sent do not count
+        mongo.indexOps(CollectionName.TICKET_NOTIFICATIONS).createIndex(new Index()
+                .on(TicketNotificationService.KEY, Sort.Direction.ASC)
+                .unique()
+                .partial(PartialIndexFilter.of(Criteria.where(TicketNotificationService.STATE).is(TicketNotificationService.STATE_PENDING))));
+        mongo.indexOps(CollectionName.TICKET_NOTIFICATIONS).createIndex(new Index()
+                .on(TicketNotificationService.STATE, Sort.Direction.ASC)
+                .on(TicketNotificationService.SEND_AFTER, Sort.Direction.ASC));
+    }
+}
@@ -0,0 +1,241 @@
+package gg.modl.backend.ticket.notification;
+
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.database.DynamicMongoTemplateProvider;
+import gg.modl.backend.email.EmailHTMLTemplate;
+import gg.modl.backend.email.EmailService;
+import gg.modl.backend.ticket.TicketConfiguration;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Replies are collected in a shared outbox document per tenant, ticket and recipient. The first reply opens a window,
+// later ones join the same document, and a worker on whichever node claims it sends one email when the window closes.
+// Reply requests only ever pay for one upsert, never for SMTP
+@Service
+@Slf4j
+public class TicketNotificationService {
+    static final String KEY = "key";
+    static final String STATE = "state";
+    static final String STATE_PENDING = "pending";
+    static final String SEND_AFTER = "sendAfter";
+    private static final String STATE_SENDING = "sending";
+    private static final String CLAIMED_AT = "claimedAt";
+    private static final String SEND_ID = "sendId";
+    private static final String SENT_AT = "sentAt";
+    private static final String ATTEMPTS = "attempts";
+    private static final String RECIPIENT = "recipient";
+    private static final String RECIPIENT_NAME = "recipientName";
+    private static final String SERVER_NAME = "serverName";
+    private static final String TICKET_ID = "ticketId";
+    private static final String TICKET_TYPE = "ticketType";
+    private static final String TICKET_SUBJECT = "ticketSubject";
+    private static final String TICKET_URL = "ticketUrl";
+    private static final String REPLIES = "replies";
+    private static final String REPLY_COUNT = "replyCount";
+    private static final String REPLY_AUTHOR = "author";
+    private static final String REPLY_STAFF = "staff";
+    private static final String REPLY_CONTENT = "content";
+
+    private final TicketConfiguration configuration;
+    private final DynamicMongoTemplateProvider mongoProvider;
+    private final EmailService emailService;
+    private final ExecutorService executor;
+    private final Semaphore capacity;
+    private final AtomicBoolean polling = new AtomicBoolean();
+
+    public TicketNotificationService(TicketConfiguration configuration, DynamicMongoTemplateProvider mongoProvider, EmailService emailService) {
+        this.configuration = configuration;
+        this.mongoProvider = mongoProvider;
+        this.emailService = emailService;
+        this.executor = Executors.newFixedThreadPool(configuration.getNotificationWorkers());
+        this.capacity = new Semaphore(configuration.getNotificationWorkers());
+    }
+
+    public void enqueue(@NotNull TicketNotification notification) {
+        MongoTemplate mongo = mongoProvider.getGlobalDatabase();
+
+        String key = String.join("|", notification.databaseName(), notification.ticketId(), notification.recipient());
+        Query query = new Query(Criteria.where(KEY).is(key).and(STATE).is(STATE_PENDING));
+        Update update = new Update()
+                .setOnInsert(SEND_AFTER, new Date(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(configuration.getNotificationWindowSeconds())))
+                .setOnInsert(ATTEMPTS, 0)
+                .setOnInsert(RECIPIENT, notification.recipient())
+                .set(RECIPIENT_NAME, notification.recipientName())
+                .set(SERVER_NAME, notification.serverName())
+                .set(TICKET_ID, notification.ticketId())
+                .set(TICKET_TYPE, notification.ticketType())
+                .set(TICKET_SUBJECT, notification.ticketSubject())
+                .set(TICKET_URL, notification.ticketUrl())
+                .inc(REPLY_COUNT, 1);
+        // Only the latest replies are kept for the email, the count still reflects all of them
+        update.push(REPLIES).slice(-configuration.getNotificationMaxReplies()).each(new Document(REPLY_AUTHOR, notification.replyAuthor())
+                .append(REPLY_STAFF, notification.staffReply())
+                .append(REPLY_CONTENT, notification.replyContent()));
+
+        try {
+            mongo.upsert(query, update, CollectionName.TICKET_NOTIFICATIONS);
+        } catch (DuplicateKeyException e) {
+            // Another node opened the window at the same moment, the retry joins its document
+            mongo.upsert(query, update, CollectionName.TICKET_NOTIFICATIONS);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${modl.tickets.notification-poll-interval-millis:2000}")
+    public void poll() {
+        if (!polling.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            while (capacity.tryAcquire()) {
+                Document notification = claimNext();
+                if (notification == null) {
+                    capacity.release();
+                    return;
+                }
+
+                executor.execute(() -> {
+                    try {
+                        send(notification);
+                    } finally {
+                        capacity.release();
+                    }
+                });
+            }
+        } finally {
+            polling.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // Also reclaims notifications left in sending by a node that died before finishing them. The send id is given out
+    // on the first claim and kept through retries and reclaims, so every attempt at one email carries the same id
+    @Nullable
+    private Document claimNext() {
+        Date now = new Date();
+        Date staleBefore = new Date(now.getTime() - TimeUnit.SECONDS.toMillis(configuration.getNotificationStaleAfterSeconds()));
+
+        Criteria claimable = new Criteria().orOperator(
+                Criteria.where(STATE).is(STATE_PENDING).and(SEND_AFTER).lte(now),
+                Criteria.where(STATE).is(STATE_SENDING).and(CLAIMED_AT).lt(staleBefore)
+        );
+
+        // Once claimed the document is no longer pending, so replies arriving now open a fresh window instead of being lost
+        AggregationUpdate update = AggregationUpdate.update()
+                .set(STATE).toValue(STATE_SENDING)
+                .set(CLAIMED_AT).toValue(now)
+                .set(SEND_ID).toValue(ConditionalOperators.ifNull(SEND_ID).then(UUID.randomUUID().toString()));
+        return mongoProvider.getGlobalDatabase().findAndModify(new Query(claimable).with(Sort.by(Sort.Direction.ASC, SEND_AFTER)),
+                update, FindAndModifyOptions.options().returnNew(true), Document.class, CollectionName.TICKET_NOTIFICATIONS);
+    }
+
+    private void send(Document notification) {
+        Query byId = new Query(Criteria.where("_id").is(notification.get("_id")));
+        MongoTemplate mongo = mongoProvider.getGlobalDatabase();
+
+        // Sent by a node that failed to remove it afterwards
+        if (notification.get(SENT_AT) != null) {
+            mongo.remove(byId, CollectionName.TICKET_NOTIFICATIONS);
+            return;
+        }
+
+        try {
+            emailService.send(notification.getString(RECIPIENT), buildEmail(notification), notification.getString(SEND_ID));
+        } catch (Exception e) {
+            int attempts = notification.getInteger(ATTEMPTS, 0) + 1;
+            if (attempts >= configuration.getNotificationMaxAttempts()) {
+                log.error("Giving up on ticket notification for ticket {} after {} attempts", notification.getString(TICKET_ID), attempts, e);
+                mongo.remove(byId, CollectionName.TICKET_NOTIFICATIONS);
+                return;
+            }
+
+            log.warn("Failed to send ticket notification for ticket {}, retrying later", notification.getString(TICKET_ID), e);
+            requeue(mongo, notification, byId, attempts);
+            return;
+        }
+
+        // Kept apart from the send, a failure here must not requeue an email that already went out. Should both writes
+        // fail the row is reclaimed once stale and resent under the same Message-ID
+        try {
+            mongo.updateFirst(byId, new Update().set(SENT_AT, new Date()), CollectionName.TICKET_NOTIFICATIONS);
+            mongo.remove(byId, CollectionName.TICKET_NOTIFICATIONS);
+        } catch (RuntimeException e) {
+            log.warn("Sent ticket notification for ticket {} but could not remove it", notification.getString(TICKET_ID), e);
+        }
+    }
+
+    private void requeue(MongoTemplate mongo, Document notification, Query byId, int attempts) {
+        Date retryAt = new Date(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(configuration.getNotificationRetryDelaySeconds()));
+        try {
+            mongo.updateFirst(byId, new Update()
+                    .set(STATE, STATE_PENDING)
+                    .set(SEND_AFTER, retryAt)
+                    .set(ATTEMPTS, attempts)
+                    .unset(CLAIMED_AT), CollectionName.TICKET_NOTIFICATIONS);
+        } catch (DuplicateKeyException e) {
+            // Newer replies already opened a window of their own, fold these into it so nothing is sent twice
+            Update merge = new Update().inc(REPLY_COUNT, notification.getInteger(REPLY_COUNT, 0));
+            merge.push(REPLIES).slice(-configuration.getNotificationMaxReplies()).atPosition(0)
+                    .each(notification.getList(REPLIES, Document.class, List.of()).toArray());
+            mongo.updateFirst(new Query(Criteria.where(KEY).is(notification.getString(KEY)).and(STATE).is(STATE_PENDING)),
+                    merge, CollectionName.TICKET_NOTIFICATIONS);
+            mongo.remove(byId, CollectionName.TICKET_NOTIFICATIONS);
+        }
+    }
+
+    // Everything here was typed by players or staff, so it is escaped before it goes into the HTML
+    private EmailHTMLTemplate.HTMLEmail buildEmail(Document notification) {
+        String serverName = HtmlUtils.htmlEscape(notification.getString(SERVER_NAME));
+        String recipientName = HtmlUtils.htmlEscape(notification.getString(RECIPIENT_NAME));
+        String ticketType = HtmlUtils.htmlEscape(notification.getString(TICKET_TYPE));
+        String ticketId = notification.getString(TICKET_ID);
+        String ticketSubject = HtmlUtils.htmlEscape(notification.getString(TICKET_SUBJECT));
+        String ticketUrl = HtmlUtils.htmlEscape(notification.getString(TICKET_URL));
+        int replyCount = notification.getInteger(REPLY_COUNT, 0);
+
+        List<EmailHTMLTemplate.TicketReplyEntry> replies = new ArrayList<>();
+        for (Document reply : notification.getList(REPLIES, Document.class, List.of())) {
+            replies.add(new EmailHTMLTemplate.TicketReplyEntry(
+                    HtmlUtils.htmlEscape(reply.getString(REPLY_AUTHOR)),
+                    reply.getBoolean(REPLY_STAFF, false),
+                    HtmlUtils.htmlEscape(reply.getString(REPLY_CONTENT))));
+        }
+
+        if (replyCount == 1 && replies.size() == 1) {
+            EmailHTMLTemplate.TicketReplyEntry reply = replies.getFirst();
+            return EmailHTMLTemplate.TICKET_REPLY_TEMPLATE.build(serverName, recipientName, reply.staff(), ticketType, ticketId,
+                    ticketSubject, reply.author(), reply.content(), ticketUrl);
+        }
+        return EmailHTMLTemplate.TICKET_REPLY_DIGEST_TEMPLATE.build(serverName, recipientName, ticketType, ticketId, ticketSubject,
+                replyCount, replies, ticketUrl);
+    }
+}
@@ -0,0 +1,19 @@
+package gg.modl.backend.usage;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "modl.usage")
+@Getter
+@Setter
+public class UsageConfiguration {
+    // Has to be a persistent volume, a WAL on the container filesystem loses its unflushed usage with the pod
+    private String walDirectory;
+    private long walIntervalMillis = 1000;
+    private long flushIntervalMillis = 30_000;
+    // A WAL that has not flushed for this long is assumed gone, its replay mark on each server is dropped
+    private int flushMarkRetentionDays = 30;
+}
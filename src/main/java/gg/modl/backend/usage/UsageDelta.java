@@ -0,0 +1,9 @@
+package gg.modl.backend.usage;
+
+import org.jetbrains.annotations.NotNull;
+
+public record UsageDelta(@NotNull String serverId, long aiRequests, long cdnBytes) {
+    public UsageDelta plus(UsageDelta other) {
+        return new UsageDelta(serverId, aiRequests + other.aiRequests, cdnBytes + other.cdnBytes);
+    }
+}
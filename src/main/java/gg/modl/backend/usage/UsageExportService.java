@@ -0,0 +1,67 @@
+package gg.modl.backend.usage;
+
+import gg.modl.backend.database.CollectionName;
+import gg.modl.backend.database.DynamicMongoTemplateProvider;
+import gg.modl.backend.database.ReadRoute;
+import gg.modl.backend.server.ServerField;
+import gg.modl.backend.server.data.Server;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class UsageExportService {
+    private final DynamicMongoTemplateProvider mongoProvider;
+    private final UsageMeteringService meteringService;
+
+    // Flushes this node's pending counts first so the export matches what has been metered here.
+    // Other nodes contribute whatever they flushed within their own flush interval.
+    // The flush and the read share a causal session, so a lagging secondary cannot serve counters from before the flush
+    public List<UsageRecord> exportCurrentPeriod() {
+        return mongoProvider.withCausalSession(DynamicMongoTemplateProvider.GLOBAL_DATABASE_NAME, ReadRoute.SECONDARY_PREFERRED, mongo -> {
+            meteringService.flushToDatabase(mongo);
+            return findUsage(mongo);
+        });
+    }
+
+    private List<UsageRecord> findUsage(MongoTemplate mongo) {
+        Query query = new Query(Criteria.where(ServerField.USAGE_BILLING_ENABLED).is(true));
+        query.fields().include(
+                ServerField.SERVER_NAME,
+                ServerField.SUBDOMAIN,
+                ServerField.STRIPE_CUSTOMER_ID,
+                ServerField.STRIPE_SUBSCRIPTION_ID,
+                ServerField.CURRENT_PERIOD_START,
+                ServerField.CURRENT_PERIOD_END,
+                ServerField.AI_REQUESTS_CURRENT_PERIOD,
+                ServerField.CDN_USAGE_CURRENT_PERIOD
+        );
+
+        return mongo.find(query, Server.class, CollectionName.MODL_SERVERS).stream()
+                .map(server -> new UsageRecord(
+                        server.getId(),
+                        server.getStripeCustomerId(),
+                        server.getStripeSubscriptionId(),
+                        server.getCurrentPeriodStart(),
+                        server.getCurrentPeriodEnd(),
+                        server.getAiRequestsCurrentPeriod() == null ? 0 : server.getAiRequestsCurrentPeriod(),
+                        server.getCdnUsageCurrentPeriod() == null ? 0 : server.getCdnUsageCurrentPeriod()
+                ))
+                .toList();
+    }
+
+    public record UsageRecord(String serverId,
+                              @Nullable String stripeCustomerId,
+                              @Nullable String stripeSubscriptionId,
+                              @Nullable Date periodStart,
+                              @Nullable Date periodEnd,
+                              long aiRequests,
+                              double cdnUsageGb) {}
+}
@@ -0,0 +1,158 @@
+package gg.modl.backend.usage;
+
+import gg.modl.backend.database.DynamicMongoTemplateProvider;
+import gg.modl.backend.server.ServerField;
+import gg.modl.backend.server.data.Server;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+@Slf4j
+public class UsageMeteringService {
+    private static final double BYTES_PER_GB = 1_000_000_000D;
+
+    private final UsageConfiguration configuration;
+    private final DynamicMongoTemplateProvider mongoProvider;
+    private final UsageWriteAheadLog writeAheadLog;
+    private final ConcurrentMap<String, TenantCounters> counters = new ConcurrentHashMap<>();
+
+    public UsageMeteringService(UsageConfiguration configuration, DynamicMongoTemplateProvider mongoProvider) {
+        this.configuration = configuration;
+        this.mongoProvider = mongoProvider;
+        if (configuration.getWalDirectory() == null || configuration.getWalDirectory().isBlank()) {
+            throw new IllegalStateException("modl.usage.wal-directory must be set to a persistent volume.");
+        }
+        this.writeAheadLog = new UsageWriteAheadLog(Path.of(configuration.getWalDirectory()));
+    }
+
+    public void recordAiRequest(@NotNull Server server) {
+        getCounters(server).aiRequests.increment();
+    }
+
+    public void recordCdnBytes(@NotNull Server server, long bytes) {
+        if (bytes > 0) {
+            getCounters(server).cdnBytes.add(bytes);
+        }
+    }
+
+    private TenantCounters getCounters(Server server) {
+        TenantCounters tenantCounters = counters.get(server.getId());
+        if (tenantCounters == null) {
+            tenantCounters = counters.computeIfAbsent(server.getId(), __ -> new TenantCounters());
+        }
+        return tenantCounters;
+    }
+
+    // Bounds what a crash can lose to one WAL interval instead of one database flush interval
+    @Scheduled(fixedDelayString = "${modl.usage.wal-interval-millis:1000}")
+    public synchronized void drainToLog() {
+        List<UsageDelta> deltas = new ArrayList<>();
+
+        for (Map.Entry<String, TenantCounters> entry : counters.entrySet()) {
+            long aiRequests = entry.getValue().aiRequests.sumThenReset();
+            long cdnBytes = entry.getValue().cdnBytes.sumThenReset();
+
+            if (aiRequests != 0 || cdnBytes != 0) {
+                deltas.add(new UsageDelta(entry.getKey(), aiRequests, cdnBytes));
+            }
+        }
+
+        if (!deltas.isEmpty()) {
+            writeAheadLog.appendSegment(deltas);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${modl.usage.flush-interval-millis:30000}")
+    public void flushToDatabase() {
+        flushToDatabase(mongoProvider.getGlobalDatabase());
+    }
+
+    // Callers pass a session bound template when they read the flushed counters back right after
+    public synchronized void flushToDatabase(@NotNull MongoTemplate mongo) {
+        drainToLog();
+
+        UsageWriteAheadLog.Batch batch = writeAheadLog.compact();
+        if (batch == null || batch.deltas().isEmpty()) {
+            if (batch != null) {
+                writeAheadLog.deleteBatch(batch.sequence());
+            }
+            return;
+        }
+
+        try {
+            applyBatch(mongo, batch);
+            writeAheadLog.deleteBatch(batch.sequence());
+        } catch (RuntimeException e) {
+            // The batch stays on disk and is retried as is on the next flush
+            log.warn("Failed to flush usage batch {} to the database", batch.sequence(), e);
+        }
+    }
+
+    // Batch sequences are wall clock millis, so a mark's value is when its WAL last flushed. Marks of logs that have not
+    // flushed within the retention are dropped, otherwise every volume ever attached would keep one on every server
+    @Scheduled(fixedDelayString = "${modl.usage.flush-mark-prune-interval-millis:3600000}")
+    public void pruneFlushMarks() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(configuration.getFlushMarkRetentionDays());
+        Document liveMarks = new Document("$arrayToObject", new Document("$filter", new Document()
+                .append("input", new Document("$objectToArray", "$" + ServerField.USAGE_FLUSH_MARKS))
+                .append("cond", new Document("$gte", List.of("$$this.v", cutoff)))));
+
+        mongoProvider.getGlobalDatabase().updateMulti(new Query(Criteria.where(ServerField.USAGE_FLUSH_MARKS).exists(true)),
+                AggregationUpdate.update().set(ServerField.USAGE_FLUSH_MARKS).toValue(context -> liveMarks), Server.class);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushToDatabase();
+    }
+
+    // Each server remembers the last batch this WAL applied to it, so replaying a batch after a crash
+    // between the bulk write and the batch deletion does not count anything twice
+    private void applyBatch(MongoTemplate mongo, UsageWriteAheadLog.Batch batch) {
+        String markField = ServerField.USAGE_FLUSH_MARKS + "." + writeAheadLog.getLogId();
+        Date now = new Date();
+
+        BulkOperations bulk = mongo.bulkOps(BulkOperations.BulkMode.UNORDERED, Server.class);
+        for (UsageDelta delta : batch.deltas()) {
+            Query query = new Query(new Criteria().andOperator(
+                    Criteria.where("_id").is(delta.serverId()),
+                    Criteria.where(markField).not().gte(batch.sequence())
+            ));
+
+            Update update = new Update()
+                    .inc(ServerField.AI_REQUESTS_CURRENT_PERIOD, delta.aiRequests())
+                    .inc(ServerField.CDN_USAGE_CURRENT_PERIOD, delta.cdnBytes() / BYTES_PER_GB)
+                    .set(markField, batch.sequence())
+                    .set(ServerField.USAGE_BILLING_UPDATED_AT, now);
+
+            bulk.updateOne(query, update);
+        }
+
+        bulk.execute();
+    }
+
+    private static class TenantCounters {
+        private final LongAdder aiRequests = new LongAdder();
+        private final LongAdder cdnBytes = new LongAdder();
+    }
+}
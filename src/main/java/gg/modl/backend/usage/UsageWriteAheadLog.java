@@ -0,0 +1,180 @@
+package gg.modl.backend.usage;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+// Usage deltas are appended here as small fsynced segment files before they are counted in Mongo.
+// Before a database flush all segments are merged into a single batch file, which is only deleted once applied.
+public class UsageWriteAheadLog {
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String BATCH_PREFIX = "batch-";
+    private static final String SUFFIX = ".wal";
+    private static final String LOG_ID_FILE = "log-id";
+
+    private final Path directory;
+    private final String logId;
+    private long lastSequence;
+
+    public UsageWriteAheadLog(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create usage WAL directory " + directory, e);
+        }
+        this.logId = readOrCreateLogId();
+        this.lastSequence = listFiles().stream().mapToLong(UsageWriteAheadLog::sequenceOf).max().orElse(0);
+    }
+
+    // Generated once and stored next to the segments, so it names this log for as long as its volume exists, however
+    // often the pod using it is rescheduled or renamed
+    public String getLogId() {
+        return logId;
+    }
+
+    public synchronized void appendSegment(Collection<UsageDelta> deltas) {
+        // Wall clock based so sequences keep increasing across restarts
+        long sequence = Math.max(lastSequence + 1, System.currentTimeMillis());
+        write(SEGMENT_PREFIX, sequence, deltas);
+        lastSequence = sequence;
+    }
+
+    // A batch left over from a failed flush is returned as is, new segments wait for the next one
+    @Nullable
+    public synchronized Batch compact() {
+        List<Path> files = listFiles();
+
+        for (Path file : files) {
+            if (file.getFileName().toString().startsWith(BATCH_PREFIX)) {
+                long sequence = sequenceOf(file);
+                deleteSegmentsUpTo(files, sequence);
+                return new Batch(sequence, read(file));
+            }
+        }
+
+        List<Path> segments = files.stream().filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX)).toList();
+        if (segments.isEmpty()) {
+            return null;
+        }
+
+        Map<String, UsageDelta> merged = new LinkedHashMap<>();
+        long sequence = 0;
+        for (Path segment : segments) {
+            sequence = Math.max(sequence, sequenceOf(segment));
+            for (UsageDelta delta : read(segment)) {
+                merged.merge(delta.serverId(), delta, UsageDelta::plus);
+            }
+        }
+
+        write(BATCH_PREFIX, sequence, merged.values());
+        deleteSegmentsUpTo(segments, sequence);
+        return new Batch(sequence, new ArrayList<>(merged.values()));
+    }
+
+    public synchronized void deleteBatch(long sequence) {
+        delete(directory.resolve(BATCH_PREFIX + sequence + SUFFIX));
+    }
+
+    private void write(String prefix, long sequence, Collection<UsageDelta> deltas) {
+        StringBuilder content = new StringBuilder();
+        for (UsageDelta delta : deltas) {
+            content.append(delta.serverId()).append(' ')
+                    .append(delta.aiRequests()).append(' ')
+                    .append(delta.cdnBytes()).append('\n');
+        }
+
+        Path target = directory.resolve(prefix + sequence + SUFFIX);
+        Path temporary = directory.resolve(prefix + sequence + SUFFIX + ".tmp");
+
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                channel.write(StandardCharsets.UTF_8.encode(content.toString()));
+                channel.force(true);
+            }
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write usage WAL file " + target, e);
+        }
+    }
+
+    private String readOrCreateLogId() {
+        Path file = directory.resolve(LOG_ID_FILE);
+        Path temporary = directory.resolve(LOG_ID_FILE + ".tmp");
+        try {
+            if (Files.exists(file)) {
+                return Files.readString(file, StandardCharsets.UTF_8).trim();
+            }
+
+            String id = UUID.randomUUID().toString();
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                channel.write(StandardCharsets.UTF_8.encode(id));
+                channel.force(true);
+            }
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+            return id;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read or create usage WAL id in " + directory, e);
+        }
+    }
+
+    private List<UsageDelta> read(Path file) {
+        try {
+            List<UsageDelta> deltas = new ArrayList<>();
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String[] parts = line.split(" ");
+                if (parts.length == 3) {
+                    deltas.add(new UsageDelta(parts[0], Long.parseLong(parts[1]), Long.parseLong(parts[2])));
+                }
+            }
+            return deltas;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read usage WAL file " + file, e);
+        }
+    }
+
+    private void deleteSegmentsUpTo(List<Path> files, long sequence) {
+        for (Path file : files) {
+            if (file.getFileName().toString().startsWith(SEGMENT_PREFIX) && sequenceOf(file) <= sequence) {
+                delete(file);
+            }
+        }
+    }
+
+    private void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete usage WAL file " + file, e);
+        }
+    }
+
+    private List<Path> listFiles() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list usage WAL directory " + directory, e);
+        }
+    }
+
+    private static long sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(name.indexOf('-') + 1, name.length() - SUFFIX.length()));
+    }
+
+    public record Batch(long sequence, List<UsageDelta> deltas) {}
+}
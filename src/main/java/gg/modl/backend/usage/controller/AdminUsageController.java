@@ -0,0 +1,23 @@
+package gg.modl.backend.usage.controller;
+
+import gg.modl.backend.rest.RESTMappingV1;
+import gg.modl.backend.usage.UsageExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(RESTMappingV1.ADMIN_USAGE)
+@RequiredArgsConstructor
+public class AdminUsageController {
+    private final UsageExportService usageExportService;
+
+    @GetMapping("/export")
+    public ResponseEntity<List<UsageExportService.UsageRecord>> export() {
+        return ResponseEntity.ok(usageExportService.exportCurrentPeriod());
+    }
+}